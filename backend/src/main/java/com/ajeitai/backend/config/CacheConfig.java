@@ -1,10 +1,24 @@
 package com.ajeitai.backend.config;
 
-import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import com.ajeitai.backend.infra.cache.BarramentoInvalidacao;
+import com.ajeitai.backend.infra.cache.CacheManagerDuasCamadas;
+import com.ajeitai.backend.infra.cache.ConfiguracaoCacheL1;
+import com.ajeitai.backend.infra.cache.LocalBarramentoInvalidacao;
+import com.ajeitai.backend.infra.cache.LocalTravaCarregamento;
+import com.ajeitai.backend.infra.cache.RedisBarramentoInvalidacao;
+import com.ajeitai.backend.infra.cache.RedisTravaCarregamento;
+import com.ajeitai.backend.infra.cache.TravaCarregamento;
+import com.ajeitai.backend.service.catalogo.MemoriaRegistroChavesCatalogo;
+import com.ajeitai.backend.service.catalogo.MemoriaVersoesCatalogo;
+import com.ajeitai.backend.service.catalogo.RedisRegistroChavesCatalogo;
+import com.ajeitai.backend.service.catalogo.RedisVersoesCatalogo;
+import com.ajeitai.backend.service.catalogo.RegistroChavesCatalogo;
+import com.ajeitai.backend.service.catalogo.VersoesCatalogo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
@@ -16,36 +30,141 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * Caches do catálogo. Como as entradas são invalidadas por eventos de domínio
+ * ({@code InvalidadorCacheCatalogo}), os TTLs servem só de rede de segurança e podem ser longos.
+ * O L1 local é limitado por peso para que chaves com coordenadas distintas não cresçam o heap sem limite;
+ * entradas em bytes (respostas JSON prontas) pesam por KiB.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     public static final String CACHE_CATALOGO_LISTA = "catalogo-lista";
     public static final String CACHE_CATALOGO_DETALHE = "catalogo-detalhe";
+    /** Respostas JSON prontas da listagem sem coordenadas; mesmas chaves de {@link #CACHE_CATALOGO_LISTA}. */
+    public static final String CACHE_CATALOGO_LISTA_JSON = "catalogo-lista-json";
+    /** Bitset dos horários livres de um prestador em um dia (chave {@code prestadorId:data}). */
+    public static final String CACHE_CATALOGO_HORARIOS = "catalogo-horarios";
 
+    @Value("${app.cache.redis.enabled:false}")
+    private boolean redisHabilitado;
+
+    @Value("${app.cache.catalogo-lista-ttl:PT6H}")
+    private Duration ttlCatalogoLista;
+
+    @Value("${app.cache.catalogo-detalhe-ttl:PT12H}")
+    private Duration ttlCatalogoDetalhe;
+
+    @Value("${app.cache.catalogo-horarios-ttl:PT30M}")
+    private Duration ttlCatalogoHorarios;
+
+    @Value("${app.cache.l1.catalogo-lista.peso-maximo:50000}")
+    private long pesoMaximoL1CatalogoLista;
+
+    @Value("${app.cache.l1.catalogo-lista.ttl:PT10M}")
+    private Duration ttlL1CatalogoLista;
+
+    @Value("${app.cache.l1.catalogo-lista-json.peso-maximo:20000}")
+    private long pesoMaximoL1CatalogoListaJson;
+
+    @Value("${app.cache.l1.catalogo-detalhe.peso-maximo:10000}")
+    private long pesoMaximoL1CatalogoDetalhe;
+
+    @Value("${app.cache.l1.catalogo-detalhe.ttl:PT30M}")
+    private Duration ttlL1CatalogoDetalhe;
+
+    @Value("${app.cache.l1.catalogo-detalhe.refresh-apos:PT25M}")
+    private Duration refreshL1CatalogoDetalhe;
+
+    @Value("${app.cache.l1.catalogo-horarios.peso-maximo:20000}")
+    private long pesoMaximoL1CatalogoHorarios;
+
+    @Value("${app.cache.l1.catalogo-horarios.ttl:PT5M}")
+    private Duration ttlL1CatalogoHorarios;
+
+    @Value("${app.cache.trava.validade:PT5S}")
+    private Duration validadeTrava;
+
+    /**
+     * L1 Caffeine por instância na frente do Redis (L2), quando app.cache.redis.enabled=true.
+     * Em dev e testes (sem Redis) só o L1.
+     */
     @Bean
-    @ConditionalOnBean(RedisConnectionFactory.class)
-    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(ObjectProvider<RedisConnectionFactory> connectionFactory,
+                                     BarramentoInvalidacao barramento,
+                                     TravaCarregamento trava,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, ConfiguracaoCacheL1> l1 = new LinkedHashMap<>();
+        l1.put(CACHE_CATALOGO_LISTA, new ConfiguracaoCacheL1(pesoMaximoL1CatalogoLista, ttlL1CatalogoLista));
+        l1.put(CACHE_CATALOGO_LISTA_JSON, new ConfiguracaoCacheL1(pesoMaximoL1CatalogoListaJson, ttlL1CatalogoLista));
+        l1.put(CACHE_CATALOGO_DETALHE, new ConfiguracaoCacheL1(pesoMaximoL1CatalogoDetalhe, ttlL1CatalogoDetalhe,
+                refreshL1CatalogoDetalhe));
+        l1.put(CACHE_CATALOGO_HORARIOS, new ConfiguracaoCacheL1(pesoMaximoL1CatalogoHorarios, ttlL1CatalogoHorarios));
+
+        RedisConnectionFactory redis = redis(connectionFactory);
+        return new CacheManagerDuasCamadas(l1, redis != null ? redisCacheManager(redis) : null,
+                barramento, trava, validadeTrava, meterRegistry.getIfAvailable());
+    }
+
+    /** Fábrica do Redis quando app.cache.redis.enabled=true e o Redis está configurado; senão null. */
+    private RedisConnectionFactory redis(ObjectProvider<RedisConnectionFactory> connectionFactory) {
+        return redisHabilitado ? connectionFactory.getIfAvailable() : null;
+    }
+
+    private RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(5))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
 
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-        cacheConfigurations.put(CACHE_CATALOGO_LISTA, defaultConfig.entryTtl(Duration.ofMinutes(3)));
-        cacheConfigurations.put(CACHE_CATALOGO_DETALHE, defaultConfig.entryTtl(Duration.ofMinutes(5)));
+        cacheConfigurations.put(CACHE_CATALOGO_LISTA, defaultConfig.entryTtl(ttlCatalogoLista));
+        // Respostas JSON já serializadas: gravadas como bytes, sem metadados de tipo
+        RedisCacheConfiguration bytes = defaultConfig.serializeValuesWith(RedisSerializationContext.SerializationPair.byteArray());
+        cacheConfigurations.put(CACHE_CATALOGO_LISTA_JSON, bytes.entryTtl(ttlCatalogoLista));
+        cacheConfigurations.put(CACHE_CATALOGO_DETALHE, bytes.entryTtl(ttlCatalogoDetalhe));
+        cacheConfigurations.put(CACHE_CATALOGO_HORARIOS, bytes.entryTtl(ttlCatalogoHorarios));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager manager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
+        manager.initializeCaches();
+        return manager;
+    }
+
+    /**
+     * Invalidações entre réplicas pelo Redis pub/sub, ou só na própria instância sem Redis. A escolha é a mesma do
+     * {@link #cacheManager}: {@code @ConditionalOnBean} numa configuração da aplicação é avaliado antes da
+     * autoconfiguração do Redis e nunca veria a fábrica de conexões.
+     */
+    @Bean
+    public BarramentoInvalidacao barramentoInvalidacao(ObjectProvider<RedisConnectionFactory> connectionFactory) {
+        RedisConnectionFactory redis = redis(connectionFactory);
+        return redis != null ? new RedisBarramentoInvalidacao(redis) : new LocalBarramentoInvalidacao();
+    }
+
+    @Bean
+    public TravaCarregamento travaCarregamento(ObjectProvider<RedisConnectionFactory> connectionFactory) {
+        RedisConnectionFactory redis = redis(connectionFactory);
+        return redis != null ? new RedisTravaCarregamento(redis) : new LocalTravaCarregamento();
+    }
+
+    /** Chaves de listagem por prestador no Redis, ao lado do L2 que elas endereçam, ou na instância sem Redis. */
+    @Bean
+    public RegistroChavesCatalogo registroChavesCatalogo(ObjectProvider<RedisConnectionFactory> connectionFactory) {
+        RedisConnectionFactory redis = redis(connectionFactory);
+        return redis != null ? new RedisRegistroChavesCatalogo(redis, ttlCatalogoLista) : new MemoriaRegistroChavesCatalogo();
     }
 
+    /** Versões dos ETags no Redis, iguais em todas as réplicas, ou na instância sem Redis. */
     @Bean
-    @ConditionalOnMissingBean(CacheManager.class)
-    public CacheManager inMemoryCacheManager() {
-        return new ConcurrentMapCacheManager(CACHE_CATALOGO_LISTA, CACHE_CATALOGO_DETALHE);
+    public VersoesCatalogo versoesCatalogo(ObjectProvider<RedisConnectionFactory> connectionFactory) {
+        RedisConnectionFactory redis = redis(connectionFactory);
+        return redis != null ? new RedisVersoesCatalogo(redis) : new MemoriaVersoesCatalogo();
     }
 }
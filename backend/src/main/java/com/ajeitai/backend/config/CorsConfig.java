@@ -1,5 +1,6 @@
 package com.ajeitai.backend.config;
 
+import com.ajeitai.backend.controller.AgendamentoController;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -12,6 +13,7 @@ public class CorsConfig implements WebMvcConfigurer {
             .allowedOrigins("https://app.iamgabrieldev.com.br")
             .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
             .allowedHeaders("*")
+            .exposedHeaders(AgendamentoController.CABECALHO_PROXIMO_CURSOR)
             .allowCredentials(true);
     }
 }
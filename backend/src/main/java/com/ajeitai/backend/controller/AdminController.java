@@ -2,12 +2,17 @@ package com.ajeitai.backend.controller;
 
 import com.ajeitai.backend.domain.agendamento.Agendamento;
 import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.metricas.Granularidade;
+import com.ajeitai.backend.domain.metricas.PontoMetricas;
 import com.ajeitai.backend.service.AdminService;
+import com.ajeitai.backend.service.MetricasPlataformaService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,12 +22,26 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
+    private final MetricasPlataformaService metricasPlataformaService;
 
     @GetMapping("/visao-geral")
     public ResponseEntity<AdminService.VisaoGeralDto> visaoGeral() {
         return ResponseEntity.ok(adminService.visaoGeral());
     }
 
+    /**
+     * Série temporal (granularidade dia, semana ou mes) de GMV, comissão, agendamentos por status,
+     * cancelamentos e novos clientes/prestadores, lida do rollup diário.
+     */
+    @GetMapping("/metricas")
+    public ResponseEntity<List<PontoMetricas>> metricas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @RequestParam(defaultValue = "dia") String granularidade
+    ) {
+        return ResponseEntity.ok(metricasPlataformaService.serie(de, ate, Granularidade.de(granularidade)));
+    }
+
     @GetMapping("/prestadores")
     public ResponseEntity<List<AdminService.PrestadorAdminDto>> listarPrestadores() {
         return ResponseEntity.ok(adminService.listarPrestadores());
@@ -1,11 +1,12 @@
 package com.ajeitai.backend.controller;
 
 import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.AgendamentoResumo;
 import com.ajeitai.backend.domain.agendamento.DadosAgendamento;
 import com.ajeitai.backend.domain.agendamento.DadosLocalizacao;
 import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.catalogo.PaginaCursor;
 import com.ajeitai.backend.domain.pagamento.Pagamento;
-import com.ajeitai.backend.repository.AvaliacaoRepository;
 import com.ajeitai.backend.service.AgendamentoService;
 import com.ajeitai.backend.service.PagamentoService;
 import jakarta.validation.Valid;
@@ -18,7 +19,6 @@ import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,9 +27,12 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AgendamentoController {
 
+    /** Cursor da próxima página das listagens de agendamentos; ausente na última página. */
+    public static final String CABECALHO_PROXIMO_CURSOR = "X-Proximo-Cursor";
+    static final int TAMANHO_MAXIMO_PAGINA = 200;
+
     private final AgendamentoService agendamentoService;
     private final PagamentoService pagamentoService;
-    private final AvaliacaoRepository avaliacaoRepository;
 
     @PostMapping
     @PreAuthorize("hasRole('cliente')")
@@ -42,36 +45,34 @@ public class AgendamentoController {
         return ResponseEntity.ok(agendamento);
     }
 
+    /**
+     * Agendamentos do cliente, mais recentes primeiro, em páginas de {@code size} (padrão 50, máximo 200).
+     * Quando há mais itens, o cabeçalho {@value #CABECALHO_PROXIMO_CURSOR} traz o {@code cursor} da próxima página.
+     */
     @GetMapping
     @PreAuthorize("hasRole('cliente')")
-    public ResponseEntity<List<Agendamento>> listarMeus(
+    public ResponseEntity<List<AgendamentoResumo>> listarMeus(
             @AuthenticationPrincipal Jwt jwt,
-            @RequestParam(required = false) String status
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
     ) {
         String keycloakId = jwt.getSubject();
-        Optional<StatusAgendamento> statusEnum = mapStatusFromFrontend(status);
-        List<Agendamento> agendamentos = statusEnum
-                .map(s -> agendamentoService.listarPorCliente(keycloakId, Optional.of(s)))
-                .orElseGet(() -> agendamentoService.listarPorCliente(keycloakId));
-        LocalDateTime agora = LocalDateTime.now();
-        for (Agendamento a : agendamentos) {
-            if (a.getStatus() != StatusAgendamento.REALIZADO) {
-                a.setPodeFazerAvaliacao(false);
-                a.setAvaliacaoId(null);
-                continue;
-            }
-            var avOpt = avaliacaoRepository.findByAgendamentoId(a.getId());
-            if (avOpt.isPresent()) {
-                a.setAvaliacaoId(String.valueOf(avOpt.get().getId()));
-                a.setPodeFazerAvaliacao(false);
-            } else {
-                LocalDateTime ref = a.getCheckoutEm() != null ? a.getCheckoutEm() : a.getDataHora();
-                boolean dentroPrazo = ref == null || ref.plusDays(7).isAfter(agora);
-                a.setPodeFazerAvaliacao(dentroPrazo);
-                a.setAvaliacaoId(null);
-            }
+        PaginaCursor<AgendamentoResumo> pagina = agendamentoService.listarPorCliente(
+                keycloakId, mapStatusFromFrontend(status), cursor, tamanhoPagina(size));
+        return paginaComCursor(pagina.content(), pagina.proximoCursor());
+    }
+
+    static int tamanhoPagina(int size) {
+        return Math.max(1, Math.min(size, TAMANHO_MAXIMO_PAGINA));
+    }
+
+    static <T> ResponseEntity<List<T>> paginaComCursor(List<T> itens, String proximoCursor) {
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (proximoCursor != null) {
+            resposta.header(CABECALHO_PROXIMO_CURSOR, proximoCursor);
         }
-        return ResponseEntity.ok(agendamentos);
+        return resposta.body(itens);
     }
 
     private static Optional<StatusAgendamento> mapStatusFromFrontend(String value) {
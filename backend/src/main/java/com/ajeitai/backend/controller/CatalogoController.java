@@ -1,40 +1,92 @@
 package com.ajeitai.backend.controller;
 
-import com.ajeitai.backend.domain.catalogo.PrestadorPublicoDetalhe;
-import com.ajeitai.backend.domain.catalogo.PrestadorPublicoResumo;
+import com.ajeitai.backend.domain.catalogo.HorariosDoDia;
+import com.ajeitai.backend.domain.catalogo.JanelaHorario;
 import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+import com.ajeitai.backend.infra.cache.RespostaJsonCache;
 import com.ajeitai.backend.service.CatalogoService;
+import com.ajeitai.backend.service.catalogo.VersoesCatalogo;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Catálogo público. As respostas saem como bytes JSON já prontos (do cache quando possível),
+ * escritos direto na saída sem passar pelo Jackson. O ETag vem de {@link VersoesCatalogo} e é comparado
+ * antes de qualquer acesso ao cache ou ao banco.
+ */
 @RestController
 @RequestMapping("/api/catalogo")
 @RequiredArgsConstructor
 public class CatalogoController {
 
+    /** O cliente guarda a resposta, mas revalida sempre: com ETag inalterado recebe 304 sem corpo. */
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final CatalogoService catalogoService;
+    private final RespostaJsonCache respostaJsonCache;
+    private final VersoesCatalogo versoesCatalogo;
 
     @GetMapping("/prestadores")
-    public ResponseEntity<List<PrestadorPublicoResumo>> listarPrestadores(
+    public ResponseEntity<byte[]> listarPrestadores(
             @RequestParam(required = false) CategoriaAtuacao categoria,
             @RequestParam(required = false) String cidade,
             @RequestParam(required = false) String uf,
             @RequestParam(required = false) Double minAvaliacao,
             @RequestParam(required = false) Double latitude,
-            @RequestParam(required = false) Double longitude
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) Double raioKm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime disponivelEm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime disponivelAte,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest
     ) {
-        return ResponseEntity.ok(catalogoService.listarPrestadores(categoria, cidade, uf, minAvaliacao, latitude, longitude));
+        JanelaHorario janela = JanelaHorario.de(disponivelEm, disponivelAte);
+        boolean deflate = RespostaJsonCache.aceitaDeflate(acceptEncoding);
+        String etag = versoesCatalogo.etagListagem(janela, deflate);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return respostaJsonCache.responder(
+                catalogoService.listarPrestadoresJson(categoria, cidade, uf, minAvaliacao, latitude, longitude, raioKm, janela),
+                acceptEncoding, etag, CACHE_CONTROL);
     }
 
     @GetMapping("/prestadores/{id}")
-    public ResponseEntity<PrestadorPublicoDetalhe> buscarPrestador(@PathVariable Long id) {
-        return ResponseEntity.ok(catalogoService.buscarDetalhe(id));
+    public ResponseEntity<byte[]> buscarPrestador(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest
+    ) {
+        String etag = versoesCatalogo.etagDetalhe(id, RespostaJsonCache.aceitaDeflate(acceptEncoding));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return respostaJsonCache.responder(catalogoService.buscarDetalheJson(id), acceptEncoding, etag, CACHE_CONTROL);
+    }
+
+    /**
+     * Horários livres para agendar com o prestador, por dia (de/ate em ISO-8601, inclusive; padrão: próximos dias).
+     */
+    @GetMapping("/prestadores/{id}/horarios")
+    public ResponseEntity<List<HorariosDoDia>> listarHorarios(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate
+    ) {
+        return ResponseEntity.ok(catalogoService.listarHorarios(id, de, ate));
     }
 }
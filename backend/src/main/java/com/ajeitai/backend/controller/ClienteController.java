@@ -1,13 +1,13 @@
 package com.ajeitai.backend.controller;
 
-import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.AgendamentoResumo;
 import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
 import com.ajeitai.backend.domain.avaliacao.Avaliacao;
 import com.ajeitai.backend.domain.avaliacao.DadosAvaliacao;
+import com.ajeitai.backend.domain.catalogo.PaginaCursor;
 import com.ajeitai.backend.domain.cliente.Cliente;
 import com.ajeitai.backend.domain.cliente.DadosAtualizacaoCliente;
 import com.ajeitai.backend.domain.cliente.DadosCadastroCliente;
-import com.ajeitai.backend.repository.AvaliacaoRepository;
 import com.ajeitai.backend.service.AgendamentoService;
 import com.ajeitai.backend.service.ArmazenamentoMidiaService;
 import com.ajeitai.backend.service.AvaliacaoService;
@@ -21,7 +21,6 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,7 +33,6 @@ public class ClienteController {
     private final ClienteService clienteService;
     private final AgendamentoService agendamentoService;
     private final AvaliacaoService avaliacaoService;
-    private final AvaliacaoRepository avaliacaoRepository;
     private final ArmazenamentoMidiaService armazenamentoMidiaService;
 
     @PostMapping("/vincular")
@@ -65,32 +63,21 @@ public class ClienteController {
         return ResponseEntity.ok(cliente);
     }
 
+    /**
+     * Agendamentos do cliente por cursor; o cursor da próxima página vem no cabeçalho
+     * {@value AgendamentoController#CABECALHO_PROXIMO_CURSOR}.
+     */
     @GetMapping("/me/agendamentos")
-    public ResponseEntity<List<Agendamento>> listarAgendamentos(
+    public ResponseEntity<List<AgendamentoResumo>> listarAgendamentos(
             @AuthenticationPrincipal Jwt jwt,
-            @RequestParam(required = false) StatusAgendamento status
+            @RequestParam(required = false) StatusAgendamento status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
     ) {
         String keycloakId = jwt.getSubject();
-        List<Agendamento> agendamentos = agendamentoService.listarPorCliente(keycloakId, Optional.ofNullable(status));
-        LocalDateTime agora = LocalDateTime.now();
-        for (Agendamento a : agendamentos) {
-            if (a.getStatus() != StatusAgendamento.REALIZADO) {
-                a.setPodeFazerAvaliacao(false);
-                a.setAvaliacaoId(null);
-                continue;
-            }
-            var avOpt = avaliacaoRepository.findByAgendamentoId(a.getId());
-            if (avOpt.isPresent()) {
-                a.setAvaliacaoId(String.valueOf(avOpt.get().getId()));
-                a.setPodeFazerAvaliacao(false);
-            } else {
-                LocalDateTime ref = a.getCheckoutEm() != null ? a.getCheckoutEm() : a.getDataHora();
-                boolean dentroPrazo = ref == null || ref.plusDays(7).isAfter(agora);
-                a.setPodeFazerAvaliacao(dentroPrazo);
-                a.setAvaliacaoId(null);
-            }
-        }
-        return ResponseEntity.ok(agendamentos);
+        PaginaCursor<AgendamentoResumo> pagina = agendamentoService.listarPorCliente(
+                keycloakId, Optional.ofNullable(status), cursor, AgendamentoController.tamanhoPagina(size));
+        return AgendamentoController.paginaComCursor(pagina.content(), pagina.proximoCursor());
     }
 
     @PostMapping("/me/avaliacoes/{agendamentoId}")
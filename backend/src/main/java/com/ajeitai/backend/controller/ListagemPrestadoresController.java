@@ -1,29 +1,42 @@
 package com.ajeitai.backend.controller;
 
+import com.ajeitai.backend.domain.catalogo.JanelaHorario;
+import com.ajeitai.backend.domain.catalogo.PaginaCursor;
 import com.ajeitai.backend.domain.catalogo.PrestadorPublicoResumo;
 import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
 import com.ajeitai.backend.service.CatalogoService;
+import com.ajeitai.backend.service.catalogo.VersoesCatalogo;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/prestadores")
 @RequiredArgsConstructor
 public class ListagemPrestadoresController {
 
+    private static final int TAMANHO_MAXIMO_CURSOR = 100;
+
     private final CatalogoService catalogoService;
+    private final VersoesCatalogo versoesCatalogo;
 
     /**
      * Lista prestadores paginados para cliente/prestador (catálogo).
-     * Query params: page (0-based), size, search, categoria, avaliacaoMin, orderBy, latitude, longitude.
+     * Query params: page (0-based), size, search, categoria, avaliacaoMin, orderBy, latitude, longitude, raioKm.
+     * Com raioKm (exige latitude/longitude) a busca é restrita aos prestadores dentro do raio, via índice geográfico.
+     * Com disponivelEm (e opcionalmente disponivelAte, ISO-8601) só entram prestadores com horário livre no instante/janela.
+     * Responde 304 para If-None-Match com o ETag da versão atual das listagens, sem consultar o banco.
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('cliente','prestador')")
@@ -35,13 +48,54 @@ public class ListagemPrestadoresController {
             @RequestParam(required = false) Double avaliacaoMin,
             @RequestParam(required = false) String orderBy,
             @RequestParam(required = false) Double latitude,
-            @RequestParam(required = false) Double longitude
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) Double raioKm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime disponivelEm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime disponivelAte,
+            WebRequest webRequest
     ) {
+        JanelaHorario janela = JanelaHorario.de(disponivelEm, disponivelAte);
+        String etag = versoesCatalogo.etagListagem(janela, false);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         CategoriaAtuacao cat = parseCategoria(categoria);
         Pageable pageable = PageRequest.of(page, size);
         Page<PrestadorPublicoResumo> result = catalogoService.listarPrestadoresPaginated(
-                pageable, search, cat, avaliacaoMin, orderBy, latitude, longitude);
-        return ResponseEntity.ok(result);
+                pageable, search, cat, avaliacaoMin, orderBy, latitude, longitude, raioKm, janela);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CatalogoController.CACHE_CONTROL).body(result);
+    }
+
+    /**
+     * Variante por cursor (keyset) da listagem: envie {@code cursor} vazio na primeira página e depois o
+     * {@code proximoCursor} recebido. Aceita os mesmos filtros e modos de orderBy.
+     */
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasAnyRole('cliente','prestador')")
+    public ResponseEntity<PaginaCursor<PrestadorPublicoResumo>> listarPorCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String categoria,
+            @RequestParam(required = false) Double avaliacaoMin,
+            @RequestParam(required = false) String orderBy,
+            @RequestParam(required = false) Double latitude,
+            @RequestParam(required = false) Double longitude,
+            @RequestParam(required = false) Double raioKm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime disponivelEm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime disponivelAte,
+            WebRequest webRequest
+    ) {
+        JanelaHorario janela = JanelaHorario.de(disponivelEm, disponivelAte);
+        String etag = versoesCatalogo.etagListagem(janela, false);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        int tamanho = Math.max(1, Math.min(size, TAMANHO_MAXIMO_CURSOR));
+        return ResponseEntity.ok().eTag(etag).cacheControl(CatalogoController.CACHE_CONTROL).body(
+                catalogoService.listarPrestadoresPorCursor(
+                        cursor, tamanho, search, parseCategoria(categoria), avaliacaoMin, orderBy, latitude, longitude,
+                        raioKm, janela));
     }
 
     private static CategoriaAtuacao parseCategoria(String valor) {
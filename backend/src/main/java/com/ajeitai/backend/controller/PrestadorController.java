@@ -1,9 +1,10 @@
 package com.ajeitai.backend.controller;
 
-import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.AgendamentoResumo;
 import com.ajeitai.backend.domain.agendamento.Disponibilidade;
 import com.ajeitai.backend.domain.agendamento.DadosDisponibilidade;
 import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.catalogo.PaginaCursor;
 import com.ajeitai.backend.domain.notificacao.DadosTokenPush;
 import com.ajeitai.backend.domain.prestador.DadosAtualizacaoPrestador;
 import com.ajeitai.backend.domain.prestador.DadosCadastroPrestador;
@@ -124,14 +125,21 @@ public class PrestadorController {
         return ResponseEntity.ok(prestador);
     }
 
+    /**
+     * Solicitações do prestador por cursor; o cursor da próxima página vem no cabeçalho
+     * {@value AgendamentoController#CABECALHO_PROXIMO_CURSOR}.
+     */
     @GetMapping("/me/solicitacoes")
-    public ResponseEntity<List<Agendamento>> solicitacoes(
+    public ResponseEntity<List<AgendamentoResumo>> solicitacoes(
             @AuthenticationPrincipal Jwt jwt,
-            @RequestParam(required = false) StatusAgendamento status
+            @RequestParam(required = false) StatusAgendamento status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
     ) {
         String keycloakId = jwt.getSubject();
-        List<Agendamento> agendamentos = prestadorService.listarSolicitacoes(keycloakId, Optional.ofNullable(status));
-        return ResponseEntity.ok(agendamentos);
+        PaginaCursor<AgendamentoResumo> pagina = prestadorService.listarSolicitacoes(
+                keycloakId, Optional.ofNullable(status), cursor, AgendamentoController.tamanhoPagina(size));
+        return AgendamentoController.paginaComCursor(pagina.content(), pagina.proximoCursor());
     }
 
     @GetMapping("/me/dashboard")
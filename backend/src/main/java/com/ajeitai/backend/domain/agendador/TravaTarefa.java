@@ -0,0 +1,32 @@
+package com.ajeitai.backend.domain.agendador;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Concessão (lease) de uma tarefa agendada entre réplicas: quem detém a linha até {@code ate} executa a tarefa.
+ * Uma réplica que caiu não bloqueia as demais: a concessão vence sozinha.
+ */
+@Entity
+@Table(name = "travas_tarefas")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TravaTarefa {
+    @Id
+    @Column(length = 100)
+    private String nome;
+
+    @Column(nullable = false)
+    private LocalDateTime ate;
+
+    @Column(name = "adquirida_em", nullable = false)
+    private LocalDateTime adquiridaEm;
+
+    @Column(nullable = false, length = 200)
+    private String dono;
+}
@@ -9,12 +9,16 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "agendamentos", indexes = {
-        @Index(name = "idx_agendamento_cliente", columnList = "cliente_id"),
-        @Index(name = "idx_agendamento_prestador", columnList = "prestador_id")
+        @Index(name = "idx_agendamento_cliente_data", columnList = "cliente_id, data_hora DESC, id DESC"),
+        @Index(name = "idx_agendamento_prestador", columnList = "prestador_id"),
+        @Index(name = "idx_agendamento_prestador_data", columnList = "prestador_id, data_hora"),
+        @Index(name = "idx_agendamento_prestador_status_data", columnList = "prestador_id, status, data_hora DESC, id DESC"),
+        @Index(name = "idx_agendamento_status_data", columnList = "status, data_hora")
 })
 @Getter
 @Setter
@@ -22,6 +26,19 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 public class Agendamento {
+
+    /** Antecedência mínima entre a criação e o horário do agendamento. */
+    public static final Duration ANTECEDENCIA_MINIMA = Duration.ofMinutes(30);
+
+    /** Duração assumida quando o cliente não informa quanto o serviço leva. */
+    public static final Duration DURACAO_PADRAO = Duration.ofMinutes(30);
+
+    /**
+     * Duração máxima de um serviço. Também limita, para trás, as consultas de sobreposição:
+     * um agendamento que começa antes de {@code inicio - DURACAO_MAXIMA} não alcança {@code inicio}.
+     */
+    public static final Duration DURACAO_MAXIMA = Duration.ofHours(8);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -39,6 +56,10 @@ public class Agendamento {
     @Column(nullable = false)
     private LocalDateTime dataHora;
 
+    /** Fim do serviço (exclusivo). No PostgreSQL, [dataHora, dataHoraFim) não pode sobrepor outro agendamento ativo do prestador. */
+    @Column(name = "data_hora_fim", nullable = false)
+    private LocalDateTime dataHoraFim;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private StatusAgendamento status;
@@ -93,6 +114,12 @@ public class Agendamento {
     @Column(name = "foto_trabalho_url", length = 512)
     private String fotoTrabalhoUrl;
 
+    /** Trava otimista; as transições por UPDATE condicional no repositório também a incrementam. */
+    @Version
+    @Column(nullable = false)
+    @JsonIgnore
+    private Long versao;
+
     /** Preenchido na listagem do cliente: se pode abrir o fluxo de avaliação (REALIZADO, sem avaliação, dentro do prazo). */
     @Transient
     @JsonProperty("podeFazerAvaliacao")
@@ -108,6 +135,14 @@ public class Agendamento {
         if (criadoEm == null) {
             criadoEm = LocalDateTime.now();
         }
+        if (dataHoraFim == null && dataHora != null) {
+            dataHoraFim = dataHora.plus(DURACAO_PADRAO);
+        }
+    }
+
+    @JsonProperty("duracaoMinutos")
+    public Long getDuracaoMinutos() {
+        return dataHora != null && dataHoraFim != null ? Duration.between(dataHora, dataHoraFim).toMinutes() : null;
     }
 
     public void aceitar() {
@@ -0,0 +1,78 @@
+package com.ajeitai.backend.domain.agendamento;
+
+import com.ajeitai.backend.domain.avaliacao.Avaliacao;
+import com.ajeitai.backend.domain.endereco.Endereco;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Item das listagens de agendamentos (cliente e prestador): só as colunas que as telas usam, lidas por
+ * projeção, sem carregar {@code Cliente} e {@code Prestador}. Os nomes seguem o JSON de {@link Agendamento}.
+ * Na listagem do cliente a avaliação vem de um left join na mesma consulta e {@code podeFazerAvaliacao}
+ * é calculado por {@link #comElegibilidadeDeAvaliacao}; na do prestador os dois ficam null.
+ */
+public record AgendamentoResumo(
+        Long id,
+        Long clienteId,
+        String clienteNome,
+        Long prestadorId,
+        String prestadorNome,
+        String prestadorKeycloakId,
+        LocalDateTime dataHora,
+        LocalDateTime dataHoraFim,
+        StatusAgendamento status,
+        FormaPagamento formaPagamento,
+        BigDecimal valorServico,
+        String observacao,
+        Endereco endereco,
+        LocalDateTime criadoEm,
+        LocalDateTime confirmadoEm,
+        LocalDateTime checkinEm,
+        LocalDateTime checkoutEm,
+        String fotoTrabalhoUrl,
+        Boolean podeFazerAvaliacao,
+        String avaliacaoId
+) {
+
+    /** Construtor da projeção sem avaliação (listagem do prestador). */
+    public AgendamentoResumo(Long id, Long clienteId, String clienteNome, Long prestadorId, String prestadorNome,
+                             String prestadorKeycloakId, LocalDateTime dataHora, LocalDateTime dataHoraFim,
+                             StatusAgendamento status, FormaPagamento formaPagamento, BigDecimal valorServico,
+                             String observacao, Endereco endereco, LocalDateTime criadoEm, LocalDateTime confirmadoEm,
+                             LocalDateTime checkinEm, LocalDateTime checkoutEm, String fotoTrabalhoUrl) {
+        this(id, clienteId, clienteNome, prestadorId, prestadorNome, prestadorKeycloakId, dataHora, dataHoraFim, status,
+                formaPagamento, valorServico, observacao, endereco, criadoEm, confirmadoEm, checkinEm, checkoutEm,
+                fotoTrabalhoUrl, null, null);
+    }
+
+    /** Construtor da projeção com o id da avaliação do agendamento, null se ainda não foi avaliado. */
+    public AgendamentoResumo(Long id, Long clienteId, String clienteNome, Long prestadorId, String prestadorNome,
+                             String prestadorKeycloakId, LocalDateTime dataHora, LocalDateTime dataHoraFim,
+                             StatusAgendamento status, FormaPagamento formaPagamento, BigDecimal valorServico,
+                             String observacao, Endereco endereco, LocalDateTime criadoEm, LocalDateTime confirmadoEm,
+                             LocalDateTime checkinEm, LocalDateTime checkoutEm, String fotoTrabalhoUrl,
+                             Long avaliacaoId) {
+        this(id, clienteId, clienteNome, prestadorId, prestadorNome, prestadorKeycloakId, dataHora, dataHoraFim, status,
+                formaPagamento, valorServico, observacao, endereco, criadoEm, confirmadoEm, checkinEm, checkoutEm,
+                fotoTrabalhoUrl, null, avaliacaoId != null ? String.valueOf(avaliacaoId) : null);
+    }
+
+    @JsonProperty("duracaoMinutos")
+    public Long duracaoMinutos() {
+        return dataHora != null && dataHoraFim != null ? Duration.between(dataHora, dataHoraFim).toMinutes() : null;
+    }
+
+    /**
+     * O cliente pode avaliar agendamentos REALIZADOS ainda sem avaliação, dentro do {@link Avaliacao#PRAZO}.
+     */
+    public AgendamentoResumo comElegibilidadeDeAvaliacao(LocalDateTime agora) {
+        boolean realizado = status == StatusAgendamento.REALIZADO;
+        boolean pode = realizado && avaliacaoId == null && Avaliacao.dentroDoPrazo(checkoutEm, dataHora, agora);
+        return new AgendamentoResumo(id, clienteId, clienteNome, prestadorId, prestadorNome, prestadorKeycloakId,
+                dataHora, dataHoraFim, status, formaPagamento, valorServico, observacao, endereco, criadoEm,
+                confirmadoEm, checkinEm, checkoutEm, fotoTrabalhoUrl, pode, realizado ? avaliacaoId : null);
+    }
+}
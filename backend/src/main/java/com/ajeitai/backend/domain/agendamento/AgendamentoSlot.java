@@ -0,0 +1,36 @@
+package com.ajeitai.backend.domain.agendamento;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reserva do horário de um agendamento ativo (PENDENTE/ACEITO/CONFIRMADO): uma linha por slot ocupado.
+ * A unicidade de (prestador, início do slot) impede o agendamento duplo sem travar a linha do prestador;
+ * agendamentos em horários diferentes do mesmo prestador não concorrem entre si.
+ */
+@Entity
+@Table(name = "agendamento_slots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_agendamento_slot", columnNames = {"prestador_id", "inicio"}),
+        indexes = @Index(name = "idx_agendamento_slot_agendamento", columnList = "agendamento_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AgendamentoSlot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "prestador_id", nullable = false)
+    private Long prestadorId;
+
+    /** Início do slot (dataHora do agendamento truncada para app.catalogo.agenda.slot-minutos). */
+    @Column(nullable = false)
+    private LocalDateTime inicio;
+
+    @Column(name = "agendamento_id", nullable = false)
+    private Long agendamentoId;
+}
@@ -0,0 +1,21 @@
+package com.ajeitai.backend.domain.agendamento;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de domínio disparado a cada transição de status de um agendamento já criado
+ * (a criação tem o próprio {@link AgendamentoCriadoEvent}). Consumido após o commit para manter
+ * a agenda em memória do catálogo ({@code IndiceAgendaPrestadores}).
+ */
+public record AgendamentoStatusAlteradoEvent(
+        Long agendamentoId,
+        Long prestadorId,
+        LocalDateTime dataHora,
+        StatusAgendamento status
+) {
+
+    public static AgendamentoStatusAlteradoEvent de(Agendamento agendamento) {
+        return new AgendamentoStatusAlteradoEvent(
+                agendamento.getId(), agendamento.getPrestadorId(), agendamento.getDataHora(), agendamento.getStatus());
+    }
+}
@@ -0,0 +1,51 @@
+package com.ajeitai.backend.domain.agendamento;
+
+import com.ajeitai.backend.domain.catalogo.PaginaCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Posição do último agendamento entregue nas listagens por cursor, ordenadas por (dataHora, id) decrescentes.
+ */
+public record CursorAgendamento(LocalDateTime dataHora, Long id) {
+
+    public static CursorAgendamento de(AgendamentoResumo agendamento) {
+        return new CursorAgendamento(agendamento.dataHora(), agendamento.id());
+    }
+
+    /**
+     * Monta a página a partir de até {@code tamanho + 1} itens lidos: o item excedente só indica que há próxima página.
+     */
+    public static PaginaCursor<AgendamentoResumo> paginar(List<AgendamentoResumo> lidos, int tamanho) {
+        if (lidos.size() <= tamanho) {
+            return new PaginaCursor<>(lidos, null, tamanho);
+        }
+        List<AgendamentoResumo> pagina = lidos.subList(0, tamanho);
+        return new PaginaCursor<>(pagina, de(pagina.get(tamanho - 1)).codificar(), tamanho);
+    }
+
+    public String codificar() {
+        String valor = dataHora + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica o cursor recebido do cliente; cursor ausente ou vazio significa primeira página (retorna null).
+     */
+    public static CursorAgendamento decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.indexOf('|');
+            return new CursorAgendamento(LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.valueOf(valor.substring(separador + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+    }
+}
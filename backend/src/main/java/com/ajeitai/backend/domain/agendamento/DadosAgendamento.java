@@ -2,6 +2,7 @@ package com.ajeitai.backend.domain.agendamento;
 
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 import java.time.LocalDateTime;
 
@@ -13,6 +14,9 @@ public record DadosAgendamento(
         LocalDateTime dataHora,
         @NotNull
         FormaPagamento formaPagamento,
-        String observacao
+        String observacao,
+        // Duração do serviço em minutos; Agendamento.DURACAO_PADRAO quando ausente
+        @Positive
+        Integer duracaoMinutos
 ) {
 }
@@ -1,10 +1,19 @@
 package com.ajeitai.backend.domain.agendamento;
 
+import java.util.List;
+
 public enum StatusAgendamento {
     PENDENTE,
     ACEITO,
     CONFIRMADO,
     RECUSADO,
     REALIZADO,
-    CANCELADO
+    CANCELADO;
+
+    /** Status em que o agendamento reserva o horário do prestador. */
+    public static final List<StatusAgendamento> OCUPAM_HORARIO = List.of(PENDENTE, ACEITO, CONFIRMADO);
+
+    public boolean ocupaHorario() {
+        return OCUPAM_HORARIO.contains(this);
+    }
 }
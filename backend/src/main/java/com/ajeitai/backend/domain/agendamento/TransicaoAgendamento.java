@@ -0,0 +1,48 @@
+package com.ajeitai.backend.domain.agendamento;
+
+import java.util.List;
+
+/**
+ * Transições de status feitas pelo prestador ou pelo cliente: de quais status partem, para qual vão e
+ * as mensagens quando o UPDATE condicional não altera nenhuma linha (autor errado ou status inválido).
+ */
+public enum TransicaoAgendamento {
+    ACEITAR(List.of(StatusAgendamento.PENDENTE), StatusAgendamento.ACEITO,
+            "Somente o prestador do agendamento pode aceitá-lo.",
+            "Somente agendamentos pendentes podem ser aceitos."),
+    RECUSAR(List.of(StatusAgendamento.PENDENTE), StatusAgendamento.RECUSADO,
+            "Somente o prestador do agendamento pode recusá-lo.",
+            "Somente agendamentos pendentes podem ser recusados."),
+    CANCELAR(StatusAgendamento.OCUPAM_HORARIO, StatusAgendamento.CANCELADO,
+            "Somente o cliente do agendamento pode cancelar.",
+            "Somente agendamentos pendentes, aceitos ou confirmados podem ser cancelados.");
+
+    private final List<StatusAgendamento> origem;
+    private final StatusAgendamento destino;
+    private final String mensagemAutor;
+    private final String mensagemStatus;
+
+    TransicaoAgendamento(List<StatusAgendamento> origem, StatusAgendamento destino,
+                         String mensagemAutor, String mensagemStatus) {
+        this.origem = origem;
+        this.destino = destino;
+        this.mensagemAutor = mensagemAutor;
+        this.mensagemStatus = mensagemStatus;
+    }
+
+    public List<StatusAgendamento> origem() {
+        return origem;
+    }
+
+    public StatusAgendamento destino() {
+        return destino;
+    }
+
+    public String mensagemAutor() {
+        return mensagemAutor;
+    }
+
+    public String mensagemStatus() {
+        return mensagemStatus;
+    }
+}
@@ -6,6 +6,7 @@ import com.ajeitai.backend.domain.prestador.Prestador;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Entity
@@ -19,6 +20,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 public class Avaliacao {
+
+    /** Prazo para avaliar, contado do checkout (ou do horário, se não houve checkout). */
+    public static final Duration PRAZO = Duration.ofDays(7);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -50,4 +55,9 @@ public class Avaliacao {
             criadoEm = LocalDateTime.now();
         }
     }
+
+    public static boolean dentroDoPrazo(LocalDateTime checkoutEm, LocalDateTime dataHora, LocalDateTime agora) {
+        LocalDateTime referencia = checkoutEm != null ? checkoutEm : dataHora;
+        return referencia == null || !referencia.plus(PRAZO).isBefore(agora);
+    }
 }
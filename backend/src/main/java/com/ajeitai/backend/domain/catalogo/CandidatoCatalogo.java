@@ -0,0 +1,16 @@
+package com.ajeitai.backend.domain.catalogo;
+
+/**
+ * Item do cache de listagem do catálogo: o resumo do prestador sem distância e a posição dele,
+ * para que a distância exata até cada usuário seja calculada depois de ler o cache.
+ */
+public record CandidatoCatalogo(
+        PrestadorPublicoResumo resumo,
+        Double latitude,
+        Double longitude
+) {
+
+    public boolean possuiCoordenadas() {
+        return latitude != null && longitude != null;
+    }
+}
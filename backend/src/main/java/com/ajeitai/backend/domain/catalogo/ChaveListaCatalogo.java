@@ -0,0 +1,36 @@
+package com.ajeitai.backend.domain.catalogo;
+
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+
+/**
+ * Chave de uma entrada do cache de listagem do catálogo, com os filtros que a originaram.
+ * Os filtros permitem descobrir quais listagens em cache um prestador alterado pode passar a integrar.
+ */
+public record ChaveListaCatalogo(
+        String valor,
+        CategoriaAtuacao categoria,
+        String cidade,
+        String uf
+) {
+
+    /** Verdadeiro se um prestador com esses dados satisfaz os filtros desta listagem. */
+    public boolean aceita(CategoriaAtuacao categoriaPrestador, String cidadePrestador, String ufPrestador) {
+        return (categoria == null || categoria == categoriaPrestador)
+                && (cidade == null || cidade.equalsIgnoreCase(cidadePrestador))
+                && (uf == null || uf.equalsIgnoreCase(ufPrestador));
+    }
+
+    /** Filtros em texto ({@code categoria|cidade|uf}, vazio para nulo), para armazenamento externo. */
+    public String filtros() {
+        return (categoria != null ? categoria.name() : "") + "|" + (cidade != null ? cidade : "") + "|" + (uf != null ? uf : "");
+    }
+
+    public static ChaveListaCatalogo de(String valor, String filtros) {
+        String[] partes = filtros.split("\\|", -1);
+        return new ChaveListaCatalogo(
+                valor,
+                partes[0].isEmpty() ? null : CategoriaAtuacao.valueOf(partes[0]),
+                partes[1].isEmpty() ? null : partes[1],
+                partes[2].isEmpty() ? null : partes[2]);
+    }
+}
@@ -0,0 +1,49 @@
+package com.ajeitai.backend.domain.catalogo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição do último item entregue na paginação por cursor (keyset): valor da coluna de ordenação e id.
+ * {@code chave} é null quando a ordenação é apenas por id (ex.: distância sem coordenadas) ou quando o item
+ * não tem valor na coluna (vai para o fim da lista).
+ * <p>
+ * O cursor codificado leva a assinatura da ordenação e dos filtros que o geraram
+ * ({@link FiltroCatalogo#assinatura}); reenviado com outros, é recusado em vez de pular ou repetir itens.
+ */
+public record CursorCatalogo(Double chave, Long id) {
+
+    private static final String SEM_CHAVE = "-";
+
+    public String codificar(String assinatura) {
+        String valor = assinatura + "|" + (chave != null ? Double.toString(chave) : SEM_CHAVE) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica o cursor recebido do cliente; cursor vazio significa primeira página (retorna null).
+     * Recusa cursores gerados com outra ordenação ou outros filtros.
+     */
+    public static CursorCatalogo decodificar(String cursor, String assinatura) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String[] partes;
+        CursorCatalogo decodificado;
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            partes = valor.split("\\|", -1);
+            if (partes.length != 3) {
+                throw new IllegalArgumentException();
+            }
+            decodificado = new CursorCatalogo(SEM_CHAVE.equals(partes[1]) ? null : Double.valueOf(partes[1]),
+                    Long.valueOf(partes[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+        if (!partes[0].equals(assinatura)) {
+            throw new IllegalArgumentException("Cursor inválido para a ordenação ou os filtros informados.");
+        }
+        return decodificado;
+    }
+}
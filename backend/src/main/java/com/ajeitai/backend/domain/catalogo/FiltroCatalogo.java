@@ -0,0 +1,61 @@
+package com.ajeitai.backend.domain.catalogo;
+
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Filtros e ordenação da listagem paginada de prestadores, aplicados no banco.
+ * {@code idsCandidatos}, quando não nulo, restringe a consulta aos ids pré-selecionados (ex.: busca por raio).
+ */
+public record FiltroCatalogo(
+        CategoriaAtuacao categoria,
+        String search,
+        Double minAvaliacao,
+        OrdenacaoCatalogo ordenacao,
+        Double latitude,
+        Double longitude,
+        List<Long> idsCandidatos
+) {
+
+    /** Caractere de escape dos padrões de {@link #padraoBusca()}. */
+    public static final char ESCAPE_LIKE = '\\';
+
+    public static FiltroCatalogo de(String search, CategoriaAtuacao categoria, Double minAvaliacao,
+                                    String orderBy, Double latitude, Double longitude) {
+        return new FiltroCatalogo(categoria, search, minAvaliacao, OrdenacaoCatalogo.de(orderBy), latitude, longitude, null);
+    }
+
+    public FiltroCatalogo comCandidatos(List<Long> ids) {
+        return new FiltroCatalogo(categoria, search, minAvaliacao, ordenacao, latitude, longitude, ids);
+    }
+
+    public boolean possuiCoordenadas() {
+        return latitude != null && longitude != null;
+    }
+
+    /**
+     * Identifica a ordenação e os filtros da requisição (incluindo raio e janela, que geram os candidatos),
+     * para amarrar o cursor à consulta que o emitiu.
+     */
+    public String assinatura(Double raioKm, JanelaHorario janela) {
+        return Integer.toHexString(Objects.hash(ordenacao, categoria, padraoBusca(), minAvaliacao,
+                latitude, longitude, raioKm, janela));
+    }
+
+    /**
+     * Padrão LIKE em minúsculas para o nome fantasia, ou null quando não há busca. {@code %}, {@code _} e
+     * {@link #ESCAPE_LIKE} do termo são escapados e valem como literais, como no filtro do snapshot.
+     */
+    public String padraoBusca() {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        String termo = search.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + termo + "%";
+    }
+}
@@ -0,0 +1,14 @@
+package com.ajeitai.backend.domain.catalogo;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Horários de início livres de um prestador em um dia (GET /api/catalogo/prestadores/{id}/horarios).
+ */
+public record HorariosDoDia(
+        LocalDate data,
+        List<LocalTime> horarios
+) {
+}
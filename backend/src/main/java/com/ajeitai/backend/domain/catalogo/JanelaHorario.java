@@ -0,0 +1,33 @@
+package com.ajeitai.backend.domain.catalogo;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Filtro "livre em": um instante ({@code inicio == fim}) ou uma janela em que o prestador precisa ter
+ * ao menos um horário disponível e sem agendamento.
+ */
+public record JanelaHorario(LocalDateTime inicio, LocalDateTime fim) {
+
+    public static final Duration DURACAO_MAXIMA = Duration.ofDays(7);
+
+    /**
+     * Monta o filtro a partir dos parâmetros da requisição; null quando nenhum foi informado.
+     */
+    public static JanelaHorario de(LocalDateTime disponivelEm, LocalDateTime disponivelAte) {
+        if (disponivelEm == null) {
+            if (disponivelAte != null) {
+                throw new IllegalArgumentException("Informe disponivelEm para buscar por janela de horário.");
+            }
+            return null;
+        }
+        LocalDateTime fim = disponivelAte != null ? disponivelAte : disponivelEm;
+        if (fim.isBefore(disponivelEm)) {
+            throw new IllegalArgumentException("disponivelAte deve ser posterior a disponivelEm.");
+        }
+        if (Duration.between(disponivelEm, fim).compareTo(DURACAO_MAXIMA) > 0) {
+            throw new IllegalArgumentException("A janela de horário deve ter no máximo " + DURACAO_MAXIMA.toDays() + " dias.");
+        }
+        return new JanelaHorario(disponivelEm, fim);
+    }
+}
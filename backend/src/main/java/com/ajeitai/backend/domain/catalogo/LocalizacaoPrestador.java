@@ -0,0 +1,19 @@
+package com.ajeitai.backend.domain.catalogo;
+
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+
+/**
+ * Projeção mínima do prestador usada pelo índice geográfico do catálogo.
+ */
+public record LocalizacaoPrestador(
+        Long prestadorId,
+        CategoriaAtuacao categoria,
+        Boolean ativo,
+        Double latitude,
+        Double longitude
+) {
+
+    public boolean indexavel() {
+        return (ativo == null || ativo) && latitude != null && longitude != null;
+    }
+}
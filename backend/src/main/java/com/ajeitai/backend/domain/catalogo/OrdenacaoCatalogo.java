@@ -0,0 +1,28 @@
+package com.ajeitai.backend.domain.catalogo;
+
+/**
+ * Modos de ordenação aceitos em {@code orderBy} na listagem de prestadores.
+ */
+public enum OrdenacaoCatalogo {
+    DISTANCIA,
+    AVALIACAO,
+    VALOR,
+    EXPERIENCIA;
+
+    /** Avaliação e experiência listam do maior para o menor; valor e distância, do menor para o maior. */
+    public boolean decrescente() {
+        return this == AVALIACAO || this == EXPERIENCIA;
+    }
+
+    public static OrdenacaoCatalogo de(String orderBy) {
+        if (orderBy == null || orderBy.isBlank()) {
+            return DISTANCIA;
+        }
+        return switch (orderBy.toLowerCase()) {
+            case "avaliacao" -> AVALIACAO;
+            case "valorhora", "valorservico" -> VALOR;
+            case "experiencia", "popularidade" -> EXPERIENCIA;
+            default -> DISTANCIA;
+        };
+    }
+}
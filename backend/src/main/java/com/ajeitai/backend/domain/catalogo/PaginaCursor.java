@@ -0,0 +1,13 @@
+package com.ajeitai.backend.domain.catalogo;
+
+import java.util.List;
+
+/**
+ * Página da listagem por cursor. {@code proximoCursor} é null na última página.
+ */
+public record PaginaCursor<T>(
+        List<T> content,
+        String proximoCursor,
+        int size
+) {
+}
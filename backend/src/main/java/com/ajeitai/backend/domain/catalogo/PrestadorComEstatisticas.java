@@ -0,0 +1,36 @@
+package com.ajeitai.backend.domain.catalogo;
+
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.domain.prestador.PrestadorEstatisticas;
+
+/**
+ * Linha da consulta do catálogo: prestador e suas estatísticas, carregados em um único join.
+ * {@code estatisticas} pode ser null para prestadores ainda sem linha no read model.
+ * {@code chaveOrdenacao} só é preenchida pela consulta paginada, para montar o cursor.
+ */
+public record PrestadorComEstatisticas(
+        Prestador prestador,
+        PrestadorEstatisticas estatisticas,
+        Double chaveOrdenacao
+) {
+
+    public PrestadorComEstatisticas(Prestador prestador, PrestadorEstatisticas estatisticas) {
+        this(prestador, estatisticas, null);
+    }
+
+    public double mediaAvaliacao() {
+        return estatisticas != null && estatisticas.getMediaAvaliacao() != null ? estatisticas.getMediaAvaliacao() : 0.0;
+    }
+
+    public long totalAvaliacoes() {
+        return estatisticas != null && estatisticas.getTotalAvaliacoes() != null ? estatisticas.getTotalAvaliacoes() : 0L;
+    }
+
+    public long totalServicos() {
+        return estatisticas != null && estatisticas.getTotalServicos() != null ? estatisticas.getTotalServicos() : 0L;
+    }
+
+    public CursorCatalogo cursor() {
+        return new CursorCatalogo(chaveOrdenacao, prestador.getId());
+    }
+}
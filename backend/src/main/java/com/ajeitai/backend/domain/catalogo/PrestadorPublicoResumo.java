@@ -1,6 +1,7 @@
 package com.ajeitai.backend.domain.catalogo;
 
 import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+import com.ajeitai.backend.domain.prestador.Prestador;
 
 import java.math.BigDecimal;
 
@@ -17,4 +18,26 @@ public record PrestadorPublicoResumo(
         Long totalServicos,
         String avatarUrl
 ) {
+
+    public static PrestadorPublicoResumo de(PrestadorComEstatisticas linha, Double distanciaKm) {
+        Prestador p = linha.prestador();
+        return new PrestadorPublicoResumo(
+                p.getId(),
+                p.getNomeFantasia(),
+                p.getCategoria(),
+                p.getEndereco() != null ? p.getEndereco().getCidade() : null,
+                p.getEndereco() != null ? p.getEndereco().getUf() : null,
+                p.getValorServico(),
+                linha.mediaAvaliacao(),
+                linha.totalAvaliacoes(),
+                distanciaKm,
+                linha.totalServicos(),
+                p.getAvatarUrl()
+        );
+    }
+
+    public PrestadorPublicoResumo comDistancia(Double distanciaKm) {
+        return new PrestadorPublicoResumo(id, nomeFantasia, categoria, cidade, uf, valorServico,
+                mediaAvaliacao, totalAvaliacoes, distanciaKm, totalServicos, avatarUrl);
+    }
 }
@@ -0,0 +1,13 @@
+package com.ajeitai.backend.domain.financeiro;
+
+import java.time.LocalDate;
+
+/**
+ * Evento de domínio disparado quando o pagamento ativa (ou renova) a assinatura de um prestador.
+ * Consumido após o commit para atualizar o cache de validade das assinaturas.
+ */
+public record AssinaturaAtivadaEvent(
+        String prestadorKeycloakId,
+        LocalDate dataFim
+) {
+}
@@ -14,6 +14,8 @@ import java.time.LocalDateTime;
         @Index(name = "idx_wallet_trans_prestador", columnList = "prestador_id"),
         @Index(name = "idx_wallet_trans_tipo", columnList = "tipo"),
         @Index(name = "idx_wallet_trans_data", columnList = "criado_em")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_wallet_trans_pagamento", columnNames = "pagamento_id")
 })
 @Getter
 @Setter
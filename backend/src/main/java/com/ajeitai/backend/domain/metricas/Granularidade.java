@@ -0,0 +1,42 @@
+package com.ajeitai.backend.domain.metricas;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/** Tamanho de cada ponto da série de métricas; semanas começam na segunda-feira. */
+public enum Granularidade {
+    DIA,
+    SEMANA,
+    MES;
+
+    /** Primeiro dia do período que contém {@code dia}. */
+    public LocalDate inicio(LocalDate dia) {
+        return switch (this) {
+            case DIA -> dia;
+            case SEMANA -> dia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> dia.withDayOfMonth(1);
+        };
+    }
+
+    /** Primeiro dia do período seguinte ao que começa em {@code inicio}. */
+    public LocalDate proximo(LocalDate inicio) {
+        return switch (this) {
+            case DIA -> inicio.plusDays(1);
+            case SEMANA -> inicio.plusWeeks(1);
+            case MES -> inicio.plusMonths(1);
+        };
+    }
+
+    public static Granularidade de(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return DIA;
+        }
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Granularidade inválida. Use dia, semana ou mes.");
+        }
+    }
+}
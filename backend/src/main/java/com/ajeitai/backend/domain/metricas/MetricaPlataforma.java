@@ -0,0 +1,75 @@
+package com.ajeitai.backend.domain.metricas;
+
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.pagamento.StatusPagamento;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Rollup diário das métricas do painel admin: linhas por (dia, métrica, faixa), somadas pelas transações que
+ * alteram o dado de origem. Cada transação soma em uma faixa sorteada, para que transações simultâneas não
+ * disputem a mesma linha; o valor do dia é a soma das faixas. Cada incremento também soma, na mesma transação,
+ * nas linhas de {@link #DIA_TOTAL}, o acumulado de todos os dias lido pela visão geral.
+ * <p>
+ * Status de agendamentos e pagamentos são contados como fluxos: quantos entraram e quantos saíram de cada
+ * status no dia. O total atual de um status é a soma das entradas menos a das saídas. Para o histórico anterior
+ * ao rollup, os fluxos são aproximados: a carga inicial pôs cada agendamento/pagamento só no status atual, no dia
+ * em que foi criado.
+ */
+@Entity
+@Table(name = "metricas_plataforma", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_metrica_plataforma_dia_faixa", columnNames = {"dia", "metrica", "faixa"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MetricaPlataforma {
+
+    public static final String CLIENTES_NOVOS = "clientes.novos";
+    public static final String PRESTADORES_NOVOS = "prestadores.novos";
+    /** Agendamentos criados no dia; exato também para o histórico anterior ao rollup (carga pela data de criação). */
+    public static final String AGENDAMENTOS_CRIADOS = "agendamentos.criados";
+    /** Valor bruto dos pagamentos de agendamento creditados nas wallets. */
+    public static final String GMV = "gmv";
+    public static final String COMISSAO = "comissao";
+
+    /** Dia sentinela das linhas com o acumulado de todos os dias de cada métrica. */
+    public static final LocalDate DIA_TOTAL = LocalDate.of(1, 1, 1);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Column(nullable = false, length = 60)
+    private String metrica;
+
+    @Column(nullable = false)
+    private int faixa;
+
+    @Column(nullable = false, precision = 16, scale = 2)
+    private BigDecimal valor;
+
+    public static String agendamentosQueEntraram(StatusAgendamento status) {
+        return "agendamentos.entraram." + status.name();
+    }
+
+    public static String agendamentosQueSairam(StatusAgendamento status) {
+        return "agendamentos.sairam." + status.name();
+    }
+
+    public static String pagamentosQueEntraram(StatusPagamento status) {
+        return "pagamentos.entraram." + status.name();
+    }
+
+    public static String pagamentosQueSairam(StatusPagamento status) {
+        return "pagamentos.sairam." + status.name();
+    }
+}
@@ -0,0 +1,23 @@
+package com.ajeitai.backend.domain.metricas;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Um ponto da série de métricas do painel admin: o que aconteceu no período que começa em {@code inicio}.
+ * {@code agendamentosNovos} são os criados no período. {@code agendamentosPorStatus} conta quantos entraram
+ * em cada status no período (CANCELADO = cancelamentos); antes da criação do rollup esses fluxos são
+ * aproximados, com cada agendamento no seu status de então e no dia em que foi criado.
+ */
+public record PontoMetricas(
+        LocalDate inicio,
+        BigDecimal gmv,
+        BigDecimal comissao,
+        long agendamentosNovos,
+        Map<String, Long> agendamentosPorStatus,
+        long cancelamentos,
+        long clientesNovos,
+        long prestadoresNovos
+) {
+}
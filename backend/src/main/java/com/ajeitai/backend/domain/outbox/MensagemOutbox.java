@@ -0,0 +1,39 @@
+package com.ajeitai.backend.domain.outbox;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mensagem a publicar no RabbitMQ, gravada na mesma transação da alteração que a originou.
+ * O {@code RelayOutbox} envia as pendentes em lotes e apaga as confirmadas pelo broker.
+ */
+@Entity
+@Table(name = "outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MensagemOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String exchange;
+
+    @Column(name = "routing_key", nullable = false, length = 100)
+    private String routingKey;
+
+    /** Classe do evento, enviada no cabeçalho {@code __TypeId__} para o conversor JSON do consumidor. */
+    @Column(nullable = false, length = 200)
+    private String tipo;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "criado_em", nullable = false)
+    private LocalDateTime criadoEm;
+}
@@ -0,0 +1,46 @@
+package com.ajeitai.backend.domain.prestador;
+
+/**
+ * O que mudou no prestador. Define quais caches e índices do catálogo precisam ser invalidados.
+ */
+public enum MotivoAlteracao {
+    /** Novo prestador: pode passar a aparecer em listagens já em cache. */
+    CADASTRO(true, true, true),
+    /** Nome, categoria, preço ou endereço: muda o item e pode mudar em quais listagens ele aparece. */
+    PERFIL(true, true, true),
+    AVATAR(true, true, false),
+    /** Portfólio só aparece no detalhe. */
+    PORTFOLIO(true, false, false),
+    /** Nova avaliação muda a média e pode cruzar o filtro minAvaliacao. */
+    AVALIACAO(true, true, true),
+    /** Checkout muda o total de serviços exibido nas listagens. */
+    SERVICO_REALIZADO(false, true, false),
+    /** Agenda semanal: não aparece no catálogo em cache, só na busca por horário livre. */
+    DISPONIBILIDADE(false, false, false);
+
+    private final boolean afetaDetalhe;
+    private final boolean afetaListagensDoPrestador;
+    private final boolean podeEntrarEmListagens;
+
+    MotivoAlteracao(boolean afetaDetalhe, boolean afetaListagensDoPrestador, boolean podeEntrarEmListagens) {
+        this.afetaDetalhe = afetaDetalhe;
+        this.afetaListagensDoPrestador = afetaListagensDoPrestador;
+        this.podeEntrarEmListagens = podeEntrarEmListagens;
+    }
+
+    public boolean afetaDetalhe() {
+        return afetaDetalhe;
+    }
+
+    public boolean afetaListagensDoPrestador() {
+        return afetaListagensDoPrestador;
+    }
+
+    public boolean podeEntrarEmListagens() {
+        return podeEntrarEmListagens;
+    }
+
+    public boolean afetaLocalizacao() {
+        return this == CADASTRO || this == PERFIL;
+    }
+}
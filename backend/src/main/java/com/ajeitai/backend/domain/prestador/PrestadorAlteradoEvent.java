@@ -0,0 +1,24 @@
+package com.ajeitai.backend.domain.prestador;
+
+/**
+ * Evento de domínio disparado quando dados públicos do prestador mudam (cadastro, perfil, avatar,
+ * portfólio, avaliações). Consumido após o commit para manter índices e caches do catálogo atualizados,
+ * e repassado às demais réplicas pelo barramento de invalidação.
+ */
+public record PrestadorAlteradoEvent(
+        Long prestadorId,
+        MotivoAlteracao motivo
+) {
+
+    /** Formato compacto usado no barramento entre réplicas: {@code id:MOTIVO}. */
+    public String codificar() {
+        return prestadorId + ":" + motivo.name();
+    }
+
+    public static PrestadorAlteradoEvent decodificar(String valor) {
+        int separador = valor.indexOf(':');
+        return new PrestadorAlteradoEvent(
+                Long.valueOf(valor.substring(0, separador)),
+                MotivoAlteracao.valueOf(valor.substring(separador + 1)));
+    }
+}
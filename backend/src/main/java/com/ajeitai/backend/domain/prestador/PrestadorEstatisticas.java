@@ -0,0 +1,51 @@
+package com.ajeitai.backend.domain.prestador;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model com as estatísticas públicas do prestador (média de avaliações, total de avaliações,
+ * serviços realizados e última atividade), mantido incrementalmente pelas transações que as alteram.
+ * Evita recalcular agregados por prestador a cada listagem do catálogo.
+ */
+@Entity
+@Table(name = "prestador_estatisticas")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrestadorEstatisticas {
+
+    /** Mesmo id do prestador (relação 1:1 por chave compartilhada). */
+    @Id
+    @Column(name = "prestador_id")
+    private Long prestadorId;
+
+    @Column(name = "media_avaliacao", nullable = false)
+    private Double mediaAvaliacao;
+
+    @Column(name = "soma_notas", nullable = false)
+    private Long somaNotas;
+
+    @Column(name = "total_avaliacoes", nullable = false)
+    private Long totalAvaliacoes;
+
+    @Column(name = "total_servicos", nullable = false)
+    private Long totalServicos;
+
+    @Column(name = "ultima_atividade_em")
+    private LocalDateTime ultimaAtividadeEm;
+
+    public static PrestadorEstatisticas vazia(Long prestadorId) {
+        return PrestadorEstatisticas.builder()
+                .prestadorId(prestadorId)
+                .mediaAvaliacao(0.0)
+                .somaNotas(0L)
+                .totalAvaliacoes(0L)
+                .totalServicos(0L)
+                .build();
+    }
+}
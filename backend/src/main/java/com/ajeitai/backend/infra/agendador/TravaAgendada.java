@@ -0,0 +1,33 @@
+package com.ajeitai.backend.infra.agendador;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Executa o método {@code @Scheduled} em uma única réplica por vez: a réplica que obtém a concessão
+ * {@link #nome()} executa; as demais pulam a execução (métodos com retorno devolvem null, zero ou false).
+ * Para tarefas que alteram o banco; caches e índices em memória de cada réplica não devem usá-la.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface TravaAgendada {
+
+    /** Nome da tarefa (chave da concessão), único entre as tarefas travadas. */
+    String nome();
+
+    /**
+     * Validade máxima da concessão (ISO-8601): se a réplica cair no meio da execução, outra assume depois disso.
+     * Deve ser maior que a duração esperada da tarefa.
+     */
+    String validade();
+
+    /**
+     * Tempo mínimo que a concessão fica retida depois de adquirida, mesmo que a tarefa termine antes,
+     * para que réplicas com o agendamento defasado não repitam a mesma execução. Use um pouco menos que o intervalo.
+     */
+    String minimo() default "PT0S";
+}
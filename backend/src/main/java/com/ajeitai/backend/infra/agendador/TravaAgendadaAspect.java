@@ -0,0 +1,77 @@
+package com.ajeitai.backend.infra.agendador;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.time.Duration;
+
+/**
+ * Envolve os métodos {@link TravaAgendada} (por fora da transação do próprio método): executa só com a concessão,
+ * registrando o tempo com a trava em {@code tarefas.agendadas.trava} e as execuções puladas em
+ * {@code tarefas.agendadas.ignoradas}, por tarefa.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TravaAgendadaAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(TravaAgendadaAspect.class);
+
+    private final TravasTarefas travas;
+    private final MeterRegistry meterRegistry;
+
+    public TravaAgendadaAspect(TravasTarefas travas, MeterRegistry meterRegistry) {
+        this.travas = travas;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(trava)")
+    public Object executarComTrava(ProceedingJoinPoint pjp, TravaAgendada trava) throws Throwable {
+        boolean adquirida;
+        try {
+            adquirida = travas.adquirir(trava.nome(), Duration.parse(trava.validade()));
+        } catch (RuntimeException e) {
+            log.warn("Tarefa {} não executada: falha ao adquirir a trava: {}", trava.nome(), e.getMessage());
+            adquirida = false;
+        }
+        if (!adquirida) {
+            Counter.builder("tarefas.agendadas.ignoradas")
+                    .description("Execuções de tarefas agendadas puladas porque outra réplica detém a trava")
+                    .tag("tarefa", trava.nome())
+                    .register(meterRegistry)
+                    .increment();
+            log.debug("Tarefa {} ignorada: trava detida por outra réplica", trava.nome());
+            return semResultado(pjp);
+        }
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        try {
+            return pjp.proceed();
+        } finally {
+            amostra.stop(Timer.builder("tarefas.agendadas.trava")
+                    .description("Tempo de execução de tarefas agendadas com a trava detida")
+                    .tag("tarefa", trava.nome())
+                    .register(meterRegistry));
+            travas.liberar(trava.nome(), Duration.parse(trava.minimo()));
+        }
+    }
+
+    /** Retorno de uma execução pulada: null, ou o valor padrão do tipo primitivo (0, false). */
+    private static Object semResultado(ProceedingJoinPoint pjp) {
+        Class<?> tipo = ((MethodSignature) pjp.getSignature()).getReturnType();
+        if (!tipo.isPrimitive() || tipo == void.class) {
+            return null;
+        }
+        return Array.get(Array.newInstance(tipo, 1), 0);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ajeitai.backend.infra.agendador;
+
+import com.ajeitai.backend.repository.TravaTarefaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Concessões de tarefas agendadas na tabela {@code travas_tarefas} (PostgreSQL e H2): adquirir é um UPDATE
+ * condicionado ao vencimento, ou o INSERT da primeira concessão, cada um em transação própria e curta,
+ * de modo que nenhuma trava de banco fica retida durante a tarefa. Aquisição, vencimento e liberação usam o
+ * relógio do banco, nunca o da réplica.
+ */
+@Component
+public class TravasTarefas {
+
+    private static final Logger log = LoggerFactory.getLogger(TravasTarefas.class);
+
+    private final TravaTarefaRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final String dono;
+
+    public TravasTarefas(TravaTarefaRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.dono = ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID();
+    }
+
+    /** Verdadeiro quando a concessão foi obtida; falso se outra réplica a detém. */
+    public boolean adquirir(String nome, Duration validade) {
+        long validadeSegundos = validade.toSeconds();
+        try {
+            Integer renovadas = transactionTemplate.execute(status -> repository.renovar(nome, dono, validadeSegundos));
+            if (renovadas != null && renovadas > 0) {
+                return true;
+            }
+            if (repository.existsById(nome)) {
+                return false;
+            }
+            transactionTemplate.executeWithoutResult(status -> repository.inserir(nome, dono, validadeSegundos));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Outra réplica inseriu a primeira concessão ao mesmo tempo
+            return false;
+        }
+    }
+
+    /**
+     * Libera a concessão, retendo-a até {@code minimo} depois da aquisição.
+     */
+    public void liberar(String nome, Duration minimo) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.liberar(nome, dono, minimo.toSeconds()));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao liberar a trava da tarefa {}; ela vence sozinha: {}", nome, e.getMessage());
+        }
+    }
+}
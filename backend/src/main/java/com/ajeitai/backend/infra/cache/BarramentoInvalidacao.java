@@ -0,0 +1,15 @@
+package com.ajeitai.backend.infra.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Barramento de invalidação entre réplicas. Mensagens publicadas são entregues apenas às
+ * <b>outras</b> instâncias; quem publica já aplicou a alteração localmente.
+ * Cada mensagem tem um tipo (ex.: "prestador", "cache") e uma chave livre.
+ */
+public interface BarramentoInvalidacao {
+
+    void publicar(String tipo, String chave);
+
+    void assinar(String tipo, Consumer<String> handler);
+}
@@ -0,0 +1,359 @@
+package com.ajeitai.backend.infra.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache em duas camadas: L1 Caffeine local (limitado por tamanho/peso, W-TinyLFU) na frente de um L2
+ * compartilhado (Redis). Leituras tentam L1, depois L2 (promovendo para L1); escritas e remoções vão às
+ * duas camadas e são anunciadas no {@link BarramentoInvalidacao} para que as outras réplicas descartem
+ * seu L1. Sem L2 (dev), funciona apenas com o L1.
+ * <p>
+ * Em {@link #get(Object, Callable)} (usado por {@code @Cacheable(sync = true)}) só um carregamento roda
+ * por chave: nesta instância por um futuro por chave, fora do compute do Caffeine (as esperas por L2 e pela
+ * trava não seguram o L1), e entre réplicas pela {@link TravaCarregamento}; quem não obtém a trava aguarda o
+ * valor aparecer no L2. Com um recarregador registrado, entradas lidas após {@code refreshApos} são
+ * recarregadas em segundo plano antes de expirar.
+ * <p>
+ * Carregamentos e refreshs só gravam se nenhuma remoção ocorreu desde que começaram: no L1 a conferência e a
+ * escrita são atômicas; no L2 a conferência é refeita logo depois do put, que é desfeito se uma remoção chegou.
+ * <p>
+ * As chaves do L1 são normalizadas para String, o mesmo formato usado no L2 e no barramento.
+ */
+public class CacheDuasCamadas extends AbstractValueAdaptingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheDuasCamadas.class);
+
+    public static final String TIPO_BARRAMENTO = "cache";
+
+    private static final long INTERVALO_ESPERA_MS = 25;
+
+    private final String nome;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private final Cache l2;
+    private final BarramentoInvalidacao barramento;
+    private final TravaCarregamento trava;
+    private final Duration validadeTrava;
+    private final Duration refreshApos;
+    private final Executor executor;
+
+    private final Set<String> recarregando = ConcurrentHashMap.newKeySet();
+    private final Map<String, CompletableFuture<Object>> carregando = new ConcurrentHashMap<>();
+    /** Incrementado a cada remoção; um carregamento ou refresh iniciado antes dela não sobrescreve o cache. */
+    private final AtomicLong invalidacoes = new AtomicLong();
+    private volatile Function<String, Object> recarregador;
+
+    public CacheDuasCamadas(String nome,
+                            com.github.benmanes.caffeine.cache.Cache<String, Object> l1,
+                            Cache l2,
+                            BarramentoInvalidacao barramento) {
+        this(nome, l1, l2, barramento, new LocalTravaCarregamento(), Duration.ofSeconds(5), null, ForkJoinPool.commonPool());
+    }
+
+    public CacheDuasCamadas(String nome,
+                            com.github.benmanes.caffeine.cache.Cache<String, Object> l1,
+                            Cache l2,
+                            BarramentoInvalidacao barramento,
+                            TravaCarregamento trava,
+                            Duration validadeTrava,
+                            Duration refreshApos,
+                            Executor executor) {
+        super(true);
+        this.nome = nome;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.barramento = barramento;
+        this.trava = trava;
+        this.validadeTrava = validadeTrava;
+        this.refreshApos = refreshApos;
+        this.executor = executor;
+    }
+
+    @Override
+    public String getName() {
+        return nome;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l1;
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> getL1() {
+        return l1;
+    }
+
+    /**
+     * Define como recarregar uma chave (já normalizada) sem passar pelo cache; habilita o refresh-ahead.
+     * O recarregador pode retornar null (entrada negativa).
+     */
+    public void registrarRecarregador(Function<String, Object> recarregador) {
+        this.recarregador = recarregador;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String chave = chave(key);
+        Object valor = l1.getIfPresent(chave);
+        if (valor != null) {
+            return valor;
+        }
+        Object remoto = lerL2(chave);
+        if (remoto != null) {
+            l1.put(chave, remoto);
+        }
+        return remoto;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String chave = chave(key);
+        Object armazenado = l1.getIfPresent(chave);
+        if (armazenado == null) {
+            armazenado = carregarUmaVez(chave, key, valueLoader);
+        }
+        agendarRefresh(chave);
+        return (T) fromStoreValue(armazenado);
+    }
+
+    /**
+     * Um carregamento por chave nesta instância: quem chega durante ele espera o mesmo futuro, fora do
+     * Caffeine, sem bloquear remoções nem outras chaves do L1.
+     */
+    private Object carregarUmaVez(String chave, Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> meu = new CompletableFuture<>();
+        CompletableFuture<Object> emAndamento = carregando.putIfAbsent(chave, meu);
+        if (emAndamento != null) {
+            return aguardar(emAndamento);
+        }
+        try {
+            long geracao = invalidacoes.get();
+            // Um carregamento pode ter terminado entre a leitura do L1 e o registro do futuro
+            Object valor = l1.getIfPresent(chave);
+            if (valor == null) {
+                valor = carregar(chave, key, valueLoader, geracao);
+                gravarL1(chave, valor, geracao);
+            }
+            meu.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error e) {
+            meu.completeExceptionally(e);
+            throw e;
+        } finally {
+            carregando.remove(chave, meu);
+        }
+    }
+
+    private static Object aguardar(CompletableFuture<Object> emAndamento) {
+        try {
+            return emAndamento.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private Object carregar(String chave, Object key, Callable<?> valueLoader, long geracao) {
+        Object remoto = lerL2(chave);
+        if (remoto != null) {
+            return remoto;
+        }
+        if (l2 == null) {
+            return executar(key, valueLoader);
+        }
+        Optional<String> token = trava.adquirir(nome + ":" + chave, validadeTrava);
+        if (token.isEmpty()) {
+            Object carregadoPorOutra = aguardarL2(chave);
+            if (carregadoPorOutra != null) {
+                return carregadoPorOutra;
+            }
+            // A réplica dona da trava não concluiu a tempo: carrega aqui mesmo
+            log.debug("Tempo de espera pela trava esgotado em {}:{}", nome, chave);
+            return carregarEGravar(chave, key, valueLoader, geracao);
+        }
+        try {
+            Object carregadoAntes = lerL2(chave);
+            return carregadoAntes != null ? carregadoAntes : carregarEGravar(chave, key, valueLoader, geracao);
+        } finally {
+            trava.liberar(nome + ":" + chave, token.get());
+        }
+    }
+
+    private Object carregarEGravar(String chave, Object key, Callable<?> valueLoader, long geracao) {
+        Object carregado = executar(key, valueLoader);
+        gravarL2(chave, carregado, geracao);
+        return carregado;
+    }
+
+    /**
+     * Grava no L2 se não houve remoção desde {@code geracao}. A remoção pode chegar entre a conferência e o
+     * put; por isso confere de novo depois e, se ela chegou, desfaz o put. Devolve se o valor ficou gravado.
+     */
+    private boolean gravarL2(String chave, Object armazenado, long geracao) {
+        if (l2 == null) {
+            return invalidacoes.get() == geracao;
+        }
+        if (invalidacoes.get() != geracao) {
+            return false;
+        }
+        l2.put(chave, fromStoreValue(armazenado));
+        if (invalidacoes.get() != geracao) {
+            l2.evict(chave);
+            return false;
+        }
+        return true;
+    }
+
+    /** Grava no L1 se não houve remoção desde {@code geracao}; conferência e escrita atômicas na chave. */
+    private void gravarL1(String chave, Object armazenado, long geracao) {
+        l1.asMap().compute(chave, (k, atual) -> invalidacoes.get() == geracao ? armazenado : atual);
+    }
+
+    private Object executar(Object key, Callable<?> valueLoader) {
+        try {
+            return toStoreValue(valueLoader.call());
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private Object aguardarL2(String chave) {
+        long limite = System.nanoTime() + validadeTrava.toNanos();
+        while (System.nanoTime() < limite) {
+            try {
+                Thread.sleep(INTERVALO_ESPERA_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Object remoto = lerL2(chave);
+            if (remoto != null) {
+                return remoto;
+            }
+        }
+        return null;
+    }
+
+    private Object lerL2(String chave) {
+        if (l2 == null) {
+            return null;
+        }
+        ValueWrapper remoto = l2.get(chave);
+        return remoto != null ? toStoreValue(remoto.get()) : null;
+    }
+
+    /**
+     * Refresh-ahead: só entradas efetivamente lidas (quentes) e mais velhas que {@code refreshApos} são
+     * recarregadas, uma vez por chave, e só pela réplica que obtiver a trava; as demais recebem a
+     * invalidação do L1 pelo barramento e leem o valor novo no L2.
+     */
+    private void agendarRefresh(String chave) {
+        Function<String, Object> carregador = recarregador;
+        if (carregador == null || refreshApos == null) {
+            return;
+        }
+        Optional<Duration> idade = l1.policy().expireAfterWrite().flatMap(p -> p.ageOf(chave));
+        if (idade.isEmpty() || idade.get().compareTo(refreshApos) < 0 || !recarregando.add(chave)) {
+            return;
+        }
+        long geracao = invalidacoes.get();
+        try {
+            executor.execute(() -> {
+                try {
+                    recarregar(chave, carregador, geracao);
+                } finally {
+                    recarregando.remove(chave);
+                }
+            });
+        } catch (RuntimeException e) {
+            recarregando.remove(chave);
+            log.warn("Refresh de {}:{} não agendado: {}", nome, chave, e.getMessage());
+        }
+    }
+
+    private void recarregar(String chave, Function<String, Object> carregador, long geracao) {
+        Optional<String> token = trava.adquirir(nome + ":" + chave, validadeTrava);
+        if (token.isEmpty()) {
+            return;
+        }
+        try {
+            Object armazenado = toStoreValue(carregador.apply(chave));
+            if (!gravarL2(chave, armazenado, geracao)) {
+                return;
+            }
+            gravarL1(chave, armazenado, geracao);
+            barramento.publicar(TIPO_BARRAMENTO, nome + "|" + chave);
+        } catch (RuntimeException e) {
+            // Mantém o valor atual; a entrada expira normalmente pelo TTL
+            log.warn("Falha no refresh de {}:{}: {}", nome, chave, e.getMessage());
+        } finally {
+            trava.liberar(nome + ":" + chave, token.get());
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String chave = chave(key);
+        if (l2 != null) {
+            l2.put(chave, value);
+        }
+        l1.put(chave, toStoreValue(value));
+        barramento.publicar(TIPO_BARRAMENTO, nome + "|" + chave);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String chave = chave(key);
+        invalidacoes.incrementAndGet();
+        if (l2 != null) {
+            l2.evict(chave);
+        }
+        l1.invalidate(chave);
+        barramento.publicar(TIPO_BARRAMENTO, nome + "|" + chave);
+    }
+
+    @Override
+    public void clear() {
+        invalidacoes.incrementAndGet();
+        if (l2 != null) {
+            l2.clear();
+        }
+        l1.invalidateAll();
+        barramento.publicar(TIPO_BARRAMENTO, nome + "|*");
+    }
+
+    /** Descarta apenas o L1 desta instância (mensagem de outra réplica). */
+    public void evictLocal(String chave) {
+        invalidacoes.incrementAndGet();
+        if ("*".equals(chave)) {
+            l1.invalidateAll();
+        } else {
+            l1.invalidate(chave);
+        }
+    }
+
+    private static String chave(Object key) {
+        return String.valueOf(key);
+    }
+}
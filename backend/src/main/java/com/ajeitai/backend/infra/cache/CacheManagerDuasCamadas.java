@@ -0,0 +1,64 @@
+package com.ajeitai.backend.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Gerenciador dos caches em duas camadas. Os caches são fixos (definidos na configuração); o L2 é
+ * opcional; a {@link TravaCarregamento} coordena o carregamento de entradas ausentes entre réplicas.
+ * Registra métricas do L1 (hits, misses, evictions, peso) no Micrometer e aplica no L1 local as
+ * invalidações recebidas das outras réplicas.
+ */
+public class CacheManagerDuasCamadas implements CacheManager {
+
+    private final Map<String, CacheDuasCamadas> caches = new LinkedHashMap<>();
+
+    public CacheManagerDuasCamadas(Map<String, ConfiguracaoCacheL1> configuracoes,
+                                   CacheManager l2,
+                                   BarramentoInvalidacao barramento,
+                                   TravaCarregamento trava,
+                                   Duration validadeTrava,
+                                   MeterRegistry meterRegistry) {
+        configuracoes.forEach((nome, config) -> {
+            com.github.benmanes.caffeine.cache.Cache<String, Object> l1 = Caffeine.newBuilder()
+                    .maximumWeight(config.pesoMaximo())
+                    .weigher(new PesoEntradaCache())
+                    .expireAfterWrite(config.ttl())
+                    .recordStats()
+                    .build();
+            if (meterRegistry != null) {
+                CaffeineCacheMetrics.monitor(meterRegistry, l1, nome);
+            }
+            Cache remoto = l2 != null ? l2.getCache(nome) : null;
+            caches.put(nome, new CacheDuasCamadas(nome, l1, remoto, barramento, trava, validadeTrava,
+                    config.refreshApos(), ForkJoinPool.commonPool()));
+        });
+        barramento.assinar(CacheDuasCamadas.TIPO_BARRAMENTO, mensagem -> {
+            int separador = mensagem.indexOf('|');
+            CacheDuasCamadas cache = caches.get(mensagem.substring(0, separador));
+            if (cache != null) {
+                cache.evictLocal(mensagem.substring(separador + 1));
+            }
+        });
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.get(name);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+}
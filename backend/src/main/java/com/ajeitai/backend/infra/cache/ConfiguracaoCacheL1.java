@@ -0,0 +1,18 @@
+package com.ajeitai.backend.infra.cache;
+
+import java.time.Duration;
+
+/**
+ * Limites do L1 de um cache: peso máximo (ver {@link PesoEntradaCache}), TTL local após escrita e,
+ * opcionalmente, a idade a partir da qual uma entrada lida é recarregada em segundo plano (refresh-ahead).
+ */
+public record ConfiguracaoCacheL1(
+        long pesoMaximo,
+        Duration ttl,
+        Duration refreshApos
+) {
+
+    public ConfiguracaoCacheL1(long pesoMaximo, Duration ttl) {
+        this(pesoMaximo, ttl, null);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ajeitai.backend.infra.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Barramento para instância única (sem Redis): não há outras réplicas a notificar.
+ */
+public class LocalBarramentoInvalidacao implements BarramentoInvalidacao {
+
+    @Override
+    public void publicar(String tipo, String chave) {
+        // Sem outras réplicas: nada a propagar.
+    }
+
+    @Override
+    public void assinar(String tipo, Consumer<String> handler) {
+        // Mensagens só chegariam de outras réplicas.
+    }
+}
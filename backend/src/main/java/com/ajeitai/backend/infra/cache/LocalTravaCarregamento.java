@@ -0,0 +1,23 @@
+package com.ajeitai.backend.infra.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Trava para instância única (sem Redis): sempre concedida. O carregamento único por chave
+ * nesta instância já é garantido pelo L1 ({@link CacheDuasCamadas#get(Object, java.util.concurrent.Callable)}).
+ */
+public class LocalTravaCarregamento implements TravaCarregamento {
+
+    private static final String TOKEN = "local";
+
+    @Override
+    public Optional<String> adquirir(String chave, Duration validade) {
+        return Optional.of(TOKEN);
+    }
+
+    @Override
+    public void liberar(String chave, String token) {
+        // Nada a liberar.
+    }
+}
@@ -0,0 +1,23 @@
+package com.ajeitai.backend.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.util.Collection;
+
+/**
+ * Peso aproximado de uma entrada do L1: listas pesam pelo número de itens, bytes por KiB,
+ * demais objetos 1. Mantém listagens grandes do catálogo competindo de forma justa com detalhes.
+ */
+public class PesoEntradaCache implements Weigher<String, Object> {
+
+    @Override
+    public int weigh(String chave, Object valor) {
+        if (valor instanceof Collection<?> colecao) {
+            return 1 + colecao.size();
+        }
+        if (valor instanceof byte[] bytes) {
+            return 1 + bytes.length / 1024;
+        }
+        return 1;
+    }
+}
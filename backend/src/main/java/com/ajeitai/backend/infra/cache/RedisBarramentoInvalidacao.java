@@ -0,0 +1,97 @@
+package com.ajeitai.backend.infra.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Barramento de invalidação via Redis pub/sub. Formato da mensagem: {@code origem|tipo|chave};
+ * mensagens da própria instância são ignoradas. O barramento é dono do seu contêiner de listeners, iniciado e
+ * parado com o contexto.
+ */
+public class RedisBarramentoInvalidacao implements BarramentoInvalidacao, MessageListener, SmartLifecycle,
+        DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisBarramentoInvalidacao.class);
+
+    public static final String CANAL = "ajeitai:invalidacao";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final String origem = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+
+    public RedisBarramentoInvalidacao(RedisConnectionFactory connectionFactory) {
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        this.listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CANAL));
+        listenerContainer.afterPropertiesSet();
+    }
+
+    @Override
+    public void start() {
+        listenerContainer.start();
+    }
+
+    @Override
+    public void stop() {
+        listenerContainer.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return listenerContainer.isRunning();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    @Override
+    public void publicar(String tipo, String chave) {
+        try {
+            redisTemplate.convertAndSend(CANAL, origem + "|" + tipo + "|" + chave);
+        } catch (RuntimeException e) {
+            // Falha no Redis não deve desfazer a operação já commitada; as demais réplicas expiram pelo TTL.
+            log.warn("Falha ao publicar invalidação {} {}: {}", tipo, chave, e.getMessage());
+        }
+    }
+
+    @Override
+    public void assinar(String tipo, Consumer<String> handler) {
+        handlers.computeIfAbsent(tipo, t -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String corpo = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] partes = corpo.split("\\|", 3);
+        if (partes.length != 3 || origem.equals(partes[0])) {
+            return;
+        }
+        for (Consumer<String> handler : handlers.getOrDefault(partes[1], List.of())) {
+            try {
+                handler.accept(partes[2]);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao aplicar invalidação {} {}: {}", partes[1], partes[2], e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ajeitai.backend.infra.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Trava de carregamento via {@code SET chave token NX PX}. A liberação só remove a chave se o token
+ * ainda for o nosso (script Lua), para não apagar a trava de outra réplica após expirar.
+ * Se o Redis falhar, a trava é considerada adquirida: perde-se a coalescência, não a disponibilidade.
+ */
+public class RedisTravaCarregamento implements TravaCarregamento {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisTravaCarregamento.class);
+
+    private static final String PREFIXO = "ajeitai:trava-cache:";
+    private static final DefaultRedisScript<Long> LIBERAR = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisTravaCarregamento(RedisConnectionFactory connectionFactory) {
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @Override
+    public Optional<String> adquirir(String chave, Duration validade) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean adquirida = redisTemplate.opsForValue().setIfAbsent(PREFIXO + chave, token, validade);
+            return Boolean.TRUE.equals(adquirida) ? Optional.of(token) : Optional.empty();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao adquirir trava de cache {}: {}", chave, e.getMessage());
+            return Optional.of(token);
+        }
+    }
+
+    @Override
+    public void liberar(String chave, String token) {
+        try {
+            redisTemplate.execute(LIBERAR, List.of(PREFIXO + chave), token);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao liberar trava de cache {}: {}", chave, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.ajeitai.backend.infra.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Respostas JSON guardadas em cache já serializadas: o acerto no cache devolve os bytes finais, sem
+ * desserializar o DTO nem serializá-lo de novo. Acima de {@code app.cache.resposta.deflate-limiar-bytes}
+ * a entrada é comprimida (zlib, o {@code Content-Encoding: deflate} do HTTP) e enviada assim a quem
+ * aceita deflate; os demais recebem a versão descomprimida.
+ * <p>
+ * O formato é reconhecido pelo primeiro byte: JSON nunca começa com {@code 0x78}, o cabeçalho zlib.
+ * O tamanho de cada entrada gerada é publicado em {@code cache.entrada.bytes}.
+ */
+@Component
+public class RespostaJsonCache {
+
+    private static final byte CABECALHO_ZLIB = 0x78;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean deflateHabilitado;
+    private final int limiarDeflate;
+
+    public RespostaJsonCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.resposta.deflate:true}") boolean deflateHabilitado,
+            @Value("${app.cache.resposta.deflate-limiar-bytes:1024}") int limiarDeflate
+    ) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.deflateHabilitado = deflateHabilitado;
+        this.limiarDeflate = limiarDeflate;
+    }
+
+    /**
+     * Entrada de cache para {@code valor} (null permanece null, para cache negativo).
+     */
+    public byte[] codificar(String nomeCache, Object valor) {
+        if (valor == null) {
+            return null;
+        }
+        byte[] json = serializar(valor);
+        byte[] entrada = deflateHabilitado && json.length >= limiarDeflate ? comprimir(json) : json;
+        DistributionSummary.builder("cache.entrada.bytes")
+                .description("Tamanho das respostas JSON armazenadas em cache")
+                .baseUnit("bytes")
+                .tag("cache", nomeCache)
+                .tag("formato", comprimida(entrada) ? "deflate" : "json")
+                .register(meterRegistry)
+                .record(entrada.length);
+        return entrada;
+    }
+
+    public byte[] serializar(Object valor) {
+        try {
+            return objectMapper.writeValueAsBytes(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar resposta JSON", e);
+        }
+    }
+
+    /**
+     * Resposta 200 com os bytes da entrada, comprimidos apenas se o cliente aceitar deflate.
+     */
+    public ResponseEntity<byte[]> responder(byte[] entrada, String acceptEncoding) {
+        return preparar(entrada, acceptEncoding).body(corpo(entrada, acceptEncoding));
+    }
+
+    /** Como {@link #responder(byte[], String)}, com ETag e Cache-Control. */
+    public ResponseEntity<byte[]> responder(byte[] entrada, String acceptEncoding, String etag, CacheControl cacheControl) {
+        return preparar(entrada, acceptEncoding)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(corpo(entrada, acceptEncoding));
+    }
+
+    private ResponseEntity.BodyBuilder preparar(byte[] entrada, String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (comprimida(entrada) && aceitaDeflate(acceptEncoding)) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "deflate");
+        }
+        return builder;
+    }
+
+    private byte[] corpo(byte[] entrada, String acceptEncoding) {
+        return comprimida(entrada) && !aceitaDeflate(acceptEncoding) ? descomprimir(entrada) : entrada;
+    }
+
+    public static boolean comprimida(byte[] entrada) {
+        return entrada.length > 0 && entrada[0] == CABECALHO_ZLIB;
+    }
+
+    public static boolean aceitaDeflate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacao : acceptEncoding.split(",")) {
+            String[] partes = codificacao.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("deflate")) {
+                return partes.length == 1 || !partes[1].replace(" ", "").equalsIgnoreCase("q=0");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] comprimir(byte[] json) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(json.length / 4 + 16);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(saida, deflater)) {
+            deflate.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return saida.toByteArray();
+    }
+
+    static byte[] descomprimir(byte[] entrada) {
+        Inflater inflater = new Inflater();
+        inflater.setInput(entrada);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(entrada.length * 4);
+        byte[] buffer = new byte[8192];
+        try {
+            while (!inflater.finished()) {
+                int lidos = inflater.inflate(buffer);
+                if (lidos == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Entrada de cache comprimida truncada");
+                }
+                saida.write(buffer, 0, lidos);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Entrada de cache comprimida inválida", e);
+        } finally {
+            inflater.end();
+        }
+        return saida.toByteArray();
+    }
+}
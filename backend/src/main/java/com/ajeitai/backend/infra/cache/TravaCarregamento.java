@@ -0,0 +1,16 @@
+package com.ajeitai.backend.infra.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Trava curta entre réplicas para que apenas uma carregue uma entrada de cache ausente.
+ * A trava expira sozinha após {@code validade}, de modo que uma réplica que caiu não bloqueia as demais.
+ */
+public interface TravaCarregamento {
+
+    /** Token da trava quando adquirida; vazio se outra réplica já a detém. */
+    Optional<String> adquirir(String chave, Duration validade);
+
+    void liberar(String chave, String token);
+}
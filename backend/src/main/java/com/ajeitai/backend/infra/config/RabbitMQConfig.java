@@ -32,6 +32,8 @@ public class RabbitMQConfig {
     public static final String AGENDAMENTOS_CRIADOS_RK = "agendamentos.criados";
     public static final String AGENDAMENTOS_PAGOS_RK = "agendamentos.pagos";
     public static final String NOTIFICACOES_PUSH_RK = "notificacoes.push";
+    // Transições de status (via outbox); sem fila própria: cada consumidor liga a sua à exchange
+    public static final String AGENDAMENTOS_STATUS_RK = "agendamentos.status";
 
     @Bean
     public DirectExchange agendamentosExchange() {
@@ -3,8 +3,7 @@ package com.ajeitai.backend.infra.db;
 import com.ajeitai.backend.infra.security.UserContext;
 import com.ajeitai.backend.infra.security.UserContextHolder;
 import com.ajeitai.backend.infra.security.UserType;
-import com.ajeitai.backend.service.ClienteService;
-import com.ajeitai.backend.service.PrestadorService;
+import com.ajeitai.backend.service.IdentidadeService;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.Session;
@@ -30,8 +29,7 @@ import org.aspectj.lang.annotation.Aspect;
 public class RlsSessionAspect {
 
     private final EntityManager entityManager;
-    private final ClienteService clienteService;
-    private final PrestadorService prestadorService;
+    private final IdentidadeService identidadeService;
 
     @Around("within(com.ajeitai.backend.service..*) && @annotation(transactional)")
     public Object applyRlsContext(ProceedingJoinPoint pjp, Transactional transactional) throws Throwable {
@@ -57,22 +55,14 @@ public class RlsSessionAspect {
                 }
 
                 if (context.isCliente()) {
-                    Long clienteId = context.getClienteId();
-                    if (clienteId == null) {
-                        clienteId = clienteService.buscarPorKeycloakId(context.getKeycloakId()).getId();
-                        context.setClienteId(clienteId);
-                    }
+                    Long clienteId = identidadeService.idDoCliente(context.getKeycloakId());
                     stmt.execute("SET LOCAL app.current_role = 'CLIENTE'");
                     stmt.execute("SET LOCAL app.current_cliente_id = '" + clienteId + "'");
                     return;
                 }
 
                 if (context.isPrestador()) {
-                    Long prestadorId = context.getPrestadorId();
-                    if (prestadorId == null) {
-                        prestadorId = prestadorService.buscarPorKeycloakId(context.getKeycloakId()).getId();
-                        context.setPrestadorId(prestadorId);
-                    }
+                    Long prestadorId = identidadeService.idDoPrestador(context.getKeycloakId());
                     stmt.execute("SET LOCAL app.current_role = 'PRESTADOR'");
                     stmt.execute("SET LOCAL app.current_prestador_id = '" + prestadorId + "'");
                 }
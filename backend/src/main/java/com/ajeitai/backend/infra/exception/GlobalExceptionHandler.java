@@ -3,6 +3,7 @@ package com.ajeitai.backend.infra.exception;
 import org.slf4j.MDC;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -69,6 +70,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(body);
     }
 
+    /** Trava otimista (@Version): a entidade mudou desde que foi lida. */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErroResponse> handleOptimisticLocking(OptimisticLockingFailureException ex,
+                                                                HttpServletRequest request) {
+        ErroResponse body = new ErroResponse(
+                "CONFLITO",
+                "O registro foi alterado por outra operação. Atualize e tente novamente.",
+                request.getRequestURI(),
+                Instant.now(),
+                requestId()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErroResponse> handleGeneric(Exception ex, HttpServletRequest request) {
         String requestId = requestId();
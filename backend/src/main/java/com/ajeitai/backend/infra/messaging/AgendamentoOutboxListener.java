@@ -0,0 +1,30 @@
+package com.ajeitai.backend.infra.messaging;
+
+import com.ajeitai.backend.domain.agendamento.AgendamentoCriadoEvent;
+import com.ajeitai.backend.domain.agendamento.AgendamentoStatusAlteradoEvent;
+import com.ajeitai.backend.infra.config.RabbitMQConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Leva os eventos de agendamento ao {@link Outbox} antes do commit, na mesma transação da alteração;
+ * a publicação no broker fica com o {@link RelayOutbox}, fora da requisição.
+ */
+@Component
+@RequiredArgsConstructor
+public class AgendamentoOutboxListener {
+
+    private final Outbox outbox;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onAgendamentoCriado(AgendamentoCriadoEvent event) {
+        outbox.registrar(RabbitMQConfig.AGENDAMENTOS_EXCHANGE, RabbitMQConfig.AGENDAMENTOS_CRIADOS_RK, event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onAgendamentoStatusAlterado(AgendamentoStatusAlteradoEvent event) {
+        outbox.registrar(RabbitMQConfig.AGENDAMENTOS_EXCHANGE, RabbitMQConfig.AGENDAMENTOS_STATUS_RK, event);
+    }
+}
@@ -0,0 +1,39 @@
+package com.ajeitai.backend.infra.messaging;
+
+import com.ajeitai.backend.domain.outbox.MensagemOutbox;
+import com.ajeitai.backend.repository.OutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Grava eventos para publicação no RabbitMQ dentro da transação corrente: o evento só existe se a
+ * alteração for confirmada. O JSON sai do mesmo conversor do {@code RabbitTemplate}, então os
+ * consumidores recebem exatamente o que receberiam de um {@code convertAndSend}.
+ */
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+
+    private final OutboxRepository outboxRepository;
+    private final Jackson2JsonMessageConverter messageConverter;
+
+    @Transactional
+    public void registrar(String exchange, String routingKey, Object evento) {
+        Message mensagem = messageConverter.toMessage(evento, new MessageProperties());
+        outboxRepository.save(MensagemOutbox.builder()
+                .exchange(exchange)
+                .routingKey(routingKey)
+                .tipo(mensagem.getMessageProperties().getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME))
+                .payload(new String(mensagem.getBody(), StandardCharsets.UTF_8))
+                .criadoEm(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,122 @@
+package com.ajeitai.backend.infra.messaging;
+
+import com.ajeitai.backend.domain.outbox.MensagemOutbox;
+import com.ajeitai.backend.infra.agendador.TravaAgendada;
+import com.ajeitai.backend.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Publica as mensagens do {@link Outbox} em lotes de {@code app.outbox.lote}, em ordem de gravação:
+ * todas as mensagens do lote saem no mesmo canal e o relay espera as confirmações do broker
+ * (publisher confirms) uma vez por lote antes de apagar as linhas.
+ * <p>
+ * A entrega é pelo menos uma vez: se o relay cair entre a confirmação e a remoção, o lote é reenviado.
+ * Cada mensagem leva {@code messageId = outbox-<id>} para que os consumidores descartem duplicatas.
+ * Com o broker fora do ar, o relay espera {@code app.outbox.espera-apos-falha-ms} antes de tentar de novo.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class RelayOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(RelayOutbox.class);
+
+    private final OutboxRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final int tamanhoLote;
+    private final long timeoutConfirmacaoMs;
+    private final Duration esperaAposFalha;
+    private final Counter enviadas;
+    private final Counter falhas;
+    private volatile Instant proximaTentativa = Instant.MIN;
+
+    public RelayOutbox(
+            OutboxRepository outboxRepository,
+            RabbitTemplate rabbitTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.lote:200}") int tamanhoLote,
+            @Value("${app.outbox.timeout-confirmacao-ms:5000}") long timeoutConfirmacaoMs,
+            @Value("${app.outbox.espera-apos-falha-ms:10000}") long esperaAposFalhaMs
+    ) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("O lote do outbox deve ser positivo.");
+        }
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.timeoutConfirmacaoMs = timeoutConfirmacaoMs;
+        this.esperaAposFalha = Duration.ofMillis(esperaAposFalhaMs);
+        this.enviadas = Counter.builder("outbox.mensagens.enviadas")
+                .description("Mensagens do outbox confirmadas pelo broker")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("outbox.falhas")
+                .description("Lotes do outbox não confirmados pelo broker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Esvazia o outbox lote a lote, em uma réplica por vez. Devolve quantas mensagens foram publicadas.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.intervalo-ms:1000}")
+    @TravaAgendada(nome = "outbox-relay", validade = "PT1M")
+    public int repassar() {
+        if (Instant.now().isBefore(proximaTentativa)) {
+            return 0;
+        }
+        int total = 0;
+        try {
+            List<MensagemOutbox> lote;
+            do {
+                lote = outboxRepository.findAllByOrderByIdAsc(Limit.of(tamanhoLote));
+                if (lote.isEmpty()) {
+                    break;
+                }
+                publicar(lote);
+                outboxRepository.deleteAllByIdInBatch(lote.stream().map(MensagemOutbox::getId).toList());
+                total += lote.size();
+                enviadas.increment(lote.size());
+            } while (lote.size() == tamanhoLote);
+        } catch (AmqpException e) {
+            falhas.increment();
+            proximaTentativa = Instant.now().plus(esperaAposFalha);
+            log.warn("Falha ao publicar lote do outbox; nova tentativa em {} ms.", esperaAposFalha.toMillis(), e);
+        }
+        return total;
+    }
+
+    private void publicar(List<MensagemOutbox> lote) {
+        rabbitTemplate.invoke(operacoes -> {
+            for (MensagemOutbox mensagem : lote) {
+                operacoes.send(mensagem.getExchange(), mensagem.getRoutingKey(), paraMensagem(mensagem));
+            }
+            operacoes.waitForConfirmsOrDie(timeoutConfirmacaoMs);
+            return null;
+        });
+    }
+
+    private static Message paraMensagem(MensagemOutbox mensagem) {
+        MessageProperties propriedades = new MessageProperties();
+        propriedades.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        propriedades.setContentEncoding(StandardCharsets.UTF_8.name());
+        propriedades.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, mensagem.getTipo());
+        propriedades.setMessageId("outbox-" + mensagem.getId());
+        return new Message(mensagem.getPayload().getBytes(StandardCharsets.UTF_8), propriedades);
+    }
+}
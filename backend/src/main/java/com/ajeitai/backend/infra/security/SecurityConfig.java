@@ -1,5 +1,6 @@
 package com.ajeitai.backend.infra.security;
 
+import com.ajeitai.backend.controller.AgendamentoController;
 import com.ajeitai.backend.service.AssinaturaService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -58,6 +59,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> {
                     // ROTAS PÚBLICAS (INCLUINDO VINCULAR PARA MVP)
                     authorize.requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll();
+                    authorize.requestMatchers("/actuator/metrics/**", "/actuator/caches/**").hasRole("admin");
                     authorize.requestMatchers("/publico/**", "/api/auth/**", "/api/categorias-atuacao", "/api/webhooks/**").permitAll();
                     authorize.requestMatchers("/clientes/vincular").permitAll(); // BYPASS APLICADO CORRETAMENTE AQUI
 
@@ -107,6 +109,7 @@ public class SecurityConfig {
         config.addAllowedOrigin("http://localhost:3000");
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        config.addExposedHeader(AgendamentoController.CABECALHO_PROXIMO_CURSOR);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         // AQUI ESTAVA O ERRO DO CORS: AGORA ELE ACEITA QUALQUER ROTA, NÃO APENAS /api/**
@@ -17,7 +17,7 @@ public class UserContext {
     private final String keycloakId;
     private final UserType userType;
     private final Set<String> roles;
-    // IDs internos resolvidos a partir do keycloakId (opcionais, populados sob demanda)
+    // IDs internos resolvidos a partir do keycloakId (opcionais, populados sob demanda pelo IdentidadeService)
     private Long clienteId;
     private Long prestadorId;
 
@@ -2,14 +2,19 @@ package com.ajeitai.backend.repository;
 
 import com.ajeitai.backend.domain.agendamento.Agendamento;
 import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.pagamento.StatusPagamento;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface AgendamentoRepository extends JpaRepository<Agendamento, Long> {
+public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>, AgendamentoResumoRepository {
 
     @Query("SELECT COUNT(a) FROM Agendamento a WHERE a.prestador.id = :prestadorId AND a.status = :status")
     long countByPrestadorIdAndStatus(@Param("prestadorId") Long prestadorId, @Param("status") StatusAgendamento status);
@@ -17,24 +22,12 @@ public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>
     @Query("SELECT COUNT(a) FROM Agendamento a WHERE a.prestador.keycloakId = :keycloakId AND a.status = :status")
     long countByPrestadorKeycloakIdAndStatus(@Param("keycloakId") String keycloakId, @Param("status") StatusAgendamento status);
 
-    @Query("SELECT a FROM Agendamento a JOIN FETCH a.cliente JOIN FETCH a.prestador WHERE a.cliente.id = :clienteId ORDER BY a.dataHora DESC")
-    List<Agendamento> findByClienteIdOrderByDataHoraDesc(@Param("clienteId") Long clienteId);
-
-    @Query("SELECT a FROM Agendamento a JOIN FETCH a.cliente JOIN FETCH a.prestador WHERE a.cliente.id = :clienteId AND a.status = :status ORDER BY a.dataHora DESC")
-    List<Agendamento> findByClienteIdAndStatusOrderByDataHoraDesc(@Param("clienteId") Long clienteId, @Param("status") StatusAgendamento status);
-
     @Query("SELECT a FROM Agendamento a JOIN FETCH a.cliente JOIN FETCH a.prestador WHERE a.prestador.id = :prestadorId ORDER BY a.dataHora DESC")
     List<Agendamento> findByPrestadorIdOrderByDataHoraDesc(@Param("prestadorId") Long prestadorId);
 
     @Query("SELECT a FROM Agendamento a JOIN FETCH a.cliente JOIN FETCH a.prestador WHERE a.prestador.id = :prestadorId AND a.status = :status ORDER BY a.dataHora DESC")
     List<Agendamento> findByPrestadorIdAndStatusOrderByDataHoraDesc(@Param("prestadorId") Long prestadorId, @Param("status") StatusAgendamento status);
 
-    @Query("SELECT a FROM Agendamento a JOIN FETCH a.cliente JOIN FETCH a.prestador WHERE a.prestador.keycloakId = :keycloakId ORDER BY a.dataHora DESC")
-    List<Agendamento> findByPrestadorKeycloakIdOrderByDataHoraDesc(@Param("keycloakId") String keycloakId);
-
-    @Query("SELECT a FROM Agendamento a JOIN FETCH a.cliente JOIN FETCH a.prestador WHERE a.prestador.keycloakId = :keycloakId AND a.status = :status ORDER BY a.dataHora DESC")
-    List<Agendamento> findByPrestadorKeycloakIdAndStatusOrderByDataHoraDesc(@Param("keycloakId") String keycloakId, @Param("status") StatusAgendamento status);
-
     @Query("SELECT a FROM Agendamento a WHERE a.prestador.id = :prestadorId AND a.status = :status AND a.dataHora BETWEEN :inicio AND :fim")
     List<Agendamento> findByPrestadorIdAndStatusAndDataHoraBetween(
             @Param("prestadorId") Long prestadorId,
@@ -51,17 +44,209 @@ public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>
             @Param("fim") LocalDateTime fim
     );
 
-    @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM Agendamento a WHERE a.prestador.id = :prestadorId AND a.dataHora BETWEEN :inicio AND :fim AND a.status IN :statuses")
-    boolean existsByPrestadorIdAndDataHoraBetweenAndStatusIn(
-            @Param("prestadorId") Long prestadorId,
-            @Param("inicio") LocalDateTime inicio,
-            @Param("fim") LocalDateTime fim,
-            @Param("statuses") List<StatusAgendamento> statuses
-    );
-
-    List<Agendamento> findByStatusAndDataHoraBefore(StatusAgendamento status, LocalDateTime dataHoraLimit);
+    /**
+     * Se algum agendamento do prestador com um dos status sobrepõe [inicio, fim).
+     * Limitado por {@link Agendamento#DURACAO_MAXIMA} para percorrer só um trecho do índice (prestador_id, data_hora).
+     */
+    default boolean existeSobreposicao(Long prestadorId, List<StatusAgendamento> statuses,
+                                       LocalDateTime inicio, LocalDateTime fim) {
+        return existeSobreposicao(prestadorId, statuses, inicio.minus(Agendamento.DURACAO_MAXIMA), inicio, fim);
+    }
+
+    @Query("SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END FROM Agendamento a " +
+            "WHERE a.prestador.id = :prestadorId AND a.status IN :statuses " +
+            "AND a.dataHora >= :inicioMinimo AND a.dataHora < :fim AND a.dataHoraFim > :inicio")
+    boolean existeSobreposicao(@Param("prestadorId") Long prestadorId,
+                               @Param("statuses") List<StatusAgendamento> statuses,
+                               @Param("inicioMinimo") LocalDateTime inicioMinimo,
+                               @Param("inicio") LocalDateTime inicio,
+                               @Param("fim") LocalDateTime fim);
+
+    /**
+     * Lote de agendamentos no status, com início antes do limite e pagamento no status informado,
+     * do mais próximo para o mais distante. Percorre o índice (status, data_hora).
+     */
+    @Query("SELECT a.id AS id, a.prestador.id AS prestadorId, a.dataHora AS dataHora FROM Agendamento a " +
+            "WHERE a.status = :status AND a.dataHora < :limite " +
+            "AND EXISTS (SELECT 1 FROM Pagamento p WHERE p.agendamento = a AND p.status = :statusPagamento) " +
+            "ORDER BY a.dataHora, a.id")
+    List<AgendamentoAlterado> listarComPagamentoNoStatus(@Param("status") StatusAgendamento status,
+                                                         @Param("limite") LocalDateTime limite,
+                                                         @Param("statusPagamento") StatusPagamento statusPagamento,
+                                                         Limit lote);
+
+    /**
+     * Muda o status dos agendamentos do lote que ainda estão em {@code atual} com pagamento em {@code statusPagamento};
+     * as condições são revalidadas no próprio UPDATE, contra alterações feitas depois da leitura do lote.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Agendamento a SET a.status = :novo, a.versao = a.versao + 1 " +
+            "WHERE a.id IN :ids AND a.status = :atual " +
+            "AND EXISTS (SELECT 1 FROM Pagamento p WHERE p.agendamento = a AND p.status = :statusPagamento)")
+    int alterarStatusComPagamentoNoStatus(@Param("ids") Collection<Long> ids,
+                                          @Param("atual") StatusAgendamento atual,
+                                          @Param("novo") StatusAgendamento novo,
+                                          @Param("statusPagamento") StatusPagamento statusPagamento);
+
+    /**
+     * Trava (FOR UPDATE) os agendamentos do lote que ainda estão em {@code atual} com pagamento em
+     * {@code statusPagamento} e devolve os ids travados. Até o fim da transação nenhuma outra operação muda essas
+     * linhas, então o UPDATE seguinte altera exatamente esses ids.
+     */
+    @Query(value = "SELECT a.id FROM agendamentos a WHERE a.id IN (:ids) AND a.status = :atual " +
+            "AND EXISTS (SELECT 1 FROM pagamentos p WHERE p.agendamento_id = a.id AND p.status = :statusPagamento) " +
+            "ORDER BY a.id FOR UPDATE", nativeQuery = true)
+    List<Long> travarComPagamentoNoStatus(@Param("ids") Collection<Long> ids,
+                                          @Param("atual") String atual,
+                                          @Param("statusPagamento") String statusPagamento);
+
+    /** Agendamento com cliente e prestador já carregados, para montar a resposta sem leituras preguiçosas. */
+    @Query("SELECT a FROM Agendamento a JOIN FETCH a.cliente JOIN FETCH a.prestador WHERE a.id = :id")
+    Optional<Agendamento> buscarComParticipantes(@Param("id") Long id);
+
+    // Transições em um único UPDATE: status de origem e autor (pelo keycloakId) fazem parte da condição e a
+    // versão é incrementada. Devolvem 1 quando aplicadas; 0 quando o agendamento não existe, é de outro
+    // usuário ou já não está em um status de origem.
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Agendamento a SET a.status = :destino, a.versao = a.versao + 1 " +
+            "WHERE a.id = :id AND a.status IN :origem " +
+            "AND a.prestador.id = (SELECT p.id FROM Prestador p WHERE p.keycloakId = :keycloakId)")
+    int transicionarPeloPrestador(@Param("id") Long id,
+                                  @Param("keycloakId") String prestadorKeycloakId,
+                                  @Param("origem") Collection<StatusAgendamento> origem,
+                                  @Param("destino") StatusAgendamento destino);
+
+    /** Como as demais, e só na {@code versao} lida: o status de saída é o que foi lido com ela. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Agendamento a SET a.status = :destino, a.versao = a.versao + 1 " +
+            "WHERE a.id = :id AND a.versao = :versao AND a.status IN :origem " +
+            "AND a.cliente.id = (SELECT c.id FROM Cliente c WHERE c.keycloakId = :keycloakId)")
+    int transicionarPeloCliente(@Param("id") Long id,
+                                @Param("keycloakId") String clienteKeycloakId,
+                                @Param("versao") Long versao,
+                                @Param("origem") Collection<StatusAgendamento> origem,
+                                @Param("destino") StatusAgendamento destino);
+
+    /** Pagamento confirmado pelo cliente: ACEITO e com o horário a pelo menos {@code prazo}. */
+    default int confirmarPeloCliente(Long id, String clienteKeycloakId, LocalDateTime prazo, LocalDateTime agora) {
+        return confirmarPeloCliente(id, clienteKeycloakId, StatusAgendamento.ACEITO, StatusAgendamento.CONFIRMADO, prazo, agora);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Agendamento a SET a.status = :confirmado, a.confirmadoEm = :agora, a.versao = a.versao + 1 " +
+            "WHERE a.id = :id AND a.status = :aceito AND a.dataHora >= :prazo " +
+            "AND a.cliente.id = (SELECT c.id FROM Cliente c WHERE c.keycloakId = :keycloakId)")
+    int confirmarPeloCliente(@Param("id") Long id,
+                             @Param("keycloakId") String clienteKeycloakId,
+                             @Param("aceito") StatusAgendamento aceito,
+                             @Param("confirmado") StatusAgendamento confirmado,
+                             @Param("prazo") LocalDateTime prazo,
+                             @Param("agora") LocalDateTime agora);
+
+    /** Pagamento confirmado pelo gateway: basta o agendamento estar ACEITO. */
+    default int confirmar(Long id, LocalDateTime agora) {
+        return confirmar(id, StatusAgendamento.ACEITO, StatusAgendamento.CONFIRMADO, agora);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Agendamento a SET a.status = :confirmado, a.confirmadoEm = :agora, a.versao = a.versao + 1 " +
+            "WHERE a.id = :id AND a.status = :aceito")
+    int confirmar(@Param("id") Long id,
+                  @Param("aceito") StatusAgendamento aceito,
+                  @Param("confirmado") StatusAgendamento confirmado,
+                  @Param("agora") LocalDateTime agora);
+
+    default int registrarCheckin(Long id, String prestadorKeycloakId, LocalDateTime agora, Double latitude, Double longitude) {
+        return registrarCheckin(id, prestadorKeycloakId, StatusAgendamento.CONFIRMADO, agora, latitude, longitude);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Agendamento a SET a.checkinEm = :agora, a.checkinLatitude = :latitude, " +
+            "a.checkinLongitude = :longitude, a.versao = a.versao + 1 " +
+            "WHERE a.id = :id AND a.status = :confirmado AND a.checkinEm IS NULL " +
+            "AND a.prestador.id = (SELECT p.id FROM Prestador p WHERE p.keycloakId = :keycloakId)")
+    int registrarCheckin(@Param("id") Long id,
+                         @Param("keycloakId") String prestadorKeycloakId,
+                         @Param("confirmado") StatusAgendamento confirmado,
+                         @Param("agora") LocalDateTime agora,
+                         @Param("latitude") Double latitude,
+                         @Param("longitude") Double longitude);
+
+    default int registrarCheckout(Long id, String prestadorKeycloakId, LocalDateTime agora, Double latitude, Double longitude) {
+        return registrarCheckout(id, prestadorKeycloakId, StatusAgendamento.CONFIRMADO, StatusAgendamento.REALIZADO,
+                agora, latitude, longitude);
+    }
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Agendamento a SET a.status = :realizado, a.checkoutEm = :agora, a.checkoutLatitude = :latitude, " +
+            "a.checkoutLongitude = :longitude, a.versao = a.versao + 1 " +
+            "WHERE a.id = :id AND a.status = :confirmado AND a.checkinEm IS NOT NULL AND a.checkoutEm IS NULL " +
+            "AND a.prestador.id = (SELECT p.id FROM Prestador p WHERE p.keycloakId = :keycloakId)")
+    int registrarCheckout(@Param("id") Long id,
+                          @Param("keycloakId") String prestadorKeycloakId,
+                          @Param("confirmado") StatusAgendamento confirmado,
+                          @Param("realizado") StatusAgendamento realizado,
+                          @Param("agora") LocalDateTime agora,
+                          @Param("latitude") Double latitude,
+                          @Param("longitude") Double longitude);
 
     long countByStatus(StatusAgendamento status);
 
     List<Agendamento> findByStatusOrderByDataHoraDesc(StatusAgendamento status);
+
+    /** Agendamentos com um dos status que ainda não terminaram em {@code desde}. */
+    default List<HorarioOcupado> listarHorariosOcupados(List<StatusAgendamento> statuses, LocalDateTime desde) {
+        return listarHorariosOcupados(statuses, desde.minus(Agendamento.DURACAO_MAXIMA), desde);
+    }
+
+    @Query("SELECT a.prestador.id AS prestadorId, a.dataHora AS dataHora, a.dataHoraFim AS dataHoraFim FROM Agendamento a " +
+            "WHERE a.status IN :statuses AND a.dataHora >= :inicioMinimo AND a.dataHoraFim > :desde")
+    List<HorarioOcupado> listarHorariosOcupados(@Param("statuses") List<StatusAgendamento> statuses,
+                                                @Param("inicioMinimo") LocalDateTime inicioMinimo,
+                                                @Param("desde") LocalDateTime desde);
+
+    default List<HorarioOcupado> listarHorariosOcupadosDoPrestador(Long prestadorId, List<StatusAgendamento> statuses,
+                                                                   LocalDateTime desde) {
+        return listarHorariosOcupadosDoPrestador(prestadorId, statuses, desde.minus(Agendamento.DURACAO_MAXIMA), desde);
+    }
+
+    @Query("SELECT a.prestador.id AS prestadorId, a.dataHora AS dataHora, a.dataHoraFim AS dataHoraFim FROM Agendamento a " +
+            "WHERE a.prestador.id = :prestadorId AND a.status IN :statuses " +
+            "AND a.dataHora >= :inicioMinimo AND a.dataHoraFim > :desde")
+    List<HorarioOcupado> listarHorariosOcupadosDoPrestador(@Param("prestadorId") Long prestadorId,
+                                                           @Param("statuses") List<StatusAgendamento> statuses,
+                                                           @Param("inicioMinimo") LocalDateTime inicioMinimo,
+                                                           @Param("desde") LocalDateTime desde);
+
+    /** Agendamentos com um dos status que sobrepõem [inicio, fim), inclusive os que começaram antes de {@code inicio}. */
+    default List<HorarioOcupado> listarHorariosOcupadosDoPrestadorEntre(Long prestadorId, List<StatusAgendamento> statuses,
+                                                                        LocalDateTime inicio, LocalDateTime fim) {
+        return listarHorariosOcupadosDoPrestadorEntre(prestadorId, statuses, inicio.minus(Agendamento.DURACAO_MAXIMA), inicio, fim);
+    }
+
+    @Query("SELECT a.prestador.id AS prestadorId, a.dataHora AS dataHora, a.dataHoraFim AS dataHoraFim FROM Agendamento a " +
+            "WHERE a.prestador.id = :prestadorId AND a.status IN :statuses " +
+            "AND a.dataHora >= :inicioMinimo AND a.dataHora < :fim AND a.dataHoraFim > :inicio")
+    List<HorarioOcupado> listarHorariosOcupadosDoPrestadorEntre(@Param("prestadorId") Long prestadorId,
+                                                                @Param("statuses") List<StatusAgendamento> statuses,
+                                                                @Param("inicioMinimo") LocalDateTime inicioMinimo,
+                                                                @Param("inicio") LocalDateTime inicio,
+                                                                @Param("fim") LocalDateTime fim);
+
+    interface AgendamentoAlterado {
+        Long getId();
+
+        Long getPrestadorId();
+
+        LocalDateTime getDataHora();
+    }
+
+    interface HorarioOcupado {
+        Long getPrestadorId();
+
+        LocalDateTime getDataHora();
+
+        LocalDateTime getDataHoraFim();
+    }
 }
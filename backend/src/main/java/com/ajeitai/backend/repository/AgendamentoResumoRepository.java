@@ -0,0 +1,25 @@
+package com.ajeitai.backend.repository;
+
+import com.ajeitai.backend.domain.agendamento.AgendamentoResumo;
+import com.ajeitai.backend.domain.agendamento.CursorAgendamento;
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+
+import java.util.List;
+
+/**
+ * Listagens de agendamentos por projeção, paginadas por keyset em (data_hora, id) decrescentes.
+ * O usuário é filtrado pelo keycloakId no próprio join, sem consulta prévia ao cadastro.
+ */
+public interface AgendamentoResumoRepository {
+
+    /**
+     * Agendamentos do cliente, opcionalmente em um status, depois de {@code apos} (null = primeira página),
+     * com o id da avaliação de cada um.
+     */
+    List<AgendamentoResumo> listarResumosDoCliente(String clienteKeycloakId, StatusAgendamento status,
+                                                   CursorAgendamento apos, int limite);
+
+    /** Agendamentos (solicitações) do prestador, opcionalmente em um status, depois de {@code apos}. */
+    List<AgendamentoResumo> listarResumosDoPrestador(String prestadorKeycloakId, StatusAgendamento status,
+                                                     CursorAgendamento apos, int limite);
+}
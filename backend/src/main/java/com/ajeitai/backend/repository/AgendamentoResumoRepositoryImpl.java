@@ -0,0 +1,85 @@
+package com.ajeitai.backend.repository;
+
+import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.AgendamentoResumo;
+import com.ajeitai.backend.domain.agendamento.CursorAgendamento;
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.avaliacao.Avaliacao;
+import com.ajeitai.backend.domain.cliente.Cliente;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementação com Criteria API: uma consulta por página, com o filtro do usuário, o status e o keyset
+ * {@code (dataHora, id) < (:dataHora, :id)} na mesma ordem dos índices (cliente_id, data_hora DESC) e
+ * (prestador_id, status, data_hora DESC). Na listagem do cliente a avaliação entra por left join
+ * (agendamento_id é único em avaliacoes), sem uma consulta por agendamento.
+ */
+public class AgendamentoResumoRepositoryImpl implements AgendamentoResumoRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AgendamentoResumo> listarResumosDoCliente(String clienteKeycloakId, StatusAgendamento status,
+                                                          CursorAgendamento apos, int limite) {
+        return listar(true, clienteKeycloakId, status, apos, limite);
+    }
+
+    @Override
+    public List<AgendamentoResumo> listarResumosDoPrestador(String prestadorKeycloakId, StatusAgendamento status,
+                                                            CursorAgendamento apos, int limite) {
+        return listar(false, prestadorKeycloakId, status, apos, limite);
+    }
+
+    private List<AgendamentoResumo> listar(boolean doCliente, String keycloakId, StatusAgendamento status,
+                                           CursorAgendamento apos, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AgendamentoResumo> query = cb.createQuery(AgendamentoResumo.class);
+        Root<Agendamento> a = query.from(Agendamento.class);
+        Join<Agendamento, Cliente> c = a.join("cliente");
+        Join<Agendamento, Prestador> p = a.join("prestador");
+        Path<LocalDateTime> dataHora = a.get("dataHora");
+        Path<Long> id = a.get("id");
+
+        List<Predicate> predicados = new ArrayList<>();
+        predicados.add(cb.equal((doCliente ? c : p).get("keycloakId"), keycloakId));
+        if (status != null) {
+            predicados.add(cb.equal(a.get("status"), status));
+        }
+        if (apos != null) {
+            predicados.add(cb.or(
+                    cb.lessThan(dataHora, apos.dataHora()),
+                    cb.and(cb.equal(dataHora, apos.dataHora()), cb.lessThan(id, apos.id()))));
+        }
+
+        List<Selection<?>> colunas = new ArrayList<>(List.of(
+                id, c.get("id"), c.get("nome"), p.get("id"), p.get("nomeFantasia"), p.get("keycloakId"),
+                dataHora, a.get("dataHoraFim"), a.get("status"), a.get("formaPagamento"), a.get("valorServico"),
+                a.get("observacao"), a.get("endereco"), a.get("criadoEm"), a.get("confirmadoEm"),
+                a.get("checkinEm"), a.get("checkoutEm"), a.get("fotoTrabalhoUrl")));
+        if (doCliente) {
+            Join<Agendamento, Avaliacao> av = a.join(Avaliacao.class, JoinType.LEFT);
+            av.on(cb.equal(av.get("agendamento"), a));
+            colunas.add(av.get("id"));
+        }
+
+        query.select(cb.construct(AgendamentoResumo.class, colunas.toArray(Selection[]::new)))
+                .where(predicados.toArray(Predicate[]::new))
+                .orderBy(cb.desc(dataHora), cb.desc(id));
+        return entityManager.createQuery(query).setMaxResults(limite).getResultList();
+    }
+}
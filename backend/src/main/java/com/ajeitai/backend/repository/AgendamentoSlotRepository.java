@@ -0,0 +1,20 @@
+package com.ajeitai.backend.repository;
+
+import com.ajeitai.backend.domain.agendamento.AgendamentoSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+
+public interface AgendamentoSlotRepository extends JpaRepository<AgendamentoSlot, Long> {
+
+    @Modifying
+    @Query("DELETE FROM AgendamentoSlot s WHERE s.agendamentoId = :agendamentoId")
+    int liberar(@Param("agendamentoId") Long agendamentoId);
+
+    @Modifying
+    @Query("DELETE FROM AgendamentoSlot s WHERE s.agendamentoId IN :agendamentoIds")
+    int liberarTodos(@Param("agendamentoIds") Collection<Long> agendamentoIds);
+}
@@ -2,9 +2,14 @@ package com.ajeitai.backend.repository;
 
 import com.ajeitai.backend.domain.cliente.Cliente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Optional<Cliente> findByKeycloakId(String keycloakId);
+
+    @Query("SELECT c.id FROM Cliente c WHERE c.keycloakId = :keycloakId")
+    Optional<Long> buscarIdPorKeycloakId(@Param("keycloakId") String keycloakId);
 }
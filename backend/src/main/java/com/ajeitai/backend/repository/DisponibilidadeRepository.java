@@ -2,7 +2,10 @@ package com.ajeitai.backend.repository;
 
 import com.ajeitai.backend.domain.agendamento.Disponibilidade;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalTime;
 import java.util.List;
 
 public interface DisponibilidadeRepository extends JpaRepository<Disponibilidade, Long> {
@@ -11,4 +14,22 @@ public interface DisponibilidadeRepository extends JpaRepository<Disponibilidade
     List<Disponibilidade> findByPrestadorIdAndDiaSemanaOrderByHoraInicioAsc(Long prestadorId, Integer diaSemana);
 
     void deleteByPrestadorId(Long prestadorId);
+
+    @Query("SELECT d.prestador.id AS prestadorId, d.diaSemana AS diaSemana, d.horaInicio AS horaInicio, " +
+            "d.horaFim AS horaFim FROM Disponibilidade d")
+    List<FaixaSemanal> listarFaixas();
+
+    @Query("SELECT d.prestador.id AS prestadorId, d.diaSemana AS diaSemana, d.horaInicio AS horaInicio, " +
+            "d.horaFim AS horaFim FROM Disponibilidade d WHERE d.prestador.id = :prestadorId")
+    List<FaixaSemanal> listarFaixasDoPrestador(@Param("prestadorId") Long prestadorId);
+
+    interface FaixaSemanal {
+        Long getPrestadorId();
+
+        Integer getDiaSemana();
+
+        LocalTime getHoraInicio();
+
+        LocalTime getHoraFim();
+    }
 }
@@ -0,0 +1,40 @@
+package com.ajeitai.backend.repository;
+
+import com.ajeitai.backend.domain.metricas.MetricaPlataforma;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MetricaPlataformaRepository extends JpaRepository<MetricaPlataforma, Long> {
+
+    @Modifying
+    @Query("UPDATE MetricaPlataforma m SET m.valor = m.valor + :valor " +
+            "WHERE m.dia = :dia AND m.metrica = :metrica AND m.faixa = :faixa")
+    int somar(@Param("dia") LocalDate dia, @Param("metrica") String metrica, @Param("faixa") int faixa,
+              @Param("valor") BigDecimal valor);
+
+    /** Cria a linha zerada da faixa no dia; não faz nada se ela já existir, inclusive criada em paralelo. */
+    @Modifying
+    @Query(value = "INSERT INTO metricas_plataforma (dia, metrica, faixa, valor) VALUES (:dia, :metrica, :faixa, 0) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int criarSeAusente(@Param("dia") LocalDate dia, @Param("metrica") String metrica, @Param("faixa") int faixa);
+
+    /** Linhas (todas as faixas) dos dias de {@code de} a {@code ate} (inclusive), pelo índice único (dia, metrica, faixa). */
+    List<MetricaPlataforma> findByDiaBetween(LocalDate de, LocalDate ate);
+
+    /** Uma linha por métrica com a soma das faixas do dia, pelo índice único (dia, metrica, faixa). */
+    @Query("SELECT m.metrica AS metrica, SUM(m.valor) AS valor FROM MetricaPlataforma m WHERE m.dia = :dia " +
+            "GROUP BY m.metrica")
+    List<TotalMetrica> somarPorMetricaNoDia(@Param("dia") LocalDate dia);
+
+    interface TotalMetrica {
+        String getMetrica();
+
+        BigDecimal getValor();
+    }
+}
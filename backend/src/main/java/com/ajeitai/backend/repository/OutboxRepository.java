@@ -0,0 +1,13 @@
+package com.ajeitai.backend.repository;
+
+import com.ajeitai.backend.domain.outbox.MensagemOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<MensagemOutbox, Long> {
+
+    /** Pendentes mais antigas primeiro; as entregues são apagadas, então toda linha está pendente. */
+    List<MensagemOutbox> findAllByOrderByIdAsc(Limit limit);
+}
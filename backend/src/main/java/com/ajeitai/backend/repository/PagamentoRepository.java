@@ -3,11 +3,21 @@ package com.ajeitai.backend.repository;
 import com.ajeitai.backend.domain.pagamento.Pagamento;
 import com.ajeitai.backend.domain.pagamento.StatusPagamento;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
 
 public interface PagamentoRepository extends JpaRepository<Pagamento, Long> {
     Optional<Pagamento> findByAgendamentoId(Long agendamentoId);
 
     long countByStatus(StatusPagamento status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Pagamento p SET p.status = :novo WHERE p.agendamento.id IN :agendamentoIds AND p.status = :atual")
+    int alterarStatusPorAgendamentos(@Param("agendamentoIds") Collection<Long> agendamentoIds,
+                                     @Param("atual") StatusPagamento atual,
+                                     @Param("novo") StatusPagamento novo);
 }
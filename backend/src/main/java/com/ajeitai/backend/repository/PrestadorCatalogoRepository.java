@@ -0,0 +1,20 @@
+package com.ajeitai.backend.repository;
+
+import com.ajeitai.backend.domain.catalogo.CursorCatalogo;
+import com.ajeitai.backend.domain.catalogo.FiltroCatalogo;
+import com.ajeitai.backend.domain.catalogo.PrestadorComEstatisticas;
+
+import java.util.List;
+
+/**
+ * Consultas dinâmicas do catálogo (filtros, ordenação e paginação executados no banco).
+ */
+public interface PrestadorCatalogoRepository {
+
+    /**
+     * Busca uma página de prestadores ativos. Com {@code apos} informado usa keyset (ignora {@code offset}).
+     */
+    List<PrestadorComEstatisticas> buscarPagina(FiltroCatalogo filtro, CursorCatalogo apos, int offset, int limite);
+
+    long contar(FiltroCatalogo filtro);
+}
@@ -0,0 +1,184 @@
+package com.ajeitai.backend.repository;
+
+import com.ajeitai.backend.domain.catalogo.CursorCatalogo;
+import com.ajeitai.backend.domain.catalogo.FiltroCatalogo;
+import com.ajeitai.backend.domain.catalogo.PrestadorComEstatisticas;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.domain.prestador.PrestadorEstatisticas;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Nulls;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementação com Criteria API. Valor, avaliação e experiência ordenam pela própria coluna
+ * (NULLS LAST, sem expressão em volta), seguida do id; valor percorre os índices (valor_servico, id) e
+ * (categoria, valor_servico, id). Distância ordena pela aproximação calculada, o que exige ordenar todos os
+ * que passam nos filtros (ou só os candidatos do raio). O keyset é {@code (chave, id)} depois do cursor na
+ * direção da ordenação, com os sem valor no fim.
+ * <p>
+ * Os ids candidatos (raio, disponibilidade) vão num único parâmetro array ({@code array_contains}), e não numa
+ * lista IN com um parâmetro por id: o texto SQL é o mesmo para qualquer quantidade de candidatos e não esbarra no
+ * limite de parâmetros por comando.
+ */
+public class PrestadorCatalogoRepositoryImpl implements PrestadorCatalogoRepository {
+
+    /** Distância usada para prestadores sem coordenadas: vão para o fim da lista. */
+    private static final double CHAVE_MAXIMA = 1.0e12;
+
+    private static final String PARAMETRO_CANDIDATOS = "candidatos";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PrestadorComEstatisticas> buscarPagina(FiltroCatalogo filtro, CursorCatalogo apos, int offset, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Prestador> p = query.from(Prestador.class);
+        Join<Prestador, PrestadorEstatisticas> e = joinEstatisticas(cb, p);
+
+        List<Predicate> predicados = predicados(cb, p, e, filtro);
+        Expression<?> chave = chaveOrdenacao(cb, p, e, filtro);
+        Path<Long> id = p.get("id");
+        if (apos != null) {
+            predicados.add(aposCursor(cb, p, e, filtro, id, apos));
+        }
+
+        List<Order> ordem = new ArrayList<>();
+        if (chave != null) {
+            query.multiselect(p, e, chave);
+            ordem.add(filtro.ordenacao().decrescente() ? cb.desc(chave, Nulls.LAST) : cb.asc(chave, Nulls.LAST));
+        } else {
+            query.multiselect(p, e);
+        }
+        ordem.add(cb.asc(id));
+        query.where(predicados.toArray(Predicate[]::new)).orderBy(ordem);
+
+        var typed = vincularCandidatos(entityManager.createQuery(query), filtro).setMaxResults(limite);
+        if (apos == null) {
+            typed.setFirstResult(offset);
+        }
+        return typed.getResultList().stream()
+                .map(t -> new PrestadorComEstatisticas(
+                        t.get(0, Prestador.class),
+                        t.get(1, PrestadorEstatisticas.class),
+                        chave != null && t.get(2) instanceof Number valor ? valor.doubleValue() : null))
+                .toList();
+    }
+
+    @Override
+    public long contar(FiltroCatalogo filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Prestador> p = query.from(Prestador.class);
+        Join<Prestador, PrestadorEstatisticas> e = joinEstatisticas(cb, p);
+        query.select(cb.count(p)).where(predicados(cb, p, e, filtro).toArray(Predicate[]::new));
+        return vincularCandidatos(entityManager.createQuery(query), filtro).getSingleResult();
+    }
+
+    private Join<Prestador, PrestadorEstatisticas> joinEstatisticas(CriteriaBuilder cb, Root<Prestador> p) {
+        Join<Prestador, PrestadorEstatisticas> e = p.join(PrestadorEstatisticas.class, JoinType.LEFT);
+        e.on(cb.equal(e.get("prestadorId"), p.get("id")));
+        return e;
+    }
+
+    private List<Predicate> predicados(CriteriaBuilder cb, Root<Prestador> p,
+                                       Join<Prestador, PrestadorEstatisticas> e, FiltroCatalogo filtro) {
+        List<Predicate> predicados = new ArrayList<>();
+        predicados.add(cb.or(cb.isNull(p.get("ativo")), cb.isTrue(p.<Boolean>get("ativo"))));
+        if (filtro.idsCandidatos() != null) {
+            ParameterExpression<Long[]> candidatos = cb.parameter(Long[].class, PARAMETRO_CANDIDATOS);
+            predicados.add(cb.isTrue(cb.function("array_contains", Boolean.class, candidatos, p.get("id"))));
+        }
+        if (filtro.categoria() != null) {
+            predicados.add(cb.equal(p.get("categoria"), filtro.categoria()));
+        }
+        String padrao = filtro.padraoBusca();
+        if (padrao != null) {
+            predicados.add(cb.like(cb.lower(p.get("nomeFantasia")), padrao, FiltroCatalogo.ESCAPE_LIKE));
+        }
+        if (filtro.minAvaliacao() != null) {
+            predicados.add(cb.ge(cb.coalesce(e.<Double>get("mediaAvaliacao"), 0.0), filtro.minAvaliacao()));
+        }
+        return predicados;
+    }
+
+    private static <T> TypedQuery<T> vincularCandidatos(TypedQuery<T> query, FiltroCatalogo filtro) {
+        if (filtro.idsCandidatos() != null) {
+            query.setParameter(PARAMETRO_CANDIDATOS, filtro.idsCandidatos().toArray(Long[]::new));
+        }
+        return query;
+    }
+
+    /**
+     * Coluna (ou expressão, para distância) da ordenação, ou null quando a ordem é apenas por id.
+     */
+    private Expression<?> chaveOrdenacao(CriteriaBuilder cb, Root<Prestador> p,
+                                         Join<Prestador, PrestadorEstatisticas> e, FiltroCatalogo filtro) {
+        return switch (filtro.ordenacao()) {
+            case AVALIACAO -> e.get("mediaAvaliacao");
+            case EXPERIENCIA -> e.get("totalServicos");
+            case VALOR -> p.get("valorServico");
+            case DISTANCIA -> filtro.possuiCoordenadas() ? distancia(cb, p, filtro) : null;
+        };
+    }
+
+    /**
+     * Aproximação equiretangular (monotônica com a haversine em distâncias urbanas), com o cosseno da
+     * latitude de referência calculado em Java; sem coordenadas, vai para o fim.
+     */
+    private Expression<Double> distancia(CriteriaBuilder cb, Root<Prestador> p, FiltroCatalogo filtro) {
+        double cosLat = Math.cos(Math.toRadians(filtro.latitude()));
+        Expression<Double> dLat = cb.diff(p.get("endereco").<Double>get("latitude"), filtro.latitude());
+        Expression<Double> dLon = cb.prod(
+                cb.diff(p.get("endereco").<Double>get("longitude"), filtro.longitude()), cosLat);
+        return cb.coalesce(cb.sum(cb.prod(dLat, dLat), cb.prod(dLon, dLon)), CHAVE_MAXIMA);
+    }
+
+    private Predicate aposCursor(CriteriaBuilder cb, Root<Prestador> p, Join<Prestador, PrestadorEstatisticas> e,
+                                 FiltroCatalogo filtro, Path<Long> id, CursorCatalogo apos) {
+        Double chave = apos.chave();
+        return switch (filtro.ordenacao()) {
+            case AVALIACAO -> depoisDe(cb, e.<Double>get("mediaAvaliacao"), chave, true, id, apos.id());
+            case EXPERIENCIA -> depoisDe(cb, e.<Long>get("totalServicos"),
+                    chave != null ? chave.longValue() : null, true, id, apos.id());
+            case VALOR -> depoisDe(cb, p.<BigDecimal>get("valorServico"),
+                    chave != null ? BigDecimal.valueOf(chave) : null, false, id, apos.id());
+            case DISTANCIA -> filtro.possuiCoordenadas() && chave != null
+                    ? depoisDe(cb, distancia(cb, p, filtro), chave, false, id, apos.id())
+                    : cb.greaterThan(id, apos.id());
+        };
+    }
+
+    /**
+     * Itens depois de {@code (valor, aposId)} na ordem {@code coluna [DESC] NULLS LAST, id}. Com {@code valor}
+     * null o cursor já está entre os sem valor, e só os seguintes deles restam.
+     */
+    private static <Y extends Comparable<? super Y>> Predicate depoisDe(CriteriaBuilder cb, Expression<Y> coluna,
+                                                                        Y valor, boolean decrescente,
+                                                                        Path<Long> id, Long aposId) {
+        if (valor == null) {
+            return cb.and(cb.isNull(coluna), cb.greaterThan(id, aposId));
+        }
+        return cb.or(
+                decrescente ? cb.lessThan(coluna, valor) : cb.greaterThan(coluna, valor),
+                cb.and(cb.equal(coluna, valor), cb.greaterThan(id, aposId)),
+                cb.isNull(coluna));
+    }
+}
@@ -0,0 +1,72 @@
+package com.ajeitai.backend.repository;
+
+import com.ajeitai.backend.domain.prestador.PrestadorEstatisticas;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface PrestadorEstatisticasRepository extends JpaRepository<PrestadorEstatisticas, Long> {
+
+    @Modifying
+    @Query("UPDATE PrestadorEstatisticas e SET e.somaNotas = e.somaNotas + :nota, " +
+            "e.totalAvaliacoes = e.totalAvaliacoes + 1, " +
+            "e.mediaAvaliacao = CAST(e.somaNotas + :nota AS double) / (e.totalAvaliacoes + 1), " +
+            "e.ultimaAtividadeEm = :momento " +
+            "WHERE e.prestadorId = :prestadorId")
+    int incrementarAvaliacao(@Param("prestadorId") Long prestadorId,
+                             @Param("nota") long nota,
+                             @Param("momento") LocalDateTime momento);
+
+    @Modifying
+    @Query("UPDATE PrestadorEstatisticas e SET e.totalServicos = e.totalServicos + 1, e.ultimaAtividadeEm = :momento " +
+            "WHERE e.prestadorId = :prestadorId")
+    int incrementarServicoRealizado(@Param("prestadorId") Long prestadorId, @Param("momento") LocalDateTime momento);
+
+    /** Cria a linha zerada do prestador; não faz nada se ela já existir (dois primeiros eventos não conflitam). */
+    @Modifying
+    @Query(value = "INSERT INTO prestador_estatisticas " +
+            "(prestador_id, media_avaliacao, soma_notas, total_avaliacoes, total_servicos) " +
+            "VALUES (:prestadorId, 0, 0, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int criarSeAusente(@Param("prestadorId") Long prestadorId);
+
+    /** Cria as linhas zeradas dos prestadores que ainda não têm uma, em um único INSERT ... SELECT. */
+    @Modifying
+    @Query(value = "INSERT INTO prestador_estatisticas " +
+            "(prestador_id, media_avaliacao, soma_notas, total_avaliacoes, total_servicos) " +
+            "SELECT p.id, 0, 0, 0, 0 FROM prestadores p " +
+            "WHERE NOT EXISTS (SELECT 1 FROM prestador_estatisticas e WHERE e.prestador_id = p.id) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int criarAusentes();
+
+    /**
+     * Trava (FOR UPDATE) o próximo lote de linhas depois de {@code apos}, em ordem de id, e devolve os ids.
+     * Incrementos já feitos nessas linhas por transações abertas são aguardados; os seguintes esperam o commit.
+     */
+    @Query(value = "SELECT prestador_id FROM prestador_estatisticas WHERE prestador_id > :apos " +
+            "ORDER BY prestador_id LIMIT :lote FOR UPDATE", nativeQuery = true)
+    List<Long> travarLote(@Param("apos") long apos, @Param("lote") int lote);
+
+    /**
+     * Recalcula as linhas a partir de avaliações e agendamentos REALIZADOS, no banco, em um único UPDATE.
+     * Deve rodar na transação que travou as linhas com {@link #travarLote}.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE prestador_estatisticas e SET " +
+            "soma_notas = COALESCE((SELECT SUM(av.nota) FROM avaliacoes av WHERE av.prestador_id = e.prestador_id), 0), " +
+            "total_avaliacoes = (SELECT COUNT(*) FROM avaliacoes av WHERE av.prestador_id = e.prestador_id), " +
+            "media_avaliacao = COALESCE((SELECT CAST(SUM(av.nota) AS DOUBLE PRECISION) / NULLIF(COUNT(*), 0) " +
+            "FROM avaliacoes av WHERE av.prestador_id = e.prestador_id), 0), " +
+            "total_servicos = (SELECT COUNT(*) FROM agendamentos ag " +
+            "WHERE ag.prestador_id = e.prestador_id AND ag.status = 'REALIZADO'), " +
+            "ultima_atividade_em = GREATEST(" +
+            "(SELECT MAX(av.criado_em) FROM avaliacoes av WHERE av.prestador_id = e.prestador_id), " +
+            "(SELECT MAX(ag.checkout_em) FROM agendamentos ag " +
+            "WHERE ag.prestador_id = e.prestador_id AND ag.status = 'REALIZADO')) " +
+            "WHERE e.prestador_id IN (:ids)", nativeQuery = true)
+    int reconstruir(@Param("ids") Collection<Long> ids);
+}
@@ -1,19 +1,63 @@
 package com.ajeitai.backend.repository;
 
+import com.ajeitai.backend.domain.catalogo.LocalizacaoPrestador;
+import com.ajeitai.backend.domain.catalogo.PrestadorComEstatisticas;
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
 import com.ajeitai.backend.domain.prestador.Prestador;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface PrestadorRepository extends JpaRepository<Prestador, Long> {
+public interface PrestadorRepository extends JpaRepository<Prestador, Long>, PrestadorCatalogoRepository {
 
     Optional<Prestador> findByKeycloakId(String keycloakId);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT p FROM Prestador p WHERE p.id = :id")
-    Optional<Prestador> findByIdForUpdate(@Param("id") Long id);
+    @Query("SELECT p.id FROM Prestador p WHERE p.keycloakId = :keycloakId")
+    Optional<Long> buscarIdPorKeycloakId(@Param("keycloakId") String keycloakId);
+
+    @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Prestador p " +
+            "WHERE p.id = :id AND (p.ativo IS NULL OR p.ativo = true)")
+    boolean existeAtivo(@Param("id") Long id);
+
+    @Query("SELECT new com.ajeitai.backend.domain.catalogo.LocalizacaoPrestador(" +
+            "p.id, p.categoria, p.ativo, p.endereco.latitude, p.endereco.longitude) " +
+            "FROM Prestador p WHERE (p.ativo IS NULL OR p.ativo = true) " +
+            "AND p.endereco.latitude IS NOT NULL AND p.endereco.longitude IS NOT NULL")
+    List<LocalizacaoPrestador> listarLocalizacoesAtivas();
+
+    @Query("SELECT new com.ajeitai.backend.domain.catalogo.LocalizacaoPrestador(" +
+            "p.id, p.categoria, p.ativo, p.endereco.latitude, p.endereco.longitude) " +
+            "FROM Prestador p WHERE p.id = :id")
+    Optional<LocalizacaoPrestador> buscarLocalizacao(@Param("id") Long id);
+
+    /**
+     * Prestadores ativos com suas estatísticas em uma única consulta (LEFT JOIN no read model).
+     * Parâmetros nulos desativam o filtro correspondente; {@code padraoNome} já deve vir em minúsculas com curingas,
+     * escapados como em {@link com.ajeitai.backend.domain.catalogo.FiltroCatalogo#padraoBusca()}.
+     */
+    @Query("SELECT new com.ajeitai.backend.domain.catalogo.PrestadorComEstatisticas(p, e) " +
+            "FROM Prestador p LEFT JOIN PrestadorEstatisticas e ON e.prestadorId = p.id " +
+            "WHERE (p.ativo IS NULL OR p.ativo = true) " +
+            "AND (:categoria IS NULL OR p.categoria = :categoria) " +
+            "AND (:cidade IS NULL OR LOWER(p.endereco.cidade) = LOWER(:cidade)) " +
+            "AND (:uf IS NULL OR LOWER(p.endereco.uf) = LOWER(:uf)) " +
+            "AND (:padraoNome IS NULL OR LOWER(p.nomeFantasia) LIKE :padraoNome ESCAPE '\\') " +
+            "AND (:minAvaliacao IS NULL OR COALESCE(e.mediaAvaliacao, 0) >= :minAvaliacao)")
+    List<PrestadorComEstatisticas> listarAtivosComEstatisticas(
+            @Param("categoria") CategoriaAtuacao categoria,
+            @Param("cidade") String cidade,
+            @Param("uf") String uf,
+            @Param("padraoNome") String padraoNome,
+            @Param("minAvaliacao") Double minAvaliacao
+    );
+
+    /** Prestadores (ativos ou não) com estatísticas, para atualizar o snapshot do catálogo. */
+    @Query("SELECT new com.ajeitai.backend.domain.catalogo.PrestadorComEstatisticas(p, e) " +
+            "FROM Prestador p LEFT JOIN PrestadorEstatisticas e ON e.prestadorId = p.id " +
+            "WHERE p.id IN :ids")
+    List<PrestadorComEstatisticas> listarComEstatisticasPorIds(@Param("ids") Collection<Long> ids);
 }
@@ -3,15 +3,35 @@ package com.ajeitai.backend.repository;
 import com.ajeitai.backend.domain.financeiro.TipoTransacaoWallet;
 import com.ajeitai.backend.domain.financeiro.TransacaoWallet;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public interface TransacaoWalletRepository extends JpaRepository<TransacaoWallet, Long> {
 
     boolean existsByPagamentoId(Long pagamentoId);
 
+    /**
+     * Lança o crédito de um pagamento no extrato. Devolve 0 quando o pagamento já tem lançamento
+     * (restrição única em pagamento_id), inclusive quando outra transação o inseriu em paralelo.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO wallet_transacoes (prestador_id, tipo, valor_bruto, taxa_plataforma, valor_liquido, " +
+            "agendamento_id, pagamento_id, criado_em) " +
+            "VALUES (:prestadorId, :tipo, :valorBruto, :taxa, :valorLiquido, :agendamentoId, :pagamentoId, :agora) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int registrarCreditoDePagamento(@Param("prestadorId") Long prestadorId,
+                                    @Param("tipo") String tipo,
+                                    @Param("valorBruto") BigDecimal valorBruto,
+                                    @Param("taxa") BigDecimal taxa,
+                                    @Param("valorLiquido") BigDecimal valorLiquido,
+                                    @Param("agendamentoId") Long agendamentoId,
+                                    @Param("pagamentoId") Long pagamentoId,
+                                    @Param("agora") LocalDateTime agora);
+
     @Query("SELECT COALESCE(SUM(t.valorBruto), 0) FROM TransacaoWallet t WHERE t.tipo = :tipo")
     BigDecimal sumValorBrutoByTipo(@Param("tipo") TipoTransacaoWallet tipo);
 
@@ -0,0 +1,39 @@
+package com.ajeitai.backend.repository;
+
+import com.ajeitai.backend.domain.agendador.TravaTarefa;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Os instantes das concessões vêm sempre do relógio do banco (LOCALTIMESTAMP, como as colunas TIMESTAMP),
+ * para que réplicas com relógios divergentes não vençam nem estendam a concessão umas das outras.
+ */
+public interface TravaTarefaRepository extends JpaRepository<TravaTarefa, String> {
+
+    /** Toma a concessão se ela venceu; 1 quando adquirida. */
+    @Modifying
+    @Query(value = "UPDATE travas_tarefas SET ate = LOCALTIMESTAMP + :validadeSegundos * INTERVAL '1' SECOND, " +
+            "adquirida_em = LOCALTIMESTAMP, dono = :dono WHERE nome = :nome AND ate <= LOCALTIMESTAMP",
+            nativeQuery = true)
+    int renovar(@Param("nome") String nome, @Param("dono") String dono,
+                @Param("validadeSegundos") long validadeSegundos);
+
+    /** Primeira concessão da tarefa; falha com chave duplicada se outra réplica inseriu antes. */
+    @Modifying
+    @Query(value = "INSERT INTO travas_tarefas (nome, ate, adquirida_em, dono) " +
+            "VALUES (:nome, LOCALTIMESTAMP + :validadeSegundos * INTERVAL '1' SECOND, LOCALTIMESTAMP, :dono)",
+            nativeQuery = true)
+    int inserir(@Param("nome") String nome, @Param("dono") String dono,
+                @Param("validadeSegundos") long validadeSegundos);
+
+    /** Encerra a concessão agora, mas não antes de {@code adquirida_em + minimo}. */
+    @Modifying
+    @Query(value = "UPDATE travas_tarefas " +
+            "SET ate = GREATEST(adquirida_em + :minimoSegundos * INTERVAL '1' SECOND, LOCALTIMESTAMP) " +
+            "WHERE nome = :nome AND dono = :dono",
+            nativeQuery = true)
+    int liberar(@Param("nome") String nome, @Param("dono") String dono,
+                @Param("minimoSegundos") long minimoSegundos);
+}
@@ -2,11 +2,43 @@ package com.ajeitai.backend.repository;
 
 import com.ajeitai.backend.domain.financeiro.WalletPrestador;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Optional;
 
+/**
+ * O saldo só muda por UPDATE relativo ({@code saldo = saldo ± valor}) no banco: operações concorrentes no mesmo
+ * prestador se serializam na trava da linha, sem leitura-alteração-escrita na aplicação.
+ */
 public interface WalletPrestadorRepository extends JpaRepository<WalletPrestador, Long> {
 
     Optional<WalletPrestador> findByPrestadorId(Long prestadorId);
+
+    /** Cria a wallet zerada do prestador; não faz nada se ela já existir (prestador_id é único). */
+    @Modifying
+    @Query(value = "INSERT INTO wallet_prestador (prestador_id, saldo_disponivel) VALUES (:prestadorId, 0) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int criarSeAusente(@Param("prestadorId") Long prestadorId);
+
+    @Modifying
+    @Query("UPDATE WalletPrestador w SET w.saldoDisponivel = w.saldoDisponivel + :valor WHERE w.prestador.id = :prestadorId")
+    int creditar(@Param("prestadorId") Long prestadorId, @Param("valor") BigDecimal valor);
+
+    /**
+     * Debita {@code valor} se o saldo ainda o cobre e o último saque não é posterior a {@code ultimoSaquePermitido};
+     * 1 quando debitado. Créditos que chegarem entre a leitura do saldo e o débito permanecem na wallet.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE WalletPrestador w SET w.saldoDisponivel = w.saldoDisponivel - :valor, w.dataUltimoSaque = :hoje " +
+            "WHERE w.prestador.id = :prestadorId AND w.saldoDisponivel >= :valor " +
+            "AND (w.dataUltimoSaque IS NULL OR w.dataUltimoSaque <= :ultimoSaquePermitido)")
+    int debitarSaque(@Param("prestadorId") Long prestadorId,
+                     @Param("valor") BigDecimal valor,
+                     @Param("hoje") LocalDate hoje,
+                     @Param("ultimoSaquePermitido") LocalDate ultimoSaquePermitido);
 }
 
@@ -5,17 +5,15 @@ import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
 import com.ajeitai.backend.domain.financeiro.AssinaturaPrestador;
 import com.ajeitai.backend.domain.financeiro.SaquePrestador;
 import com.ajeitai.backend.domain.financeiro.StatusAssinatura;
-import com.ajeitai.backend.domain.financeiro.TipoTransacaoWallet;
+import com.ajeitai.backend.domain.metricas.MetricaPlataforma;
 import com.ajeitai.backend.domain.pagamento.Pagamento;
 import com.ajeitai.backend.domain.pagamento.StatusPagamento;
 import com.ajeitai.backend.domain.prestador.Prestador;
 import com.ajeitai.backend.repository.AgendamentoRepository;
 import com.ajeitai.backend.repository.AssinaturaPrestadorRepository;
-import com.ajeitai.backend.repository.ClienteRepository;
 import com.ajeitai.backend.repository.PagamentoRepository;
 import com.ajeitai.backend.repository.PrestadorRepository;
 import com.ajeitai.backend.repository.SaquePrestadorRepository;
-import com.ajeitai.backend.repository.TransacaoWalletRepository;
 import com.ajeitai.backend.repository.WalletPrestadorRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -33,49 +31,47 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AdminService {
 
-    private final ClienteRepository clienteRepository;
     private final PrestadorRepository prestadorRepository;
     private final AgendamentoRepository agendamentoRepository;
     private final AssinaturaPrestadorRepository assinaturaPrestadorRepository;
     private final PagamentoRepository pagamentoRepository;
     private final SaquePrestadorRepository saquePrestadorRepository;
-    private final TransacaoWalletRepository transacaoWalletRepository;
     private final WalletPrestadorRepository walletPrestadorRepository;
+    private final MetricasPlataformaService metricasPlataformaService;
 
     /**
-     * Visão geral: contagens e métricas financeiras para o painel admin.
+     * Visão geral: contagens e métricas financeiras para o painel admin, lidas do acumulado do rollup
+     * {@link MetricaPlataforma} (custo independente do histórico). Só prestadores com assinatura
+     * ativa dependem da data de hoje e continuam sendo contados na tabela de assinaturas.
      */
     public VisaoGeralDto visaoGeral() {
-        long totalClientes = clienteRepository.count();
-        long totalPrestadores = prestadorRepository.count();
+        Map<String, BigDecimal> totais = metricasPlataformaService.totais();
         LocalDate hoje = LocalDate.now();
         long prestadoresComAssinaturaAtiva = assinaturaPrestadorRepository
                 .countByStatusAndDataFimGreaterThanEqual(StatusAssinatura.ATIVA, hoje);
 
         Map<String, Long> agendamentosPorStatus = new HashMap<>();
         for (StatusAgendamento s : StatusAgendamento.values()) {
-            agendamentosPorStatus.put(s.name(), agendamentoRepository.countByStatus(s));
+            agendamentosPorStatus.put(s.name(), saldo(totais,
+                    MetricaPlataforma.agendamentosQueEntraram(s), MetricaPlataforma.agendamentosQueSairam(s)));
         }
 
-        BigDecimal gmv = transacaoWalletRepository.sumValorBrutoByTipo(TipoTransacaoWallet.CREDITO_AGENDAMENTO);
-        if (gmv == null) gmv = BigDecimal.ZERO;
-        BigDecimal receitaComissao = transacaoWalletRepository.sumTaxaPlataformaByTipo(TipoTransacaoWallet.CREDITO_AGENDAMENTO);
-        if (receitaComissao == null) receitaComissao = BigDecimal.ZERO;
+        BigDecimal gmv = totais.getOrDefault(MetricaPlataforma.GMV, BigDecimal.ZERO);
+        BigDecimal receitaComissao = totais.getOrDefault(MetricaPlataforma.COMISSAO, BigDecimal.ZERO);
         // Receita de assinaturas pode ser aproximada (prestadores ativos * valor mensal) ou de uma tabela de receita; por ora só comissão
         BigDecimal receitaPlataforma = receitaComissao;
 
-        long pagamentosPendentes = pagamentoRepository.countByStatus(StatusPagamento.PENDENTE);
-        long pagamentosConfirmados = pagamentoRepository.countByStatus(StatusPagamento.CONFIRMADO);
-
         return new VisaoGeralDto(
-                totalClientes,
-                totalPrestadores,
+                totais.getOrDefault(MetricaPlataforma.CLIENTES_NOVOS, BigDecimal.ZERO).longValue(),
+                totais.getOrDefault(MetricaPlataforma.PRESTADORES_NOVOS, BigDecimal.ZERO).longValue(),
                 prestadoresComAssinaturaAtiva,
                 agendamentosPorStatus,
                 gmv,
                 receitaPlataforma,
-                pagamentosPendentes,
-                pagamentosConfirmados
+                saldo(totais, MetricaPlataforma.pagamentosQueEntraram(StatusPagamento.PENDENTE),
+                        MetricaPlataforma.pagamentosQueSairam(StatusPagamento.PENDENTE)),
+                saldo(totais, MetricaPlataforma.pagamentosQueEntraram(StatusPagamento.CONFIRMADO),
+                        MetricaPlataforma.pagamentosQueSairam(StatusPagamento.CONFIRMADO))
         );
     }
 
@@ -159,6 +155,13 @@ public class AdminService {
                 .collect(Collectors.toList());
     }
 
+    /** Quantos estão hoje no status: entradas menos saídas de todos os dias. */
+    private static long saldo(Map<String, BigDecimal> totais, String entraram, String sairam) {
+        return totais.getOrDefault(entraram, BigDecimal.ZERO)
+                .subtract(totais.getOrDefault(sairam, BigDecimal.ZERO))
+                .longValue();
+    }
+
     public record VisaoGeralDto(
             long totalClientes,
             long totalPrestadores,
@@ -2,31 +2,40 @@ package com.ajeitai.backend.service;
 
 import com.ajeitai.backend.domain.agendamento.Agendamento;
 import com.ajeitai.backend.domain.agendamento.AgendamentoCriadoEvent;
+import com.ajeitai.backend.domain.agendamento.AgendamentoResumo;
+import com.ajeitai.backend.domain.agendamento.AgendamentoStatusAlteradoEvent;
+import com.ajeitai.backend.domain.agendamento.CursorAgendamento;
 import com.ajeitai.backend.domain.agendamento.Disponibilidade;
 import com.ajeitai.backend.domain.agendamento.DadosAgendamento;
 import com.ajeitai.backend.domain.agendamento.DadosLocalizacao;
 import com.ajeitai.backend.domain.agendamento.FormaPagamento;
 import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.agendamento.TransicaoAgendamento;
+import com.ajeitai.backend.domain.catalogo.PaginaCursor;
 import com.ajeitai.backend.domain.cliente.Cliente;
 import com.ajeitai.backend.domain.endereco.Endereco;
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
 import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
 import com.ajeitai.backend.domain.pagamento.Pagamento;
 import com.ajeitai.backend.domain.pagamento.StatusPagamento;
 import com.ajeitai.backend.repository.AgendamentoRepository;
 import com.ajeitai.backend.repository.DisponibilidadeRepository;
-import com.ajeitai.backend.repository.PagamentoRepository;
 import com.ajeitai.backend.repository.PrestadorRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.dao.CannotAcquireLockException;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -37,29 +46,51 @@ public class AgendamentoService {
 
     private static final Logger log = LoggerFactory.getLogger(AgendamentoService.class);
 
+    static final String CONFLITO_HORARIO = "Já existe um agendamento para este horário com o prestador.";
+    /** Restrição de exclusão de períodos sobrepostos (V13) e o SQLState de exclusion_violation do PostgreSQL. */
+    private static final String RESTRICAO_SOBREPOSICAO = "ex_agendamento_sobreposicao";
+    private static final String SQLSTATE_EXCLUSAO = "23P01";
+    static final String ALTERADO_POR_OUTRA_OPERACAO = "O agendamento foi alterado por outra operação. Atualize e tente novamente.";
+    private static final String ACAO_SOMENTE_PRESTADOR = "Somente o prestador do agendamento pode executar esta ação.";
+
     private final ClienteService clienteService;
     private final PrestadorRepository prestadorRepository;
     private final AgendamentoRepository agendamentoRepository;
     private final DisponibilidadeRepository disponibilidadeRepository;
-    private final PagamentoRepository pagamentoRepository;
     private final PagamentoService pagamentoService;
     private final WalletService walletService;
     private final NotificacaoPushService notificacaoPushService;
     private final MensageriaService mensageriaService;
     private final ApplicationEventPublisher eventPublisher;
     private final ArmazenamentoMidiaService armazenamentoMidiaService;
+    private final EstatisticasPrestadorService estatisticasPrestadorService;
+    private final ReservaHorarioService reservaHorarioService;
+    private final IdentidadeService identidadeService;
+    private final MetricasPlataformaService metricasPlataformaService;
 
+    /**
+     * Cria o agendamento para [dataHora, dataHora + duração). As validações rodam antes de qualquer trava,
+     * de modo que horários diferentes do mesmo prestador não se bloqueiam nem bloqueiam alterações do perfil.
+     * No PostgreSQL a restrição de exclusão sobre o período exato é quem decide o conflito; nos demais bancos
+     * a exclusão mútua é a reserva dos slots ({@link ReservaHorarioService}).
+     */
     @Transactional
     public Agendamento criar(String clienteKeycloakId, DadosAgendamento dados) {
+        if (dados.dataHora().isBefore(LocalDateTime.now().plus(Agendamento.ANTECEDENCIA_MINIMA))) {
+            throw new IllegalArgumentException("O agendamento deve ser criado com pelo menos 30 minutos de antecedência.");
+        }
+        Duration duracao = dados.duracaoMinutos() != null
+                ? Duration.ofMinutes(dados.duracaoMinutos())
+                : Agendamento.DURACAO_PADRAO;
+        if (duracao.isNegative() || duracao.isZero() || duracao.compareTo(Agendamento.DURACAO_MAXIMA) > 0) {
+            throw new IllegalArgumentException("A duração do serviço deve ser de 1 minuto a " + Agendamento.DURACAO_MAXIMA.toHours() + " horas.");
+        }
+        LocalDateTime dataHoraFim = dados.dataHora().plus(duracao);
         try {
             Cliente cliente = clienteService.buscarPorKeycloakId(clienteKeycloakId);
-            Prestador prestador = prestadorRepository.findByIdForUpdate(dados.prestadorId())
+            Prestador prestador = prestadorRepository.findById(dados.prestadorId())
                     .orElseThrow(() -> new IllegalArgumentException("Prestador não encontrado."));
 
-            if (dados.dataHora().isBefore(LocalDateTime.now().plusMinutes(30))) {
-                throw new IllegalArgumentException("O agendamento deve ser criado com pelo menos 30 minutos de antecedência.");
-            }
-
             // Validação de cidade: cliente e prestador na mesma cidade
             if (cliente.getEndereco() == null || prestador.getEndereco() == null) {
                 throw new IllegalArgumentException("Cliente e prestador devem possuir endereço cadastrado.");
@@ -70,26 +101,22 @@ public class AgendamentoService {
                 throw new IllegalArgumentException("O prestador não atende na cidade do cliente. Cidade do cliente: " + cidadeCliente);
             }
 
-            // Validação de horário: dataHora deve cair em um slot de Disponibilidade do prestador
+            // Validação de horário: [dataHora, dataHoraFim) deve caber em um slot de Disponibilidade do prestador
             int diaSemana = dados.dataHora().getDayOfWeek().getValue(); // 1 = Segunda, 7 = Domingo
             List<Disponibilidade> slots = disponibilidadeRepository.findByPrestadorIdAndDiaSemanaOrderByHoraInicioAsc(
                     prestador.getId(), diaSemana);
-            boolean dentroDeAlgumSlot = slots.stream().anyMatch(d ->
+            boolean mesmoDia = dataHoraFim.toLocalDate().equals(dados.dataHora().toLocalDate());
+            boolean dentroDeAlgumSlot = mesmoDia && slots.stream().anyMatch(d ->
                     !dados.dataHora().toLocalTime().isBefore(d.getHoraInicio()) &&
-                            dados.dataHora().toLocalTime().isBefore(d.getHoraFim()));
+                            !dataHoraFim.toLocalTime().isAfter(d.getHoraFim()));
             if (slots.isEmpty() || !dentroDeAlgumSlot) {
                 throw new IllegalArgumentException("O horário escolhido não está dentro da disponibilidade do prestador.");
             }
 
-            // Conflito: não pode haver outro agendamento ACEITO ou PENDENTE no mesmo horário para o mesmo prestador
-            boolean conflito = agendamentoRepository.existsByPrestadorIdAndDataHoraBetweenAndStatusIn(
-                    prestador.getId(),
-                    dados.dataHora(),
-                    dados.dataHora(),
-                    List.of(StatusAgendamento.PENDENTE, StatusAgendamento.ACEITO, StatusAgendamento.CONFIRMADO)
-            );
-            if (conflito) {
-                throw new IllegalArgumentException("Já existe um agendamento para este horário com o prestador.");
+            // Conflito: não pode haver outro agendamento ativo do prestador sobrepondo o período
+            if (agendamentoRepository.existeSobreposicao(prestador.getId(), StatusAgendamento.OCUPAM_HORARIO,
+                    dados.dataHora(), dataHoraFim)) {
+                throw new IllegalArgumentException(CONFLITO_HORARIO);
             }
 
             Endereco enderecoServico = cliente.getEndereco() != null
@@ -104,13 +131,26 @@ public class AgendamentoService {
                     .cliente(cliente)
                     .prestador(prestador)
                     .dataHora(dados.dataHora())
+                    .dataHoraFim(dataHoraFim)
                     .status(StatusAgendamento.PENDENTE)
                     .formaPagamento(dados.formaPagamento())
                     .valorServico(prestador.getValorServico())
                     .observacao(dados.observacao())
                     .endereco(enderecoServico)
                     .build();
-            Agendamento salvo = agendamentoRepository.save(agendamento);
+            Agendamento salvo;
+            try {
+                salvo = agendamentoRepository.save(agendamento);
+            } catch (DataIntegrityViolationException e) {
+                // Restrição de exclusão do PostgreSQL: sobreposição gravada por outra transação após a verificação acima
+                if (violouSobreposicao(e)) {
+                    throw new IllegalArgumentException(CONFLITO_HORARIO);
+                }
+                throw e;
+            }
+            // Conflito concorrente sem restrição de exclusão: um slot já reservado por outro agendamento ativo falha aqui
+            reservaHorarioService.reservar(salvo);
+            metricasPlataformaService.registrarAgendamentoCriado();
 
             AgendamentoCriadoEvent event = new AgendamentoCriadoEvent(
                     salvo.getId(),
@@ -121,24 +161,24 @@ public class AgendamentoService {
             eventPublisher.publishEvent(event);
 
             return salvo;
-        } catch (CannotAcquireLockException e) {
-            log.warn("Não foi possível adquirir lock para criação de agendamento do prestador {} na data/hora {}",
+        } catch (PessimisticLockingFailureException e) {
+            log.warn("Não foi possível reservar o horário do prestador {} na data/hora {}",
                     dados.prestadorId(), dados.dataHora(), e);
             throw new IllegalStateException("O prestador está sendo agendado por outro cliente neste momento. Tente novamente em instantes.");
         }
     }
 
-    public List<Agendamento> listarPorCliente(String clienteKeycloakId) {
-        Cliente cliente = clienteService.buscarPorKeycloakId(clienteKeycloakId);
-        return agendamentoRepository.findByClienteIdOrderByDataHoraDesc(cliente.getId());
-    }
-
-    public List<Agendamento> listarPorCliente(String clienteKeycloakId, Optional<StatusAgendamento> status) {
-        Cliente cliente = clienteService.buscarPorKeycloakId(clienteKeycloakId);
-        if (status.isPresent()) {
-            return agendamentoRepository.findByClienteIdAndStatusOrderByDataHoraDesc(cliente.getId(), status.get());
-        }
-        return agendamentoRepository.findByClienteIdOrderByDataHoraDesc(cliente.getId());
+    /**
+     * Página dos agendamentos do cliente, mais recentes primeiro, a partir do {@code cursor} (vazio = primeira página),
+     * com {@code podeFazerAvaliacao}/{@code avaliacaoId} preenchidos pela mesma consulta.
+     */
+    public PaginaCursor<AgendamentoResumo> listarPorCliente(String clienteKeycloakId, Optional<StatusAgendamento> status,
+                                                            String cursor, int tamanho) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<AgendamentoResumo> lidos = agendamentoRepository.listarResumosDoCliente(
+                clienteKeycloakId, status.orElse(null), CursorAgendamento.decodificar(cursor), tamanho + 1);
+        return CursorAgendamento.paginar(
+                lidos.stream().map(a -> a.comElegibilidadeDeAvaliacao(agora)).toList(), tamanho);
     }
 
     public Agendamento buscarPorId(Long id) {
@@ -146,6 +186,11 @@ public class AgendamentoService {
                 .orElseThrow(() -> new IllegalArgumentException("Agendamento não encontrado."));
     }
 
+    private Agendamento buscarComParticipantes(Long id) {
+        return agendamentoRepository.buscarComParticipantes(id)
+                .orElseThrow(() -> new IllegalArgumentException("Agendamento não encontrado."));
+    }
+
     public Agendamento buscarPorIdDoCliente(Long id, String clienteKeycloakId) {
         Agendamento agendamento = buscarPorId(id);
         validarCliente(agendamento, clienteKeycloakId);
@@ -154,126 +199,105 @@ public class AgendamentoService {
 
     @Transactional
     public Agendamento aceitar(Long agendamentoId, String prestadorKeycloakId) {
-        Agendamento agendamento = buscarPorId(agendamentoId);
-        Prestador prestador = prestadorRepository.findByKeycloakId(prestadorKeycloakId)
-                .orElseThrow(() -> new IllegalArgumentException("Prestador não encontrado."));
-        if (!agendamento.getPrestador().getId().equals(prestador.getId())) {
-            throw new IllegalArgumentException("Somente o prestador do agendamento pode aceitá-lo.");
-        }
-        if (agendamento.getStatus() != StatusAgendamento.PENDENTE) {
-            throw new IllegalArgumentException("Somente agendamentos pendentes podem ser aceitos.");
-        }
-        agendamento.aceitar();
+        Agendamento agendamento = transicionarPeloPrestador(agendamentoId, prestadorKeycloakId, TransicaoAgendamento.ACEITAR);
         Pagamento pagamento = pagamentoService.criarPagamento(agendamento);
         if (pagamento.getLinkPagamento() != null) {
             mensageriaService.enviarLinkPagamento(agendamento.getCliente(), pagamento.getLinkPagamento());
         }
         if (agendamento.getFormaPagamento() == FormaPagamento.DINHEIRO) {
+            // Entidade recém-lida: o UPDATE do commit é verificado pela versão
             agendamento.confirmar();
+            metricasPlataformaService.registrarTransicaoAgendamento(StatusAgendamento.ACEITO, StatusAgendamento.CONFIRMADO, 1);
         }
-        return agendamentoRepository.save(agendamento);
+        return aposTransicao(agendamento);
     }
 
     @Transactional
     public Agendamento recusar(Long agendamentoId, String prestadorKeycloakId) {
-        Agendamento agendamento = buscarPorId(agendamentoId);
-        Prestador prestador = prestadorRepository.findByKeycloakId(prestadorKeycloakId)
-                .orElseThrow(() -> new IllegalArgumentException("Prestador não encontrado."));
-        if (!agendamento.getPrestador().getId().equals(prestador.getId())) {
-            throw new IllegalArgumentException("Somente o prestador do agendamento pode recusá-lo.");
-        }
-        if (agendamento.getStatus() != StatusAgendamento.PENDENTE) {
-            throw new IllegalArgumentException("Somente agendamentos pendentes podem ser recusados.");
-        }
-        agendamento.recusar();
-        return agendamentoRepository.save(agendamento);
+        return aposTransicao(transicionarPeloPrestador(agendamentoId, prestadorKeycloakId, TransicaoAgendamento.RECUSAR));
     }
 
+    /**
+     * Cancela a partir de qualquer status da origem. O UPDATE condicional vale para a versão lida, então o
+     * status de saída (contado nas métricas) é exatamente o lido; se outra operação alterou o agendamento
+     * entre a leitura e o UPDATE (ex.: PENDENTE → ACEITO), lê de novo e tenta mais uma vez.
+     */
     @Transactional
     public Agendamento cancelar(Long agendamentoId, String clienteKeycloakId) {
-        Agendamento agendamento = buscarPorId(agendamentoId);
-        Cliente cliente = clienteService.buscarPorKeycloakId(clienteKeycloakId);
-        if (!agendamento.getCliente().getId().equals(cliente.getId())) {
-            throw new IllegalArgumentException("Somente o cliente do agendamento pode cancelar.");
-        }
-        if (agendamento.getStatus() == StatusAgendamento.REALIZADO) {
-            throw new IllegalArgumentException("Não é possível cancelar um agendamento realizado.");
+        TransicaoAgendamento transicao = TransicaoAgendamento.CANCELAR;
+        for (int tentativa = 1; ; tentativa++) {
+            Agendamento agendamento = buscarComParticipantes(agendamentoId);
+            exigirAutor(ehDoCliente(agendamento, clienteKeycloakId), transicao.mensagemAutor());
+            StatusAgendamento anterior = agendamento.getStatus();
+            if (!transicao.origem().contains(anterior)) {
+                throw new IllegalArgumentException(transicao.mensagemStatus());
+            }
+            if (agendamentoRepository.transicionarPeloCliente(agendamentoId, clienteKeycloakId,
+                    agendamento.getVersao(), transicao.origem(), transicao.destino()) == 1) {
+                // A cópia lida (desanexada pelo UPDATE) passa ao estado gravado
+                agendamento.cancelar();
+                agendamento.setVersao(agendamento.getVersao() + 1);
+                metricasPlataformaService.registrarTransicaoAgendamento(anterior, transicao.destino(), 1);
+                return aposTransicao(agendamento);
+            }
+            if (tentativa == 2) {
+                throw new IllegalArgumentException(ALTERADO_POR_OUTRA_OPERACAO);
+            }
         }
-        agendamento.cancelar();
-        return agendamentoRepository.save(agendamento);
     }
 
     @Transactional
     public Agendamento confirmarPagamento(Long agendamentoId, String clienteKeycloakId) {
-        Agendamento agendamento = buscarPorId(agendamentoId);
-        validarCliente(agendamento, clienteKeycloakId);
-        if (agendamento.getStatus() != StatusAgendamento.ACEITO) {
-            throw new IllegalArgumentException("Somente agendamentos aceitos podem ter pagamento confirmado.");
-        }
-        Pagamento pagamento = pagamentoService.buscarPorAgendamento(agendamentoId);
-        if (pagamento.getStatus() == StatusPagamento.CONFIRMADO) {
-            return agendamento;
-        }
-        if (agendamento.getDataHora().isBefore(LocalDateTime.now().plusHours(1))) {
-            throw new IllegalArgumentException("O pagamento só pode ser confirmado até 1 hora antes do horário do atendimento.");
+        LocalDateTime agora = LocalDateTime.now();
+        int alterados = agendamentoRepository.confirmarPeloCliente(agendamentoId, clienteKeycloakId, agora.plusHours(1), agora);
+        Agendamento agendamento = buscarComParticipantes(agendamentoId);
+        if (alterados == 0) {
+            exigirAutor(ehDoCliente(agendamento, clienteKeycloakId), "Somente o cliente do agendamento pode executar esta ação.");
+            if (agendamento.getStatus() != StatusAgendamento.ACEITO) {
+                throw new IllegalArgumentException("Somente agendamentos aceitos podem ter pagamento confirmado.");
+            }
+            if (agendamento.getDataHora().isBefore(agora.plusHours(1))) {
+                throw new IllegalArgumentException("O pagamento só pode ser confirmado até 1 hora antes do horário do atendimento.");
+            }
+            throw new IllegalArgumentException(ALTERADO_POR_OUTRA_OPERACAO);
         }
-        Pagamento pagamentoConfirmado = pagamentoService.confirmarPagamento(agendamentoId);
-        agendamento.confirmar();
-        walletService.creditarPorPagamentoConfirmado(agendamento, pagamentoConfirmado);
-        return agendamentoRepository.save(agendamento);
+        metricasPlataformaService.registrarTransicaoAgendamento(StatusAgendamento.ACEITO, StatusAgendamento.CONFIRMADO, 1);
+        confirmarPagamentoECreditar(agendamento);
+        return aposTransicao(agendamento);
     }
 
     /**
      * Confirma pagamento pelo id do agendamento (usado pelo webhook AbacatePay).
-     * Só altera estado se o agendamento estiver ACEITO e o pagamento ainda pendente.
+     * Só altera estado se o agendamento estiver ACEITO; a condição é aplicada no próprio UPDATE.
      * Credita o valor líquido (após 7%) na wallet do prestador.
      */
     @Transactional
     public void confirmarPagamentoPorIdAgendamento(Long agendamentoId) {
-        Agendamento agendamento = buscarPorId(agendamentoId);
-        if (agendamento.getStatus() != StatusAgendamento.ACEITO) {
+        if (agendamentoRepository.confirmar(agendamentoId, LocalDateTime.now()) == 0) {
             return;
         }
-        Pagamento pagamento = pagamentoService.confirmarPagamento(agendamentoId);
-        agendamento.confirmar();
-        agendamentoRepository.save(agendamento);
-        walletService.creditarPorPagamentoConfirmado(agendamento, pagamento);
-    }
-
-    /**
-     * Cancela agendamentos ACEITOS com pagamento ainda PENDENTE quando faltar menos de 1h para o horário.
-     * Executado a cada 5 minutos.
-     */
-    @Scheduled(fixedRate = 300_000)
-    @Transactional
-    public void cancelarAgendamentosAceitosSemPagamentoComMenosDe1h() {
-        LocalDateTime limite = LocalDateTime.now().plusHours(1);
-        List<Agendamento> aceitos = agendamentoRepository.findByStatusAndDataHoraBefore(StatusAgendamento.ACEITO, limite);
-        for (Agendamento ag : aceitos) {
-            Optional<Pagamento> pagOpt = pagamentoRepository.findByAgendamentoId(ag.getId());
-            if (pagOpt.isPresent() && pagOpt.get().getStatus() == StatusPagamento.PENDENTE) {
-                ag.cancelar();
-                agendamentoRepository.save(ag);
-                pagamentoService.cancelarPorAgendamento(ag.getId());
-                log.info("Agendamento {} cancelado automaticamente (pagamento pendente com menos de 1h).", ag.getId());
-            }
-        }
+        metricasPlataformaService.registrarTransicaoAgendamento(StatusAgendamento.ACEITO, StatusAgendamento.CONFIRMADO, 1);
+        Agendamento agendamento = buscarComParticipantes(agendamentoId);
+        confirmarPagamentoECreditar(agendamento);
+        aposTransicao(agendamento);
     }
 
     @Transactional
     public Agendamento registrarCheckin(Long agendamentoId, String prestadorKeycloakId, DadosLocalizacao localizacao) {
-        Agendamento agendamento = buscarPorId(agendamentoId);
-        validarPrestador(agendamento, prestadorKeycloakId);
-        if (agendamento.getStatus() != StatusAgendamento.CONFIRMADO) {
-            throw new IllegalArgumentException("Somente agendamentos confirmados podem receber check-in.");
-        }
-        if (agendamento.getCheckinEm() != null) {
-            throw new IllegalArgumentException("Check-in já foi realizado.");
+        int alterados = agendamentoRepository.registrarCheckin(agendamentoId, prestadorKeycloakId,
+                LocalDateTime.now(), localizacao.latitude(), localizacao.longitude());
+        Agendamento agendamento = buscarComParticipantes(agendamentoId);
+        if (alterados == 0) {
+            exigirAutor(ehDoPrestador(agendamento, prestadorKeycloakId), ACAO_SOMENTE_PRESTADOR);
+            if (agendamento.getStatus() != StatusAgendamento.CONFIRMADO) {
+                throw new IllegalArgumentException("Somente agendamentos confirmados podem receber check-in.");
+            }
+            if (agendamento.getCheckinEm() != null) {
+                throw new IllegalArgumentException("Check-in já foi realizado.");
+            }
+            throw new IllegalArgumentException(ALTERADO_POR_OUTRA_OPERACAO);
         }
-        agendamento.setCheckinEm(LocalDateTime.now());
-        agendamento.setCheckinLatitude(localizacao.latitude());
-        agendamento.setCheckinLongitude(localizacao.longitude());
-        return agendamentoRepository.save(agendamento);
+        return agendamento;
     }
 
     @Transactional
@@ -283,15 +307,25 @@ public class AgendamentoService {
 
     @Transactional
     public Agendamento registrarCheckoutComFoto(Long agendamentoId, String prestadorKeycloakId, DadosLocalizacao localizacao, MultipartFile fotoTrabalho) {
-        Agendamento agendamento = buscarPorId(agendamentoId);
-        validarPrestador(agendamento, prestadorKeycloakId);
-        if (agendamento.getCheckinEm() == null) {
-            throw new IllegalArgumentException("É necessário realizar o check-in antes do checkout.");
-        }
-        if (agendamento.getCheckoutEm() != null) {
-            throw new IllegalArgumentException("Checkout já foi realizado.");
+        int alterados = agendamentoRepository.registrarCheckout(agendamentoId, prestadorKeycloakId,
+                LocalDateTime.now(), localizacao.latitude(), localizacao.longitude());
+        Agendamento agendamento = buscarComParticipantes(agendamentoId);
+        if (alterados == 0) {
+            exigirAutor(ehDoPrestador(agendamento, prestadorKeycloakId), ACAO_SOMENTE_PRESTADOR);
+            if (agendamento.getCheckinEm() == null) {
+                throw new IllegalArgumentException("É necessário realizar o check-in antes do checkout.");
+            }
+            if (agendamento.getCheckoutEm() != null) {
+                throw new IllegalArgumentException("Checkout já foi realizado.");
+            }
+            if (agendamento.getStatus() != StatusAgendamento.CONFIRMADO) {
+                throw new IllegalArgumentException("Somente agendamentos confirmados podem receber checkout.");
+            }
+            throw new IllegalArgumentException(ALTERADO_POR_OUTRA_OPERACAO);
         }
+        metricasPlataformaService.registrarTransicaoAgendamento(StatusAgendamento.CONFIRMADO, StatusAgendamento.REALIZADO, 1);
         if (fotoTrabalho != null && !fotoTrabalho.isEmpty()) {
+            // Depois do checkout aplicado: uma falha no upload desfaz a transação inteira
             try {
                 String caminho = armazenamentoMidiaService.salvar("agendamentos", fotoTrabalho);
                 agendamento.setFotoTrabalhoUrl(caminho);
@@ -299,25 +333,89 @@ public class AgendamentoService {
                 throw new IllegalArgumentException("Erro ao salvar foto do trabalho: " + e.getMessage());
             }
         }
-        agendamento.setCheckoutEm(LocalDateTime.now());
-        agendamento.setCheckoutLatitude(localizacao.latitude());
-        agendamento.setCheckoutLongitude(localizacao.longitude());
-        agendamento.marcarRealizado();
-        return agendamentoRepository.save(agendamento);
+        aposTransicao(agendamento);
+        estatisticasPrestadorService.registrarServicoRealizado(agendamento.getPrestadorId());
+        eventPublisher.publishEvent(new PrestadorAlteradoEvent(agendamento.getPrestadorId(), MotivoAlteracao.SERVICO_REALIZADO));
+        return agendamento;
     }
 
-    private void validarPrestador(Agendamento agendamento, String prestadorKeycloakId) {
-        Prestador prestador = prestadorRepository.findByKeycloakId(prestadorKeycloakId)
-                .orElseThrow(() -> new IllegalArgumentException("Prestador não encontrado."));
-        if (!agendamento.getPrestador().getId().equals(prestador.getId())) {
-            throw new IllegalArgumentException("Somente o prestador do agendamento pode executar esta ação.");
+    /**
+     * Aplica a transição com um UPDATE condicional ({@link AgendamentoRepository#transicionarPeloPrestador})
+     * e devolve o agendamento já no novo status. Sem linha alterada, o agendamento lido explica a recusa.
+     * <p>
+     * Esta e as demais transições leem o agendamento uma única vez depois do UPDATE, já com cliente e prestador,
+     * que a resposta, os eventos e a mensageria usam: a cópia fica gerenciada e reflete a linha gravada.
+     */
+    private Agendamento transicionarPeloPrestador(Long agendamentoId, String prestadorKeycloakId, TransicaoAgendamento transicao) {
+        int alterados = agendamentoRepository.transicionarPeloPrestador(
+                agendamentoId, prestadorKeycloakId, transicao.origem(), transicao.destino());
+        Agendamento agendamento = buscarComParticipantes(agendamentoId);
+        if (alterados == 0) {
+            exigirAutor(ehDoPrestador(agendamento, prestadorKeycloakId), transicao.mensagemAutor());
+            throw transicaoRecusada(agendamento, transicao.origem(), transicao.mensagemStatus());
         }
+        // Transições do prestador partem de um único status
+        metricasPlataformaService.registrarTransicaoAgendamento(transicao.origem().get(0), transicao.destino(), 1);
+        return agendamento;
+    }
+
+    /**
+     * Depois de uma transição de status: libera o slot quando o agendamento deixa de ocupá-lo
+     * e anuncia a mudança (após o commit) à agenda em memória do catálogo.
+     */
+    private Agendamento aposTransicao(Agendamento agendamento) {
+        if (!agendamento.getStatus().ocupaHorario()) {
+            reservaHorarioService.liberar(agendamento.getId());
+        }
+        eventPublisher.publishEvent(AgendamentoStatusAlteradoEvent.de(agendamento));
+        return agendamento;
+    }
+
+    private void confirmarPagamentoECreditar(Agendamento agendamento) {
+        boolean jaConfirmado = pagamentoService.buscarPorAgendamento(agendamento.getId()).getStatus() == StatusPagamento.CONFIRMADO;
+        Pagamento pagamento = pagamentoService.confirmarPagamento(agendamento.getId());
+        if (!jaConfirmado) {
+            walletService.creditarPorPagamentoConfirmado(agendamento, pagamento);
+        }
+    }
+
+    private static boolean ehDoPrestador(Agendamento agendamento, String prestadorKeycloakId) {
+        return prestadorKeycloakId != null && prestadorKeycloakId.equals(agendamento.getPrestadorKeycloakId());
+    }
+
+    private static boolean ehDoCliente(Agendamento agendamento, String clienteKeycloakId) {
+        return clienteKeycloakId != null && agendamento.getCliente() != null
+                && clienteKeycloakId.equals(agendamento.getCliente().getKeycloakId());
+    }
+
+    private static void exigirAutor(boolean autor, String mensagem) {
+        if (!autor) {
+            throw new IllegalArgumentException(mensagem);
+        }
+    }
+
+    /** Status fora da origem explica a recusa; dentro dela, outra operação alterou a linha entre o UPDATE e a leitura. */
+    private static IllegalArgumentException transicaoRecusada(Agendamento agendamento, List<StatusAgendamento> origem, String mensagemStatus) {
+        return new IllegalArgumentException(origem.contains(agendamento.getStatus()) ? ALTERADO_POR_OUTRA_OPERACAO : mensagemStatus);
     }
 
     private void validarCliente(Agendamento agendamento, String clienteKeycloakId) {
-        Cliente cliente = clienteService.buscarPorKeycloakId(clienteKeycloakId);
-        if (!agendamento.getCliente().getId().equals(cliente.getId())) {
+        if (!agendamento.getCliente().getId().equals(identidadeService.idDoCliente(clienteKeycloakId))) {
             throw new IllegalArgumentException("Somente o cliente do agendamento pode executar esta ação.");
         }
     }
+
+    /** Só a violação de {@code ex_agendamento_sobreposicao} é conflito de horário; as demais seguem como erro. */
+    private static boolean violouSobreposicao(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLException sql && SQLSTATE_EXCLUSAO.equals(sql.getSQLState())) {
+                return true;
+            }
+            if (causa instanceof ConstraintViolationException violacao
+                    && RESTRICAO_SOBREPOSICAO.equalsIgnoreCase(violacao.getConstraintName())) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
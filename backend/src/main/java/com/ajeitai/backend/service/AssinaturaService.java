@@ -1,5 +1,6 @@
 package com.ajeitai.backend.service;
 
+import com.ajeitai.backend.domain.financeiro.AssinaturaAtivadaEvent;
 import com.ajeitai.backend.domain.financeiro.AssinaturaPrestador;
 import com.ajeitai.backend.domain.financeiro.StatusAssinatura;
 import com.ajeitai.backend.domain.prestador.Prestador;
@@ -8,6 +9,7 @@ import com.ajeitai.backend.repository.AssinaturaPrestadorRepository;
 import com.ajeitai.backend.repository.WalletPrestadorRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,9 @@ public class AssinaturaService {
     private final AssinaturaPrestadorRepository assinaturaRepository;
     private final WalletPrestadorRepository walletRepository;
     private final PrestadorService prestadorService;
+    private final IdentidadeService identidadeService;
+    private final CacheAssinaturas cacheAssinaturas;
+    private final ApplicationEventPublisher eventPublisher;
     private final AbacatePayService abacatePayService;
 
     @Value("${app.assinatura.prestador.valor-mensal:15.00}")
@@ -29,8 +34,8 @@ public class AssinaturaService {
 
     @Transactional(readOnly = true)
     public AssinaturaResumo obterStatusAssinatura(String keycloakId) {
-        Prestador prestador = prestadorService.buscarPorKeycloakId(keycloakId);
-        return assinaturaRepository.findFirstByPrestadorIdAndStatusOrderByDataFimDesc(prestador.getId(), StatusAssinatura.ATIVA)
+        Long prestadorId = identidadeService.idDoPrestador(keycloakId);
+        return assinaturaRepository.findFirstByPrestadorIdAndStatusOrderByDataFimDesc(prestadorId, StatusAssinatura.ATIVA)
                 .map(a -> new AssinaturaResumo(a.getStatus(), a.getDataInicio(), a.getDataFim(), null))
                 .orElseGet(() -> new AssinaturaResumo(StatusAssinatura.CANCELADA, null, null, null));
     }
@@ -85,24 +90,27 @@ public class AssinaturaService {
         assinatura.setUltimoPagamentoEm(LocalDateTime.now());
         assinatura.setBillingId(billingId);
         assinaturaRepository.save(assinatura);
+        eventPublisher.publishEvent(new AssinaturaAtivadaEvent(
+                assinatura.getPrestador().getKeycloakId(), assinatura.getDataFim()));
 
         // Garante que o prestador tenha uma wallet inicializada
-        walletRepository.findByPrestadorId(assinatura.getPrestador().getId())
-                .orElseGet(() -> walletRepository.save(
-                        com.ajeitai.backend.domain.financeiro.WalletPrestador.builder()
-                                .prestador(assinatura.getPrestador())
-                                .saldoDisponivel(BigDecimal.ZERO)
-                                .build()
-                ));
+        walletRepository.criarSeAusente(assinatura.getPrestador().getId());
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Chamado em toda requisição de prestador: sem transação, e só consulta o banco quando o
+     * {@link CacheAssinaturas} não tem a validade do prestador.
+     */
     public boolean prestadorComAssinaturaAtiva(String keycloakId) {
-        Prestador prestador = prestadorService.buscarPorKeycloakId(keycloakId);
-        LocalDate hoje = LocalDate.now();
-        return assinaturaRepository.findFirstByPrestadorIdAndStatusOrderByDataFimDesc(prestador.getId(), StatusAssinatura.ATIVA)
-                .filter(a -> a.getDataFim() != null && !a.getDataFim().isBefore(hoje))
-                .isPresent();
+        return cacheAssinaturas.ativa(keycloakId, this::carregarValidade);
+    }
+
+    private CacheAssinaturas.Validade carregarValidade(String keycloakId) {
+        Long prestadorId = identidadeService.idDoPrestador(keycloakId);
+        return new CacheAssinaturas.Validade(assinaturaRepository
+                .findFirstByPrestadorIdAndStatusOrderByDataFimDesc(prestadorId, StatusAssinatura.ATIVA)
+                .map(AssinaturaPrestador::getDataFim)
+                .orElse(null));
     }
 
     public record AssinaturaResumo(
@@ -5,9 +5,12 @@ import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
 import com.ajeitai.backend.domain.avaliacao.Avaliacao;
 import com.ajeitai.backend.domain.avaliacao.DadosAvaliacao;
 import com.ajeitai.backend.domain.cliente.Cliente;
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
 import com.ajeitai.backend.repository.AgendamentoRepository;
 import com.ajeitai.backend.repository.AvaliacaoRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +23,8 @@ public class AvaliacaoService {
     private final AvaliacaoRepository avaliacaoRepository;
     private final AgendamentoRepository agendamentoRepository;
     private final ClienteService clienteService;
+    private final EstatisticasPrestadorService estatisticasPrestadorService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Avaliacao avaliar(String clienteKeycloakId, Long agendamentoId, DadosAvaliacao dados) {
@@ -35,10 +40,7 @@ public class AvaliacaoService {
         if (avaliacaoRepository.findByAgendamentoId(agendamentoId).isPresent()) {
             throw new IllegalArgumentException("Este agendamento já foi avaliado.");
         }
-        LocalDateTime referencia = agendamento.getCheckoutEm() != null
-                ? agendamento.getCheckoutEm()
-                : agendamento.getDataHora();
-        if (referencia != null && referencia.plusDays(7).isBefore(LocalDateTime.now())) {
+        if (!Avaliacao.dentroDoPrazo(agendamento.getCheckoutEm(), agendamento.getDataHora(), LocalDateTime.now())) {
             throw new IllegalArgumentException("O prazo para avaliação deste agendamento expirou.");
         }
         Avaliacao avaliacao = Avaliacao.builder()
@@ -48,6 +50,11 @@ public class AvaliacaoService {
                 .nota(dados.nota())
                 .comentario(dados.comentario())
                 .build();
-        return avaliacaoRepository.save(avaliacao);
+        Avaliacao salva = avaliacaoRepository.save(avaliacao);
+        estatisticasPrestadorService.registrarAvaliacao(agendamento.getPrestadorId(), dados.nota());
+        if (agendamento.getPrestadorId() != null) {
+            eventPublisher.publishEvent(new PrestadorAlteradoEvent(agendamento.getPrestadorId(), MotivoAlteracao.AVALIACAO));
+        }
+        return salva;
     }
 }
@@ -0,0 +1,109 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.domain.financeiro.AssinaturaAtivadaEvent;
+import com.ajeitai.backend.infra.cache.BarramentoInvalidacao;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Validade das assinaturas por keycloakId do prestador, consultada em toda requisição de prestador pelo
+ * {@code PrestadorAssinaturaFilter}. A entrada guarda a {@code dataFim} da assinatura ATIVA e expira no fim desse dia
+ * (a assinatura vale até a dataFim, inclusive); sem assinatura ativa, a ausência expira em
+ * {@code app.assinatura.cache.ttl-inativa}. O pagamento de uma assinatura atualiza a entrada após o commit e
+ * descarta a das demais réplicas pelo {@link BarramentoInvalidacao}.
+ */
+@Component
+public class CacheAssinaturas {
+
+    public static final String TIPO_ASSINATURA = "assinatura";
+
+    private final BarramentoInvalidacao barramento;
+    private final Duration ttlInativa;
+    private final Cache<String, Validade> cache;
+
+    public CacheAssinaturas(
+            BarramentoInvalidacao barramento,
+            @Value("${app.assinatura.cache.maximo:10000}") long maximo,
+            @Value("${app.assinatura.cache.ttl-inativa:PT1M}") Duration ttlInativa
+    ) {
+        this.barramento = barramento;
+        this.ttlInativa = ttlInativa;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfter(new ExpiraComAAssinatura())
+                .executor(Runnable::run)
+                .build();
+        barramento.assinar(TIPO_ASSINATURA, this::esquecer);
+    }
+
+    /**
+     * Se o prestador tem assinatura válida hoje; {@code carregar} só é chamado quando não há entrada em cache.
+     */
+    public boolean ativa(String keycloakId, Function<String, Validade> carregar) {
+        return cache.get(keycloakId, carregar).valeEm(LocalDate.now());
+    }
+
+    /** Descarta a validade guardada do prestador, só nesta instância. */
+    public void esquecer(String keycloakId) {
+        if (keycloakId != null) {
+            cache.invalidate(keycloakId);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAssinaturaAtivada(AssinaturaAtivadaEvent event) {
+        if (event.prestadorKeycloakId() == null) {
+            return;
+        }
+        // Mantém a maior dataFim: uma renovação registrada em paralelo não encurta a validade já conhecida
+        cache.asMap().merge(event.prestadorKeycloakId(), new Validade(event.dataFim()),
+                (atual, nova) -> atual.dataFim() != null && nova.dataFim() != null && atual.dataFim().isAfter(nova.dataFim())
+                        ? atual : nova);
+        barramento.publicar(TIPO_ASSINATURA, event.prestadorKeycloakId());
+    }
+
+    /** Até quando a entrada vale: fim do dia da dataFim ou, sem assinatura ativa, {@code ttlInativa}. */
+    static Duration tempoDeVida(Validade validade, LocalDateTime agora, Duration ttlInativa) {
+        if (validade.dataFim() == null) {
+            return ttlInativa;
+        }
+        Duration restante = Duration.between(agora, validade.dataFim().plusDays(1).atStartOfDay());
+        return restante.isNegative() ? Duration.ZERO : restante;
+    }
+
+    /** {@code dataFim} da assinatura ATIVA mais longa do prestador; null se não há. */
+    public record Validade(LocalDate dataFim) {
+
+        boolean valeEm(LocalDate dia) {
+            return dataFim != null && !dataFim.isBefore(dia);
+        }
+    }
+
+    private final class ExpiraComAAssinatura implements Expiry<String, Validade> {
+
+        @Override
+        public long expireAfterCreate(String keycloakId, Validade validade, long currentTime) {
+            return tempoDeVida(validade, LocalDateTime.now(), ttlInativa).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String keycloakId, Validade validade, long currentTime, long currentDuration) {
+            return tempoDeVida(validade, LocalDateTime.now(), ttlInativa).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String keycloakId, Validade validade, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
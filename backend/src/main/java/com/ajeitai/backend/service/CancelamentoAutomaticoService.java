@@ -0,0 +1,142 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.domain.agendamento.AgendamentoStatusAlteradoEvent;
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.pagamento.StatusPagamento;
+import com.ajeitai.backend.infra.agendador.TravaAgendada;
+import com.ajeitai.backend.repository.AgendamentoRepository;
+import com.ajeitai.backend.repository.PagamentoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cancela agendamentos ACEITOS com pagamento ainda PENDENTE quando faltar menos de 1h para o horário.
+ * <p>
+ * Trabalha em lotes de {@code app.agendamento.cancelamento-automatico.lote}, cada um na sua transação:
+ * uma leitura pelo índice (status, data_hora), a trava das linhas que ainda atendem às condições e um UPDATE por
+ * tabela para o lote inteiro. Só os agendamentos travados por este lote contam como cancelados e geram um
+ * {@link AgendamentoStatusAlteradoEvent}; os cancelados pelo cliente no meio do caminho ficam de fora.
+ */
+@Service
+public class CancelamentoAutomaticoService {
+
+    private static final Logger log = LoggerFactory.getLogger(CancelamentoAutomaticoService.class);
+
+    static final Duration ANTECEDENCIA = Duration.ofHours(1);
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final PagamentoRepository pagamentoRepository;
+    private final ReservaHorarioService reservaHorarioService;
+    private final MetricasPlataformaService metricasPlataformaService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final Counter cancelados;
+    private final Timer duracao;
+
+    public CancelamentoAutomaticoService(
+            AgendamentoRepository agendamentoRepository,
+            PagamentoRepository pagamentoRepository,
+            ReservaHorarioService reservaHorarioService,
+            MetricasPlataformaService metricasPlataformaService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.agendamento.cancelamento-automatico.lote:500}") int tamanhoLote
+    ) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("O lote do cancelamento automático deve ser positivo.");
+        }
+        this.agendamentoRepository = agendamentoRepository;
+        this.pagamentoRepository = pagamentoRepository;
+        this.reservaHorarioService = reservaHorarioService;
+        this.metricasPlataformaService = metricasPlataformaService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.cancelados = Counter.builder("agendamentos.cancelamento.automatico")
+                .description("Agendamentos cancelados por pagamento pendente perto do horário")
+                .register(meterRegistry);
+        this.duracao = Timer.builder("agendamentos.cancelamento.automatico.duracao")
+                .description("Duração de cada execução do cancelamento automático")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executado a cada 5 minutos, em uma réplica por vez. Devolve quantos agendamentos foram cancelados.
+     */
+    @Scheduled(fixedRate = 300_000)
+    @TravaAgendada(nome = "cancelamento-automatico", validade = "PT10M", minimo = "PT4M")
+    public int cancelarAceitosSemPagamento() {
+        Timer.Sample amostra = Timer.start();
+        try {
+            LocalDateTime limite = LocalDateTime.now().plus(ANTECEDENCIA);
+            int total = 0;
+            Lote lote;
+            do {
+                lote = transactionTemplate.execute(status -> cancelarLote(limite));
+                total += lote.cancelados();
+                cancelados.increment(lote.cancelados());
+            } while (lote.lidos() == tamanhoLote);
+            if (total > 0) {
+                log.info("{} agendamentos cancelados automaticamente (pagamento pendente com menos de 1h).", total);
+            }
+            return total;
+        } finally {
+            amostra.stop(duracao);
+        }
+    }
+
+    private Lote cancelarLote(LocalDateTime limite) {
+        List<AgendamentoRepository.AgendamentoAlterado> lote = agendamentoRepository.listarComPagamentoNoStatus(
+                StatusAgendamento.ACEITO, limite, StatusPagamento.PENDENTE, Limit.of(tamanhoLote));
+        if (lote.isEmpty()) {
+            return new Lote(0, 0);
+        }
+        Set<Long> lidos = new HashSet<>();
+        lote.forEach(agendamento -> lidos.add(agendamento.getId()));
+
+        // Pagos ou cancelados entre a leitura e a trava ficam de fora; os travados não mudam até o commit
+        Set<Long> ids = new HashSet<>(agendamentoRepository.travarComPagamentoNoStatus(
+                lidos, StatusAgendamento.ACEITO.name(), StatusPagamento.PENDENTE.name()));
+        if (ids.isEmpty()) {
+            return new Lote(lote.size(), 0);
+        }
+        agendamentoRepository.alterarStatusComPagamentoNoStatus(
+                ids, StatusAgendamento.ACEITO, StatusAgendamento.CANCELADO, StatusPagamento.PENDENTE);
+        int pagamentosCancelados = pagamentoRepository.alterarStatusPorAgendamentos(
+                ids, StatusPagamento.PENDENTE, StatusPagamento.CANCELADO);
+        metricasPlataformaService.registrarTransicaoAgendamento(
+                StatusAgendamento.ACEITO, StatusAgendamento.CANCELADO, ids.size());
+        metricasPlataformaService.registrarTransicaoPagamento(
+                StatusPagamento.PENDENTE, StatusPagamento.CANCELADO, pagamentosCancelados);
+        reservaHorarioService.liberarTodos(ids);
+
+        for (AgendamentoRepository.AgendamentoAlterado agendamento : lote) {
+            if (ids.contains(agendamento.getId())) {
+                eventPublisher.publishEvent(new AgendamentoStatusAlteradoEvent(agendamento.getId(),
+                        agendamento.getPrestadorId(), agendamento.getDataHora(), StatusAgendamento.CANCELADO));
+            }
+        }
+        return new Lote(lote.size(), ids.size());
+    }
+
+    private record Lote(int lidos, int cancelados) {
+    }
+}
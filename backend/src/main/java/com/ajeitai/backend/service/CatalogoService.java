@@ -1,27 +1,36 @@
 package com.ajeitai.backend.service;
 
-import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
-import com.ajeitai.backend.domain.catalogo.PrestadorPublicoDetalhe;
+import com.ajeitai.backend.domain.catalogo.CursorCatalogo;
+import com.ajeitai.backend.domain.catalogo.FiltroCatalogo;
+import com.ajeitai.backend.domain.catalogo.HorariosDoDia;
+import com.ajeitai.backend.domain.catalogo.JanelaHorario;
+import com.ajeitai.backend.domain.catalogo.PaginaCursor;
+import com.ajeitai.backend.domain.catalogo.PrestadorComEstatisticas;
 import com.ajeitai.backend.domain.catalogo.PrestadorPublicoResumo;
-import com.ajeitai.backend.domain.catalogo.PortfolioPublicoItem;
 import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
 import com.ajeitai.backend.domain.prestador.Prestador;
-import com.ajeitai.backend.repository.AgendamentoRepository;
-import com.ajeitai.backend.repository.AvaliacaoRepository;
-import com.ajeitai.backend.repository.PortfolioRepository;
+import com.ajeitai.backend.infra.cache.RespostaJsonCache;
 import com.ajeitai.backend.repository.PrestadorRepository;
-import com.ajeitai.backend.config.CacheConfig;
+import com.ajeitai.backend.service.catalogo.CandidatosCatalogo;
+import com.ajeitai.backend.service.catalogo.CatalogoSnapshot;
+import com.ajeitai.backend.service.catalogo.DetalhesCatalogo;
+import com.ajeitai.backend.service.catalogo.GeoUtils;
+import com.ajeitai.backend.service.catalogo.HorariosCatalogo;
+import com.ajeitai.backend.service.catalogo.IndiceAgendaPrestadores;
+import com.ajeitai.backend.service.catalogo.IndiceGeoPrestadores;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,56 +38,99 @@ import java.util.stream.Collectors;
 public class CatalogoService {
 
     private final PrestadorRepository prestadorRepository;
-    private final AvaliacaoRepository avaliacaoRepository;
-    private final AgendamentoRepository agendamentoRepository;
-    private final PortfolioRepository portfolioRepository;
+    private final IndiceGeoPrestadores indiceGeoPrestadores;
+    private final IndiceAgendaPrestadores indiceAgendaPrestadores;
+    private final CandidatosCatalogo candidatosCatalogo;
+    private final DetalhesCatalogo detalhesCatalogo;
+    private final HorariosCatalogo horariosCatalogo;
+    private final CatalogoSnapshot catalogoSnapshot;
+    private final RespostaJsonCache respostaJsonCache;
 
-    @Cacheable(cacheNames = CacheConfig.CACHE_CATALOGO_LISTA, key = "#categoria + '-' + #cidade + '-' + #uf + '-' + #minAvaliacao + '-' + #latitude + '-' + #longitude")
+    @Value("${app.catalogo.horarios.dias-padrao:7}")
+    private int diasPadraoHorarios;
+
+    /**
+     * Listagem do catálogo (GET /api/catalogo/prestadores). Os candidatos vêm do cache por filtros e célula
+     * geohash ({@link CandidatosCatalogo}); a distância exata, o corte por {@code raioKm} e a ordenação
+     * por distância são calculados por requisição sobre essa lista, assim como o filtro {@code janela}
+     * ("livre em"), respondido pelo {@link IndiceAgendaPrestadores}.
+     */
     public List<PrestadorPublicoResumo> listarPrestadores(
             CategoriaAtuacao categoria,
             String cidade,
             String uf,
             Double minAvaliacao,
             Double latitude,
-            Double longitude
+            Double longitude,
+            Double raioKm,
+            JanelaHorario janela
     ) {
-        List<Prestador> prestadores = prestadorRepository.findAll();
-        return prestadores.stream()
-                .filter(p -> p.getAtivo() == null || p.getAtivo())
-                .filter(p -> categoria == null || p.getCategoria() == categoria)
-                .filter(p -> cidade == null || (p.getEndereco() != null && cidade.equalsIgnoreCase(p.getEndereco().getCidade())))
-                .filter(p -> uf == null || (p.getEndereco() != null && uf.equalsIgnoreCase(p.getEndereco().getUf())))
-                .map(p -> toResumo(p, latitude, longitude))
-                .filter(r -> minAvaliacao == null || r.mediaAvaliacao() >= minAvaliacao)
+        if (raioKm != null) {
+            validarRaio(latitude != null && longitude != null, raioKm);
+        }
+        return candidatosCatalogo.listar(categoria, cidade, uf, minAvaliacao, latitude, longitude, raioKm)
+                .stream()
+                .map(c -> c.resumo().comDistancia(calcularDistanciaKm(latitude, longitude, c.latitude(), c.longitude())))
+                .filter(r -> raioKm == null || (r.distanciaKm() != null && r.distanciaKm() <= raioKm))
+                .filter(r -> janela == null || indiceAgendaPrestadores.livre(r.id(), janela))
                 .sorted(Comparator.comparing(PrestadorPublicoResumo::distanciaKm, Comparator.nullsLast(Double::compareTo)))
                 .collect(Collectors.toList());
     }
 
-    @Cacheable(cacheNames = CacheConfig.CACHE_CATALOGO_DETALHE, key = "#prestadorId")
-    public PrestadorPublicoDetalhe buscarDetalhe(Long prestadorId) {
-        Prestador prestador = prestadorRepository.findById(prestadorId)
-                .orElseThrow(() -> new IllegalArgumentException("Prestador não encontrado."));
-        Double media = avaliacaoRepository.obterMediaPorPrestador(prestadorId);
-        List<PortfolioPublicoItem> portfolio = portfolioRepository.findByPrestadorIdOrderByIdDesc(prestadorId)
-                .stream()
-                .map(item -> new PortfolioPublicoItem(item.getId(), item.getTitulo(), item.getDescricao(), item.getImagemUrl()))
-                .collect(Collectors.toList());
-        return new PrestadorPublicoDetalhe(
-                prestador.getId(),
-                prestador.getNomeFantasia(),
-                prestador.getCategoria(),
-                prestador.getEndereco() != null ? prestador.getEndereco().getCidade() : null,
-                prestador.getEndereco() != null ? prestador.getEndereco().getUf() : null,
-                prestador.getValorServico(),
-                media != null ? media : 0.0,
-                prestador.getAvatarUrl(),
-                portfolio,
-                prestador.getKeycloakId()
-        );
+    /**
+     * Listagem do catálogo pronta para a resposta: sem coordenadas vem inteira do cache de JSON;
+     * com coordenadas ou janela de horário a lista é por usuário e serializada a cada requisição.
+     */
+    public byte[] listarPrestadoresJson(
+            CategoriaAtuacao categoria,
+            String cidade,
+            String uf,
+            Double minAvaliacao,
+            Double latitude,
+            Double longitude,
+            Double raioKm,
+            JanelaHorario janela
+    ) {
+        if (latitude == null && longitude == null && raioKm == null && janela == null) {
+            return candidatosCatalogo.listarJson(categoria, cidade, uf, minAvaliacao);
+        }
+        return respostaJsonCache.serializar(
+                listarPrestadores(categoria, cidade, uf, minAvaliacao, latitude, longitude, raioKm, janela));
+    }
+
+    /** Detalhe público já serializado (ver {@link RespostaJsonCache}). */
+    public byte[] buscarDetalheJson(Long prestadorId) {
+        byte[] detalhe = detalhesCatalogo.buscarJson(prestadorId);
+        if (detalhe == null) {
+            throw new IllegalArgumentException("Prestador não encontrado.");
+        }
+        return detalhe;
+    }
+
+    /**
+     * Horários livres do prestador por dia, de {@code de} a {@code ate} (padrão: os próximos dias-padrao dias).
+     * Cada horário já respeita a disponibilidade, os agendamentos existentes e a antecedência mínima.
+     */
+    public List<HorariosDoDia> listarHorarios(Long prestadorId, LocalDate de, LocalDate ate) {
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicio = de == null || de.isBefore(hoje) ? hoje : de;
+        LocalDate fim = ate != null ? ate : inicio.plusDays(diasPadraoHorarios - 1L);
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("A data final deve ser igual ou posterior à inicial e não pode estar no passado.");
+        }
+        if (fim.isAfter(hoje.plusDays(horariosCatalogo.maxDias()))) {
+            throw new IllegalArgumentException("Só é possível consultar horários até " + horariosCatalogo.maxDias() + " dias à frente.");
+        }
+        if (!prestadorRepository.existeAtivo(prestadorId)) {
+            throw new IllegalArgumentException("Prestador não encontrado.");
+        }
+        return horariosCatalogo.listar(prestadorId, inicio, fim);
     }
 
     /**
      * Lista prestadores com paginação e filtros para clientes (GET /api/prestadores).
+     * Com o {@link CatalogoSnapshot} carregado, filtros, ordenação e contagem rodam em memória, sem banco
+     * nem travas; antes disso (ou com app.catalogo.snapshot.enabled=false), no banco.
      */
     public Page<PrestadorPublicoResumo> listarPrestadoresPaginated(
             Pageable pageable,
@@ -87,78 +139,125 @@ public class CatalogoService {
             Double minAvaliacao,
             String orderBy,
             Double latitude,
-            Double longitude
+            Double longitude,
+            Double raioKm,
+            JanelaHorario janela
     ) {
-        List<Prestador> all = prestadorRepository.findAll();
-        List<PrestadorPublicoResumo> list = all.stream()
-                .filter(p -> p.getAtivo() == null || p.getAtivo())
-                .filter(p -> categoria == null || p.getCategoria() == categoria)
-                .filter(p -> search == null || search.isBlank()
-                        || (p.getNomeFantasia() != null && p.getNomeFantasia().toLowerCase().contains(search.toLowerCase())))
+        FiltroCatalogo filtro = restringirPorDisponibilidade(restringirPorRaio(
+                FiltroCatalogo.de(search, categoria, minAvaliacao, orderBy, latitude, longitude), raioKm), janela);
+        if (filtro.idsCandidatos() != null && filtro.idsCandidatos().isEmpty()) {
+            return Page.empty(pageable);
+        }
+        if (catalogoSnapshot.atualizado()) {
+            List<PrestadorPublicoResumo> doSnapshot = catalogoSnapshot
+                    .buscarPagina(filtro, null, (int) pageable.getOffset(), pageable.getPageSize())
+                    .stream()
+                    .map(CatalogoSnapshot.Item::resumo)
+                    .collect(Collectors.toList());
+            return new PageImpl<>(doSnapshot, pageable, catalogoSnapshot.contar(filtro));
+        }
+        List<PrestadorPublicoResumo> pageContent = prestadorRepository
+                .buscarPagina(filtro, null, (int) pageable.getOffset(), pageable.getPageSize())
+                .stream()
+                .map(p -> toResumo(p, latitude, longitude))
+                .collect(Collectors.toList());
+        return new PageImpl<>(pageContent, pageable, prestadorRepository.contar(filtro));
+    }
+
+    /**
+     * Variante por cursor (keyset) de {@link #listarPrestadoresPaginated}: cada página parte do último item da
+     * anterior em vez de pular {@code offset} linhas, e não há contagem total. O cursor só vale para a mesma
+     * ordenação e os mesmos filtros; com outros, a requisição é recusada.
+     */
+    public PaginaCursor<PrestadorPublicoResumo> listarPrestadoresPorCursor(
+            String cursor,
+            int size,
+            String search,
+            CategoriaAtuacao categoria,
+            Double minAvaliacao,
+            String orderBy,
+            Double latitude,
+            Double longitude,
+            Double raioKm,
+            JanelaHorario janela
+    ) {
+        FiltroCatalogo filtro = restringirPorDisponibilidade(restringirPorRaio(
+                FiltroCatalogo.de(search, categoria, minAvaliacao, orderBy, latitude, longitude), raioKm), janela);
+        String assinatura = filtro.assinatura(raioKm, janela);
+        CursorCatalogo apos = CursorCatalogo.decodificar(cursor, assinatura);
+        if (filtro.idsCandidatos() != null && filtro.idsCandidatos().isEmpty()) {
+            return new PaginaCursor<>(List.of(), null, size);
+        }
+        if (catalogoSnapshot.atualizado()) {
+            List<CatalogoSnapshot.Item> itens = catalogoSnapshot
+                    .buscarPagina(filtro, apos, 0, size + 1);
+            boolean haMais = itens.size() > size;
+            List<CatalogoSnapshot.Item> pagina = haMais ? itens.subList(0, size) : itens;
+            String proximo = haMais ? pagina.get(pagina.size() - 1).cursor().codificar(assinatura) : null;
+            return new PaginaCursor<>(pagina.stream().map(CatalogoSnapshot.Item::resumo).collect(Collectors.toList()),
+                    proximo, size);
+        }
+        List<PrestadorComEstatisticas> linhas = prestadorRepository
+                .buscarPagina(filtro, apos, 0, size + 1);
+        boolean haMais = linhas.size() > size;
+        List<PrestadorComEstatisticas> pagina = haMais ? linhas.subList(0, size) : linhas;
+        String proximo = haMais ? pagina.get(pagina.size() - 1).cursor().codificar(assinatura) : null;
+        List<PrestadorPublicoResumo> content = pagina.stream()
                 .map(p -> toResumo(p, latitude, longitude))
-                .filter(r -> minAvaliacao == null || r.mediaAvaliacao() >= minAvaliacao)
-                .sorted(comparatorForOrderBy(orderBy, latitude, longitude))
                 .collect(Collectors.toList());
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), list.size());
-        List<PrestadorPublicoResumo> pageContent = list.subList(start, end);
-        return new PageImpl<>(pageContent, pageable, list.size());
+        return new PaginaCursor<>(content, proximo, size);
     }
 
-    private PrestadorPublicoResumo toResumo(Prestador p, Double latitude, Double longitude) {
-        Double media = avaliacaoRepository.obterMediaPorPrestador(p.getId());
-        long totalAval = avaliacaoRepository.countByPrestadorId(p.getId());
-        long totalServ = agendamentoRepository.countByPrestadorIdAndStatus(p.getId(), StatusAgendamento.REALIZADO);
-        Double distancia = calcularDistanciaKm(latitude, longitude, p);
-        return new PrestadorPublicoResumo(
-                p.getId(),
-                p.getNomeFantasia(),
-                p.getCategoria(),
-                p.getEndereco() != null ? p.getEndereco().getCidade() : null,
-                p.getEndereco() != null ? p.getEndereco().getUf() : null,
-                p.getValorServico(),
-                media != null ? media : 0.0,
-                totalAval,
-                distancia,
-                totalServ,
-                p.getAvatarUrl()
-        );
+    /**
+     * Com {@code raioKm}, pré-seleciona no índice geográfico todos os prestadores dentro do raio;
+     * os demais filtros, a ordenação e a contagem continuam no banco (ou no snapshot), restritos a esses ids.
+     */
+    private FiltroCatalogo restringirPorRaio(FiltroCatalogo filtro, Double raioKm) {
+        if (raioKm == null) {
+            return filtro;
+        }
+        validarRaio(filtro.possuiCoordenadas(), raioKm);
+        List<Long> ids = indiceGeoPrestadores.buscarNoRaio(
+                filtro.latitude(), filtro.longitude(), raioKm, filtro.categoria());
+        return filtro.comCandidatos(ids);
     }
 
-    private Comparator<PrestadorPublicoResumo> comparatorForOrderBy(String orderBy, Double latitude, Double longitude) {
-        if (orderBy == null || orderBy.isBlank()) {
-            return Comparator.comparing(PrestadorPublicoResumo::distanciaKm, Comparator.nullsLast(Comparator.naturalOrder()));
-        }
-        return switch (orderBy.toLowerCase()) {
-            case "avaliacao" -> Comparator.comparing(PrestadorPublicoResumo::mediaAvaliacao, Comparator.reverseOrder());
-            case "valorHora", "valorservico" -> Comparator.comparing(PrestadorPublicoResumo::valorServico,
-                    Comparator.nullsLast(Comparator.naturalOrder()));
-            case "experiencia", "popularidade" -> Comparator.comparing(PrestadorPublicoResumo::totalServicos,
-                    Comparator.nullsLast(Comparator.reverseOrder()));
-            default -> Comparator.comparing(PrestadorPublicoResumo::distanciaKm, Comparator.nullsLast(Comparator.naturalOrder()));
-        };
+    /**
+     * Com {@code janela}, restringe os candidatos aos prestadores livres segundo a agenda em memória,
+     * combinando com a pré-seleção por raio quando houver.
+     */
+    private FiltroCatalogo restringirPorDisponibilidade(FiltroCatalogo filtro, JanelaHorario janela) {
+        if (janela == null) {
+            return filtro;
+        }
+        Set<Long> livres = indiceAgendaPrestadores.livres(janela);
+        if (filtro.idsCandidatos() != null) {
+            return filtro.comCandidatos(filtro.idsCandidatos().stream().filter(livres::contains).toList());
+        }
+        return filtro.comCandidatos(List.copyOf(livres));
     }
 
-    private Double calcularDistanciaKm(Double latitude, Double longitude, Prestador prestador) {
-        if (latitude == null || longitude == null || prestador.getEndereco() == null) {
-            return null;
+    private static void validarRaio(boolean possuiCoordenadas, double raioKm) {
+        if (!possuiCoordenadas) {
+            throw new IllegalArgumentException("Informe latitude e longitude para buscar por raio.");
         }
-        Double lat2 = prestador.getEndereco().getLatitude();
-        Double lon2 = prestador.getEndereco().getLongitude();
-        if (lat2 == null || lon2 == null) {
-            return null;
+        if (raioKm <= 0 || raioKm > IndiceGeoPrestadores.RAIO_MAXIMO_KM) {
+            throw new IllegalArgumentException("O raio deve estar entre 0 e " + (int) IndiceGeoPrestadores.RAIO_MAXIMO_KM + " km.");
         }
-        return haversine(latitude, longitude, lat2, lon2);
     }
 
-    private double haversine(double lat1, double lon1, double lat2, double lon2) {
-        double R = 6371.0;
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c;
+    private PrestadorPublicoResumo toResumo(PrestadorComEstatisticas linha, Double latitude, Double longitude) {
+        Prestador p = linha.prestador();
+        Double distancia = p.getEndereco() != null
+                ? calcularDistanciaKm(latitude, longitude, p.getEndereco().getLatitude(), p.getEndereco().getLongitude())
+                : null;
+        return PrestadorPublicoResumo.de(linha, distancia);
+    }
+
+    private static Double calcularDistanciaKm(Double latitude, Double longitude, Double lat2, Double lon2) {
+        if (latitude == null || longitude == null || lat2 == null || lon2 == null) {
+            return null;
+        }
+        return GeoUtils.haversineKm(latitude, longitude, lat2, lon2);
     }
 }
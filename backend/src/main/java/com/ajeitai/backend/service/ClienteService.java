@@ -13,9 +13,12 @@ import org.springframework.transaction.annotation.Transactional;
 public class ClienteService {
 
     private final ClienteRepository clienteRepository;
+    private final IdentidadeService identidadeService;
+    private final MetricasPlataformaService metricasPlataformaService;
 
     @Transactional
     public Cliente vincular(String keycloakId, String email, DadosCadastroCliente dados) {
+        identidadeService.esquecer(keycloakId);
         return clienteRepository.findByKeycloakId(keycloakId)
                 .orElseGet(() -> {
                     Cliente cliente = Cliente.builder()
@@ -27,7 +30,9 @@ public class ClienteService {
                             .ativo(true)
                             .endereco(dados.endereco() != null ? new com.ajeitai.backend.domain.endereco.Endereco(dados.endereco()) : null)
                             .build();
-                    return clienteRepository.save(cliente);
+                    Cliente salvo = clienteRepository.save(cliente);
+                    metricasPlataformaService.registrarClienteNovo();
+                    return salvo;
                 });
     }
 
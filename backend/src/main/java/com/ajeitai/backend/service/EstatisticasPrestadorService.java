@@ -0,0 +1,105 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.infra.agendador.TravaAgendada;
+import com.ajeitai.backend.repository.PrestadorEstatisticasRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Mantém o read model {@code prestador_estatisticas}: incrementos atômicos na mesma transação
+ * da avaliação/checkout e reconstrução completa periódica a partir das tabelas de origem.
+ */
+@Service
+public class EstatisticasPrestadorService {
+
+    private static final Logger log = LoggerFactory.getLogger(EstatisticasPrestadorService.class);
+
+    private final PrestadorEstatisticasRepository estatisticasRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+
+    public EstatisticasPrestadorService(
+            PrestadorEstatisticasRepository estatisticasRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.catalogo.estatisticas.reconstrucao-lote:1000}") int tamanhoLote
+    ) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("O lote da reconstrução de estatísticas deve ser positivo.");
+        }
+        this.estatisticasRepository = estatisticasRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Contabiliza uma nova avaliação. Deve ser chamado dentro da transação que persistiu a avaliação.
+     */
+    @Transactional
+    public void registrarAvaliacao(Long prestadorId, int nota) {
+        if (prestadorId == null) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        if (estatisticasRepository.incrementarAvaliacao(prestadorId, nota, agora) == 0) {
+            estatisticasRepository.criarSeAusente(prestadorId);
+            estatisticasRepository.incrementarAvaliacao(prestadorId, nota, agora);
+        }
+    }
+
+    /**
+     * Contabiliza um serviço realizado (checkout). Deve ser chamado dentro da transação do checkout.
+     */
+    @Transactional
+    public void registrarServicoRealizado(Long prestadorId) {
+        if (prestadorId == null) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        if (estatisticasRepository.incrementarServicoRealizado(prestadorId, agora) == 0) {
+            estatisticasRepository.criarSeAusente(prestadorId);
+            estatisticasRepository.incrementarServicoRealizado(prestadorId, agora);
+        }
+    }
+
+    /**
+     * Reconstrução completa diária: corrige qualquer divergência dos incrementos (ex.: exclusões manuais).
+     * Um INSERT cria as linhas que faltam; depois, em lotes de {@code app.catalogo.estatisticas.reconstrucao-lote}
+     * (cada um na sua transação), as linhas são travadas e recalculadas por um UPDATE no banco. A trava vem antes
+     * da leitura das tabelas de origem, então um incremento que chega durante o lote espera e é somado ao valor
+     * reconstruído, em vez de ser sobrescrito. Uma réplica por vez.
+     */
+    @Scheduled(cron = "${app.catalogo.estatisticas.reconstrucao-cron:0 30 3 * * *}")
+    @TravaAgendada(nome = "estatisticas-reconstrucao", validade = "PT30M", minimo = "PT10M")
+    public void reconstruirTodas() {
+        long inicio = System.currentTimeMillis();
+        Integer criadas = transactionTemplate.execute(status -> estatisticasRepository.criarAusentes());
+        long apos = 0;
+        int total = 0;
+        List<Long> lote;
+        do {
+            long aposLote = apos;
+            lote = transactionTemplate.execute(status -> {
+                List<Long> ids = estatisticasRepository.travarLote(aposLote, tamanhoLote);
+                if (!ids.isEmpty()) {
+                    estatisticasRepository.reconstruir(ids);
+                }
+                return ids;
+            });
+            if (!lote.isEmpty()) {
+                apos = lote.get(lote.size() - 1);
+                total += lote.size();
+            }
+        } while (lote.size() == tamanhoLote);
+        log.info("Estatísticas de {} prestadores reconstruídas ({} criadas) em {} ms",
+                total, criadas, System.currentTimeMillis() - inicio);
+    }
+}
@@ -0,0 +1,103 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.infra.security.UserContext;
+import com.ajeitai.backend.infra.security.UserContextHolder;
+import com.ajeitai.backend.repository.ClienteRepository;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Resolve o keycloakId do usuário para o id interno de cliente/prestador, para quem só precisa do id.
+ * <p>
+ * Primeiro o {@link UserContext} da requisição (o id fica guardado nele na primeira resolução), depois um cache
+ * local limitado keycloakId → id entre requisições e, só então, uma consulta pelo id. O vínculo não muda depois
+ * de criado; {@link #esquecer} é chamado em {@code vincular} e o TTL cobre cadastros removidos direto no banco.
+ */
+@Service
+public class IdentidadeService {
+
+    private final ClienteRepository clienteRepository;
+    private final PrestadorRepository prestadorRepository;
+    private final Cache<String, Long> clientes;
+    private final Cache<String, Long> prestadores;
+
+    public IdentidadeService(
+            ClienteRepository clienteRepository,
+            PrestadorRepository prestadorRepository,
+            @Value("${app.identidade.cache.maximo:10000}") long maximo,
+            @Value("${app.identidade.cache.ttl:PT1H}") Duration ttl
+    ) {
+        this.clienteRepository = clienteRepository;
+        this.prestadorRepository = prestadorRepository;
+        this.clientes = novoCache(maximo, ttl);
+        this.prestadores = novoCache(maximo, ttl);
+    }
+
+    public Long idDoCliente(String keycloakId) {
+        return resolver(keycloakId, UserContext::getClienteId, UserContext::setClienteId, clientes,
+                clienteRepository::buscarIdPorKeycloakId, "Cliente não encontrado para o usuário logado.");
+    }
+
+    public Long idDoPrestador(String keycloakId) {
+        return resolver(keycloakId, UserContext::getPrestadorId, UserContext::setPrestadorId, prestadores,
+                prestadorRepository::buscarIdPorKeycloakId, "Prestador não encontrado para o usuário logado.");
+    }
+
+    /** Descarta o que estiver guardado para o usuário (chamado ao vincular o cadastro). */
+    public void esquecer(String keycloakId) {
+        if (keycloakId == null) {
+            return;
+        }
+        clientes.invalidate(keycloakId);
+        prestadores.invalidate(keycloakId);
+        UserContext contexto = contextoDe(keycloakId);
+        if (contexto != null) {
+            contexto.setClienteId(null);
+            contexto.setPrestadorId(null);
+        }
+    }
+
+    private Long resolver(String keycloakId,
+                          Function<UserContext, Long> doContexto,
+                          BiConsumer<UserContext, Long> guardarNoContexto,
+                          Cache<String, Long> cache,
+                          Function<String, Optional<Long>> consulta,
+                          String naoEncontrado) {
+        if (keycloakId == null) {
+            throw new IllegalArgumentException(naoEncontrado);
+        }
+        UserContext contexto = contextoDe(keycloakId);
+        if (contexto != null && doContexto.apply(contexto) != null) {
+            return doContexto.apply(contexto);
+        }
+        Long id = cache.getIfPresent(keycloakId);
+        if (id == null) {
+            // Ausentes não são guardados: o cadastro pode ser vinculado logo em seguida
+            id = consulta.apply(keycloakId).orElseThrow(() -> new IllegalArgumentException(naoEncontrado));
+            cache.put(keycloakId, id);
+        }
+        if (contexto != null) {
+            guardarNoContexto.accept(contexto, id);
+        }
+        return id;
+    }
+
+    /** Manutenção na própria thread: com máximo 0 (cache desligado) nada sobrevive ao put. */
+    private static Cache<String, Long> novoCache(long maximo, Duration ttl) {
+        return Caffeine.newBuilder().maximumSize(maximo).expireAfterWrite(ttl).executor(Runnable::run).build();
+    }
+
+    /** Só o contexto do próprio usuário da requisição guarda ids. */
+    private static UserContext contextoDe(String keycloakId) {
+        UserContext contexto = UserContextHolder.get();
+        return contexto != null && keycloakId.equals(contexto.getKeycloakId()) ? contexto : null;
+    }
+}
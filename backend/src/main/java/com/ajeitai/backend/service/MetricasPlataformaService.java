@@ -0,0 +1,237 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.metricas.Granularidade;
+import com.ajeitai.backend.domain.metricas.MetricaPlataforma;
+import com.ajeitai.backend.domain.metricas.PontoMetricas;
+import com.ajeitai.backend.domain.pagamento.StatusPagamento;
+import com.ajeitai.backend.repository.MetricaPlataformaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mantém o rollup {@link MetricaPlataforma} na mesma transação das alterações que ele conta.
+ * <p>
+ * Os incrementos de uma transação são acumulados e aplicados juntos logo antes do commit, com um UPDATE
+ * relativo por (dia, métrica) em ordem fixa, todos na mesma faixa sorteada para a transação; cada métrica
+ * soma também no acumulado ({@link MetricaPlataforma#DIA_TOTAL}), que vem antes de qualquer dia nessa ordem. A linha fica
+ * travada até o commit, mas só transações que sortearam a mesma faixa esperam umas pelas outras (e nunca em
+ * ordem inversa); com {@code app.admin.metricas.faixas} faixas, agendamentos simultâneos praticamente não se
+ * enfileiram. Sem transação ativa, o incremento é aplicado na hora, em uma transação própria.
+ * Totais leem só as faixas do acumulado, e séries as dos dias pedidos; nunca as tabelas de origem.
+ */
+@Service
+public class MetricasPlataformaService {
+
+    private final MetricaPlataformaRepository metricaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxDiasSerie;
+    private final int faixas;
+
+    public MetricasPlataformaService(
+            MetricaPlataformaRepository metricaRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.admin.metricas.max-dias:1096}") int maxDiasSerie,
+            @Value("${app.admin.metricas.faixas:16}") int faixas
+    ) {
+        if (faixas <= 0) {
+            throw new IllegalArgumentException("O número de faixas das métricas deve ser positivo.");
+        }
+        this.metricaRepository = metricaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxDiasSerie = maxDiasSerie;
+        this.faixas = faixas;
+    }
+
+    public void registrarClienteNovo() {
+        registrar(MetricaPlataforma.CLIENTES_NOVOS, BigDecimal.ONE);
+    }
+
+    public void registrarPrestadorNovo() {
+        registrar(MetricaPlataforma.PRESTADORES_NOVOS, BigDecimal.ONE);
+    }
+
+    /** Agendamento criado: conta como criado e entra em PENDENTE. */
+    public void registrarAgendamentoCriado() {
+        registrar(MetricaPlataforma.AGENDAMENTOS_CRIADOS, BigDecimal.ONE);
+        registrar(MetricaPlataforma.agendamentosQueEntraram(StatusAgendamento.PENDENTE), BigDecimal.ONE);
+    }
+
+    public void registrarTransicaoAgendamento(StatusAgendamento de, StatusAgendamento para, int quantidade) {
+        if (quantidade <= 0 || de == para) {
+            return;
+        }
+        registrar(MetricaPlataforma.agendamentosQueSairam(de), BigDecimal.valueOf(quantidade));
+        registrar(MetricaPlataforma.agendamentosQueEntraram(para), BigDecimal.valueOf(quantidade));
+    }
+
+    public void registrarPagamentoCriado(StatusPagamento status) {
+        registrar(MetricaPlataforma.pagamentosQueEntraram(status), BigDecimal.ONE);
+    }
+
+    public void registrarTransicaoPagamento(StatusPagamento de, StatusPagamento para, int quantidade) {
+        if (quantidade <= 0 || de == para) {
+            return;
+        }
+        registrar(MetricaPlataforma.pagamentosQueSairam(de), BigDecimal.valueOf(quantidade));
+        registrar(MetricaPlataforma.pagamentosQueEntraram(para), BigDecimal.valueOf(quantidade));
+    }
+
+    /** Pagamento de agendamento creditado na wallet do prestador. */
+    public void registrarCreditoDePagamento(BigDecimal valorBruto, BigDecimal taxaPlataforma) {
+        registrar(MetricaPlataforma.GMV, valorBruto);
+        registrar(MetricaPlataforma.COMISSAO, taxaPlataforma);
+    }
+
+    /**
+     * Soma de todos os dias por métrica, lida das faixas do acumulado: o custo não depende do número de dias
+     * nem do volume de agendamentos, pagamentos ou cadastros.
+     */
+    public Map<String, BigDecimal> totais() {
+        Map<String, BigDecimal> totais = new HashMap<>();
+        for (MetricaPlataformaRepository.TotalMetrica total
+                : metricaRepository.somarPorMetricaNoDia(MetricaPlataforma.DIA_TOTAL)) {
+            totais.put(total.getMetrica(), total.getValor());
+        }
+        return totais;
+    }
+
+    /**
+     * Série de {@code de} a {@code ate} (padrão: os últimos 30 dias até hoje), um ponto por período da
+     * granularidade, inclusive os períodos sem movimento. O primeiro e o último ponto contam só os dias
+     * dentro do intervalo. Lê uma linha por (dia, métrica) do intervalo.
+     */
+    public List<PontoMetricas> serie(LocalDate de, LocalDate ate, Granularidade granularidade) {
+        LocalDate fim = ate != null ? ate : LocalDate.now();
+        LocalDate inicio = de != null ? de : fim.minusDays(29);
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("A data final deve ser igual ou posterior à inicial.");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fim) >= maxDiasSerie) {
+            throw new IllegalArgumentException("O intervalo das métricas é limitado a " + maxDiasSerie + " dias.");
+        }
+        Map<LocalDate, Map<String, BigDecimal>> porPeriodo = new LinkedHashMap<>();
+        for (LocalDate periodo = granularidade.inicio(inicio); !periodo.isAfter(fim); periodo = granularidade.proximo(periodo)) {
+            porPeriodo.put(periodo, new HashMap<>());
+        }
+        for (MetricaPlataforma linha : metricaRepository.findByDiaBetween(inicio, fim)) {
+            porPeriodo.get(granularidade.inicio(linha.getDia())).merge(linha.getMetrica(), linha.getValor(), BigDecimal::add);
+        }
+        List<PontoMetricas> pontos = new ArrayList<>(porPeriodo.size());
+        porPeriodo.forEach((periodo, valores) -> pontos.add(ponto(periodo, valores)));
+        return pontos;
+    }
+
+    private static PontoMetricas ponto(LocalDate inicio, Map<String, BigDecimal> valores) {
+        Map<String, Long> porStatus = new LinkedHashMap<>();
+        for (StatusAgendamento status : StatusAgendamento.values()) {
+            porStatus.put(status.name(), contagem(valores, MetricaPlataforma.agendamentosQueEntraram(status)));
+        }
+        return new PontoMetricas(
+                inicio,
+                valores.getOrDefault(MetricaPlataforma.GMV, BigDecimal.ZERO),
+                valores.getOrDefault(MetricaPlataforma.COMISSAO, BigDecimal.ZERO),
+                contagem(valores, MetricaPlataforma.AGENDAMENTOS_CRIADOS),
+                porStatus,
+                porStatus.get(StatusAgendamento.CANCELADO.name()),
+                contagem(valores, MetricaPlataforma.CLIENTES_NOVOS),
+                contagem(valores, MetricaPlataforma.PRESTADORES_NOVOS)
+        );
+    }
+
+    private static long contagem(Map<String, BigDecimal> valores, String metrica) {
+        return valores.getOrDefault(metrica, BigDecimal.ZERO).longValue();
+    }
+
+    private void registrar(String metrica, BigDecimal valor) {
+        if (valor == null || valor.signum() == 0) {
+            return;
+        }
+        Chave total = new Chave(MetricaPlataforma.DIA_TOTAL, metrica);
+        Chave chave = new Chave(LocalDate.now(), metrica);
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            Pendentes pendentes = pendentesDaTransacao();
+            pendentes.somar(total, valor);
+            pendentes.somar(chave, valor);
+        } else {
+            transactionTemplate.executeWithoutResult(status -> {
+                int faixa = sortearFaixa();
+                aplicar(total, faixa, valor);
+                aplicar(chave, faixa, valor);
+            });
+        }
+    }
+
+    /** Os acumulados ficam na sincronização da transação, que é suspensa junto com ela (REQUIRES_NEW). */
+    private Pendentes pendentesDaTransacao() {
+        for (TransactionSynchronization sincronizacao : TransactionSynchronizationManager.getSynchronizations()) {
+            if (sincronizacao instanceof Pendentes pendentes && pendentes.dono() == this) {
+                return pendentes;
+            }
+        }
+        Pendentes pendentes = new Pendentes(this, sortearFaixa());
+        TransactionSynchronizationManager.registerSynchronization(pendentes);
+        return pendentes;
+    }
+
+    private int sortearFaixa() {
+        return ThreadLocalRandom.current().nextInt(faixas);
+    }
+
+    private void aplicar(Chave chave, int faixa, BigDecimal valor) {
+        if (metricaRepository.somar(chave.dia(), chave.metrica(), faixa, valor) == 0) {
+            metricaRepository.criarSeAusente(chave.dia(), chave.metrica(), faixa);
+            metricaRepository.somar(chave.dia(), chave.metrica(), faixa, valor);
+        }
+    }
+
+    private record Chave(LocalDate dia, String metrica) {
+        static final Comparator<Chave> ORDEM = Comparator.comparing(Chave::dia).thenComparing(Chave::metrica);
+    }
+
+    private static final class Pendentes implements TransactionSynchronization {
+
+        private final MetricasPlataformaService dono;
+        private final int faixa;
+        private final Map<Chave, BigDecimal> valores = new TreeMap<>(Chave.ORDEM);
+
+        private Pendentes(MetricasPlataformaService dono, int faixa) {
+            this.dono = dono;
+            this.faixa = faixa;
+        }
+
+        MetricasPlataformaService dono() {
+            return dono;
+        }
+
+        void somar(Chave chave, BigDecimal valor) {
+            valores.merge(chave, valor, BigDecimal::add);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            valores.forEach((chave, valor) -> {
+                if (valor.signum() != 0) {
+                    dono.aplicar(chave, faixa, valor);
+                }
+            });
+        }
+    }
+}
@@ -16,6 +16,7 @@ public class PagamentoService {
 
     private final PagamentoRepository pagamentoRepository;
     private final AbacatePayService abacatePayService;
+    private final MetricasPlataformaService metricasPlataformaService;
 
     @Transactional
     public Pagamento criarPagamento(Agendamento agendamento) {
@@ -41,7 +42,9 @@ public class PagamentoService {
                             .linkPagamento(linkPagamento)
                             .billingId(billingId)
                             .build();
-                    return pagamentoRepository.save(pagamento);
+                    Pagamento salvo = pagamentoRepository.save(pagamento);
+                    metricasPlataformaService.registrarPagamentoCriado(status);
+                    return salvo;
                 });
     }
 
@@ -50,6 +53,7 @@ public class PagamentoService {
         Pagamento pagamento = pagamentoRepository.findByAgendamentoId(agendamentoId)
                 .orElseThrow(() -> new IllegalArgumentException("Pagamento não encontrado."));
         if (pagamento.getStatus() != StatusPagamento.CONFIRMADO) {
+            metricasPlataformaService.registrarTransicaoPagamento(pagamento.getStatus(), StatusPagamento.CONFIRMADO, 1);
             pagamento.confirmar();
         }
         return pagamentoRepository.save(pagamento);
@@ -64,6 +68,7 @@ public class PagamentoService {
     @Transactional
     public void cancelarPorAgendamento(Long agendamentoId) {
         pagamentoRepository.findByAgendamentoId(agendamentoId).ifPresent(p -> {
+            metricasPlataformaService.registrarTransicaoPagamento(p.getStatus(), StatusPagamento.CANCELADO, 1);
             p.setStatus(StatusPagamento.CANCELADO);
             pagamentoRepository.save(p);
         });
@@ -1,9 +1,12 @@
 package com.ajeitai.backend.service;
 
 import com.ajeitai.backend.domain.portfolio.PortfolioItem;
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
 import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
 import com.ajeitai.backend.repository.PortfolioRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -18,6 +21,7 @@ public class PortfolioService {
     private final PrestadorService prestadorService;
     private final PortfolioRepository portfolioRepository;
     private final ArmazenamentoMidiaService armazenamentoMidiaService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<PortfolioItem> listarPorPrestador(Long prestadorId) {
         return portfolioRepository.findByPrestadorIdOrderByIdDesc(prestadorId);
@@ -34,7 +38,9 @@ public class PortfolioService {
                 .descricao(descricao)
                 .imagemUrl(caminho)
                 .build();
-        return portfolioRepository.save(item);
+        PortfolioItem salvo = portfolioRepository.save(item);
+        eventPublisher.publishEvent(new PrestadorAlteradoEvent(prestador.getId(), MotivoAlteracao.PORTFOLIO));
+        return salvo;
     }
 
     @Transactional
@@ -43,5 +49,6 @@ public class PortfolioService {
         PortfolioItem item = portfolioRepository.findByIdAndPrestadorId(itemId, prestador.getId())
                 .orElseThrow(() -> new IllegalArgumentException("Item de portfólio não encontrado."));
         portfolioRepository.delete(item);
+        eventPublisher.publishEvent(new PrestadorAlteradoEvent(prestador.getId(), MotivoAlteracao.PORTFOLIO));
     }
 }
@@ -1,19 +1,25 @@
 package com.ajeitai.backend.service;
 
 import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.AgendamentoResumo;
+import com.ajeitai.backend.domain.agendamento.CursorAgendamento;
 import com.ajeitai.backend.domain.agendamento.Disponibilidade;
 import com.ajeitai.backend.domain.agendamento.DadosDisponibilidade;
 import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.catalogo.PaginaCursor;
 import com.ajeitai.backend.domain.prestador.DadosAtualizacaoPrestador;
 import com.ajeitai.backend.domain.prestador.DadosCadastroPrestador;
 import com.ajeitai.backend.domain.prestador.DashboardPrestador;
 import com.ajeitai.backend.domain.prestador.DocumentoPrestador;
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
 import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
 import com.ajeitai.backend.repository.AgendamentoRepository;
 import com.ajeitai.backend.repository.DisponibilidadeRepository;
 import com.ajeitai.backend.repository.DocumentoPrestadorRepository;
 import com.ajeitai.backend.repository.PrestadorRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -35,9 +41,13 @@ public class PrestadorService {
     private final DisponibilidadeRepository disponibilidadeRepository;
     private final DocumentoPrestadorRepository documentoPrestadorRepository;
     private final ArmazenamentoDocumentoService armazenamentoDocumentoService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IdentidadeService identidadeService;
+    private final MetricasPlataformaService metricasPlataformaService;
 
     @Transactional
     public Prestador vincular(String keycloakId, String email, DadosCadastroPrestador dados) {
+        identidadeService.esquecer(keycloakId);
         return prestadorRepository.findByKeycloakId(keycloakId)
                 .orElseGet(() -> {
                     Prestador prestador = Prestador.builder()
@@ -51,7 +61,10 @@ public class PrestadorService {
                             .ativo(true)
                             .endereco(dados.endereco() != null ? new com.ajeitai.backend.domain.endereco.Endereco(dados.endereco()) : null)
                             .build();
-                    return prestadorRepository.save(prestador);
+                    Prestador salvo = prestadorRepository.save(prestador);
+                    metricasPlataformaService.registrarPrestadorNovo();
+                    eventPublisher.publishEvent(new PrestadorAlteradoEvent(salvo.getId(), MotivoAlteracao.CADASTRO));
+                    return salvo;
                 });
     }
 
@@ -83,21 +96,27 @@ public class PrestadorService {
         } else if (dados.endereco() != null) {
             prestador.setEndereco(new com.ajeitai.backend.domain.endereco.Endereco(dados.endereco()));
         }
-        return prestadorRepository.save(prestador);
+        Prestador salvo = prestadorRepository.save(prestador);
+        eventPublisher.publishEvent(new PrestadorAlteradoEvent(salvo.getId(), MotivoAlteracao.PERFIL));
+        return salvo;
     }
 
     @Transactional
     public Prestador atualizarAvatar(String keycloakId, String avatarUrl) {
         Prestador prestador = buscarPorKeycloakId(keycloakId);
         prestador.setAvatarUrl(avatarUrl);
-        return prestadorRepository.save(prestador);
+        Prestador salvo = prestadorRepository.save(prestador);
+        eventPublisher.publishEvent(new PrestadorAlteradoEvent(salvo.getId(), MotivoAlteracao.AVATAR));
+        return salvo;
     }
 
-    public List<Agendamento> listarSolicitacoes(String keycloakId, Optional<StatusAgendamento> status) {
-        if (status.isPresent()) {
-            return agendamentoRepository.findByPrestadorKeycloakIdAndStatusOrderByDataHoraDesc(keycloakId, status.get());
-        }
-        return agendamentoRepository.findByPrestadorKeycloakIdOrderByDataHoraDesc(keycloakId);
+    /**
+     * Página das solicitações do prestador, mais recentes primeiro, a partir do {@code cursor} (vazio = primeira página).
+     */
+    public PaginaCursor<AgendamentoResumo> listarSolicitacoes(String keycloakId, Optional<StatusAgendamento> status,
+                                                              String cursor, int tamanho) {
+        return CursorAgendamento.paginar(agendamentoRepository.listarResumosDoPrestador(
+                keycloakId, status.orElse(null), CursorAgendamento.decodificar(cursor), tamanho + 1), tamanho);
     }
 
     public List<Disponibilidade> listarDisponibilidade(String keycloakId) {
@@ -109,6 +128,7 @@ public class PrestadorService {
     public List<Disponibilidade> salvarDisponibilidade(String keycloakId, List<DadosDisponibilidade> dados) {
         Prestador prestador = buscarPorKeycloakId(keycloakId);
         disponibilidadeRepository.deleteByPrestadorId(prestador.getId());
+        eventPublisher.publishEvent(new PrestadorAlteradoEvent(prestador.getId(), MotivoAlteracao.DISPONIBILIDADE));
         if (dados == null || dados.isEmpty()) {
             return List.of();
         }
@@ -0,0 +1,89 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.AgendamentoSlot;
+import com.ajeitai.backend.repository.AgendamentoSlotRepository;
+import com.ajeitai.backend.service.catalogo.AgendaSemanal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reserva de horário por slot ({@link AgendamentoSlot}): um agendamento reserva todo slot que
+ * [dataHora, dataHoraFim) toca. Os métodos participam da transação de quem chama: a reserva de um slot
+ * já tomado falha na hora (chave única), e uma reserva concorrente do mesmo slot espera apenas pela
+ * transação que o reservou, nunca por agendamentos de outros horários.
+ * <p>
+ * A granularidade do slot recusa também agendamentos vizinhos que só dividem um slot (10:00–10:15 e
+ * 10:15–10:45). Por isso a reserva por slot só vale onde não há outra garantia: com
+ * {@code app.agendamento.reserva-por-slot=false} (produção, PostgreSQL) quem decide o conflito é a restrição
+ * de exclusão sobre o período exato do agendamento, e nenhum slot novo é gravado.
+ */
+@Service
+public class ReservaHorarioService {
+
+    private final AgendamentoSlotRepository slotRepository;
+    private final int slotMinutos;
+    private final boolean porSlot;
+
+    public ReservaHorarioService(
+            AgendamentoSlotRepository slotRepository,
+            @Value("${app.catalogo.agenda.slot-minutos:30}") int slotMinutos,
+            @Value("${app.agendamento.reserva-por-slot:true}") boolean porSlot
+    ) {
+        AgendaSemanal.slotsPorDia(slotMinutos);
+        this.slotRepository = slotRepository;
+        this.slotMinutos = slotMinutos;
+        this.porSlot = porSlot;
+    }
+
+    /**
+     * Reserva os slots do agendamento recém-persistido. Deve ser chamado na transação que o criou.
+     * Sem reserva por slot não faz nada: a inserção do agendamento já passou pela restrição de exclusão.
+     */
+    public void reservar(Agendamento agendamento) {
+        if (!porSlot) {
+            return;
+        }
+        List<AgendamentoSlot> slots = new ArrayList<>();
+        LocalDateTime fim = agendamento.getDataHoraFim() != null ? agendamento.getDataHoraFim() : agendamento.getDataHora();
+        LocalDateTime inicio = inicioDoSlot(agendamento.getDataHora());
+        do {
+            slots.add(AgendamentoSlot.builder()
+                    .prestadorId(agendamento.getPrestadorId())
+                    .inicio(inicio)
+                    .agendamentoId(agendamento.getId())
+                    .build());
+            inicio = inicio.plusMinutes(slotMinutos);
+        } while (inicio.isBefore(fim));
+        try {
+            slotRepository.saveAllAndFlush(slots);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException(AgendamentoService.CONFLITO_HORARIO);
+        }
+    }
+
+    /**
+     * Libera o horário de um agendamento que deixou de ocupá-lo (recusado, cancelado, realizado). Roda também
+     * sem reserva por slot, para que os slots gravados antes da mudança não fiquem presos.
+     */
+    public void liberar(Long agendamentoId) {
+        slotRepository.liberar(agendamentoId);
+    }
+
+    public void liberarTodos(Collection<Long> agendamentoIds) {
+        if (!agendamentoIds.isEmpty()) {
+            slotRepository.liberarTodos(agendamentoIds);
+        }
+    }
+
+    LocalDateTime inicioDoSlot(LocalDateTime dataHora) {
+        int minutoDoDia = dataHora.getHour() * 60 + dataHora.getMinute();
+        return dataHora.toLocalDate().atStartOfDay().plusMinutes(minutoDoDia - minutoDoDia % slotMinutos);
+    }
+}
@@ -77,6 +77,10 @@ public class SaqueService {
                             + ultimo.plusDays(diasEntreSaques) + ".");
         }
         BigDecimal valor = wallet.getSaldoDisponivel();
+        // Saca o saldo lido; os critérios são revalidados no próprio UPDATE (saques simultâneos não debitam duas vezes)
+        if (walletPrestadorRepository.debitarSaque(prestador.getId(), valor, hoje, hoje.minusDays(diasEntreSaques)) == 0) {
+            throw new IllegalArgumentException("Saldo alterado por outra operação. Tente novamente.");
+        }
         SaquePrestador saque = SaquePrestador.builder()
                 .prestador(prestador)
                 .valorSolicitado(valor)
@@ -85,10 +89,6 @@ public class SaqueService {
                 .build();
         saque = saquePrestadorRepository.save(saque);
 
-        wallet.setSaldoDisponivel(BigDecimal.ZERO);
-        wallet.setDataUltimoSaque(hoje);
-        walletPrestadorRepository.save(wallet);
-
         TransacaoWallet transacao = TransacaoWallet.builder()
                 .prestador(prestador)
                 .tipo(TipoTransacaoWallet.DEBITO_SAQUE)
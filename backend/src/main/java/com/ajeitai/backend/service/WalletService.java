@@ -2,8 +2,6 @@ package com.ajeitai.backend.service;
 
 import com.ajeitai.backend.domain.agendamento.Agendamento;
 import com.ajeitai.backend.domain.financeiro.TipoTransacaoWallet;
-import com.ajeitai.backend.domain.financeiro.TransacaoWallet;
-import com.ajeitai.backend.domain.financeiro.WalletPrestador;
 import com.ajeitai.backend.domain.pagamento.Pagamento;
 import com.ajeitai.backend.domain.prestador.Prestador;
 import com.ajeitai.backend.repository.TransacaoWalletRepository;
@@ -15,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
@@ -24,19 +23,19 @@ public class WalletService {
 
     private final WalletPrestadorRepository walletPrestadorRepository;
     private final TransacaoWalletRepository transacaoWalletRepository;
+    private final MetricasPlataformaService metricasPlataformaService;
 
     @Value("${app.wallet.comissao-percentual:0.07}")
     private BigDecimal comissaoPercentual = COMISSAO_PERCENTUAL;
 
     /**
      * Credita o valor líquido (após 7% de comissão) na wallet do prestador quando um pagamento de agendamento é confirmado.
-     * Idempotente: não credita novamente se já existir transação para o mesmo pagamento.
+     * Idempotente: o lançamento no extrato é inserido com ON CONFLICT DO NOTHING sobre a restrição única de
+     * pagamento_id, e o saldo só é somado (UPDATE relativo) por quem inseriu. Confirmações repetidas ou
+     * concorrentes do mesmo pagamento creditam uma vez; de pagamentos diferentes, nenhuma se perde.
      */
     @Transactional
     public void creditarPorPagamentoConfirmado(Agendamento agendamento, Pagamento pagamento) {
-        if (transacaoWalletRepository.existsByPagamentoId(pagamento.getId())) {
-            return;
-        }
         Prestador prestador = agendamento.getPrestador();
         BigDecimal valorBruto = agendamento.getValorServico() != null ? agendamento.getValorServico() : BigDecimal.ZERO;
         if (valorBruto.compareTo(BigDecimal.ZERO) <= 0) {
@@ -45,27 +44,14 @@ public class WalletService {
         BigDecimal taxa = valorBruto.multiply(comissaoPercentual).setScale(2, RoundingMode.HALF_UP);
         BigDecimal valorLiquido = valorBruto.subtract(taxa).setScale(2, RoundingMode.HALF_UP);
 
-        WalletPrestador wallet = walletPrestadorRepository.findByPrestadorId(prestador.getId())
-                .orElseGet(() -> {
-                    WalletPrestador w = WalletPrestador.builder()
-                            .prestador(prestador)
-                            .saldoDisponivel(BigDecimal.ZERO)
-                            .build();
-                    return walletPrestadorRepository.save(w);
-                });
-
-        TransacaoWallet transacao = TransacaoWallet.builder()
-                .prestador(prestador)
-                .tipo(TipoTransacaoWallet.CREDITO_AGENDAMENTO)
-                .valorBruto(valorBruto)
-                .taxaPlataforma(taxa)
-                .valorLiquido(valorLiquido)
-                .agendamento(agendamento)
-                .pagamento(pagamento)
-                .build();
-        transacaoWalletRepository.save(transacao);
-
-        wallet.setSaldoDisponivel(wallet.getSaldoDisponivel().add(valorLiquido).setScale(2, RoundingMode.HALF_UP));
-        walletPrestadorRepository.save(wallet);
+        int lancados = transacaoWalletRepository.registrarCreditoDePagamento(prestador.getId(),
+                TipoTransacaoWallet.CREDITO_AGENDAMENTO.name(), valorBruto, taxa, valorLiquido,
+                agendamento.getId(), pagamento.getId(), LocalDateTime.now());
+        if (lancados == 0) {
+            return;
+        }
+        walletPrestadorRepository.criarSeAusente(prestador.getId());
+        walletPrestadorRepository.creditar(prestador.getId(), valorLiquido);
+        metricasPlataformaService.registrarCreditoDePagamento(valorBruto, taxa);
     }
 }
@@ -0,0 +1,90 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.repository.DisponibilidadeRepository;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Agenda semanal compacta de um prestador: um bit por slot de {@code slotMinutos} da semana
+ * (bit {@code (diaSemana - 1) * slotsPorDia + slotDoDia}), ligado quando o slot inteiro está dentro de
+ * alguma faixa de {@code Disponibilidade}. Imutável.
+ * <p>
+ * Arredondamento conservador: uma faixa que não começa ou termina na fronteira de um slot perde o slot
+ * parcial, de modo que todo slot ligado é aceito na criação do agendamento.
+ */
+public final class AgendaSemanal {
+
+    public static final int MINUTOS_POR_DIA = 24 * 60;
+
+    private final int slotMinutos;
+    private final int slotsPorDia;
+    private final long[] bits;
+    private final boolean vazia;
+
+    private AgendaSemanal(int slotMinutos, long[] bits, boolean vazia) {
+        this.slotMinutos = slotMinutos;
+        this.slotsPorDia = MINUTOS_POR_DIA / slotMinutos;
+        this.bits = bits;
+        this.vazia = vazia;
+    }
+
+    /** Valida a duração do slot (precisa dividir o dia) e devolve quantos slots cabem em um dia. */
+    public static int slotsPorDia(int slotMinutos) {
+        if (slotMinutos <= 0 || MINUTOS_POR_DIA % slotMinutos != 0) {
+            throw new IllegalArgumentException("A duração do slot deve dividir o dia (ex.: 15, 30, 60 minutos).");
+        }
+        return MINUTOS_POR_DIA / slotMinutos;
+    }
+
+    public static AgendaSemanal de(Collection<? extends DisponibilidadeRepository.FaixaSemanal> faixas, int slotMinutos) {
+        int slotsPorDia = slotsPorDia(slotMinutos);
+        int segundosPorSlot = slotMinutos * 60;
+        long[] bits = new long[(7 * slotsPorDia + 63) / 64];
+        boolean vazia = true;
+        for (DisponibilidadeRepository.FaixaSemanal faixa : faixas) {
+            if (faixa.getDiaSemana() == null || faixa.getDiaSemana() < 1 || faixa.getDiaSemana() > 7
+                    || faixa.getHoraInicio() == null || faixa.getHoraFim() == null) {
+                continue;
+            }
+            // Só slots inteiros dentro da faixa [horaInicio, horaFim)
+            int primeiro = Math.ceilDiv(faixa.getHoraInicio().toSecondOfDay(), segundosPorSlot);
+            int fim = faixa.getHoraFim().toSecondOfDay() / segundosPorSlot;
+            int base = (faixa.getDiaSemana() - 1) * slotsPorDia;
+            for (int s = primeiro; s < fim; s++) {
+                bits[(base + s) >>> 6] |= 1L << (base + s);
+                vazia = false;
+            }
+        }
+        return new AgendaSemanal(slotMinutos, bits, vazia);
+    }
+
+    public boolean vazia() {
+        return vazia;
+    }
+
+    public int slotMinutos() {
+        return slotMinutos;
+    }
+
+    public int slotsPorDia() {
+        return slotsPorDia;
+    }
+
+    /** {@code diaSemana}: 1 = Segunda, 7 = Domingo; {@code slotDoDia}: 0 = meia-noite. */
+    public boolean disponivel(int diaSemana, int slotDoDia) {
+        int posicao = (diaSemana - 1) * slotsPorDia + slotDoDia;
+        return (bits[posicao >>> 6] & (1L << posicao)) != 0;
+    }
+
+    /** Slots disponíveis do dia da semana, indexados pelo slot do dia. */
+    public BitSet slotsDoDia(int diaSemana) {
+        BitSet dia = new BitSet(slotsPorDia);
+        for (int s = 0; s < slotsPorDia; s++) {
+            if (disponivel(diaSemana, s)) {
+                dia.set(s);
+            }
+        }
+        return dia;
+    }
+}
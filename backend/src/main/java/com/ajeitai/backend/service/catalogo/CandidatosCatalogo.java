@@ -0,0 +1,85 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.config.CacheConfig;
+import com.ajeitai.backend.domain.catalogo.CandidatoCatalogo;
+import com.ajeitai.backend.domain.catalogo.PrestadorPublicoResumo;
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.infra.cache.RespostaJsonCache;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Conjunto de candidatos da listagem do catálogo, em cache por filtros e célula geohash.
+ * O resultado não depende da posição exata do usuário: distância, corte pelo raio e ordenação
+ * são aplicados por {@code CatalogoService.listarPrestadores} sobre a entrada compartilhada.
+ * Chamadas internas a {@link #listar} não passam pelo cache (mesma instância).
+ */
+@Component
+@RequiredArgsConstructor
+public class CandidatosCatalogo {
+
+    private final PrestadorRepository prestadorRepository;
+    private final CatalogoListaKeyGenerator listaKeyGenerator;
+    private final RegistroChavesCatalogo registroChaves;
+    private final RespostaJsonCache respostaJsonCache;
+
+    /**
+     * Listagem sem coordenadas (sem distância por usuário), em cache como a resposta JSON final.
+     * Usa a mesma chave de {@link #listar}, e por isso é invalidada junto com ela.
+     */
+    @Cacheable(cacheNames = CacheConfig.CACHE_CATALOGO_LISTA_JSON, keyGenerator = "catalogoListaKeyGenerator", sync = true)
+    public byte[] listarJson(CategoriaAtuacao categoria, String cidade, String uf, Double minAvaliacao) {
+        List<PrestadorPublicoResumo> resumos = listar(categoria, cidade, uf, minAvaliacao, null, null, null)
+                .stream()
+                .map(CandidatoCatalogo::resumo)
+                .toList();
+        return respostaJsonCache.codificar(CacheConfig.CACHE_CATALOGO_LISTA_JSON, resumos);
+    }
+
+    /**
+     * Com raio, inclui todo prestador a até {@code raioKm} de algum ponto da célula
+     * (raio + meia diagonal a partir do centro), superconjunto do resultado de qualquer usuário dentro dela.
+     */
+    @Cacheable(cacheNames = CacheConfig.CACHE_CATALOGO_LISTA, keyGenerator = "catalogoListaKeyGenerator")
+    public List<CandidatoCatalogo> listar(
+            CategoriaAtuacao categoria,
+            String cidade,
+            String uf,
+            Double minAvaliacao,
+            Double latitude,
+            Double longitude,
+            Double raioKm
+    ) {
+        List<CandidatoCatalogo> candidatos = prestadorRepository
+                .listarAtivosComEstatisticas(categoria, cidade, uf, null, minAvaliacao)
+                .stream()
+                .map(linha -> candidato(linha.prestador(), PrestadorPublicoResumo.de(linha, null)))
+                .toList();
+        if (CatalogoListaKeyGenerator.porRaio(latitude, longitude, raioKm)) {
+            CelulaGeohash celula = listaKeyGenerator.celula(latitude, longitude);
+            double alcanceKm = raioKm + celula.meiaDiagonalKm();
+            candidatos = candidatos.stream()
+                    .filter(CandidatoCatalogo::possuiCoordenadas)
+                    .filter(c -> GeoUtils.haversineKm(celula.latitudeCentro(), celula.longitudeCentro(),
+                            c.latitude(), c.longitude()) <= alcanceKm)
+                    .toList();
+        }
+        // Só executa em cache miss: registra a chave para invalidação precisa por prestador
+        registroChaves.registrar(
+                listaKeyGenerator.chave(categoria, cidade, uf, minAvaliacao, latitude, longitude, raioKm),
+                candidatos.stream().map(c -> c.resumo().id()).toList());
+        return candidatos;
+    }
+
+    private static CandidatoCatalogo candidato(Prestador prestador, PrestadorPublicoResumo resumo) {
+        if (prestador.getEndereco() == null) {
+            return new CandidatoCatalogo(resumo, null, null);
+        }
+        return new CandidatoCatalogo(resumo, prestador.getEndereco().getLatitude(), prestador.getEndereco().getLongitude());
+    }
+}
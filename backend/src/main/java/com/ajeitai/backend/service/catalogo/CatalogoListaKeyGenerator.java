@@ -0,0 +1,55 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.catalogo.ChaveListaCatalogo;
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Gera a chave de {@code CandidatosCatalogo.listar} e {@code listarJson}. Exposto também como método tipado para que
+ * o serviço registre a mesma chave no {@link RegistroChavesCatalogo} ao popular o cache.
+ * <p>
+ * As coordenadas nunca entram exatas na chave: com raio, são reduzidas à célula geohash
+ * ({@code app.catalogo.cache.geohash-precisao}); sem raio, o conjunto de candidatos não depende
+ * da posição e elas são descartadas.
+ */
+@Component("catalogoListaKeyGenerator")
+public class CatalogoListaKeyGenerator implements KeyGenerator {
+
+    private final int precisaoGeohash;
+
+    public CatalogoListaKeyGenerator(@Value("${app.catalogo.cache.geohash-precisao:5}") int precisaoGeohash) {
+        this.precisaoGeohash = precisaoGeohash;
+    }
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        // listarJson recebe só os filtros (sem coordenadas nem raio)
+        return chave((CategoriaAtuacao) params[0], (String) params[1], (String) params[2],
+                (Double) params[3], coordenada(params, 4), coordenada(params, 5), coordenada(params, 6)).valor();
+    }
+
+    public ChaveListaCatalogo chave(CategoriaAtuacao categoria, String cidade, String uf,
+                                    Double minAvaliacao, Double latitude, Double longitude, Double raioKm) {
+        String geo = porRaio(latitude, longitude, raioKm)
+                ? celula(latitude, longitude).hash() + "@" + raioKm
+                : "*";
+        String valor = categoria + "-" + cidade + "-" + uf + "-" + minAvaliacao + "-" + geo;
+        return new ChaveListaCatalogo(valor, categoria, cidade, uf);
+    }
+
+    private static Double coordenada(Object[] params, int indice) {
+        return params.length > indice ? (Double) params[indice] : null;
+    }
+
+    public CelulaGeohash celula(double latitude, double longitude) {
+        return CelulaGeohash.de(latitude, longitude, precisaoGeohash);
+    }
+
+    public static boolean porRaio(Double latitude, Double longitude, Double raioKm) {
+        return raioKm != null && latitude != null && longitude != null;
+    }
+}
@@ -0,0 +1,428 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.catalogo.CursorCatalogo;
+import com.ajeitai.backend.domain.catalogo.FiltroCatalogo;
+import com.ajeitai.backend.domain.catalogo.OrdenacaoCatalogo;
+import com.ajeitai.backend.domain.catalogo.PrestadorComEstatisticas;
+import com.ajeitai.backend.domain.catalogo.PrestadorPublicoResumo;
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
+import com.ajeitai.backend.infra.cache.BarramentoInvalidacao;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Snapshot imutável, em colunas (arrays paralelos ordenados por id), dos prestadores ativos com suas
+ * estatísticas. Leituras pegam a referência atual e varrem os arrays sem travas nem banco; alterações
+ * ({@link PrestadorAlteradoEvent}, locais ou de outras réplicas) são acumuladas e aplicadas em segundo
+ * plano, gerando uma nova cópia trocada atomicamente (copy-on-write). Só as escritas são serializadas.
+ * <p>
+ * Filtros, chaves de ordenação e cursor reproduzem {@code PrestadorCatalogoRepositoryImpl}, de modo que
+ * cursores emitidos por um servem ao outro.
+ */
+@Component
+public class CatalogoSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoSnapshot.class);
+
+    /** Mesma distância do repositório para quem não tem coordenadas: vão para o fim. */
+    private static final double CHAVE_MAXIMA = 1.0e12;
+    private static final CategoriaAtuacao[] CATEGORIAS = CategoriaAtuacao.values();
+
+    private final PrestadorRepository prestadorRepository;
+    private final boolean habilitado;
+
+    private final AtomicReference<Dados> atual = new AtomicReference<>();
+    private final Set<Long> pendentes = ConcurrentHashMap.newKeySet();
+    /** Verdadeiro entre retirar os pendentes e trocar o snapshot. */
+    private volatile boolean aplicando;
+
+    public CatalogoSnapshot(
+            PrestadorRepository prestadorRepository,
+            BarramentoInvalidacao barramento,
+            @Value("${app.catalogo.snapshot.enabled:true}") boolean habilitado
+    ) {
+        this.prestadorRepository = prestadorRepository;
+        this.habilitado = habilitado;
+        barramento.assinar(InvalidadorCacheCatalogo.TIPO_PRESTADOR,
+                chave -> onPrestadorAlterado(PrestadorAlteradoEvent.decodificar(chave)));
+    }
+
+    /** Verdadeiro quando habilitado e já carregado; caso contrário as consultas vão ao banco. */
+    public boolean disponivel() {
+        return atual.get() != null;
+    }
+
+    /**
+     * Disponível e sem alterações por aplicar. As versões dos ETags avançam logo após o commit; até a próxima
+     * troca, as listagens vão ao banco para que um ETag novo nunca acompanhe dados antigos.
+     */
+    public boolean atualizado() {
+        return pendentes.isEmpty() && !aplicando && disponivel();
+    }
+
+    /** Incrementada a cada troca do snapshot. */
+    public long geracao() {
+        Dados dados = atual.get();
+        return dados != null ? dados.geracao : 0L;
+    }
+
+    public int tamanho() {
+        Dados dados = atual.get();
+        return dados != null ? dados.ids.length : 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (habilitado) {
+            reconstruir();
+        }
+    }
+
+    /** Reconstrução completa; também corrige o que a reconstrução diária das estatísticas alterou sem eventos. */
+    @Scheduled(cron = "${app.catalogo.snapshot.reconstrucao-cron:0 45 3 * * *}")
+    public synchronized void reconstruir() {
+        if (!habilitado) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        List<Linha> linhas = prestadorRepository.listarAtivosComEstatisticas(null, null, null, null, null)
+                .stream()
+                .map(Linha::de)
+                .toList();
+        trocar(linhas);
+        log.info("Snapshot do catálogo carregado com {} prestadores em {} ms",
+                linhas.size(), System.currentTimeMillis() - inicio);
+    }
+
+    /** Antes do {@link InvalidadorCacheCatalogo}: o pendente precisa existir quando a versão avançar. */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPrestadorAlterado(PrestadorAlteradoEvent event) {
+        if (habilitado && event.prestadorId() != null && event.motivo().afetaListagensDoPrestador()) {
+            pendentes.add(event.prestadorId());
+        }
+    }
+
+    /**
+     * Aplica as alterações acumuladas: recarrega só os prestadores alterados e troca a referência.
+     */
+    @Scheduled(fixedDelayString = "${app.catalogo.snapshot.intervalo-ms:500}")
+    public synchronized void aplicarPendentes() {
+        Dados dados = atual.get();
+        if (dados == null || pendentes.isEmpty()) {
+            return;
+        }
+        aplicando = true;
+        try {
+            aplicar(dados);
+        } finally {
+            aplicando = false;
+        }
+    }
+
+    private void aplicar(Dados dados) {
+        List<Long> ids = new ArrayList<>(pendentes);
+        pendentes.removeAll(ids);
+        Map<Long, Linha> recarregadas = new HashMap<>();
+        for (PrestadorComEstatisticas linha : prestadorRepository.listarComEstatisticasPorIds(ids)) {
+            Boolean ativo = linha.prestador().getAtivo();
+            if (ativo == null || ativo) {
+                recarregadas.put(linha.prestador().getId(), Linha.de(linha));
+            }
+        }
+        Set<Long> alterados = new HashSet<>(ids);
+        List<Linha> linhas = new ArrayList<>(dados.ids.length + recarregadas.size());
+        for (int i = 0; i < dados.ids.length; i++) {
+            if (!alterados.contains(dados.ids[i])) {
+                linhas.add(dados.linha(i));
+            }
+        }
+        linhas.addAll(recarregadas.values());
+        trocar(linhas);
+        log.debug("Snapshot do catálogo: {} prestadores atualizados", ids.size());
+    }
+
+    private void trocar(List<Linha> linhas) {
+        Dados anterior = atual.get();
+        atual.set(new Dados(linhas, anterior != null ? anterior.geracao + 1 : 1));
+    }
+
+    /**
+     * Página na ordem de {@code filtro.ordenacao()}, a partir de {@code apos} (cursor) ou de {@code offset}.
+     * Mantém só os {@code offset + limite} melhores em um heap, sem ordenar todos os que passam no filtro.
+     */
+    public List<Item> buscarPagina(FiltroCatalogo filtro, CursorCatalogo apos, int offset, int limite) {
+        Dados d = atual.get();
+        if (d == null) {
+            throw new IllegalStateException("Snapshot do catálogo ainda não carregado");
+        }
+        Consulta consulta = new Consulta(d, filtro);
+        int k = (apos == null ? offset : 0) + limite;
+        if (k <= 0) {
+            return List.of();
+        }
+        Comparator<Integer> ordem = Comparator.<Integer>comparingDouble(i -> consulta.chaves[i])
+                .thenComparingLong(i -> d.ids[i]);
+        PriorityQueue<Integer> melhores = new PriorityQueue<>(k + 1, ordem.reversed());
+        for (int i = 0; i < d.ids.length; i++) {
+            if (!consulta.aceita(i) || (apos != null && !consulta.depoisDe(i, apos))) {
+                continue;
+            }
+            if (melhores.size() < k) {
+                melhores.add(i);
+            } else if (ordem.compare(i, melhores.peek()) < 0) {
+                melhores.poll();
+                melhores.add(i);
+            }
+        }
+        List<Integer> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(ordem);
+        int inicio = apos == null ? Math.min(offset, ordenados.size()) : 0;
+        List<Item> pagina = new ArrayList<>(ordenados.size() - inicio);
+        for (int i : ordenados.subList(inicio, ordenados.size())) {
+            pagina.add(new Item(d.resumo(i, filtro.latitude(), filtro.longitude()),
+                    new CursorCatalogo(consulta.semChave ? null : consulta.valorDaChave(i), d.ids[i])));
+        }
+        return pagina;
+    }
+
+    public long contar(FiltroCatalogo filtro) {
+        Dados d = atual.get();
+        if (d == null) {
+            throw new IllegalStateException("Snapshot do catálogo ainda não carregado");
+        }
+        Consulta consulta = new Consulta(d, filtro);
+        long total = 0;
+        for (int i = 0; i < d.ids.length; i++) {
+            if (consulta.aceita(i)) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /** Item da página: resumo (com distância, se houver coordenadas) e o cursor da posição. */
+    public record Item(PrestadorPublicoResumo resumo, CursorCatalogo cursor) {
+    }
+
+    /** Uma consulta sobre um snapshot: filtros pré-processados e a chave de ordenação de cada linha. */
+    private static final class Consulta {
+
+        private final Dados d;
+        private final FiltroCatalogo filtro;
+        private final int categoria;
+        private final String busca;
+        private final Set<Long> candidatos;
+        private final boolean semChave;
+        private final double[] chaves;
+
+        Consulta(Dados d, FiltroCatalogo filtro) {
+            this.d = d;
+            this.filtro = filtro;
+            this.categoria = filtro.categoria() != null ? filtro.categoria().ordinal() : -1;
+            this.busca = filtro.search() == null || filtro.search().isBlank() ? null : filtro.search().trim().toLowerCase();
+            this.candidatos = filtro.idsCandidatos() != null ? new HashSet<>(filtro.idsCandidatos()) : null;
+            this.semChave = filtro.ordenacao() == OrdenacaoCatalogo.DISTANCIA
+                    && !filtro.possuiCoordenadas();
+            this.chaves = semChave ? new double[d.ids.length] : calcularChaves();
+        }
+
+        boolean aceita(int i) {
+            return (categoria < 0 || d.categorias[i] == categoria)
+                    && (filtro.minAvaliacao() == null || d.medias[i] >= filtro.minAvaliacao())
+                    && (candidatos == null || candidatos.contains(d.ids[i]))
+                    && (busca == null || (d.nomesMinusculos[i] != null && d.nomesMinusculos[i].contains(busca)));
+        }
+
+        /**
+         * Mesma ordem do banco: {@code chaves} é crescente (ordens decrescentes guardam o valor negado) e
+         * NaN, o item sem valor na coluna, compara depois de todos, como NULLS LAST.
+         */
+        boolean depoisDe(int i, CursorCatalogo apos) {
+            if (semChave) {
+                return d.ids[i] > apos.id();
+            }
+            if (apos.chave() == null) {
+                return Double.isNaN(chaves[i]) && d.ids[i] > apos.id();
+            }
+            double chave = filtro.ordenacao().decrescente() ? 0.0 - apos.chave() : apos.chave();
+            int comparacao = Double.compare(chaves[i], chave);
+            return comparacao > 0 || (comparacao == 0 && d.ids[i] > apos.id());
+        }
+
+        /** Valor da coluna de ordenação do item, como o banco devolve; null quando não há valor. */
+        Double valorDaChave(int i) {
+            if (Double.isNaN(chaves[i])) {
+                return null;
+            }
+            return filtro.ordenacao().decrescente() ? 0.0 - chaves[i] : chaves[i];
+        }
+
+        private double[] calcularChaves() {
+            double[] resultado = new double[d.ids.length];
+            double cosLat = filtro.possuiCoordenadas() ? Math.cos(Math.toRadians(filtro.latitude())) : 0;
+            for (int i = 0; i < resultado.length; i++) {
+                resultado[i] = switch (filtro.ordenacao()) {
+                    case AVALIACAO -> d.comEstatisticas[i] ? 0.0 - d.medias[i] : Double.NaN;
+                    case EXPERIENCIA -> d.comEstatisticas[i] ? 0.0 - d.totalServicos[i] : Double.NaN;
+                    case VALOR -> d.valores[i];
+                    case DISTANCIA -> {
+                        if (Double.isNaN(d.latitudes[i]) || Double.isNaN(d.longitudes[i])) {
+                            yield CHAVE_MAXIMA;
+                        }
+                        double dLat = d.latitudes[i] - filtro.latitude();
+                        double dLon = (d.longitudes[i] - filtro.longitude()) * cosLat;
+                        yield dLat * dLat + dLon * dLon;
+                    }
+                };
+            }
+            return resultado;
+        }
+    }
+
+    /** Linha em forma de objeto, usada só para montar e atualizar os arrays. */
+    private record Linha(long id, CategoriaAtuacao categoria, String nome, String cidade, String uf,
+                         Double latitude, Double longitude, BigDecimal valor, boolean comEstatisticas,
+                         double media, long totalAvaliacoes, long totalServicos, String avatarUrl) {
+
+        static Linha de(PrestadorComEstatisticas linha) {
+            Prestador p = linha.prestador();
+            return new Linha(p.getId(), p.getCategoria(), p.getNomeFantasia(),
+                    p.getEndereco() != null ? p.getEndereco().getCidade() : null,
+                    p.getEndereco() != null ? p.getEndereco().getUf() : null,
+                    p.getEndereco() != null ? p.getEndereco().getLatitude() : null,
+                    p.getEndereco() != null ? p.getEndereco().getLongitude() : null,
+                    p.getValorServico(), linha.estatisticas() != null, linha.mediaAvaliacao(),
+                    linha.totalAvaliacoes(), linha.totalServicos(),
+                    p.getAvatarUrl());
+        }
+    }
+
+    /**
+     * Colunas imutáveis. Cidade e UF são ids em um dicionário de textos; ausência de coordenada
+     * ou preço é NaN; categoria é o ordinal (-1 sem categoria). {@code comEstatisticas} é falso para quem
+     * ainda não tem linha no read model (média e totais zerados na resposta, fim da lista na ordenação).
+     */
+    private static final class Dados {
+
+        final long geracao;
+        final long[] ids;
+        final int[] categorias;
+        final int[] cidades;
+        final int[] ufs;
+        final String[] dicionario;
+        final double[] latitudes;
+        final double[] longitudes;
+        final double[] valores;
+        final BigDecimal[] valoresExatos;
+        final boolean[] comEstatisticas;
+        final double[] medias;
+        final long[] totalAvaliacoes;
+        final long[] totalServicos;
+        final String[] nomes;
+        final String[] nomesMinusculos;
+        final String[] avatares;
+
+        Dados(Collection<Linha> origem, long geracao) {
+            Linha[] linhas = origem.toArray(Linha[]::new);
+            Arrays.sort(linhas, Comparator.comparingLong(Linha::id));
+            int n = linhas.length;
+            this.geracao = geracao;
+            ids = new long[n];
+            categorias = new int[n];
+            cidades = new int[n];
+            ufs = new int[n];
+            latitudes = new double[n];
+            longitudes = new double[n];
+            valores = new double[n];
+            valoresExatos = new BigDecimal[n];
+            comEstatisticas = new boolean[n];
+            medias = new double[n];
+            totalAvaliacoes = new long[n];
+            totalServicos = new long[n];
+            nomes = new String[n];
+            nomesMinusculos = new String[n];
+            avatares = new String[n];
+            Map<String, Integer> textos = new HashMap<>();
+            List<String> valoresTexto = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                Linha l = linhas[i];
+                ids[i] = l.id();
+                categorias[i] = l.categoria() != null ? l.categoria().ordinal() : -1;
+                cidades[i] = indice(textos, valoresTexto, l.cidade());
+                ufs[i] = indice(textos, valoresTexto, l.uf());
+                latitudes[i] = l.latitude() != null ? l.latitude() : Double.NaN;
+                longitudes[i] = l.longitude() != null ? l.longitude() : Double.NaN;
+                valores[i] = l.valor() != null ? l.valor().doubleValue() : Double.NaN;
+                valoresExatos[i] = l.valor();
+                comEstatisticas[i] = l.comEstatisticas();
+                medias[i] = l.media();
+                totalAvaliacoes[i] = l.totalAvaliacoes();
+                totalServicos[i] = l.totalServicos();
+                nomes[i] = l.nome();
+                nomesMinusculos[i] = l.nome() != null ? l.nome().toLowerCase() : null;
+                avatares[i] = l.avatarUrl();
+            }
+            dicionario = valoresTexto.toArray(String[]::new);
+        }
+
+        private static int indice(Map<String, Integer> textos, List<String> valores, String texto) {
+            if (texto == null) {
+                return -1;
+            }
+            return textos.computeIfAbsent(texto, t -> {
+                valores.add(t);
+                return valores.size() - 1;
+            });
+        }
+
+        Linha linha(int i) {
+            return new Linha(ids[i], categoria(i), nomes[i], texto(cidades[i]), texto(ufs[i]),
+                    Double.isNaN(latitudes[i]) ? null : latitudes[i],
+                    Double.isNaN(longitudes[i]) ? null : longitudes[i],
+                    valoresExatos[i], comEstatisticas[i], medias[i], totalAvaliacoes[i], totalServicos[i], avatares[i]);
+        }
+
+        PrestadorPublicoResumo resumo(int i, Double latitude, Double longitude) {
+            Double distancia = latitude != null && longitude != null && !Double.isNaN(latitudes[i]) && !Double.isNaN(longitudes[i])
+                    ? GeoUtils.haversineKm(latitude, longitude, latitudes[i], longitudes[i])
+                    : null;
+            return new PrestadorPublicoResumo(ids[i], nomes[i], categoria(i), texto(cidades[i]), texto(ufs[i]),
+                    valoresExatos[i], medias[i], totalAvaliacoes[i], distancia, totalServicos[i], avatares[i]);
+        }
+
+        private CategoriaAtuacao categoria(int i) {
+            return categorias[i] >= 0 ? CATEGORIAS[categorias[i]] : null;
+        }
+
+        private String texto(int indice) {
+            return indice >= 0 ? dicionario[indice] : null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ajeitai.backend.service.catalogo;
+
+/**
+ * Célula geohash que contém um ponto: o prefixo de {@code precisao} caracteres e o retângulo que ele cobre.
+ * Pontos próximos compartilham a célula, o que permite usá-la em chaves de cache no lugar das coordenadas exatas.
+ */
+public record CelulaGeohash(
+        String hash,
+        double latitudeMin,
+        double latitudeMax,
+        double longitudeMin,
+        double longitudeMax
+) {
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    public static CelulaGeohash de(double latitude, double longitude, int precisao) {
+        if (precisao < 1 || precisao > 12) {
+            throw new IllegalArgumentException("A precisão do geohash deve estar entre 1 e 12.");
+        }
+        double latMin = -90, latMax = 90, lonMin = -180, lonMax = 180;
+        StringBuilder hash = new StringBuilder(precisao);
+        boolean bitLongitude = true;
+        int bits = 0;
+        int valor = 0;
+        while (hash.length() < precisao) {
+            if (bitLongitude) {
+                double meio = (lonMin + lonMax) / 2;
+                if (longitude >= meio) {
+                    valor = (valor << 1) | 1;
+                    lonMin = meio;
+                } else {
+                    valor <<= 1;
+                    lonMax = meio;
+                }
+            } else {
+                double meio = (latMin + latMax) / 2;
+                if (latitude >= meio) {
+                    valor = (valor << 1) | 1;
+                    latMin = meio;
+                } else {
+                    valor <<= 1;
+                    latMax = meio;
+                }
+            }
+            bitLongitude = !bitLongitude;
+            if (++bits == 5) {
+                hash.append(BASE32.charAt(valor));
+                bits = 0;
+                valor = 0;
+            }
+        }
+        return new CelulaGeohash(hash.toString(), latMin, latMax, lonMin, lonMax);
+    }
+
+    public double latitudeCentro() {
+        return (latitudeMin + latitudeMax) / 2;
+    }
+
+    public double longitudeCentro() {
+        return (longitudeMin + longitudeMax) / 2;
+    }
+
+    /** Maior distância do centro a qualquer ponto da célula (até um dos cantos). */
+    public double meiaDiagonalKm() {
+        double latitudeCanto = Math.abs(latitudeMin) > Math.abs(latitudeMax) ? latitudeMin : latitudeMax;
+        return GeoUtils.haversineKm(latitudeCentro(), longitudeCentro(), latitudeCanto, longitudeMax);
+    }
+}
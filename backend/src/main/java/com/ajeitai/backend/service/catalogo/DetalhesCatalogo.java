@@ -0,0 +1,83 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.config.CacheConfig;
+import com.ajeitai.backend.domain.catalogo.PortfolioPublicoItem;
+import com.ajeitai.backend.domain.catalogo.PrestadorPublicoDetalhe;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.domain.prestador.PrestadorEstatisticas;
+import com.ajeitai.backend.infra.cache.CacheDuasCamadas;
+import com.ajeitai.backend.infra.cache.RespostaJsonCache;
+import com.ajeitai.backend.repository.PortfolioRepository;
+import com.ajeitai.backend.repository.PrestadorEstatisticasRepository;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Detalhe público do prestador, em cache como JSON final e com carregamento único por chave ({@code sync = true}).
+ * Prestador inexistente é cacheado como null (cache negativo), removido pelo evento de cadastro.
+ * Registra no cache o carregamento sem cache, usado pelo refresh-ahead das entradas mais lidas.
+ */
+@Component
+public class DetalhesCatalogo {
+
+    private final PrestadorRepository prestadorRepository;
+    private final PrestadorEstatisticasRepository estatisticasRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final RespostaJsonCache respostaJsonCache;
+
+    public DetalhesCatalogo(
+            PrestadorRepository prestadorRepository,
+            PrestadorEstatisticasRepository estatisticasRepository,
+            PortfolioRepository portfolioRepository,
+            RespostaJsonCache respostaJsonCache,
+            CacheManager cacheManager
+    ) {
+        this.prestadorRepository = prestadorRepository;
+        this.estatisticasRepository = estatisticasRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.respostaJsonCache = respostaJsonCache;
+        if (cacheManager.getCache(CacheConfig.CACHE_CATALOGO_DETALHE) instanceof CacheDuasCamadas cache) {
+            cache.registrarRecarregador(chave -> carregarJson(Long.valueOf(chave)));
+        }
+    }
+
+    /** Detalhe do prestador já serializado (ver {@link RespostaJsonCache}), ou null se ele não existe. */
+    @Cacheable(cacheNames = CacheConfig.CACHE_CATALOGO_DETALHE, key = "#prestadorId", sync = true)
+    public byte[] buscarJson(Long prestadorId) {
+        return carregarJson(prestadorId);
+    }
+
+    byte[] carregarJson(Long prestadorId) {
+        return respostaJsonCache.codificar(CacheConfig.CACHE_CATALOGO_DETALHE, carregar(prestadorId));
+    }
+
+    PrestadorPublicoDetalhe carregar(Long prestadorId) {
+        Prestador prestador = prestadorRepository.findById(prestadorId).orElse(null);
+        if (prestador == null) {
+            return null;
+        }
+        Double media = estatisticasRepository.findById(prestadorId)
+                .map(PrestadorEstatisticas::getMediaAvaliacao)
+                .orElse(null);
+        List<PortfolioPublicoItem> portfolio = portfolioRepository.findByPrestadorIdOrderByIdDesc(prestadorId)
+                .stream()
+                .map(item -> new PortfolioPublicoItem(item.getId(), item.getTitulo(), item.getDescricao(), item.getImagemUrl()))
+                .toList();
+        return new PrestadorPublicoDetalhe(
+                prestador.getId(),
+                prestador.getNomeFantasia(),
+                prestador.getCategoria(),
+                prestador.getEndereco() != null ? prestador.getEndereco().getCidade() : null,
+                prestador.getEndereco() != null ? prestador.getEndereco().getUf() : null,
+                prestador.getValorServico(),
+                media != null ? media : 0.0,
+                prestador.getAvatarUrl(),
+                portfolio,
+                prestador.getKeycloakId()
+        );
+    }
+}
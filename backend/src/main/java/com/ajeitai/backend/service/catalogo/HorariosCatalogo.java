@@ -0,0 +1,169 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.config.CacheConfig;
+import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.AgendamentoCriadoEvent;
+import com.ajeitai.backend.domain.agendamento.AgendamentoStatusAlteradoEvent;
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.catalogo.HorariosDoDia;
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
+import com.ajeitai.backend.repository.AgendamentoRepository;
+import com.ajeitai.backend.repository.DisponibilidadeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calendário de horários livres de um prestador: a {@link AgendaSemanal} menos os slots tocados por
+ * agendamentos PENDENTE/ACEITO/CONFIRMADO, lidos em uma única consulta de sobreposição por intervalo.
+ * Cada dia é guardado em {@link CacheConfig#CACHE_CATALOGO_HORARIOS} como o bitset dos slots livres
+ * (chave {@code prestadorId:data}); só os dias ausentes do cache são calculados, com uma consulta para
+ * todo o intervalo. Agendamentos invalidam os dias que podem alcançar e a agenda semanal, todos os dias consultáveis.
+ * A antecedência mínima depende do instante da requisição e é aplicada depois do cache.
+ */
+@Component
+public class HorariosCatalogo {
+
+    private final DisponibilidadeRepository disponibilidadeRepository;
+    private final AgendamentoRepository agendamentoRepository;
+    private final Cache cache;
+    private final int slotMinutos;
+    private final int maxDias;
+
+    public HorariosCatalogo(
+            DisponibilidadeRepository disponibilidadeRepository,
+            AgendamentoRepository agendamentoRepository,
+            CacheManager cacheManager,
+            @Value("${app.catalogo.agenda.slot-minutos:30}") int slotMinutos,
+            @Value("${app.catalogo.horarios.max-dias:31}") int maxDias
+    ) {
+        AgendaSemanal.slotsPorDia(slotMinutos);
+        this.disponibilidadeRepository = disponibilidadeRepository;
+        this.agendamentoRepository = agendamentoRepository;
+        this.cache = cacheManager.getCache(CacheConfig.CACHE_CATALOGO_HORARIOS);
+        this.slotMinutos = slotMinutos;
+        this.maxDias = maxDias;
+    }
+
+    /** Quantos dias, a partir de hoje, podem ser consultados (e portanto estar em cache). */
+    public int maxDias() {
+        return maxDias;
+    }
+
+    /**
+     * Horários livres de {@code de} a {@code ate} (inclusive), um item por dia, em ordem.
+     */
+    public List<HorariosDoDia> listar(Long prestadorId, LocalDate de, LocalDate ate) {
+        Map<LocalDate, BitSet> porDia = new LinkedHashMap<>();
+        List<LocalDate> ausentes = new ArrayList<>();
+        for (LocalDate dia = de; !dia.isAfter(ate); dia = dia.plusDays(1)) {
+            byte[] salvo = cache != null ? cache.get(chave(prestadorId, dia), byte[].class) : null;
+            porDia.put(dia, salvo != null ? BitSet.valueOf(salvo) : null);
+            if (salvo == null) {
+                ausentes.add(dia);
+            }
+        }
+        if (!ausentes.isEmpty()) {
+            Map<LocalDate, BitSet> calculados = calcular(prestadorId, ausentes.get(0), ausentes.get(ausentes.size() - 1));
+            for (LocalDate dia : ausentes) {
+                BitSet livres = calculados.get(dia);
+                porDia.put(dia, livres);
+                if (cache != null) {
+                    cache.put(chave(prestadorId, dia), livres.toByteArray());
+                }
+            }
+        }
+        LocalDateTime limite = LocalDateTime.now().plus(Agendamento.ANTECEDENCIA_MINIMA);
+        List<HorariosDoDia> resultado = new ArrayList<>(porDia.size());
+        porDia.forEach((dia, livres) -> resultado.add(new HorariosDoDia(dia, horarios(dia, livres, limite))));
+        return resultado;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAgendamentoCriado(AgendamentoCriadoEvent event) {
+        invalidarDia(event.prestadorId(), event.dataHora());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAgendamentoStatusAlterado(AgendamentoStatusAlteradoEvent event) {
+        invalidarDia(event.prestadorId(), event.dataHora());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPrestadorAlterado(PrestadorAlteradoEvent event) {
+        if (cache == null || event.prestadorId() == null || event.motivo() != MotivoAlteracao.DISPONIBILIDADE) {
+            return;
+        }
+        LocalDate hoje = LocalDate.now();
+        for (int i = 0; i <= maxDias; i++) {
+            cache.evict(chave(event.prestadorId(), hoje.plusDays(i)));
+        }
+    }
+
+    /** Slots livres por dia no intervalo, com uma consulta à disponibilidade e uma aos agendamentos. */
+    private Map<LocalDate, BitSet> calcular(Long prestadorId, LocalDate primeiro, LocalDate ultimo) {
+        AgendaSemanal semana = AgendaSemanal.de(disponibilidadeRepository.listarFaixasDoPrestador(prestadorId), slotMinutos);
+        Map<LocalDate, BitSet> dias = new HashMap<>();
+        for (LocalDate dia = primeiro; !dia.isAfter(ultimo); dia = dia.plusDays(1)) {
+            dias.put(dia, semana.slotsDoDia(dia.getDayOfWeek().getValue()));
+        }
+        if (semana.vazia()) {
+            return dias;
+        }
+        for (AgendamentoRepository.HorarioOcupado ocupado : agendamentoRepository.listarHorariosOcupadosDoPrestadorEntre(
+                prestadorId, StatusAgendamento.OCUPAM_HORARIO, primeiro.atStartOfDay(), ultimo.plusDays(1).atStartOfDay())) {
+            LocalDateTime fim = ocupado.getDataHoraFim() != null ? ocupado.getDataHoraFim() : ocupado.getDataHora();
+            LocalDateTime inicioDoSlot = ocupado.getDataHora().toLocalDate()
+                    .atTime(LocalTime.ofSecondOfDay((long) slotDoDia(ocupado.getDataHora().toLocalTime()) * slotMinutos * 60));
+            // Todo slot que o agendamento toca, inclusive o de início quando ele não tem duração conhecida
+            for (LocalDateTime t = inicioDoSlot; t.equals(inicioDoSlot) || t.isBefore(fim); t = t.plusMinutes(slotMinutos)) {
+                BitSet livres = dias.get(t.toLocalDate());
+                if (livres != null) {
+                    livres.clear(slotDoDia(t.toLocalTime()));
+                }
+            }
+        }
+        return dias;
+    }
+
+    private List<LocalTime> horarios(LocalDate dia, BitSet livres, LocalDateTime limite) {
+        List<LocalTime> horarios = new ArrayList<>(livres.cardinality());
+        for (int s = livres.nextSetBit(0); s >= 0; s = livres.nextSetBit(s + 1)) {
+            LocalTime inicio = LocalTime.ofSecondOfDay((long) s * slotMinutos * 60);
+            if (!dia.atTime(inicio).isBefore(limite)) {
+                horarios.add(inicio);
+            }
+        }
+        return horarios;
+    }
+
+    /** O evento só traz o início; um serviço de até {@link Agendamento#DURACAO_MAXIMA} pode terminar no dia seguinte. */
+    private void invalidarDia(Long prestadorId, LocalDateTime dataHora) {
+        if (cache != null && prestadorId != null && dataHora != null) {
+            cache.evict(chave(prestadorId, dataHora.toLocalDate()));
+            cache.evict(chave(prestadorId, dataHora.plus(Agendamento.DURACAO_MAXIMA).toLocalDate()));
+        }
+    }
+
+    private int slotDoDia(LocalTime horario) {
+        return horario.toSecondOfDay() / (slotMinutos * 60);
+    }
+
+    private static String chave(Long prestadorId, LocalDate dia) {
+        return prestadorId + ":" + dia;
+    }
+}
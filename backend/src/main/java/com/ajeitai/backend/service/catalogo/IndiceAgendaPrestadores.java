@@ -0,0 +1,239 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.agendamento.AgendamentoCriadoEvent;
+import com.ajeitai.backend.domain.agendamento.AgendamentoStatusAlteradoEvent;
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.catalogo.JanelaHorario;
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
+import com.ajeitai.backend.infra.cache.BarramentoInvalidacao;
+import com.ajeitai.backend.repository.AgendamentoRepository;
+import com.ajeitai.backend.repository.DisponibilidadeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Agenda em memória dos prestadores para a busca "livre em": por prestador, a {@link AgendaSemanal}
+ * (bitmap de slots de {@code slot-minutos}) e os slots já ocupados por agendamentos PENDENTE/ACEITO/CONFIRMADO
+ * futuros (array ordenado, busca binária). A consulta varre os bitmaps sem banco; cada alteração recarrega
+ * apenas o prestador afetado, após o commit, é repassada às demais réplicas pelo {@link BarramentoInvalidacao}
+ * e avança a versão das agendas nas {@link VersoesCatalogo}, que compõe o ETag dessas buscas.
+ * <p>
+ * Como na agenda semanal, o arredondamento é conservador: um agendamento ocupa todo slot que [dataHora, dataHoraFim)
+ * toca. Assim o filtro pode omitir um prestador no limite de uma faixa, mas não lista quem recusaria o horário
+ * na criação do agendamento.
+ */
+@Component
+public class IndiceAgendaPrestadores {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceAgendaPrestadores.class);
+
+    public static final String TIPO_AGENDA = "agenda";
+
+    private static final long[] SEM_OCUPACAO = new long[0];
+
+    private final DisponibilidadeRepository disponibilidadeRepository;
+    private final AgendamentoRepository agendamentoRepository;
+    private final BarramentoInvalidacao barramento;
+    private final VersoesCatalogo versoesCatalogo;
+    private final int slotMinutos;
+    private final int slotsPorDia;
+
+    private final Map<Long, AgendaSemanal> semanas = new ConcurrentHashMap<>();
+    /** Prestador → slots absolutos ocupados, ordenados; nunca alterado no lugar. */
+    private final Map<Long, long[]> ocupados = new ConcurrentHashMap<>();
+
+    public IndiceAgendaPrestadores(
+            DisponibilidadeRepository disponibilidadeRepository,
+            AgendamentoRepository agendamentoRepository,
+            BarramentoInvalidacao barramento,
+            VersoesCatalogo versoesCatalogo,
+            @Value("${app.catalogo.agenda.slot-minutos:30}") int slotMinutos
+    ) {
+        this.disponibilidadeRepository = disponibilidadeRepository;
+        this.agendamentoRepository = agendamentoRepository;
+        this.barramento = barramento;
+        this.versoesCatalogo = versoesCatalogo;
+        this.slotMinutos = slotMinutos;
+        this.slotsPorDia = AgendaSemanal.slotsPorDia(slotMinutos);
+        barramento.assinar(TIPO_AGENDA, chave -> recarregarOcupados(Long.valueOf(chave)));
+        barramento.assinar(InvalidadorCacheCatalogo.TIPO_PRESTADOR,
+                chave -> aplicarDisponibilidade(PrestadorAlteradoEvent.decodificar(chave)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        long inicio = System.currentTimeMillis();
+        Map<Long, List<DisponibilidadeRepository.FaixaSemanal>> faixas = disponibilidadeRepository.listarFaixas()
+                .stream()
+                .collect(Collectors.groupingBy(DisponibilidadeRepository.FaixaSemanal::getPrestadorId));
+        Map<Long, List<AgendamentoRepository.HorarioOcupado>> horarios = agendamentoRepository
+                .listarHorariosOcupados(StatusAgendamento.OCUPAM_HORARIO, inicioDoSlotAtual())
+                .stream()
+                .collect(Collectors.groupingBy(AgendamentoRepository.HorarioOcupado::getPrestadorId));
+        semanas.clear();
+        ocupados.clear();
+        faixas.forEach((prestadorId, lista) -> atualizarSemana(prestadorId, lista));
+        horarios.forEach((prestadorId, lista) -> atualizarOcupados(prestadorId, lista));
+        log.info("Agenda do catálogo carregada: {} prestadores com disponibilidade, {} com agendamentos, em {} ms",
+                semanas.size(), ocupados.size(), System.currentTimeMillis() - inicio);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAgendamentoCriado(AgendamentoCriadoEvent event) {
+        alterarOcupados(event.prestadorId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAgendamentoStatusAlterado(AgendamentoStatusAlteradoEvent event) {
+        alterarOcupados(event.prestadorId());
+    }
+
+    /** A agenda semanal chega como {@link MotivoAlteracao#DISPONIBILIDADE}, já repassada pelo invalidador do catálogo. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPrestadorAlterado(PrestadorAlteradoEvent event) {
+        if (aplicarDisponibilidade(event)) {
+            versoesCatalogo.registrarAlteracaoAgenda();
+        }
+    }
+
+    /**
+     * Recarrega do banco os horários ocupados de um prestador (alteração recebida de outra réplica).
+     */
+    public void recarregarOcupados(Long prestadorId) {
+        atualizarOcupados(prestadorId, agendamentoRepository.listarHorariosOcupadosDoPrestador(
+                prestadorId, StatusAgendamento.OCUPAM_HORARIO, inicioDoSlotAtual()));
+    }
+
+    /**
+     * Verdadeiro se o prestador tem, dentro da janela, ao menos um slot coberto pela disponibilidade e sem agendamento.
+     */
+    public boolean livre(Long prestadorId, JanelaHorario janela) {
+        AgendaSemanal semana = semanas.get(prestadorId);
+        if (semana == null) {
+            return false;
+        }
+        long[] ocupadosDoPrestador = ocupados.getOrDefault(prestadorId, SEM_OCUPACAO);
+        long ultimo = slot(janela.fim());
+        for (long s = slot(janela.inicio()); s <= ultimo; s++) {
+            if (semana.disponivel(diaSemana(s), (int) Math.floorMod(s, slotsPorDia))
+                    && Arrays.binarySearch(ocupadosDoPrestador, s) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Ids de todos os prestadores livres na janela (ver {@link #livre}). */
+    public Set<Long> livres(JanelaHorario janela) {
+        Set<Long> ids = new HashSet<>();
+        for (Long prestadorId : semanas.keySet()) {
+            if (livre(prestadorId, janela)) {
+                ids.add(prestadorId);
+            }
+        }
+        return ids;
+    }
+
+    public int tamanho() {
+        return semanas.size();
+    }
+
+    /** Descarta os slots que já passaram. */
+    @Scheduled(fixedDelayString = "${app.catalogo.agenda.limpeza-ms:3600000}")
+    public void descartarPassados() {
+        long atual = slot(LocalDateTime.now());
+        ocupados.replaceAll((prestadorId, slots) -> {
+            int primeiroFuturo = 0;
+            while (primeiroFuturo < slots.length && slots[primeiroFuturo] < atual) {
+                primeiroFuturo++;
+            }
+            return primeiroFuturo == 0 ? slots : Arrays.copyOfRange(slots, primeiroFuturo, slots.length);
+        });
+        ocupados.values().removeIf(slots -> slots.length == 0);
+    }
+
+    private void alterarOcupados(Long prestadorId) {
+        if (prestadorId == null) {
+            return;
+        }
+        recarregarOcupados(prestadorId);
+        versoesCatalogo.registrarAlteracaoAgenda();
+        barramento.publicar(TIPO_AGENDA, prestadorId.toString());
+    }
+
+    /** Recarrega a agenda semanal em {@link MotivoAlteracao#DISPONIBILIDADE}; falso para os demais motivos. */
+    private boolean aplicarDisponibilidade(PrestadorAlteradoEvent event) {
+        if (event.prestadorId() == null || event.motivo() != MotivoAlteracao.DISPONIBILIDADE) {
+            return false;
+        }
+        atualizarSemana(event.prestadorId(), disponibilidadeRepository.listarFaixasDoPrestador(event.prestadorId()));
+        return true;
+    }
+
+    private void atualizarSemana(Long prestadorId, Collection<DisponibilidadeRepository.FaixaSemanal> faixas) {
+        AgendaSemanal semana = AgendaSemanal.de(faixas, slotMinutos);
+        if (semana.vazia()) {
+            semanas.remove(prestadorId);
+        } else {
+            semanas.put(prestadorId, semana);
+        }
+    }
+
+    private void atualizarOcupados(Long prestadorId, Collection<AgendamentoRepository.HorarioOcupado> horarios) {
+        long[] slots = horarios.stream()
+                .filter(horario -> horario.getDataHora() != null)
+                .flatMapToLong(horario -> LongStream.range(slot(horario.getDataHora()), slotFim(horario)))
+                .sorted()
+                .distinct()
+                .toArray();
+        if (slots.length == 0) {
+            ocupados.remove(prestadorId);
+        } else {
+            ocupados.put(prestadorId, slots);
+        }
+    }
+
+    /** Primeiro slot depois do agendamento; sem fim conhecido, só o slot em que começa conta. */
+    private long slotFim(AgendamentoRepository.HorarioOcupado horario) {
+        long inicio = slot(horario.getDataHora());
+        if (horario.getDataHoraFim() == null) {
+            return inicio + 1;
+        }
+        long fim = Math.ceilDiv(horario.getDataHoraFim().toEpochSecond(ZoneOffset.UTC), slotMinutos * 60L);
+        return Math.max(fim, inicio + 1);
+    }
+
+    private LocalDateTime inicioDoSlotAtual() {
+        return LocalDateTime.ofEpochSecond(slot(LocalDateTime.now()) * slotMinutos * 60, 0, ZoneOffset.UTC);
+    }
+
+    /** Slot absoluto (horário local, sem fuso) que contém o instante. */
+    private long slot(LocalDateTime dataHora) {
+        return Math.floorDiv(dataHora.toEpochSecond(ZoneOffset.UTC), slotMinutos * 60L);
+    }
+
+    /** Dia da semana (1 = Segunda) do slot absoluto; 1970-01-01 foi uma quinta-feira. */
+    private int diaSemana(long slot) {
+        return (int) Math.floorMod(Math.floorDiv(slot, slotsPorDia) + 3, 7) + 1;
+    }
+}
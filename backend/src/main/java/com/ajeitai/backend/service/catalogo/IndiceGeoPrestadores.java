@@ -0,0 +1,218 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.catalogo.LocalizacaoPrestador;
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
+import com.ajeitai.backend.infra.cache.BarramentoInvalidacao;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice geográfico em memória dos prestadores ativos, em grade de células de tamanho fixo (graus).
+ * Responde "todos dentro do raio R, por categoria" visitando só as células que cobrem o raio.
+ * Carregado na subida da aplicação e atualizado por {@link PrestadorAlteradoEvent} após o commit,
+ * local ou recebido das demais réplicas pelo {@link BarramentoInvalidacao}.
+ * <p>
+ * Uma recarga monta uma grade nova à parte e a troca de uma vez; alterações recebidas enquanto ela é
+ * montada são reaplicadas na grade nova antes da troca, então as buscas nunca veem um índice vazio.
+ * O índice apenas seleciona candidatos: a consulta ao banco continua sendo a fonte da verdade
+ * (ids que deixaram de existir simplesmente não são encontrados).
+ */
+@Component
+public class IndiceGeoPrestadores {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceGeoPrestadores.class);
+
+    public static final double RAIO_MAXIMO_KM = 200.0;
+
+    private final PrestadorRepository prestadorRepository;
+    private final double celulaGraus;
+
+    private final Object carga = new Object();
+    private volatile Grade grade = new Grade();
+    /** Alterações recebidas durante uma recarga (null fora dela); protegido por {@code this}. */
+    private List<Consumer<Grade>> alteracoesDuranteCarga;
+
+    public IndiceGeoPrestadores(
+            PrestadorRepository prestadorRepository,
+            BarramentoInvalidacao barramento,
+            @Value("${app.catalogo.geo.celula-graus:0.05}") double celulaGraus
+    ) {
+        this.prestadorRepository = prestadorRepository;
+        this.celulaGraus = celulaGraus;
+        barramento.assinar(InvalidadorCacheCatalogo.TIPO_PRESTADOR,
+                chave -> onPrestadorAlterado(PrestadorAlteradoEvent.decodificar(chave)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        synchronized (carga) {
+            long inicio = System.currentTimeMillis();
+            synchronized (this) {
+                alteracoesDuranteCarga = new ArrayList<>();
+            }
+            Grade nova = new Grade();
+            try {
+                prestadorRepository.listarLocalizacoesAtivas().forEach(nova::atualizar);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    alteracoesDuranteCarga = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                alteracoesDuranteCarga.forEach(alteracao -> alteracao.accept(nova));
+                alteracoesDuranteCarga = null;
+                grade = nova;
+            }
+            log.info("Índice geográfico carregado com {} prestadores em {} ms",
+                    nova.pontos.size(), System.currentTimeMillis() - inicio);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPrestadorAlterado(PrestadorAlteradoEvent event) {
+        if (!event.motivo().afetaLocalizacao()) {
+            return;
+        }
+        prestadorRepository.buscarLocalizacao(event.prestadorId())
+                .ifPresentOrElse(this::atualizar, () -> remover(event.prestadorId()));
+    }
+
+    /**
+     * Insere, move ou remove (quando inativo ou sem coordenadas) o prestador no índice.
+     */
+    public void atualizar(LocalizacaoPrestador localizacao) {
+        alterar(g -> g.atualizar(localizacao));
+    }
+
+    public void remover(Long prestadorId) {
+        alterar(g -> g.remover(prestadorId));
+    }
+
+    /**
+     * Ids de todos os prestadores dentro de {@code raioKm} de (latitude, longitude), opcionalmente
+     * filtrados por categoria, em ordem crescente de distância. Sem limite: os demais filtros, a
+     * ordenação e a contagem do catálogo precisam enxergar todos os candidatos do raio.
+     */
+    public List<Long> buscarNoRaio(double latitude, double longitude, double raioKm, CategoriaAtuacao categoria) {
+        Grade g = grade;
+        double raio = Math.min(raioKm, RAIO_MAXIMO_KM);
+        double deltaLat = raio / GeoUtils.KM_POR_GRAU_LATITUDE;
+        double deltaLon = raio / (GeoUtils.KM_POR_GRAU_LATITUDE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        int latMin = indice(latitude - deltaLat);
+        int latMax = indice(latitude + deltaLat);
+        int lonMin = indice(longitude - deltaLon);
+        int lonMax = indice(longitude + deltaLon);
+
+        List<Candidato> encontrados = new ArrayList<>();
+        for (int la = latMin; la <= latMax; la++) {
+            for (int lo = lonMin; lo <= lonMax; lo++) {
+                Set<Long> ids = g.celulas.get(chaveCelula(la, lo));
+                if (ids == null) {
+                    continue;
+                }
+                for (Long id : ids) {
+                    LocalizacaoPrestador p = g.pontos.get(id);
+                    if (p == null || (categoria != null && p.categoria() != categoria)) {
+                        continue;
+                    }
+                    double distancia = GeoUtils.haversineKm(latitude, longitude, p.latitude(), p.longitude());
+                    if (distancia <= raio) {
+                        encontrados.add(new Candidato(id, distancia));
+                    }
+                }
+            }
+        }
+        encontrados.sort(Comparator.comparingDouble(Candidato::distanciaKm).thenComparing(Candidato::prestadorId));
+        return encontrados.stream().map(Candidato::prestadorId).toList();
+    }
+
+    public int tamanho() {
+        return grade.pontos.size();
+    }
+
+    /**
+     * Aplica a alteração na grade atual e, se houver recarga em andamento, guarda-a para a grade nova.
+     * Reaplicar é seguro: cada alteração traz o estado completo do prestador lido após o commit.
+     */
+    private void alterar(Consumer<Grade> alteracao) {
+        Grade g;
+        synchronized (this) {
+            if (alteracoesDuranteCarga != null) {
+                alteracoesDuranteCarga.add(alteracao);
+            }
+            g = grade;
+        }
+        alteracao.accept(g);
+    }
+
+    private long celula(double latitude, double longitude) {
+        return chaveCelula(indice(latitude), indice(longitude));
+    }
+
+    private int indice(double graus) {
+        return (int) Math.floor(graus / celulaGraus);
+    }
+
+    private static long chaveCelula(int indiceLat, int indiceLon) {
+        return ((long) indiceLat << 32) | (indiceLon & 0xffffffffL);
+    }
+
+    /** Pontos e células de uma carga do índice. */
+    private final class Grade {
+
+        private final Map<Long, LocalizacaoPrestador> pontos = new ConcurrentHashMap<>();
+        private final Map<Long, Set<Long>> celulas = new ConcurrentHashMap<>();
+
+        void atualizar(LocalizacaoPrestador localizacao) {
+            Long id = localizacao.prestadorId();
+            pontos.compute(id, (chave, anterior) -> {
+                if (anterior != null) {
+                    retirarDaCelula(celula(anterior.latitude(), anterior.longitude()), id);
+                }
+                if (!localizacao.indexavel()) {
+                    return null;
+                }
+                celulas.compute(celula(localizacao.latitude(), localizacao.longitude()), (c, ids) -> {
+                    Set<Long> destino = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                    destino.add(id);
+                    return destino;
+                });
+                return localizacao;
+            });
+        }
+
+        void remover(Long prestadorId) {
+            pontos.computeIfPresent(prestadorId, (chave, anterior) -> {
+                retirarDaCelula(celula(anterior.latitude(), anterior.longitude()), prestadorId);
+                return null;
+            });
+        }
+
+        private void retirarDaCelula(long celula, Long id) {
+            celulas.computeIfPresent(celula, (c, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private record Candidato(Long prestadorId, double distanciaKm) {
+    }
+}
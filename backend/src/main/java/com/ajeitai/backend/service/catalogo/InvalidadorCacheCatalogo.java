@@ -0,0 +1,76 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.config.CacheConfig;
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
+import com.ajeitai.backend.infra.cache.BarramentoInvalidacao;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Invalida, após o commit, exatamente as entradas dos caches do catálogo afetadas por uma alteração
+ * do prestador: o detalhe dele e as listagens que o contêm ou que ele pode passar a integrar.
+ * Também repassa o evento às demais réplicas ({@link #TIPO_PRESTADOR}) para o estado local de cada uma
+ * e avança as {@link VersoesCatalogo} usadas nos ETags.
+ */
+@Component
+@RequiredArgsConstructor
+public class InvalidadorCacheCatalogo {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidadorCacheCatalogo.class);
+
+    public static final String TIPO_PRESTADOR = "prestador";
+
+    private final CacheManager cacheManager;
+    private final RegistroChavesCatalogo registroChaves;
+    private final PrestadorRepository prestadorRepository;
+    private final BarramentoInvalidacao barramento;
+    private final VersoesCatalogo versoesCatalogo;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPrestadorAlterado(PrestadorAlteradoEvent event) {
+        Long prestadorId = event.prestadorId();
+        MotivoAlteracao motivo = event.motivo();
+        if (prestadorId == null) {
+            return;
+        }
+        barramento.publicar(TIPO_PRESTADOR, event.codificar());
+        if (motivo.afetaDetalhe()) {
+            cache(CacheConfig.CACHE_CATALOGO_DETALHE).ifPresent(c -> c.evict(prestadorId));
+        }
+        if (!motivo.afetaListagensDoPrestador()) {
+            versoesCatalogo.registrarAlteracao(prestadorId, motivo);
+            return;
+        }
+        Optional<Prestador> prestador = motivo.podeEntrarEmListagens()
+                ? prestadorRepository.findById(prestadorId)
+                : Optional.empty();
+        Set<String> chaves = registroChaves.chavesAfetadas(
+                prestadorId,
+                prestador.isPresent(),
+                prestador.map(Prestador::getCategoria).orElse(null),
+                prestador.map(p -> p.getEndereco() != null ? p.getEndereco().getCidade() : null).orElse(null),
+                prestador.map(p -> p.getEndereco() != null ? p.getEndereco().getUf() : null).orElse(null));
+        cache(CacheConfig.CACHE_CATALOGO_LISTA).ifPresent(c -> chaves.forEach(c::evict));
+        cache(CacheConfig.CACHE_CATALOGO_LISTA_JSON).ifPresent(c -> chaves.forEach(c::evict));
+        registroChaves.esquecer(prestadorId, chaves);
+        // Depois das remoções: um ETag novo nunca é emitido junto com a resposta antiga deste nó
+        versoesCatalogo.registrarAlteracao(prestadorId, motivo);
+        log.debug("Prestador {} alterado ({}): {} listagens invalidadas", prestadorId, motivo, chaves.size());
+    }
+
+    private Optional<Cache> cache(String nome) {
+        return Optional.ofNullable(cacheManager.getCache(nome));
+    }
+}
@@ -0,0 +1,45 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.catalogo.ChaveListaCatalogo;
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro em memória, usado com o cache local (instância única, sem Redis).
+ */
+public class MemoriaRegistroChavesCatalogo implements RegistroChavesCatalogo {
+
+    private final Map<Long, Set<String>> chavesPorPrestador = new ConcurrentHashMap<>();
+    private final Map<String, ChaveListaCatalogo> chaves = new ConcurrentHashMap<>();
+
+    @Override
+    public void registrar(ChaveListaCatalogo chave, Collection<Long> prestadorIds) {
+        chaves.put(chave.valor(), chave);
+        for (Long id : prestadorIds) {
+            chavesPorPrestador.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(chave.valor());
+        }
+    }
+
+    @Override
+    public Set<String> chavesAfetadas(Long prestadorId, boolean incluirFiltrosCompativeis,
+                                      CategoriaAtuacao categoria, String cidade, String uf) {
+        Set<String> afetadas = new HashSet<>(chavesPorPrestador.getOrDefault(prestadorId, Set.of()));
+        if (incluirFiltrosCompativeis) {
+            chaves.values().stream()
+                    .filter(c -> c.aceita(categoria, cidade, uf))
+                    .forEach(c -> afetadas.add(c.valor()));
+        }
+        return afetadas;
+    }
+
+    @Override
+    public void esquecer(Long prestadorId, Collection<String> chavesRemovidas) {
+        chavesPorPrestador.remove(prestadorId);
+        chavesRemovidas.forEach(chaves::remove);
+    }
+}
@@ -0,0 +1,50 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versões para instância única. A base é o instante da subida, para que um ETag emitido antes de um
+ * restart nunca coincida com o de depois.
+ */
+public class MemoriaVersoesCatalogo implements VersoesCatalogo {
+
+    private final String base = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong listagens = new AtomicLong();
+    private final AtomicLong agenda = new AtomicLong();
+    private final Map<Long, AtomicLong> prestadores = new ConcurrentHashMap<>();
+
+    @Override
+    public String versaoListagens() {
+        return base + "." + listagens.get();
+    }
+
+    @Override
+    public String versaoPrestador(Long prestadorId) {
+        AtomicLong versao = prestadores.get(prestadorId);
+        return base + "." + (versao != null ? versao.get() : 0L);
+    }
+
+    @Override
+    public String versaoAgenda() {
+        return base + "." + agenda.get();
+    }
+
+    @Override
+    public void registrarAlteracao(Long prestadorId, MotivoAlteracao motivo) {
+        if (motivo.afetaDetalhe()) {
+            prestadores.computeIfAbsent(prestadorId, id -> new AtomicLong()).incrementAndGet();
+        }
+        if (motivo.afetaListagensDoPrestador()) {
+            listagens.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void registrarAlteracaoAgenda() {
+        agenda.incrementAndGet();
+    }
+}
@@ -0,0 +1,65 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.catalogo.ChaveListaCatalogo;
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registro no Redis, compartilhado entre réplicas como o próprio cache L2.
+ * Um set por prestador ({@code catalogo:reg:p:<id>}) e um hash chave → filtros, ambos com o TTL da listagem.
+ */
+public class RedisRegistroChavesCatalogo implements RegistroChavesCatalogo {
+
+    private static final String PREFIXO_PRESTADOR = "catalogo:reg:p:";
+    private static final String CHAVES = "catalogo:reg:chaves";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    public RedisRegistroChavesCatalogo(RedisConnectionFactory connectionFactory, Duration ttl) {
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+        this.ttl = ttl;
+    }
+
+    @Override
+    public void registrar(ChaveListaCatalogo chave, Collection<Long> prestadorIds) {
+        redisTemplate.opsForHash().put(CHAVES, chave.valor(), chave.filtros());
+        redisTemplate.expire(CHAVES, ttl);
+        for (Long id : prestadorIds) {
+            String set = PREFIXO_PRESTADOR + id;
+            redisTemplate.opsForSet().add(set, chave.valor());
+            redisTemplate.expire(set, ttl);
+        }
+    }
+
+    @Override
+    public Set<String> chavesAfetadas(Long prestadorId, boolean incluirFiltrosCompativeis,
+                                      CategoriaAtuacao categoria, String cidade, String uf) {
+        Set<String> membros = redisTemplate.opsForSet().members(PREFIXO_PRESTADOR + prestadorId);
+        Set<String> afetadas = membros != null ? new HashSet<>(membros) : new HashSet<>();
+        if (incluirFiltrosCompativeis) {
+            for (Map.Entry<Object, Object> e : redisTemplate.opsForHash().entries(CHAVES).entrySet()) {
+                ChaveListaCatalogo chave = ChaveListaCatalogo.de((String) e.getKey(), (String) e.getValue());
+                if (chave.aceita(categoria, cidade, uf)) {
+                    afetadas.add(chave.valor());
+                }
+            }
+        }
+        return afetadas;
+    }
+
+    @Override
+    public void esquecer(Long prestadorId, Collection<String> chaves) {
+        redisTemplate.delete(PREFIXO_PRESTADOR + prestadorId);
+        if (!chaves.isEmpty()) {
+            redisTemplate.opsForHash().delete(CHAVES, chaves.toArray());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Versões no Redis, compartilhadas entre réplicas (mesmo ETag em qualquer instância).
+ * A base ({@code catalogo:versao:base}) é criada com o instante atual quando ausente, de modo que
+ * contadores perdidos (flush/restart do Redis) não repitam ETags antigos.
+ * Se o Redis falhar, devolve uma versão única: sem 304, mas nunca um 304 indevido.
+ */
+public class RedisVersoesCatalogo implements VersoesCatalogo {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisVersoesCatalogo.class);
+
+    private static final String BASE = "catalogo:versao:base";
+    private static final String LISTAGENS = "catalogo:versao:listagens";
+    private static final String AGENDA = "catalogo:versao:agenda";
+    private static final String PREFIXO_PRESTADOR = "catalogo:versao:p:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisVersoesCatalogo(RedisConnectionFactory connectionFactory) {
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @Override
+    public String versaoListagens() {
+        return ler(LISTAGENS);
+    }
+
+    @Override
+    public String versaoPrestador(Long prestadorId) {
+        return ler(PREFIXO_PRESTADOR + prestadorId);
+    }
+
+    @Override
+    public String versaoAgenda() {
+        return ler(AGENDA);
+    }
+
+    @Override
+    public void registrarAlteracao(Long prestadorId, MotivoAlteracao motivo) {
+        try {
+            if (motivo.afetaDetalhe()) {
+                redisTemplate.opsForValue().increment(PREFIXO_PRESTADOR + prestadorId);
+            }
+            if (motivo.afetaListagensDoPrestador()) {
+                redisTemplate.opsForValue().increment(LISTAGENS);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao avançar versão do catálogo ({}): {}", prestadorId, e.getMessage());
+            trocarBase();
+        }
+    }
+
+    @Override
+    public void registrarAlteracaoAgenda() {
+        try {
+            redisTemplate.opsForValue().increment(AGENDA);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao avançar versão das agendas: {}", e.getMessage());
+            trocarBase();
+        }
+    }
+
+    /** Sem o incremento, clientes poderiam receber 304 com dados antigos: troca a base. */
+    private void trocarBase() {
+        try {
+            redisTemplate.delete(BASE);
+        } catch (RuntimeException ignorada) {
+            // Redis indisponível: as leituras também falham e não geram 304
+        }
+    }
+
+    private String ler(String chave) {
+        try {
+            List<String> valores = redisTemplate.opsForValue().multiGet(List.of(BASE, chave));
+            String base = valores != null ? valores.get(0) : null;
+            if (base == null) {
+                redisTemplate.opsForValue().setIfAbsent(BASE, Long.toString(System.currentTimeMillis(), 36));
+                base = redisTemplate.opsForValue().get(BASE);
+            }
+            String contador = valores != null && valores.get(1) != null ? valores.get(1) : "0";
+            return base + "." + contador;
+        } catch (RuntimeException e) {
+            log.warn("Falha ao ler versão do catálogo {}: {}", chave, e.getMessage());
+            return "x" + UUID.randomUUID();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.catalogo.ChaveListaCatalogo;
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Índice reverso das entradas do cache de listagem: quais chaves contêm cada prestador e quais
+ * filtros cada chave usa. Permite invalidar exatamente as listagens afetadas por uma alteração.
+ */
+public interface RegistroChavesCatalogo {
+
+    void registrar(ChaveListaCatalogo chave, Collection<Long> prestadorIds);
+
+    /**
+     * Chaves que contêm o prestador e, se {@code incluirFiltrosCompativeis}, também as chaves cujos
+     * filtros aceitam o prestador no estado atual (ele pode passar a integrá-las).
+     */
+    Set<String> chavesAfetadas(Long prestadorId, boolean incluirFiltrosCompativeis,
+                               CategoriaAtuacao categoria, String cidade, String uf);
+
+    void esquecer(Long prestadorId, Collection<String> chaves);
+}
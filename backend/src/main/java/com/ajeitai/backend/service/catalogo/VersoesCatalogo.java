@@ -0,0 +1,44 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.catalogo.JanelaHorario;
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
+
+/**
+ * Versões do catálogo usadas nos ETags: uma por prestador (detalhe), uma geral das listagens e uma das agendas
+ * (buscas "livre em").
+ * Avançam após o commit de cada alteração, junto com a invalidação dos caches; comparar o ETag
+ * não exige montar nem serializar a resposta.
+ */
+public interface VersoesCatalogo {
+
+    /** Muda a cada alteração que afeta alguma listagem. */
+    String versaoListagens();
+
+    /** Muda a cada alteração que afeta o detalhe do prestador. */
+    String versaoPrestador(Long prestadorId);
+
+    /** Muda a cada agendamento criado ou alterado e a cada alteração de disponibilidade. */
+    String versaoAgenda();
+
+    void registrarAlteracao(Long prestadorId, MotivoAlteracao motivo);
+
+    void registrarAlteracaoAgenda();
+
+    /** ETag forte do detalhe; {@code deflate} distingue a representação comprimida. */
+    default String etagDetalhe(Long prestadorId, boolean deflate) {
+        return "\"d" + prestadorId + "-" + versaoPrestador(prestadorId) + (deflate ? "-z" : "") + "\"";
+    }
+
+    /** ETag forte de uma listagem; a URL (filtros, página, coordenadas) já identifica o recurso. */
+    default String etagListagem(boolean deflate) {
+        return "\"l" + versaoListagens() + (deflate ? "-z" : "") + "\"";
+    }
+
+    /** ETag de uma listagem filtrada por {@code janela} ("livre em"), que também depende das agendas. */
+    default String etagListagem(JanelaHorario janela, boolean deflate) {
+        if (janela == null) {
+            return etagListagem(deflate);
+        }
+        return "\"l" + versaoListagens() + "-a" + versaoAgenda() + (deflate ? "-z" : "") + "\"";
+    }
+}
@@ -0,0 +1,35 @@
+-- Read model de estatísticas públicas do prestador (catálogo)
+
+CREATE TABLE IF NOT EXISTS prestador_estatisticas (
+    prestador_id BIGINT PRIMARY KEY,
+    media_avaliacao DOUBLE PRECISION NOT NULL DEFAULT 0,
+    soma_notas BIGINT NOT NULL DEFAULT 0,
+    total_avaliacoes BIGINT NOT NULL DEFAULT 0,
+    total_servicos BIGINT NOT NULL DEFAULT 0,
+    ultima_atividade_em TIMESTAMP,
+    CONSTRAINT fk_estatisticas_prestador FOREIGN KEY (prestador_id) REFERENCES prestadores(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_estatisticas_media ON prestador_estatisticas (media_avaliacao);
+
+-- Carga inicial a partir das tabelas de origem
+INSERT INTO prestador_estatisticas (prestador_id, media_avaliacao, soma_notas, total_avaliacoes, total_servicos, ultima_atividade_em)
+SELECT p.id,
+       COALESCE(av.soma::double precision / NULLIF(av.total, 0), 0),
+       COALESCE(av.soma, 0),
+       COALESCE(av.total, 0),
+       COALESCE(ag.total, 0),
+       GREATEST(av.ultima, ag.ultima)
+FROM prestadores p
+LEFT JOIN (
+    SELECT prestador_id, SUM(nota) AS soma, COUNT(*) AS total, MAX(criado_em) AS ultima
+    FROM avaliacoes
+    GROUP BY prestador_id
+) av ON av.prestador_id = p.id
+LEFT JOIN (
+    SELECT prestador_id, COUNT(*) AS total, MAX(checkout_em) AS ultima
+    FROM agendamentos
+    WHERE status = 'REALIZADO'
+    GROUP BY prestador_id
+) ag ON ag.prestador_id = p.id
+ON CONFLICT (prestador_id) DO NOTHING;
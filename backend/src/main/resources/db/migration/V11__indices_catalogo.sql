@@ -0,0 +1,5 @@
+-- Índices para a listagem paginada do catálogo (filtros executados no banco)
+
+CREATE INDEX IF NOT EXISTS idx_prestador_ativo_categoria ON prestadores (ativo, categoria);
+CREATE INDEX IF NOT EXISTS idx_prestador_valor_servico ON prestadores (valor_servico, id);
+CREATE INDEX IF NOT EXISTS idx_estatisticas_total_servicos ON prestador_estatisticas (total_servicos);
@@ -0,0 +1,29 @@
+-- Reserva de horário por slot: a unicidade (prestador, início do slot) impede agendamento duplo
+-- sem travar a linha do prestador. Só agendamentos PENDENTE/ACEITO/CONFIRMADO têm linha aqui.
+
+CREATE TABLE IF NOT EXISTS agendamento_slots (
+    id BIGSERIAL PRIMARY KEY,
+    prestador_id BIGINT NOT NULL,
+    inicio TIMESTAMP NOT NULL,
+    agendamento_id BIGINT NOT NULL,
+    CONSTRAINT uk_agendamento_slot UNIQUE (prestador_id, inicio),
+    CONSTRAINT fk_slot_prestador FOREIGN KEY (prestador_id) REFERENCES prestadores(id) ON DELETE CASCADE,
+    CONSTRAINT fk_slot_agendamento FOREIGN KEY (agendamento_id) REFERENCES agendamentos(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_agendamento_slot_agendamento ON agendamento_slots (agendamento_id);
+
+-- Carga inicial: agendamentos ativos a partir de hoje, em slots de 30 minutos (padrão de app.catalogo.agenda.slot-minutos).
+-- Conflitos antigos no mesmo slot mantêm só o agendamento mais antigo.
+INSERT INTO agendamento_slots (prestador_id, inicio, agendamento_id)
+SELECT DISTINCT ON (s.prestador_id, s.inicio) s.prestador_id, s.inicio, s.id
+FROM (
+    SELECT a.prestador_id,
+           date_trunc('hour', a.data_hora) + floor(extract(minute FROM a.data_hora) / 30) * INTERVAL '30 minutes' AS inicio,
+           a.id
+    FROM agendamentos a
+    WHERE a.status IN ('PENDENTE', 'ACEITO', 'CONFIRMADO')
+      AND a.data_hora >= date_trunc('day', now())
+) s
+ORDER BY s.prestador_id, s.inicio, s.id
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,33 @@
+-- Duração do serviço: cada agendamento ocupa [data_hora, data_hora_fim). A restrição de exclusão impede
+-- que dois agendamentos ativos do mesmo prestador se sobreponham, mesmo começando em instantes diferentes.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE agendamentos ADD COLUMN IF NOT EXISTS data_hora_fim TIMESTAMP;
+
+-- Carga inicial: 30 minutos (um slot), encurtados até o próximo agendamento ativo do prestador para que
+-- agendamentos legados próximos não violem a restrição (no mesmo instante o período fica vazio).
+UPDATE agendamentos a
+SET data_hora_fim = a.data_hora + LEAST(INTERVAL '30 minutes', COALESCE(p.proximo - a.data_hora, INTERVAL '30 minutes'))
+FROM (
+    SELECT id, LEAD(data_hora) OVER (PARTITION BY prestador_id ORDER BY data_hora, id) AS proximo
+    FROM agendamentos
+    WHERE status IN ('PENDENTE', 'ACEITO', 'CONFIRMADO')
+) p
+WHERE p.id = a.id;
+
+UPDATE agendamentos SET data_hora_fim = data_hora + INTERVAL '30 minutes' WHERE data_hora_fim IS NULL;
+
+ALTER TABLE agendamentos ALTER COLUMN data_hora_fim SET NOT NULL;
+ALTER TABLE agendamentos ADD CONSTRAINT ck_agendamento_periodo CHECK (data_hora_fim >= data_hora);
+
+ALTER TABLE agendamentos ADD COLUMN periodo TSRANGE
+    GENERATED ALWAYS AS (tsrange(data_hora, data_hora_fim, '[)')) STORED;
+
+-- O índice GiST da restrição também atende consultas com periodo && tsrange(...)
+ALTER TABLE agendamentos ADD CONSTRAINT ex_agendamento_sobreposicao
+    EXCLUDE USING gist (prestador_id WITH =, periodo WITH &&)
+    WHERE (status IN ('PENDENTE', 'ACEITO', 'CONFIRMADO'));
+
+-- Consultas de sobreposição portáveis (JPQL): prestador + faixa de data_hora limitada pela duração máxima
+CREATE INDEX IF NOT EXISTS idx_agendamento_prestador_data ON agendamentos (prestador_id, data_hora);
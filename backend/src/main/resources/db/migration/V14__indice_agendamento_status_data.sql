@@ -0,0 +1,2 @@
+-- Cancelamento automático: agendamentos de um status com início antes de um limite, em lotes
+CREATE INDEX IF NOT EXISTS idx_agendamento_status_data ON agendamentos (status, data_hora);
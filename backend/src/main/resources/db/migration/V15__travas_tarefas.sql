@@ -0,0 +1,7 @@
+-- Concessões das tarefas agendadas entre réplicas (@TravaAgendada): uma linha por tarefa
+CREATE TABLE IF NOT EXISTS travas_tarefas (
+    nome VARCHAR(100) PRIMARY KEY,
+    ate TIMESTAMP NOT NULL,
+    adquirida_em TIMESTAMP NOT NULL,
+    dono VARCHAR(200) NOT NULL
+);
@@ -0,0 +1,9 @@
+-- Outbox transacional: eventos gravados junto com a alteração e publicados depois pelo relay
+CREATE TABLE IF NOT EXISTS outbox (
+    id BIGSERIAL PRIMARY KEY,
+    exchange VARCHAR(100) NOT NULL,
+    routing_key VARCHAR(100) NOT NULL,
+    tipo VARCHAR(200) NOT NULL,
+    payload TEXT NOT NULL,
+    criado_em TIMESTAMP NOT NULL
+);
@@ -0,0 +1,2 @@
+-- Trava otimista: cada alteração do agendamento incrementa a versão
+ALTER TABLE agendamentos ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- Listagens por cursor: "meus agendamentos" do cliente e solicitações do prestador filtradas por status,
+-- ambas ordenadas por (data_hora, id) decrescentes. O índice só por cliente_id fica coberto pelo novo.
+
+CREATE INDEX IF NOT EXISTS idx_agendamento_cliente_data ON agendamentos (cliente_id, data_hora DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_agendamento_prestador_status_data
+    ON agendamentos (prestador_id, status, data_hora DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_agendamento_cliente;
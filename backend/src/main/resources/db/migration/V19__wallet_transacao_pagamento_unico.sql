@@ -0,0 +1,4 @@
+-- Um lançamento de extrato por pagamento. O crédito do prestador insere o lançamento com ON CONFLICT DO NOTHING
+-- e só quem inseriu soma o saldo: confirmações repetidas ou concorrentes do mesmo pagamento creditam uma vez.
+-- Falha se já houver lançamentos duplicados para um pagamento; eles precisam ser conciliados antes.
+ALTER TABLE wallet_transacoes ADD CONSTRAINT uk_wallet_trans_pagamento UNIQUE (pagamento_id);
@@ -0,0 +1,40 @@
+-- Rollup diário das métricas do painel admin, somado na mesma transação das alterações (MetricasPlataformaService).
+-- Status são contados como fluxos (entraram/saíram no dia); o total atual de um status é entradas - saídas.
+CREATE TABLE IF NOT EXISTS metricas_plataforma (
+    id BIGSERIAL PRIMARY KEY,
+    dia DATE NOT NULL,
+    metrica VARCHAR(60) NOT NULL,
+    valor NUMERIC(16,2) NOT NULL DEFAULT 0,
+    CONSTRAINT uk_metrica_plataforma_dia UNIQUE (dia, metrica)
+);
+
+-- Carga inicial a partir do estado atual: cada agendamento/pagamento entra no seu status atual no dia em que foi
+-- criado (os totais por status ficam exatos; as transições anteriores não são reconstruídas). Clientes e
+-- prestadores não têm data de cadastro e entram no dia da migração.
+INSERT INTO metricas_plataforma (dia, metrica, valor)
+SELECT CAST(criado_em AS DATE), 'agendamentos.entraram.' || status, COUNT(*)
+FROM agendamentos
+GROUP BY CAST(criado_em AS DATE), status;
+
+INSERT INTO metricas_plataforma (dia, metrica, valor)
+SELECT CAST(criado_em AS DATE), 'pagamentos.entraram.' || status, COUNT(*)
+FROM pagamentos
+GROUP BY CAST(criado_em AS DATE), status;
+
+INSERT INTO metricas_plataforma (dia, metrica, valor)
+SELECT CAST(criado_em AS DATE), 'gmv', SUM(valor_bruto)
+FROM wallet_transacoes
+WHERE tipo = 'CREDITO_AGENDAMENTO'
+GROUP BY CAST(criado_em AS DATE);
+
+INSERT INTO metricas_plataforma (dia, metrica, valor)
+SELECT CAST(criado_em AS DATE), 'comissao', SUM(COALESCE(taxa_plataforma, 0))
+FROM wallet_transacoes
+WHERE tipo = 'CREDITO_AGENDAMENTO'
+GROUP BY CAST(criado_em AS DATE);
+
+INSERT INTO metricas_plataforma (dia, metrica, valor)
+SELECT CURRENT_DATE, 'clientes.novos', COUNT(*) FROM clientes HAVING COUNT(*) > 0;
+
+INSERT INTO metricas_plataforma (dia, metrica, valor)
+SELECT CURRENT_DATE, 'prestadores.novos', COUNT(*) FROM prestadores HAVING COUNT(*) > 0;
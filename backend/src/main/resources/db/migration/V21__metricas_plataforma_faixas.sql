@@ -0,0 +1,6 @@
+-- Cada (dia, métrica) passa a ser dividido em faixas: cada transação soma em uma faixa sorteada, para que
+-- agendamentos simultâneos não esperem pela mesma linha até o commit. As leituras somam as faixas.
+ALTER TABLE metricas_plataforma ADD COLUMN IF NOT EXISTS faixa INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE metricas_plataforma DROP CONSTRAINT IF EXISTS uk_metrica_plataforma_dia;
+ALTER TABLE metricas_plataforma ADD CONSTRAINT uk_metrica_plataforma_dia_faixa UNIQUE (dia, metrica, faixa);
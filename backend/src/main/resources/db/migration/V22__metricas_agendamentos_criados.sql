@@ -0,0 +1,9 @@
+-- Agendamentos criados por dia, pela data real de criação de todas as linhas existentes. A carga da V20 pôs
+-- cada agendamento só no status atual, no dia da criação: antes dela não há PENDENTE para os que já tinham
+-- avançado, e as demais entradas de status (ex.: cancelamentos) caem no dia da criação, não no da transição.
+-- Esses fluxos anteriores à V20 são aproximações; a contagem de criados é exata.
+INSERT INTO metricas_plataforma (dia, metrica, faixa, valor)
+SELECT CAST(criado_em AS DATE), 'agendamentos.criados', 0, COUNT(*)
+FROM agendamentos
+GROUP BY CAST(criado_em AS DATE)
+ON CONFLICT DO NOTHING;
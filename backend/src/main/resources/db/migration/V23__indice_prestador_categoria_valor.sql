@@ -0,0 +1,4 @@
+-- Ordenação por valor com filtro de categoria no catálogo: o keyset (valor_servico, id) percorre o índice
+-- já na categoria, como idx_prestador_valor_servico faz sem filtro (V11)
+
+CREATE INDEX IF NOT EXISTS idx_prestador_categoria_valor ON prestadores (categoria, valor_servico, id);
@@ -0,0 +1,8 @@
+-- Acumulado de todos os dias por métrica, em linhas com o dia sentinela 0001-01-01 (MetricaPlataforma.DIA_TOTAL):
+-- a visão geral lê só essas faixas em vez de somar o histórico inteiro. A partir daqui cada incremento soma
+-- também nelas, na mesma transação do dia.
+INSERT INTO metricas_plataforma (dia, metrica, faixa, valor)
+SELECT DATE '0001-01-01', metrica, 0, SUM(valor)
+FROM metricas_plataforma
+GROUP BY metrica
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,69 @@
+package com.ajeitai.backend.config;
+
+import com.ajeitai.backend.infra.cache.BarramentoInvalidacao;
+import com.ajeitai.backend.infra.cache.LocalBarramentoInvalidacao;
+import com.ajeitai.backend.infra.cache.LocalTravaCarregamento;
+import com.ajeitai.backend.infra.cache.RedisBarramentoInvalidacao;
+import com.ajeitai.backend.infra.cache.RedisTravaCarregamento;
+import com.ajeitai.backend.infra.cache.TravaCarregamento;
+import com.ajeitai.backend.service.catalogo.MemoriaRegistroChavesCatalogo;
+import com.ajeitai.backend.service.catalogo.MemoriaVersoesCatalogo;
+import com.ajeitai.backend.service.catalogo.RedisRegistroChavesCatalogo;
+import com.ajeitai.backend.service.catalogo.RedisVersoesCatalogo;
+import com.ajeitai.backend.service.catalogo.RegistroChavesCatalogo;
+import com.ajeitai.backend.service.catalogo.VersoesCatalogo;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Escolha entre as implementações Redis e locais com a fábrica de conexões registrada fora do
+ * {@link CacheConfig}, como faz a autoconfiguração do Redis.
+ */
+class CacheConfigTest {
+
+    private final ApplicationContextRunner contexto = new ApplicationContextRunner()
+            .withBean(RedisConnectionFactory.class, () -> mock(RedisConnectionFactory.class, Answers.RETURNS_DEEP_STUBS))
+            .withUserConfiguration(CacheConfig.class);
+
+    @Test
+    void comRedisHabilitado_usaAsImplementacoesCompartilhadas() {
+        contexto.withPropertyValues("app.cache.redis.enabled=true").run(ctx -> {
+            assertThat(ctx).hasNotFailed();
+            assertThat(ctx.getBean(BarramentoInvalidacao.class)).isInstanceOf(RedisBarramentoInvalidacao.class);
+            assertThat(ctx.getBean(TravaCarregamento.class)).isInstanceOf(RedisTravaCarregamento.class);
+            assertThat(ctx.getBean(RegistroChavesCatalogo.class)).isInstanceOf(RedisRegistroChavesCatalogo.class);
+            assertThat(ctx.getBean(VersoesCatalogo.class)).isInstanceOf(RedisVersoesCatalogo.class);
+        });
+    }
+
+    @Test
+    void comRedisDesabilitado_usaAsImplementacoesLocais() {
+        contexto.withPropertyValues("app.cache.redis.enabled=false").run(ctx -> {
+            assertThat(ctx).hasNotFailed();
+            assertThat(ctx.getBean(BarramentoInvalidacao.class)).isInstanceOf(LocalBarramentoInvalidacao.class);
+            assertThat(ctx.getBean(TravaCarregamento.class)).isInstanceOf(LocalTravaCarregamento.class);
+            assertThat(ctx.getBean(RegistroChavesCatalogo.class)).isInstanceOf(MemoriaRegistroChavesCatalogo.class);
+            assertThat(ctx.getBean(VersoesCatalogo.class)).isInstanceOf(MemoriaVersoesCatalogo.class);
+        });
+    }
+
+    @Test
+    void semFabricaDoRedis_usaAsImplementacoesLocais() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(CacheConfig.class)
+                .withPropertyValues("app.cache.redis.enabled=true")
+                .run(ctx -> {
+                    assertThat(ctx).hasNotFailed();
+                    assertThat(ctx.getBean(BarramentoInvalidacao.class)).isInstanceOf(LocalBarramentoInvalidacao.class);
+                    assertThat(ctx.getBean(TravaCarregamento.class)).isInstanceOf(LocalTravaCarregamento.class);
+                    assertThat(ctx.getBean(RegistroChavesCatalogo.class)).isInstanceOf(MemoriaRegistroChavesCatalogo.class);
+                    assertThat(ctx.getBean(VersoesCatalogo.class)).isInstanceOf(MemoriaVersoesCatalogo.class);
+            assertThat(ctx.getBean(VersoesCatalogo.class)).isInstanceOf(MemoriaVersoesCatalogo.class);
+                });
+    }
+}
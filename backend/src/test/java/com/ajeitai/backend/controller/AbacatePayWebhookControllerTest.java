@@ -12,6 +12,8 @@ import com.ajeitai.backend.repository.AgendamentoRepository;
 import com.ajeitai.backend.repository.ClienteRepository;
 import com.ajeitai.backend.repository.PagamentoRepository;
 import com.ajeitai.backend.repository.PrestadorRepository;
+import com.ajeitai.backend.service.CacheAssinaturas;
+import com.ajeitai.backend.service.IdentidadeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -59,6 +61,12 @@ class AbacatePayWebhookControllerTest {
     @Autowired
     private PagamentoRepository pagamentoRepository;
 
+    @Autowired
+    private IdentidadeService identidadeService;
+
+    @Autowired
+    private CacheAssinaturas cacheAssinaturas;
+
     private Agendamento agendamento;
 
     @BeforeEach
@@ -68,6 +76,11 @@ class AbacatePayWebhookControllerTest {
                 .build();
         pagamentoRepository.deleteAll();
         agendamentoRepository.deleteAll();
+        clienteRepository.findAll().forEach(c -> identidadeService.esquecer(c.getKeycloakId()));
+        prestadorRepository.findAll().forEach(p -> {
+            identidadeService.esquecer(p.getKeycloakId());
+            cacheAssinaturas.esquecer(p.getKeycloakId());
+        });
         prestadorRepository.deleteAll();
         clienteRepository.deleteAll();
 
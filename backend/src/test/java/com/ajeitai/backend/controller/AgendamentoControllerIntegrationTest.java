@@ -1,13 +1,22 @@
 package com.ajeitai.backend.controller;
 
+import com.ajeitai.backend.domain.agendamento.Agendamento;
 import com.ajeitai.backend.domain.agendamento.Disponibilidade;
 import com.ajeitai.backend.domain.agendamento.FormaPagamento;
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.avaliacao.Avaliacao;
 import com.ajeitai.backend.domain.cliente.Cliente;
 import com.ajeitai.backend.domain.endereco.Endereco;
 import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.repository.AgendamentoRepository;
+import com.ajeitai.backend.repository.AgendamentoSlotRepository;
+import com.ajeitai.backend.repository.AvaliacaoRepository;
 import com.ajeitai.backend.repository.ClienteRepository;
 import com.ajeitai.backend.repository.DisponibilidadeRepository;
+import com.ajeitai.backend.repository.PagamentoRepository;
 import com.ajeitai.backend.repository.PrestadorRepository;
+import com.ajeitai.backend.service.CacheAssinaturas;
+import com.ajeitai.backend.service.IdentidadeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +26,8 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -25,7 +36,10 @@ import java.time.LocalTime;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -48,6 +62,25 @@ class AgendamentoControllerIntegrationTest {
     @Autowired
     private DisponibilidadeRepository disponibilidadeRepository;
 
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private AgendamentoSlotRepository slotRepository;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private AvaliacaoRepository avaliacaoRepository;
+
+    @Autowired
+    private IdentidadeService identidadeService;
+
+    @Autowired
+    private CacheAssinaturas cacheAssinaturas;
+
+    private Cliente cliente;
     private Prestador prestador;
     private LocalDateTime dataHoraBase;
 
@@ -56,11 +89,20 @@ class AgendamentoControllerIntegrationTest {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
                 .apply(springSecurity())
                 .build();
+        slotRepository.deleteAll();
+        avaliacaoRepository.deleteAll();
+        pagamentoRepository.deleteAll();
+        agendamentoRepository.deleteAll();
         disponibilidadeRepository.deleteAll();
+        clienteRepository.findAll().forEach(c -> identidadeService.esquecer(c.getKeycloakId()));
+        prestadorRepository.findAll().forEach(p -> {
+            identidadeService.esquecer(p.getKeycloakId());
+            cacheAssinaturas.esquecer(p.getKeycloakId());
+        });
         prestadorRepository.deleteAll();
         clienteRepository.deleteAll();
 
-        Cliente cliente = Cliente.builder()
+        cliente = Cliente.builder()
                 .keycloakId("cliente-1")
                 .nome("Cliente")
                 .email("cliente@teste.com")
@@ -116,4 +158,80 @@ class AgendamentoControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("PENDENTE"));
     }
+
+    @Test
+    void listarMeus_paginaPorCursorMaisRecentesPrimeiro() throws Exception {
+        Long antigo = agendamento(dataHoraBase, StatusAgendamento.REALIZADO).getId();
+        Long meio = agendamento(dataHoraBase.plusDays(1), StatusAgendamento.CANCELADO).getId();
+        Long recente = agendamento(dataHoraBase.plusDays(2), StatusAgendamento.PENDENTE).getId();
+
+        MvcResult primeira = mockMvc.perform(get("/api/agendamentos").param("size", "2").with(jwtCliente()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(recente))
+                .andExpect(jsonPath("$[0].prestadorNome").value("Casa Limpa"))
+                .andExpect(jsonPath("$[0].clienteNome").value("Cliente"))
+                .andExpect(jsonPath("$[0].duracaoMinutos").value(30))
+                .andExpect(jsonPath("$[0].cliente").doesNotExist())
+                .andExpect(jsonPath("$[1].id").value(meio))
+                .andExpect(header().exists(AgendamentoController.CABECALHO_PROXIMO_CURSOR))
+                .andReturn();
+        String cursor = primeira.getResponse().getHeader(AgendamentoController.CABECALHO_PROXIMO_CURSOR);
+
+        mockMvc.perform(get("/api/agendamentos").param("size", "2").param("cursor", cursor).with(jwtCliente()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(antigo))
+                .andExpect(jsonPath("$[0].podeFazerAvaliacao").value(true))
+                .andExpect(header().doesNotExist(AgendamentoController.CABECALHO_PROXIMO_CURSOR));
+
+        mockMvc.perform(get("/api/agendamentos").param("status", "cancelado").with(jwtCliente()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(meio));
+        assertThat(cursor).isNotBlank();
+    }
+
+    @Test
+    void listarMeus_cursorInvalido_retornaBadRequest() throws Exception {
+        mockMvc.perform(get("/api/agendamentos").param("cursor", "???").with(jwtCliente()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listarMeus_preencheAvaliacaoPelaMesmaConsulta() throws Exception {
+        Agendamento avaliado = agendamento(dataHoraBase.minusDays(1), StatusAgendamento.REALIZADO);
+        Avaliacao avaliacao = avaliacaoRepository.save(Avaliacao.builder()
+                .agendamento(avaliado)
+                .cliente(cliente)
+                .prestador(prestador)
+                .nota(5)
+                .build());
+        Agendamento expirado = agendamento(dataHoraBase.minusDays(30), StatusAgendamento.REALIZADO);
+
+        mockMvc.perform(get("/api/clientes/me/agendamentos").with(jwtCliente()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(avaliado.getId()))
+                .andExpect(jsonPath("$[0].avaliacaoId").value(String.valueOf(avaliacao.getId())))
+                .andExpect(jsonPath("$[0].podeFazerAvaliacao").value(false))
+                .andExpect(jsonPath("$[1].id").value(expirado.getId()))
+                .andExpect(jsonPath("$[1].avaliacaoId").isEmpty())
+                .andExpect(jsonPath("$[1].podeFazerAvaliacao").value(false));
+    }
+
+    private Agendamento agendamento(LocalDateTime dataHora, StatusAgendamento status) {
+        return agendamentoRepository.save(Agendamento.builder()
+                .cliente(cliente)
+                .prestador(prestador)
+                .dataHora(dataHora)
+                .status(status)
+                .formaPagamento(FormaPagamento.DINHEIRO)
+                .build());
+    }
+
+    private static RequestPostProcessor jwtCliente() {
+        return jwt().jwt(jwt -> jwt.subject("cliente-1").claim("email", "cliente@teste.com"))
+                .authorities(new SimpleGrantedAuthority("ROLE_cliente"));
+    }
 }
@@ -1,22 +1,34 @@
 package com.ajeitai.backend.controller;
 
+import com.ajeitai.backend.domain.agendamento.Disponibilidade;
 import com.ajeitai.backend.domain.endereco.Endereco;
 import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
 import com.ajeitai.backend.domain.prestador.Prestador;
 import com.ajeitai.backend.repository.AgendamentoRepository;
 import com.ajeitai.backend.repository.DisponibilidadeRepository;
 import com.ajeitai.backend.repository.PrestadorRepository;
+import com.ajeitai.backend.service.CacheAssinaturas;
+import com.ajeitai.backend.service.IdentidadeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.web.WebAppConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+
+import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,11 +51,21 @@ class CatalogoControllerIntegrationTest {
     @Autowired
     private AgendamentoRepository agendamentoRepository;
 
+    @Autowired
+    private IdentidadeService identidadeService;
+
+    @Autowired
+    private CacheAssinaturas cacheAssinaturas;
+
     @BeforeEach
     void setup() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
         agendamentoRepository.deleteAll();
         disponibilidadeRepository.deleteAll();
+        prestadorRepository.findAll().forEach(p -> {
+            identidadeService.esquecer(p.getKeycloakId());
+            cacheAssinaturas.esquecer(p.getKeycloakId());
+        });
         prestadorRepository.deleteAll();
         Prestador prestador = Prestador.builder()
                 .keycloakId("prestador-1")
@@ -66,4 +88,53 @@ class CatalogoControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].nomeFantasia").value("Casa Limpa"))
                 .andExpect(jsonPath("$[0].categoria").value("LIMPEZA"));
     }
+
+    @Test
+    void buscarPrestador_inexistenteRetornaNotFound() throws Exception {
+        mockMvc.perform(get("/api/catalogo/prestadores/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void buscarPrestador_etagInalteradoRetornaNotModified() throws Exception {
+        Long id = prestadorRepository.findAll().get(0).getId();
+        String etag = mockMvc.perform(get("/api/catalogo/prestadores/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/catalogo/prestadores/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void listarHorarios_retornaSlotsDaDisponibilidadePorDia() throws Exception {
+        Prestador prestador = prestadorRepository.findAll().get(0);
+        disponibilidadeRepository.save(Disponibilidade.builder()
+                .prestador(prestador)
+                .diaSemana(DayOfWeek.MONDAY.getValue())
+                .horaInicio(LocalTime.of(8, 0))
+                .horaFim(LocalTime.of(10, 0))
+                .build());
+        LocalDate segunda = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+        mockMvc.perform(get("/api/catalogo/prestadores/{id}/horarios", prestador.getId())
+                        .param("de", segunda.toString())
+                        .param("ate", segunda.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].data").value(segunda.toString()))
+                .andExpect(jsonPath("$[0].horarios.length()").value(4))
+                .andExpect(jsonPath("$[1].horarios.length()").value(0));
+    }
+
+    @Test
+    void listarHorarios_alemDoLimiteRetornaBadRequest() throws Exception {
+        Long id = prestadorRepository.findAll().get(0).getId();
+        mockMvc.perform(get("/api/catalogo/prestadores/{id}/horarios", id)
+                        .param("ate", LocalDate.now().plusYears(1).toString()))
+                .andExpect(status().isBadRequest());
+    }
 }
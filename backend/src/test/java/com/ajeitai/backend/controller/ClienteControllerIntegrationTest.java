@@ -4,6 +4,7 @@ import com.ajeitai.backend.domain.cliente.Cliente;
 import com.ajeitai.backend.domain.endereco.Endereco;
 import com.ajeitai.backend.repository.AgendamentoRepository;
 import com.ajeitai.backend.repository.ClienteRepository;
+import com.ajeitai.backend.service.IdentidadeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,12 +41,16 @@ class ClienteControllerIntegrationTest {
     @Autowired
     private AgendamentoRepository agendamentoRepository;
 
+    @Autowired
+    private IdentidadeService identidadeService;
+
     @BeforeEach
     void setup() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
                 .apply(springSecurity())
                 .build();
         agendamentoRepository.deleteAll();
+        clienteRepository.findAll().forEach(c -> identidadeService.esquecer(c.getKeycloakId()));
         clienteRepository.deleteAll();
     }
 
@@ -0,0 +1,249 @@
+package com.ajeitai.backend.controller;
+
+import com.ajeitai.backend.domain.catalogo.FiltroCatalogo;
+import com.ajeitai.backend.domain.endereco.Endereco;
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
+import com.ajeitai.backend.repository.AgendamentoRepository;
+import com.ajeitai.backend.repository.DisponibilidadeRepository;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import com.ajeitai.backend.service.CacheAssinaturas;
+import com.ajeitai.backend.service.IdentidadeService;
+import com.ajeitai.backend.service.catalogo.InvalidadorCacheCatalogo;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@WebAppConfiguration
+@ActiveProfiles("test")
+class ListagemPrestadoresControllerIntegrationTest {
+
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private PrestadorRepository prestadorRepository;
+
+    @Autowired
+    private DisponibilidadeRepository disponibilidadeRepository;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private InvalidadorCacheCatalogo invalidadorCacheCatalogo;
+
+    @Autowired
+    private IdentidadeService identidadeService;
+
+    @Autowired
+    private CacheAssinaturas cacheAssinaturas;
+
+    @BeforeEach
+    void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(springSecurity())
+                .build();
+        agendamentoRepository.deleteAll();
+        disponibilidadeRepository.deleteAll();
+        prestadorRepository.findAll().forEach(p -> {
+            identidadeService.esquecer(p.getKeycloakId());
+            cacheAssinaturas.esquecer(p.getKeycloakId());
+        });
+        prestadorRepository.deleteAll();
+        salvar("prestador-1", "Casa Limpa", CategoriaAtuacao.LIMPEZA, "150.00", -23.50, -46.60, true);
+        salvar("prestador-2", "Limpeza Rápida", CategoriaAtuacao.LIMPEZA, "90.00", -23.60, -46.70, true);
+        salvar("prestador-3", "Limpa Tudo", CategoriaAtuacao.LIMPEZA, "120.00", -23.51, -46.61, true);
+        salvar("prestador-4", "Limpeza Inativa", CategoriaAtuacao.LIMPEZA, "10.00", -23.50, -46.60, false);
+    }
+
+    @Test
+    void listar_filtraEOrdenaPorValorNoBanco() throws Exception {
+        mockMvc.perform(get("/api/prestadores")
+                        .with(cliente())
+                        .param("categoria", "LIMPEZA")
+                        .param("orderBy", "valorServico")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].nomeFantasia").value("Limpeza Rápida"))
+                .andExpect(jsonPath("$.content[1].nomeFantasia").value("Limpa Tudo"));
+    }
+
+    @Test
+    void listar_ordenaPorDistancia() throws Exception {
+        mockMvc.perform(get("/api/prestadores")
+                        .with(cliente())
+                        .param("latitude", "-23.60")
+                        .param("longitude", "-46.70"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].nomeFantasia").value("Limpeza Rápida"))
+                .andExpect(jsonPath("$.content[2].nomeFantasia").value("Casa Limpa"));
+    }
+
+    @Test
+    void buscaNoBanco_restringeAosCandidatosDoParametroArray() {
+        List<Long> candidatos = prestadorRepository.findAll().stream()
+                .filter(p -> !p.getKeycloakId().equals("prestador-2"))
+                .map(Prestador::getId)
+                .toList();
+        FiltroCatalogo filtro = FiltroCatalogo.de(null, null, null, "valorServico", null, null).comCandidatos(candidatos);
+
+        List<String> nomes = prestadorRepository.buscarPagina(filtro, null, 0, 10).stream()
+                .map(linha -> linha.prestador().getNomeFantasia())
+                .toList();
+
+        assertThat(nomes).containsExactly("Limpa Tudo", "Casa Limpa");
+        assertThat(prestadorRepository.contar(filtro)).isEqualTo(2);
+    }
+
+    @Test
+    void buscaNoBanco_curingasDoTermoValemComoLiterais() {
+        salvar("prestador-5", "Limpa_100%", CategoriaAtuacao.LIMPEZA, "80.00", -23.50, -46.60, true);
+
+        assertThat(nomesNaBusca("_100%")).containsExactly("Limpa_100%");
+        assertThat(nomesNaBusca("a%o")).isEmpty();
+        assertThat(nomesNaBusca("limpa_")).containsExactly("Limpa_100%");
+    }
+
+    @Test
+    void listarPorCursor_percorreTodasAsPaginasSemRepetir() throws Exception {
+        String primeira = mockMvc.perform(get("/api/prestadores")
+                        .with(cliente())
+                        .param("cursor", "")
+                        .param("orderBy", "valorServico")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].nomeFantasia").value("Limpeza Rápida"))
+                .andReturn().getResponse().getContentAsString();
+        String proximoCursor = JsonPath.read(primeira, "$.proximoCursor");
+
+        mockMvc.perform(get("/api/prestadores")
+                        .with(cliente())
+                        .param("cursor", proximoCursor)
+                        .param("orderBy", "valorServico")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].nomeFantasia").value("Casa Limpa"))
+                .andExpect(jsonPath("$.proximoCursor").isEmpty());
+    }
+
+    @Test
+    void listarPorCursor_ordenacaoPorAvaliacaoPercorreOsSemEstatisticas() throws Exception {
+        String primeira = mockMvc.perform(get("/api/prestadores")
+                        .with(cliente())
+                        .param("cursor", "")
+                        .param("orderBy", "avaliacao")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andReturn().getResponse().getContentAsString();
+        String proximoCursor = JsonPath.read(primeira, "$.proximoCursor");
+
+        mockMvc.perform(get("/api/prestadores")
+                        .with(cliente())
+                        .param("cursor", proximoCursor)
+                        .param("orderBy", "avaliacao")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.proximoCursor").isEmpty());
+    }
+
+    @Test
+    void listarPorCursor_cursorDeOutraOrdenacaoRetornaBadRequest() throws Exception {
+        String primeira = mockMvc.perform(get("/api/prestadores")
+                        .with(cliente())
+                        .param("cursor", "")
+                        .param("orderBy", "valorServico")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String proximoCursor = JsonPath.read(primeira, "$.proximoCursor");
+
+        mockMvc.perform(get("/api/prestadores")
+                        .with(cliente())
+                        .param("cursor", proximoCursor)
+                        .param("orderBy", "avaliacao")
+                        .param("size", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listarPorCursor_cursorInvalidoRetornaBadRequest() throws Exception {
+        mockMvc.perform(get("/api/prestadores")
+                        .with(cliente())
+                        .param("cursor", "nao-e-um-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listar_etagInalteradoRetornaNotModifiedAteAlteracaoDePrestador() throws Exception {
+        String etag = mockMvc.perform(get("/api/prestadores").with(cliente()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/prestadores").with(cliente()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        Prestador prestador = prestadorRepository.findAll().get(0);
+        invalidadorCacheCatalogo.onPrestadorAlterado(new PrestadorAlteradoEvent(prestador.getId(), MotivoAlteracao.PERFIL));
+
+        mockMvc.perform(get("/api/prestadores").with(cliente()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private List<String> nomesNaBusca(String search) {
+        FiltroCatalogo filtro = FiltroCatalogo.de(search, null, null, "valorServico", null, null);
+        return prestadorRepository.buscarPagina(filtro, null, 0, 10).stream()
+                .map(linha -> linha.prestador().getNomeFantasia())
+                .toList();
+    }
+
+    private RequestPostProcessor cliente() {
+        return jwt().jwt(jwt -> jwt.subject("cliente-1").claim("email", "cliente@email.com"))
+                .authorities(new SimpleGrantedAuthority("ROLE_cliente"));
+    }
+
+    private void salvar(String keycloakId, String nome, CategoriaAtuacao categoria, String valor,
+                        double latitude, double longitude, boolean ativo) {
+        prestadorRepository.save(Prestador.builder()
+                .keycloakId(keycloakId)
+                .nomeFantasia(nome)
+                .categoria(categoria)
+                .telefone("11999999999")
+                .email(keycloakId + "@teste.com")
+                .ativo(ativo)
+                .valorServico(new BigDecimal(valor))
+                .endereco(new Endereco("Rua A", "Centro", "12345678", "10", null, "São Paulo", "SP", latitude, longitude))
+                .build());
+    }
+}
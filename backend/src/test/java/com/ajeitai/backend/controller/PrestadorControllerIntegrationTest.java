@@ -6,6 +6,8 @@ import com.ajeitai.backend.domain.prestador.Prestador;
 import com.ajeitai.backend.repository.AgendamentoRepository;
 import com.ajeitai.backend.repository.DisponibilidadeRepository;
 import com.ajeitai.backend.repository.PrestadorRepository;
+import com.ajeitai.backend.service.CacheAssinaturas;
+import com.ajeitai.backend.service.IdentidadeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,6 +47,12 @@ class PrestadorControllerIntegrationTest {
     @Autowired
     private AgendamentoRepository agendamentoRepository;
 
+    @Autowired
+    private IdentidadeService identidadeService;
+
+    @Autowired
+    private CacheAssinaturas cacheAssinaturas;
+
     @BeforeEach
     void setup() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
@@ -52,6 +60,10 @@ class PrestadorControllerIntegrationTest {
                 .build();
         agendamentoRepository.deleteAll();
         disponibilidadeRepository.deleteAll();
+        prestadorRepository.findAll().forEach(p -> {
+            identidadeService.esquecer(p.getKeycloakId());
+            cacheAssinaturas.esquecer(p.getKeycloakId());
+        });
         prestadorRepository.deleteAll();
     }
 
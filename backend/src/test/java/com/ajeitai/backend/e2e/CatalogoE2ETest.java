@@ -4,6 +4,8 @@ import com.ajeitai.backend.domain.endereco.Endereco;
 import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
 import com.ajeitai.backend.domain.prestador.Prestador;
 import com.ajeitai.backend.repository.PrestadorRepository;
+import com.ajeitai.backend.service.CacheAssinaturas;
+import com.ajeitai.backend.service.IdentidadeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,8 +46,18 @@ class CatalogoE2ETest {
     @Autowired
     private PrestadorRepository prestadorRepository;
 
+    @Autowired
+    private IdentidadeService identidadeService;
+
+    @Autowired
+    private CacheAssinaturas cacheAssinaturas;
+
     @BeforeEach
     void setup() {
+        prestadorRepository.findAll().forEach(p -> {
+            identidadeService.esquecer(p.getKeycloakId());
+            cacheAssinaturas.esquecer(p.getKeycloakId());
+        });
         prestadorRepository.deleteAll();
         Prestador prestador = Prestador.builder()
                 .keycloakId("prestador-1")
@@ -0,0 +1,79 @@
+package com.ajeitai.backend.infra.agendador;
+
+import com.ajeitai.backend.domain.agendador.TravaTarefa;
+import com.ajeitai.backend.repository.TravaTarefaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Duas instâncias de {@link TravasTarefas} (donos diferentes) simulam duas réplicas sobre o mesmo banco.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TravasTarefasIntegrationTest {
+
+    @Autowired
+    private TravaTarefaRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TravasTarefas replicaA;
+    private TravasTarefas replicaB;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        replicaA = new TravasTarefas(repository, transactionManager);
+        replicaB = new TravasTarefas(repository, transactionManager);
+    }
+
+    @Test
+    void somenteUmaReplicaDetemATravaAteLiberar() {
+        assertThat(replicaA.adquirir("tarefa", Duration.ofMinutes(10))).isTrue();
+        assertThat(replicaB.adquirir("tarefa", Duration.ofMinutes(10))).isFalse();
+        assertThat(replicaA.adquirir("tarefa", Duration.ofMinutes(10))).isFalse();
+
+        replicaA.liberar("tarefa", Duration.ZERO);
+
+        assertThat(replicaB.adquirir("tarefa", Duration.ofMinutes(10))).isTrue();
+    }
+
+    @Test
+    void liberarRetemATravaPeloTempoMinimo() {
+        assertThat(replicaA.adquirir("tarefa", Duration.ofMinutes(10))).isTrue();
+
+        replicaA.liberar("tarefa", Duration.ofHours(1));
+
+        assertThat(replicaB.adquirir("tarefa", Duration.ofMinutes(10))).isFalse();
+        TravaTarefa trava = repository.findById("tarefa").orElseThrow();
+        assertThat(trava.getAte()).isEqualTo(trava.getAdquiridaEm().plusHours(1));
+    }
+
+    @Test
+    void travaVencidaDeReplicaQueCaiuPodeSerAssumida() {
+        assertThat(replicaA.adquirir("tarefa", Duration.ZERO)).isTrue();
+
+        assertThat(replicaB.adquirir("tarefa", Duration.ofMinutes(10))).isTrue();
+        assertThat(repository.findById("tarefa").orElseThrow().getAte()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void liberarNaoAfetaTravaAssumidaPorOutraReplica() {
+        assertThat(replicaA.adquirir("tarefa", Duration.ZERO)).isTrue();
+        assertThat(replicaB.adquirir("tarefa", Duration.ofMinutes(10))).isTrue();
+
+        replicaA.liberar("tarefa", Duration.ZERO);
+
+        assertThat(replicaA.adquirir("tarefa", Duration.ofMinutes(10))).isFalse();
+    }
+}
@@ -0,0 +1,252 @@
+package com.ajeitai.backend.infra.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CacheDuasCamadasTest {
+
+    private com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private ConcurrentMapCache l2;
+    private BarramentoInvalidacao barramento;
+    private CacheDuasCamadas cache;
+
+    @BeforeEach
+    void setup() {
+        l1 = Caffeine.newBuilder()
+                .maximumWeight(100)
+                .weigher(new PesoEntradaCache())
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        l2 = new ConcurrentMapCache("teste");
+        barramento = mock(BarramentoInvalidacao.class);
+        cache = new CacheDuasCamadas("teste", l1, l2, barramento);
+    }
+
+    @Test
+    void get_promoveDoL2ParaL1() {
+        l2.put("1", "valor");
+
+        assertThat(cache.get(1L).get()).isEqualTo("valor");
+        assertThat(l1.getIfPresent("1")).isEqualTo("valor");
+    }
+
+    @Test
+    void getComLoader_carregaUmaVezEGravaNasDuasCamadas() {
+        AtomicInteger carregamentos = new AtomicInteger();
+
+        String primeiro = cache.get("chave", () -> "v" + carregamentos.incrementAndGet());
+        String segundo = cache.get("chave", () -> "v" + carregamentos.incrementAndGet());
+
+        assertThat(primeiro).isEqualTo("v1");
+        assertThat(segundo).isEqualTo("v1");
+        assertThat(l2.get("chave").get()).isEqualTo("v1");
+    }
+
+    @Test
+    void evict_removeDasDuasCamadasEAvisaOutrasReplicas() {
+        cache.put(1L, "valor");
+        cache.evict(1L);
+
+        assertThat(l1.getIfPresent("1")).isNull();
+        assertThat(l2.get("1")).isNull();
+        verify(barramento, times(2)).publicar(CacheDuasCamadas.TIPO_BARRAMENTO, "teste|1");
+    }
+
+    @Test
+    void evictLocal_descartaSomenteL1() {
+        cache.put("chave", "valor");
+        cache.evictLocal("chave");
+
+        assertThat(l1.getIfPresent("chave")).isNull();
+        assertThat(l2.get("chave").get()).isEqualTo("valor");
+    }
+
+    @Test
+    void l1_limitadoPorPeso() {
+        for (int i = 0; i < 20; i++) {
+            cache.put("lista-" + i, List.of(1, 2, 3, 4, 5, 6, 7, 8, 9));
+        }
+        l1.cleanUp();
+
+        assertThat(l1.policy().eviction().orElseThrow().weightedSize().orElseThrow()).isLessThanOrEqualTo(100);
+        assertThat(l1.stats().evictionCount()).isPositive();
+    }
+
+    @Test
+    void getComLoader_requisicoesConcorrentesCarregamUmaVez() throws Exception {
+        AtomicInteger carregamentos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<String>> resultados = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                resultados.add(CompletableFuture.supplyAsync(() -> {
+                    aguardar(largada);
+                    return cache.get("popular", () -> {
+                        carregamentos.incrementAndGet();
+                        Thread.sleep(50);
+                        return "detalhe";
+                    });
+                }, pool));
+            }
+            largada.countDown();
+            for (CompletableFuture<String> resultado : resultados) {
+                assertThat(resultado.get(5, TimeUnit.SECONDS)).isEqualTo("detalhe");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(carregamentos).hasValue(1);
+    }
+
+    @Test
+    void getComLoader_travaDeOutraReplicaAguardaValorNoL2() {
+        TravaCarregamento trava = mock(TravaCarregamento.class);
+        when(trava.adquirir(anyString(), any())).thenReturn(Optional.empty());
+        ConcurrentMapCache remoto = new ConcurrentMapCache("teste") {
+            private int leituras;
+
+            @Override
+            public ValueWrapper get(Object key) {
+                // Outra réplica grava o valor enquanto esta aguarda
+                if (++leituras == 3) {
+                    put(key, "de-outra-replica");
+                }
+                return super.get(key);
+            }
+        };
+        CacheDuasCamadas comTrava = new CacheDuasCamadas("teste", l1, remoto, barramento, trava,
+                Duration.ofSeconds(2), null, Runnable::run);
+
+        String valor = comTrava.get("chave", () -> "carregado-aqui");
+
+        assertThat(valor).isEqualTo("de-outra-replica");
+    }
+
+    @Test
+    void getComLoader_esperaPeloL2NaoBloqueiaRemocaoEOValorRemovidoNaoFicaNoCache() throws Exception {
+        TravaCarregamento trava = mock(TravaCarregamento.class);
+        when(trava.adquirir(anyString(), any())).thenReturn(Optional.empty());
+        CacheDuasCamadas comTrava = new CacheDuasCamadas("teste", l1, l2, barramento, trava,
+                Duration.ofSeconds(1), null, Runnable::run);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            // Outra réplica tem a trava e nunca grava no L2: esta espera até o fim da validade
+            CompletableFuture<String> carregado = CompletableFuture.supplyAsync(
+                    () -> comTrava.get("lenta", () -> "carregado-aqui"), pool);
+            Thread.sleep(100);
+
+            long inicio = System.nanoTime();
+            comTrava.evict("lenta");
+            long duracaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+            assertThat(duracaoMs).isLessThan(500);
+            assertThat(carregado.get(5, TimeUnit.SECONDS)).isEqualTo("carregado-aqui");
+            assertThat(l1.getIfPresent("lenta")).isNull();
+            assertThat(l2.get("lenta")).isNull();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void getComLoader_cacheiaAusenciaComoNull() {
+        AtomicInteger carregamentos = new AtomicInteger();
+
+        assertThat(cache.get(99L, () -> { carregamentos.incrementAndGet(); return null; })).isNull();
+        assertThat(cache.get(99L, () -> { carregamentos.incrementAndGet(); return null; })).isNull();
+
+        assertThat(carregamentos).hasValue(1);
+        assertThat(cache.get(99L)).isNotNull();
+    }
+
+    @Test
+    void refreshAntecipado_recarregaEntradaLidaAposIdadeLimite() {
+        AtomicLong agora = new AtomicLong();
+        com.github.benmanes.caffeine.cache.Cache<String, Object> l1ComRelogio = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(30))
+                .ticker(agora::get)
+                .executor(Runnable::run)
+                .build();
+        CacheDuasCamadas comRefresh = new CacheDuasCamadas("teste", l1ComRelogio, l2, barramento,
+                new LocalTravaCarregamento(), Duration.ofSeconds(1), Duration.ofMinutes(25), Runnable::run);
+        AtomicInteger versao = new AtomicInteger();
+        comRefresh.registrarRecarregador(chave -> "v" + versao.incrementAndGet());
+
+        assertThat(comRefresh.get("1", () -> "v0")).isEqualTo("v0");
+        agora.addAndGet(Duration.ofMinutes(10).toNanos());
+        assertThat(comRefresh.get("1", () -> "nao-usado")).isEqualTo("v0");
+        assertThat(versao).hasValue(0);
+
+        agora.addAndGet(Duration.ofMinutes(16).toNanos());
+        assertThat(comRefresh.get("1", () -> "nao-usado")).isEqualTo("v0");
+        assertThat(versao).hasValue(1);
+        assertThat(l1ComRelogio.getIfPresent("1")).isEqualTo("v1");
+        assertThat(l2.get("1").get()).isEqualTo("v1");
+    }
+
+    @Test
+    void refreshAntecipado_remocaoDuranteOPutNoL2DesfazAGravacao() {
+        AtomicLong agora = new AtomicLong();
+        com.github.benmanes.caffeine.cache.Cache<String, Object> l1ComRelogio = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(30))
+                .ticker(agora::get)
+                .executor(Runnable::run)
+                .build();
+        AtomicReference<CacheDuasCamadas> referencia = new AtomicReference<>();
+        AtomicBoolean removerNoProximoPut = new AtomicBoolean();
+        ConcurrentMapCache remoto = new ConcurrentMapCache("teste") {
+            @Override
+            public void put(Object key, Object value) {
+                // A remoção chega depois da conferência da geração e antes do put
+                if (removerNoProximoPut.getAndSet(false)) {
+                    referencia.get().evict(key);
+                }
+                super.put(key, value);
+            }
+        };
+        CacheDuasCamadas comRefresh = new CacheDuasCamadas("teste", l1ComRelogio, remoto, barramento,
+                new LocalTravaCarregamento(), Duration.ofSeconds(1), Duration.ofMinutes(25), Runnable::run);
+        referencia.set(comRefresh);
+        comRefresh.registrarRecarregador(chave -> "v1");
+
+        assertThat(comRefresh.get("1", () -> "v0")).isEqualTo("v0");
+        agora.addAndGet(Duration.ofMinutes(26).toNanos());
+        removerNoProximoPut.set(true);
+        comRefresh.get("1", () -> "nao-usado");
+
+        assertThat(l1ComRelogio.getIfPresent("1")).isNull();
+        assertThat(remoto.get("1")).isNull();
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
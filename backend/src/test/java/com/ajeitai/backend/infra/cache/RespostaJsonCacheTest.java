@@ -0,0 +1,64 @@
+package com.ajeitai.backend.infra.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RespostaJsonCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RespostaJsonCache respostaJsonCache = new RespostaJsonCache(new ObjectMapper(), meterRegistry, true, 256);
+
+    @Test
+    void codificar_pequenoFicaEmJsonPuro() {
+        byte[] entrada = respostaJsonCache.codificar("teste", Map.of("id", 1));
+
+        assertThat(RespostaJsonCache.comprimida(entrada)).isFalse();
+        assertThat(new String(entrada, StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void codificar_grandeEComprimidoERegistraTamanho() {
+        List<String> itens = Collections.nCopies(200, "Casa Limpa - São Paulo");
+
+        byte[] entrada = respostaJsonCache.codificar("teste", itens);
+
+        assertThat(RespostaJsonCache.comprimida(entrada)).isTrue();
+        byte[] json = RespostaJsonCache.descomprimir(entrada);
+        assertThat(entrada.length).isLessThan(json.length);
+        DistributionSummary tamanho = meterRegistry.get("cache.entrada.bytes")
+                .tag("cache", "teste").tag("formato", "deflate").summary();
+        assertThat(tamanho.count()).isEqualTo(1);
+        assertThat(tamanho.totalAmount()).isEqualTo(entrada.length);
+    }
+
+    @Test
+    void responder_enviaComprimidoSomenteAQuemAceitaDeflate() {
+        byte[] entrada = respostaJsonCache.codificar("teste", Collections.nCopies(200, "item"));
+
+        ResponseEntity<byte[]> comDeflate = respostaJsonCache.responder(entrada, "gzip, deflate");
+        ResponseEntity<byte[]> semDeflate = respostaJsonCache.responder(entrada, "gzip");
+        ResponseEntity<byte[]> recusado = respostaJsonCache.responder(entrada, "deflate;q=0");
+
+        assertThat(comDeflate.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("deflate");
+        assertThat(comDeflate.getBody()).isSameAs(entrada);
+        assertThat(semDeflate.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(new String(semDeflate.getBody(), StandardCharsets.UTF_8)).startsWith("[\"item\"");
+        assertThat(recusado.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    void codificar_nullPermaneceNull() {
+        assertThat(respostaJsonCache.codificar("teste", null)).isNull();
+    }
+}
@@ -0,0 +1,177 @@
+package com.ajeitai.backend.infra.messaging;
+
+import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.AgendamentoCriadoEvent;
+import com.ajeitai.backend.domain.agendamento.DadosAgendamento;
+import com.ajeitai.backend.domain.agendamento.Disponibilidade;
+import com.ajeitai.backend.domain.agendamento.FormaPagamento;
+import com.ajeitai.backend.domain.cliente.Cliente;
+import com.ajeitai.backend.domain.endereco.Endereco;
+import com.ajeitai.backend.domain.outbox.MensagemOutbox;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.infra.config.RabbitMQConfig;
+import com.ajeitai.backend.repository.AgendamentoRepository;
+import com.ajeitai.backend.repository.AgendamentoSlotRepository;
+import com.ajeitai.backend.repository.ClienteRepository;
+import com.ajeitai.backend.repository.DisponibilidadeRepository;
+import com.ajeitai.backend.repository.OutboxRepository;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import com.ajeitai.backend.service.AgendamentoService;
+import com.ajeitai.backend.service.CacheAssinaturas;
+import com.ajeitai.backend.service.IdentidadeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.ConnectException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxIntegrationTest {
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PrestadorRepository prestadorRepository;
+
+    @Autowired
+    private DisponibilidadeRepository disponibilidadeRepository;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private AgendamentoSlotRepository slotRepository;
+
+    @Autowired
+    private IdentidadeService identidadeService;
+
+    @Autowired
+    private CacheAssinaturas cacheAssinaturas;
+
+    @BeforeEach
+    void setup() {
+        limpar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpar();
+    }
+
+    @Test
+    void criarAgendamento_gravaEventoNoOutboxNaMesmaTransacao() {
+        clienteRepository.save(Cliente.builder()
+                .keycloakId("cliente-outbox")
+                .nome("Cliente")
+                .email("cliente-outbox@teste.com")
+                .telefone("11999999999")
+                .ativo(true)
+                .endereco(new Endereco("Rua A", "Centro", "12345678", "10", null, "São Paulo", "SP", -23.5, -46.6))
+                .build());
+        Prestador prestador = prestadorRepository.save(Prestador.builder()
+                .keycloakId("prestador-outbox")
+                .nomeFantasia("Casa Limpa")
+                .telefone("11999999999")
+                .email("prestador-outbox@teste.com")
+                .ativo(true)
+                .endereco(new Endereco("Rua B", "Centro", "12345678", "20", null, "São Paulo", "SP", -23.5, -46.6))
+                .build());
+        LocalDateTime dataHora = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        disponibilidadeRepository.save(Disponibilidade.builder()
+                .prestador(prestador)
+                .diaSemana(dataHora.getDayOfWeek().getValue())
+                .horaInicio(LocalTime.of(8, 0))
+                .horaFim(LocalTime.of(18, 0))
+                .build());
+
+        Agendamento agendamento = agendamentoService.criar("cliente-outbox",
+                new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.DINHEIRO, null, null));
+
+        List<MensagemOutbox> mensagens = outboxRepository.findAll();
+        assertThat(mensagens).hasSize(1);
+        MensagemOutbox mensagem = mensagens.get(0);
+        assertThat(mensagem.getExchange()).isEqualTo(RabbitMQConfig.AGENDAMENTOS_EXCHANGE);
+        assertThat(mensagem.getRoutingKey()).isEqualTo(RabbitMQConfig.AGENDAMENTOS_CRIADOS_RK);
+        assertThat(mensagem.getTipo()).isEqualTo(AgendamentoCriadoEvent.class.getName());
+        assertThat(mensagem.getPayload()).contains("\"agendamentoId\":" + agendamento.getId());
+    }
+
+    @Test
+    void relay_publicaEmLotesComConfirmacaoEApagaAsEntregues() {
+        for (long i = 1; i <= 3; i++) {
+            outbox.registrar(RabbitMQConfig.AGENDAMENTOS_EXCHANGE, RabbitMQConfig.AGENDAMENTOS_CRIADOS_RK,
+                    new AgendamentoCriadoEvent(i, 1L, 1L, LocalDateTime.now()));
+        }
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        RabbitOperations operacoes = mock(RabbitOperations.class);
+        doAnswer(invocacao -> invocacao.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operacoes))
+                .when(rabbitTemplate).invoke(any());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RelayOutbox relay = new RelayOutbox(outboxRepository, rabbitTemplate, meterRegistry, 2, 1000, 60_000);
+
+        int enviadas = relay.repassar();
+
+        assertThat(enviadas).isEqualTo(3);
+        verify(operacoes, times(3)).send(eq(RabbitMQConfig.AGENDAMENTOS_EXCHANGE),
+                eq(RabbitMQConfig.AGENDAMENTOS_CRIADOS_RK), any(Message.class));
+        verify(operacoes, times(2)).waitForConfirmsOrDie(1000);
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(meterRegistry.get("outbox.mensagens.enviadas").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void relay_brokerIndisponivel_mantemMensagensEEsperaAntesDeTentarDeNovo() {
+        outbox.registrar(RabbitMQConfig.AGENDAMENTOS_EXCHANGE, RabbitMQConfig.AGENDAMENTOS_CRIADOS_RK,
+                new AgendamentoCriadoEvent(1L, 1L, 1L, LocalDateTime.now()));
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        when(rabbitTemplate.invoke(any())).thenThrow(new AmqpConnectException(new ConnectException("Connection refused")));
+        RelayOutbox relay = new RelayOutbox(outboxRepository, rabbitTemplate, new SimpleMeterRegistry(), 2, 1000, 60_000);
+
+        assertThat(relay.repassar()).isZero();
+        assertThat(relay.repassar()).isZero();
+
+        verify(rabbitTemplate, times(1)).invoke(any());
+        assertThat(outboxRepository.count()).isEqualTo(1);
+    }
+
+    private void limpar() {
+        outboxRepository.deleteAll();
+        slotRepository.deleteAll();
+        agendamentoRepository.deleteAll();
+        disponibilidadeRepository.deleteAll();
+        clienteRepository.findAll().forEach(c -> identidadeService.esquecer(c.getKeycloakId()));
+        prestadorRepository.findAll().forEach(p -> {
+            identidadeService.esquecer(p.getKeycloakId());
+            cacheAssinaturas.esquecer(p.getKeycloakId());
+        });
+        prestadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+}
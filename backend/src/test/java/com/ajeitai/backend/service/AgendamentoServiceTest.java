@@ -11,13 +11,14 @@ import com.ajeitai.backend.domain.endereco.Endereco;
 import com.ajeitai.backend.domain.prestador.Prestador;
 import com.ajeitai.backend.repository.AgendamentoRepository;
 import com.ajeitai.backend.repository.DisponibilidadeRepository;
-import com.ajeitai.backend.repository.PagamentoRepository;
 import com.ajeitai.backend.repository.PrestadorRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
@@ -35,13 +36,16 @@ class AgendamentoServiceTest {
     private PrestadorRepository prestadorRepository;
     private AgendamentoRepository agendamentoRepository;
     private DisponibilidadeRepository disponibilidadeRepository;
-    private PagamentoRepository pagamentoRepository;
     private PagamentoService pagamentoService;
     private WalletService walletService;
     private NotificacaoPushService notificacaoPushService;
     private MensageriaService mensageriaService;
     private ArmazenamentoMidiaService armazenamentoMidiaService;
     private ApplicationEventPublisher eventPublisher;
+    private EstatisticasPrestadorService estatisticasPrestadorService;
+    private ReservaHorarioService reservaHorarioService;
+    private IdentidadeService identidadeService;
+    private MetricasPlataformaService metricasPlataformaService;
     private AgendamentoService agendamentoService;
 
     @BeforeEach
@@ -50,25 +54,31 @@ class AgendamentoServiceTest {
         prestadorRepository = mock(PrestadorRepository.class);
         agendamentoRepository = mock(AgendamentoRepository.class);
         disponibilidadeRepository = mock(DisponibilidadeRepository.class);
-        pagamentoRepository = mock(PagamentoRepository.class);
         pagamentoService = mock(PagamentoService.class);
         walletService = mock(WalletService.class);
         notificacaoPushService = mock(NotificacaoPushService.class);
         mensageriaService = mock(MensageriaService.class);
         armazenamentoMidiaService = mock(ArmazenamentoMidiaService.class);
         eventPublisher = mock(ApplicationEventPublisher.class);
+        estatisticasPrestadorService = mock(EstatisticasPrestadorService.class);
+        reservaHorarioService = mock(ReservaHorarioService.class);
+        identidadeService = mock(IdentidadeService.class);
+        metricasPlataformaService = mock(MetricasPlataformaService.class);
         agendamentoService = new AgendamentoService(
                 clienteService,
                 prestadorRepository,
                 agendamentoRepository,
                 disponibilidadeRepository,
-                pagamentoRepository,
                 pagamentoService,
                 walletService,
                 notificacaoPushService,
                 mensageriaService,
+                eventPublisher,
                 armazenamentoMidiaService,
-                eventPublisher
+                estatisticasPrestadorService,
+                reservaHorarioService,
+                identidadeService,
+                metricasPlataformaService
         );
     }
 
@@ -88,10 +98,10 @@ class AgendamentoServiceTest {
                 .endereco(new Endereco("Rua B", "Bairro", "12345678", "20", null, "Cidade", "UF", -10.1, -10.1))
                 .build();
         LocalDateTime dataHora = LocalDateTime.now().plusHours(2);
-        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, "Observacao");
+        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, "Observacao", null);
 
         when(clienteService.buscarPorKeycloakId("cliente-1")).thenReturn(cliente);
-        when(prestadorRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(prestador));
+        when(prestadorRepository.findById(2L)).thenReturn(Optional.of(prestador));
         when(disponibilidadeRepository.findByPrestadorIdAndDiaSemanaOrderByHoraInicioAsc(eq(2L), any()))
                 .thenReturn(List.of(Disponibilidade.builder()
                         .prestador(prestador)
@@ -99,14 +109,14 @@ class AgendamentoServiceTest {
                         .horaInicio(LocalTime.of(8, 0))
                         .horaFim(LocalTime.of(18, 0))
                         .build()));
-        when(agendamentoRepository.existsByPrestadorIdAndDataHoraBetweenAndStatusIn(any(), any(), any(), any()))
-                .thenReturn(false);
         when(agendamentoRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         Agendamento agendamento = agendamentoService.criar("cliente-1", dados);
 
         assertThat(agendamento.getStatus()).isEqualTo(StatusAgendamento.PENDENTE);
         assertThat(agendamento.getFormaPagamento()).isEqualTo(FormaPagamento.ONLINE);
+        assertThat(agendamento.getDataHoraFim()).isEqualTo(dataHora.plus(Agendamento.DURACAO_PADRAO));
+        verify(reservaHorarioService).reservar(agendamento);
         verify(eventPublisher).publishEvent(any());
     }
 
@@ -126,10 +136,10 @@ class AgendamentoServiceTest {
                 .endereco(new Endereco("Rua B", "Bairro", "12345678", "20", null, "CidadeB", "UF", -10.1, -10.1))
                 .build();
         LocalDateTime dataHora = LocalDateTime.now().plusHours(2);
-        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, "Obs");
+        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, "Obs", null);
 
         when(clienteService.buscarPorKeycloakId("cliente-1")).thenReturn(cliente);
-        when(prestadorRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(prestador));
+        when(prestadorRepository.findById(2L)).thenReturn(Optional.of(prestador));
 
         assertThatThrownBy(() -> agendamentoService.criar("cliente-1", dados))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -152,10 +162,10 @@ class AgendamentoServiceTest {
                 .endereco(new Endereco("Rua B", "Bairro", "12345678", "20", null, "Cidade", "UF", -10.1, -10.1))
                 .build();
         LocalDateTime dataHora = LocalDateTime.now().plusHours(2);
-        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, "Obs");
+        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, "Obs", null);
 
         when(clienteService.buscarPorKeycloakId("cliente-1")).thenReturn(cliente);
-        when(prestadorRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(prestador));
+        when(prestadorRepository.findById(2L)).thenReturn(Optional.of(prestador));
         when(disponibilidadeRepository.findByPrestadorIdAndDiaSemanaOrderByHoraInicioAsc(eq(2L), any()))
                 .thenReturn(List.of(Disponibilidade.builder()
                         .prestador(prestador)
@@ -185,10 +195,10 @@ class AgendamentoServiceTest {
                 .endereco(new Endereco("Rua B", "Bairro", "12345678", "20", null, "Cidade", "UF", -10.1, -10.1))
                 .build();
         LocalDateTime dataHora = LocalDateTime.now().plusHours(2);
-        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, "Obs");
+        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, "Obs", null);
 
         when(clienteService.buscarPorKeycloakId("cliente-1")).thenReturn(cliente);
-        when(prestadorRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(prestador));
+        when(prestadorRepository.findById(2L)).thenReturn(Optional.of(prestador));
         when(disponibilidadeRepository.findByPrestadorIdAndDiaSemanaOrderByHoraInicioAsc(eq(2L), any()))
                 .thenReturn(List.of(Disponibilidade.builder()
                         .prestador(prestador)
@@ -196,16 +206,96 @@ class AgendamentoServiceTest {
                         .horaInicio(LocalTime.of(8, 0))
                         .horaFim(LocalTime.of(18, 0))
                         .build()));
-        when(agendamentoRepository.existsByPrestadorIdAndDataHoraBetweenAndStatusIn(any(), any(), any(), any()))
+        when(agendamentoRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new IllegalArgumentException("Já existe um agendamento para este horário com o prestador."))
+                .when(reservaHorarioService).reservar(any());
+
+        assertThatThrownBy(() -> agendamentoService.criar("cliente-1", dados))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Já existe um agendamento");
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void criarAgendamento_soTraduzAViolacaoDeSobreposicaoEmConflito() {
+        Cliente cliente = Cliente.builder()
+                .id(1L)
+                .keycloakId("cliente-1")
+                .nome("Cliente")
+                .email("cliente@teste.com")
+                .endereco(new Endereco("Rua A", "Bairro", "12345678", "10", null, "Cidade", "UF", -10.0, -10.0))
+                .build();
+        Prestador prestador = Prestador.builder()
+                .id(2L)
+                .keycloakId("prestador-1")
+                .nomeFantasia("Prestador")
+                .endereco(new Endereco("Rua B", "Bairro", "12345678", "20", null, "Cidade", "UF", -10.1, -10.1))
+                .build();
+        LocalDateTime dataHora = LocalDateTime.now().plusHours(2);
+        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, "Obs", null);
+
+        when(clienteService.buscarPorKeycloakId("cliente-1")).thenReturn(cliente);
+        when(prestadorRepository.findById(2L)).thenReturn(Optional.of(prestador));
+        when(disponibilidadeRepository.findByPrestadorIdAndDiaSemanaOrderByHoraInicioAsc(eq(2L), any()))
+                .thenReturn(List.of(Disponibilidade.builder()
+                        .prestador(prestador)
+                        .diaSemana(dataHora.getDayOfWeek().getValue())
+                        .horaInicio(LocalTime.of(8, 0))
+                        .horaFim(LocalTime.of(18, 0))
+                        .build()));
+        DataIntegrityViolationException sobreposicao = new DataIntegrityViolationException("insert",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01"));
+        DataIntegrityViolationException outraViolacao = new DataIntegrityViolationException("insert",
+                new SQLException("null value in column \"cliente_id\" violates not-null constraint", "23502"));
+        when(agendamentoRepository.save(any())).thenThrow(sobreposicao).thenThrow(outraViolacao);
+
+        assertThatThrownBy(() -> agendamentoService.criar("cliente-1", dados))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(AgendamentoService.CONFLITO_HORARIO);
+        assertThatThrownBy(() -> agendamentoService.criar("cliente-1", dados))
+                .isSameAs(outraViolacao);
+        verify(reservaHorarioService, never()).reservar(any());
+    }
+
+    @Test
+    void criarAgendamentoSobrepostoAOutro_lancaErroSemReservar() {
+        Cliente cliente = Cliente.builder()
+                .id(1L)
+                .keycloakId("cliente-1")
+                .nome("Cliente")
+                .email("cliente@teste.com")
+                .endereco(new Endereco("Rua A", "Bairro", "12345678", "10", null, "Cidade", "UF", -10.0, -10.0))
+                .build();
+        Prestador prestador = Prestador.builder()
+                .id(2L)
+                .keycloakId("prestador-1")
+                .nomeFantasia("Prestador")
+                .endereco(new Endereco("Rua B", "Bairro", "12345678", "20", null, "Cidade", "UF", -10.1, -10.1))
+                .build();
+        LocalDateTime dataHora = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, "Obs", 120);
+
+        when(clienteService.buscarPorKeycloakId("cliente-1")).thenReturn(cliente);
+        when(prestadorRepository.findById(2L)).thenReturn(Optional.of(prestador));
+        when(disponibilidadeRepository.findByPrestadorIdAndDiaSemanaOrderByHoraInicioAsc(eq(2L), any()))
+                .thenReturn(List.of(Disponibilidade.builder()
+                        .prestador(prestador)
+                        .diaSemana(dataHora.getDayOfWeek().getValue())
+                        .horaInicio(LocalTime.of(8, 0))
+                        .horaFim(LocalTime.of(18, 0))
+                        .build()));
+        when(agendamentoRepository.existeSobreposicao(2L, StatusAgendamento.OCUPAM_HORARIO, dataHora, dataHora.plusHours(2)))
                 .thenReturn(true);
 
         assertThatThrownBy(() -> agendamentoService.criar("cliente-1", dados))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Já existe um agendamento");
+        verify(agendamentoRepository, never()).save(any());
+        verifyNoInteractions(reservaHorarioService);
     }
 
     @Test
-    void criarAgendamentoSemAntecedencia_lancaErro() {
+    void criarAgendamentoQueTerminaDepoisDaDisponibilidade_lancaErro() {
         Cliente cliente = Cliente.builder()
                 .id(1L)
                 .keycloakId("cliente-1")
@@ -219,15 +309,46 @@ class AgendamentoServiceTest {
                 .nomeFantasia("Prestador")
                 .endereco(new Endereco("Rua B", "Bairro", "12345678", "20", null, "Cidade", "UF", -10.1, -10.1))
                 .build();
-        LocalDateTime dataHora = LocalDateTime.now().plusMinutes(10);
-        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, null);
+        LocalDateTime dataHora = LocalDateTime.now().plusDays(1).withHour(17).withMinute(0).withSecond(0).withNano(0);
+        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, "Obs", 90);
 
         when(clienteService.buscarPorKeycloakId("cliente-1")).thenReturn(cliente);
-        when(prestadorRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(prestador));
+        when(prestadorRepository.findById(2L)).thenReturn(Optional.of(prestador));
+        when(disponibilidadeRepository.findByPrestadorIdAndDiaSemanaOrderByHoraInicioAsc(eq(2L), any()))
+                .thenReturn(List.of(Disponibilidade.builder()
+                        .prestador(prestador)
+                        .diaSemana(dataHora.getDayOfWeek().getValue())
+                        .horaInicio(LocalTime.of(8, 0))
+                        .horaFim(LocalTime.of(18, 0))
+                        .build()));
+
+        assertThatThrownBy(() -> agendamentoService.criar("cliente-1", dados))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("disponibilidade");
+    }
+
+    @Test
+    void criarAgendamentoSemAntecedencia_lancaErro() {
+        Cliente cliente = Cliente.builder()
+                .id(1L)
+                .keycloakId("cliente-1")
+                .nome("Cliente")
+                .email("cliente@teste.com")
+                .endereco(new Endereco("Rua A", "Bairro", "12345678", "10", null, "Cidade", "UF", -10.0, -10.0))
+                .build();
+        Prestador prestador = Prestador.builder()
+                .id(2L)
+                .keycloakId("prestador-1")
+                .nomeFantasia("Prestador")
+                .endereco(new Endereco("Rua B", "Bairro", "12345678", "20", null, "Cidade", "UF", -10.1, -10.1))
+                .build();
+        LocalDateTime dataHora = LocalDateTime.now().plusMinutes(10);
+        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, null, null);
 
         assertThatThrownBy(() -> agendamentoService.criar("cliente-1", dados))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("30 minutos");
+        verifyNoInteractions(clienteService, prestadorRepository, reservaHorarioService);
     }
 
     @Test
@@ -240,25 +361,30 @@ class AgendamentoServiceTest {
                 .formaPagamento(FormaPagamento.DINHEIRO)
                 .build();
 
-        when(agendamentoRepository.findById(10L)).thenReturn(Optional.of(agendamento));
-        when(prestadorRepository.findByKeycloakId("prestador-1")).thenReturn(Optional.of(prestador));
+        when(agendamentoRepository.transicionarPeloPrestador(10L, "prestador-1",
+                List.of(StatusAgendamento.PENDENTE), StatusAgendamento.ACEITO)).thenAnswer(invocation -> {
+            agendamento.aceitar();
+            return 1;
+        });
+        when(agendamentoRepository.buscarComParticipantes(10L)).thenReturn(Optional.of(agendamento));
         when(pagamentoService.criarPagamento(agendamento)).thenReturn(
                 com.ajeitai.backend.domain.pagamento.Pagamento.builder()
                         .agendamento(agendamento)
                         .status(com.ajeitai.backend.domain.pagamento.StatusPagamento.NAO_APLICAVEL)
                         .build()
         );
-        when(agendamentoRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         Agendamento resultado = agendamentoService.aceitar(10L, "prestador-1");
 
         assertThat(resultado.getStatus()).isEqualTo(StatusAgendamento.CONFIRMADO);
+        assertThat(resultado.getConfirmadoEm()).isNotNull();
+        verify(agendamentoRepository, never()).save(any());
+        verifyNoInteractions(prestadorRepository);
     }
 
     @Test
     void aceitarAgendamentoDeOutroPrestador_lancaErro() {
         Prestador prestador = Prestador.builder().id(2L).keycloakId("prestador-1").build();
-        Prestador outro = Prestador.builder().id(3L).keycloakId("prestador-2").build();
         Agendamento agendamento = Agendamento.builder()
                 .id(10L)
                 .prestador(prestador)
@@ -266,12 +392,31 @@ class AgendamentoServiceTest {
                 .formaPagamento(FormaPagamento.ONLINE)
                 .build();
 
-        when(agendamentoRepository.findById(10L)).thenReturn(Optional.of(agendamento));
-        when(prestadorRepository.findByKeycloakId("prestador-2")).thenReturn(Optional.of(outro));
+        when(agendamentoRepository.buscarComParticipantes(10L)).thenReturn(Optional.of(agendamento));
 
         assertThatThrownBy(() -> agendamentoService.aceitar(10L, "prestador-2"))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Somente o prestador");
+        verifyNoInteractions(pagamentoService, eventPublisher);
+    }
+
+    @Test
+    void aceitarAgendamentoJaAlteradoPorOutraOperacao_lancaErroDeStatus() {
+        // Outra requisição recusou entre a tela do prestador e o UPDATE: nenhuma linha muda
+        Prestador prestador = Prestador.builder().id(2L).keycloakId("prestador-1").build();
+        Agendamento agendamento = Agendamento.builder()
+                .id(10L)
+                .prestador(prestador)
+                .status(StatusAgendamento.RECUSADO)
+                .build();
+
+        when(agendamentoRepository.transicionarPeloPrestador(any(), any(), any(), any())).thenReturn(0);
+        when(agendamentoRepository.buscarComParticipantes(10L)).thenReturn(Optional.of(agendamento));
+
+        assertThatThrownBy(() -> agendamentoService.aceitar(10L, "prestador-1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Somente agendamentos pendentes podem ser aceitos");
+        verifyNoInteractions(pagamentoService, eventPublisher);
     }
 
     @Test
@@ -283,48 +428,126 @@ class AgendamentoServiceTest {
                 .status(StatusAgendamento.ACEITO)
                 .build();
 
-        when(agendamentoRepository.findById(10L)).thenReturn(Optional.of(agendamento));
-        when(prestadorRepository.findByKeycloakId("prestador-1")).thenReturn(Optional.of(prestador));
+        when(agendamentoRepository.buscarComParticipantes(10L)).thenReturn(Optional.of(agendamento));
 
         assertThatThrownBy(() -> agendamentoService.recusar(10L, "prestador-1"))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Somente agendamentos pendentes");
     }
 
+    @Test
+    void recusarAgendamentoPendente_liberaHorarioEPublicaEvento() {
+        Prestador prestador = Prestador.builder().id(2L).keycloakId("prestador-1").build();
+        Agendamento agendamento = Agendamento.builder()
+                .id(10L)
+                .prestador(prestador)
+                .status(StatusAgendamento.PENDENTE)
+                .build();
+
+        when(agendamentoRepository.transicionarPeloPrestador(10L, "prestador-1",
+                List.of(StatusAgendamento.PENDENTE), StatusAgendamento.RECUSADO)).thenAnswer(invocation -> {
+            agendamento.recusar();
+            return 1;
+        });
+        when(agendamentoRepository.buscarComParticipantes(10L)).thenReturn(Optional.of(agendamento));
+
+        Agendamento resultado = agendamentoService.recusar(10L, "prestador-1");
+
+        assertThat(resultado.getStatus()).isEqualTo(StatusAgendamento.RECUSADO);
+        verify(reservaHorarioService).liberar(10L);
+        verify(eventPublisher).publishEvent(any());
+        verify(agendamentoRepository, never()).findById(any());
+    }
+
     @Test
     void cancelarAgendamentoDeOutroCliente_lancaErro() {
         Cliente cliente = Cliente.builder().id(1L).keycloakId("cliente-1").build();
-        Cliente outro = Cliente.builder().id(2L).keycloakId("cliente-2").build();
         Agendamento agendamento = Agendamento.builder()
                 .id(10L)
                 .cliente(cliente)
                 .status(StatusAgendamento.PENDENTE)
+                .versao(0L)
                 .build();
 
-        when(agendamentoRepository.findById(10L)).thenReturn(Optional.of(agendamento));
-        when(clienteService.buscarPorKeycloakId("cliente-2")).thenReturn(outro);
+        when(agendamentoRepository.buscarComParticipantes(10L)).thenReturn(Optional.of(agendamento));
 
         assertThatThrownBy(() -> agendamentoService.cancelar(10L, "cliente-2"))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Somente o cliente");
+        verify(agendamentoRepository, never()).transicionarPeloCliente(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void cancelarAgendamentoConfirmado_condicionaNaVersaoLidaERegistraTransicao() {
+        Cliente cliente = Cliente.builder().id(1L).keycloakId("cliente-1").build();
+        Agendamento agendamento = Agendamento.builder()
+                .id(10L)
+                .cliente(cliente)
+                .status(StatusAgendamento.CONFIRMADO)
+                .versao(3L)
+                .build();
+
+        when(agendamentoRepository.buscarComParticipantes(10L)).thenReturn(Optional.of(agendamento));
+        when(agendamentoRepository.transicionarPeloCliente(10L, "cliente-1", 3L,
+                StatusAgendamento.OCUPAM_HORARIO, StatusAgendamento.CANCELADO)).thenReturn(1);
+
+        Agendamento resultado = agendamentoService.cancelar(10L, "cliente-1");
+
+        assertThat(resultado.getStatus()).isEqualTo(StatusAgendamento.CANCELADO);
+        assertThat(resultado.getVersao()).isEqualTo(4L);
+        verify(metricasPlataformaService).registrarTransicaoAgendamento(
+                StatusAgendamento.CONFIRMADO, StatusAgendamento.CANCELADO, 1);
+        verify(reservaHorarioService).liberar(10L);
+        verify(agendamentoRepository, never()).findById(any());
+    }
+
+    @Test
+    void cancelarAgendamentoAceitoEntreLeituraEUpdate_tentaDeNovoComOStatusNovo() {
+        Cliente cliente = Cliente.builder().id(1L).keycloakId("cliente-1").build();
+        Agendamento pendente = Agendamento.builder()
+                .id(10L)
+                .cliente(cliente)
+                .status(StatusAgendamento.PENDENTE)
+                .versao(0L)
+                .build();
+        Agendamento aceito = Agendamento.builder()
+                .id(10L)
+                .cliente(cliente)
+                .status(StatusAgendamento.ACEITO)
+                .versao(1L)
+                .build();
+
+        when(agendamentoRepository.buscarComParticipantes(10L))
+                .thenReturn(Optional.of(pendente), Optional.of(aceito));
+        when(agendamentoRepository.transicionarPeloCliente(10L, "cliente-1", 0L,
+                StatusAgendamento.OCUPAM_HORARIO, StatusAgendamento.CANCELADO)).thenReturn(0);
+        when(agendamentoRepository.transicionarPeloCliente(10L, "cliente-1", 1L,
+                StatusAgendamento.OCUPAM_HORARIO, StatusAgendamento.CANCELADO)).thenReturn(1);
+
+        Agendamento resultado = agendamentoService.cancelar(10L, "cliente-1");
+
+        assertThat(resultado.getStatus()).isEqualTo(StatusAgendamento.CANCELADO);
+        verify(metricasPlataformaService).registrarTransicaoAgendamento(
+                StatusAgendamento.ACEITO, StatusAgendamento.CANCELADO, 1);
+        verify(metricasPlataformaService, never()).registrarTransicaoAgendamento(
+                eq(StatusAgendamento.PENDENTE), any(), anyInt());
     }
 
     @Test
     void confirmarPagamentoClienteNaoDono_lancaErro() {
         Cliente cliente = Cliente.builder().id(1L).keycloakId("cliente-1").build();
-        Cliente outro = Cliente.builder().id(2L).keycloakId("cliente-2").build();
         Agendamento agendamento = Agendamento.builder()
                 .id(10L)
                 .cliente(cliente)
                 .status(StatusAgendamento.ACEITO)
                 .build();
 
-        when(agendamentoRepository.findById(10L)).thenReturn(Optional.of(agendamento));
-        when(clienteService.buscarPorKeycloakId("cliente-2")).thenReturn(outro);
+        when(agendamentoRepository.buscarComParticipantes(10L)).thenReturn(Optional.of(agendamento));
 
         assertThatThrownBy(() -> agendamentoService.confirmarPagamento(10L, "cliente-2"))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Somente o cliente");
+        verifyNoInteractions(pagamentoService, walletService);
     }
 
     @Test
@@ -336,9 +559,18 @@ class AgendamentoServiceTest {
                 .status(StatusAgendamento.CONFIRMADO)
                 .build();
 
-        when(agendamentoRepository.findById(10L)).thenReturn(Optional.of(agendamento));
-        when(prestadorRepository.findByKeycloakId("prestador-1")).thenReturn(Optional.of(prestador));
-        when(agendamentoRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(agendamentoRepository.buscarComParticipantes(10L)).thenReturn(Optional.of(agendamento));
+        when(agendamentoRepository.registrarCheckin(eq(10L), eq("prestador-1"), any(), eq(-10.0), eq(-10.0)))
+                .thenAnswer(invocation -> {
+                    agendamento.setCheckinEm(invocation.getArgument(2));
+                    return 1;
+                });
+        when(agendamentoRepository.registrarCheckout(eq(10L), eq("prestador-1"), any(), eq(-10.1), eq(-10.1)))
+                .thenAnswer(invocation -> {
+                    agendamento.setCheckoutEm(invocation.getArgument(2));
+                    agendamento.marcarRealizado();
+                    return 1;
+                });
 
         Agendamento comCheckin = agendamentoService.registrarCheckin(10L, "prestador-1", new DadosLocalizacao(-10.0, -10.0));
         Agendamento comCheckout = agendamentoService.registrarCheckout(10L, "prestador-1", new DadosLocalizacao(-10.1, -10.1));
@@ -346,6 +578,24 @@ class AgendamentoServiceTest {
         assertThat(comCheckin.getCheckinEm()).isNotNull();
         assertThat(comCheckout.getCheckoutEm()).isNotNull();
         assertThat(comCheckout.getStatus()).isEqualTo(StatusAgendamento.REALIZADO);
+        verify(estatisticasPrestadorService).registrarServicoRealizado(2L);
+    }
+
+    @Test
+    void checkinRepetido_lancaErro() {
+        Prestador prestador = Prestador.builder().id(2L).keycloakId("prestador-1").build();
+        Agendamento agendamento = Agendamento.builder()
+                .id(10L)
+                .prestador(prestador)
+                .status(StatusAgendamento.CONFIRMADO)
+                .checkinEm(LocalDateTime.now().minusMinutes(5))
+                .build();
+
+        when(agendamentoRepository.buscarComParticipantes(10L)).thenReturn(Optional.of(agendamento));
+
+        assertThatThrownBy(() -> agendamentoService.registrarCheckin(10L, "prestador-1", new DadosLocalizacao(-10.0, -10.0)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Check-in já foi realizado");
     }
 
     @Test
@@ -364,10 +614,19 @@ class AgendamentoServiceTest {
                 .endereco(new Endereco("Rua B", "Bairro", "12345678", "20", null, "Cidade", "UF", -10.1, -10.1))
                 .build();
         LocalDateTime dataHora = LocalDateTime.now().plusHours(2);
-        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, "Obs");
+        DadosAgendamento dados = new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, "Obs", null);
 
         when(clienteService.buscarPorKeycloakId("cliente-1")).thenReturn(cliente);
-        when(prestadorRepository.findByIdForUpdate(2L)).thenThrow(new CannotAcquireLockException("lock"));
+        when(prestadorRepository.findById(2L)).thenReturn(Optional.of(prestador));
+        when(disponibilidadeRepository.findByPrestadorIdAndDiaSemanaOrderByHoraInicioAsc(eq(2L), any()))
+                .thenReturn(List.of(Disponibilidade.builder()
+                        .prestador(prestador)
+                        .diaSemana(dataHora.getDayOfWeek().getValue())
+                        .horaInicio(LocalTime.of(0, 0))
+                        .horaFim(LocalTime.of(23, 59))
+                        .build()));
+        when(agendamentoRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new CannotAcquireLockException("lock")).when(reservaHorarioService).reservar(any());
 
         assertThatThrownBy(() -> agendamentoService.criar("cliente-1", dados))
                 .isInstanceOf(IllegalStateException.class)
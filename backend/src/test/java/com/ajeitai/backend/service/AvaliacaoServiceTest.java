@@ -8,6 +8,7 @@ import com.ajeitai.backend.repository.AgendamentoRepository;
 import com.ajeitai.backend.repository.AvaliacaoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -21,6 +22,8 @@ class AvaliacaoServiceTest {
     private AvaliacaoRepository avaliacaoRepository;
     private AgendamentoRepository agendamentoRepository;
     private ClienteService clienteService;
+    private EstatisticasPrestadorService estatisticasPrestadorService;
+    private ApplicationEventPublisher eventPublisher;
     private AvaliacaoService avaliacaoService;
 
     @BeforeEach
@@ -28,7 +31,10 @@ class AvaliacaoServiceTest {
         avaliacaoRepository = mock(AvaliacaoRepository.class);
         agendamentoRepository = mock(AgendamentoRepository.class);
         clienteService = mock(ClienteService.class);
-        avaliacaoService = new AvaliacaoService(avaliacaoRepository, agendamentoRepository, clienteService);
+        estatisticasPrestadorService = mock(EstatisticasPrestadorService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        avaliacaoService = new AvaliacaoService(avaliacaoRepository, agendamentoRepository, clienteService,
+                estatisticasPrestadorService, eventPublisher);
     }
 
     @Test
@@ -50,6 +56,7 @@ class AvaliacaoServiceTest {
         var avaliacao = avaliacaoService.avaliar("cliente-1", 10L, new DadosAvaliacao(5, "Ótimo"));
 
         assertThat(avaliacao.getNota()).isEqualTo(5);
+        verify(estatisticasPrestadorService).registrarAvaliacao(null, 5);
     }
 
     @Test
@@ -0,0 +1,102 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.domain.financeiro.AssinaturaAtivadaEvent;
+import com.ajeitai.backend.infra.cache.BarramentoInvalidacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CacheAssinaturasTest {
+
+    private final LocalDate hoje = LocalDate.now();
+
+    private BarramentoInvalidacao barramento;
+    private CacheAssinaturas cache;
+    private AtomicInteger carregamentos;
+
+    @BeforeEach
+    void setup() {
+        barramento = mock(BarramentoInvalidacao.class);
+        cache = new CacheAssinaturas(barramento, 100, Duration.ofMinutes(1));
+        carregamentos = new AtomicInteger();
+    }
+
+    @Test
+    void assinaturaAtiva_carregaUmaVez() {
+        assertThat(cache.ativa("kc-1", carregar(hoje.plusDays(10)))).isTrue();
+        assertThat(cache.ativa("kc-1", carregar(hoje.plusDays(10)))).isTrue();
+
+        assertThat(carregamentos).hasValue(1);
+    }
+
+    @Test
+    void semAssinaturaOuVencida_inativa() {
+        assertThat(cache.ativa("kc-1", carregar(null))).isFalse();
+        assertThat(cache.ativa("kc-2", carregar(hoje.minusDays(1)))).isFalse();
+        assertThat(cache.ativa("kc-3", carregar(hoje))).isTrue();
+    }
+
+    @Test
+    void pagamento_atualizaEntradaEAvisaAsDemaisReplicas() {
+        assertThat(cache.ativa("kc-1", carregar(null))).isFalse();
+
+        cache.onAssinaturaAtivada(new AssinaturaAtivadaEvent("kc-1", hoje.plusDays(30)));
+
+        assertThat(cache.ativa("kc-1", carregar(null))).isTrue();
+        assertThat(carregamentos).hasValue(1);
+        verify(barramento).publicar(CacheAssinaturas.TIPO_ASSINATURA, "kc-1");
+    }
+
+    @Test
+    void pagamentoComDataFimMenor_naoEncurtaValidade() {
+        cache.ativa("kc-1", carregar(hoje.plusDays(40)));
+
+        cache.onAssinaturaAtivada(new AssinaturaAtivadaEvent("kc-1", hoje.minusDays(1)));
+
+        assertThat(cache.ativa("kc-1", carregar(null))).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void invalidacaoDeOutraReplica_descartaEntrada() {
+        ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(barramento).assinar(eq(CacheAssinaturas.TIPO_ASSINATURA), handler.capture());
+        cache.ativa("kc-1", carregar(null));
+
+        handler.getValue().accept("kc-1");
+
+        assertThat(cache.ativa("kc-1", carregar(hoje.plusDays(30)))).isTrue();
+        assertThat(carregamentos).hasValue(2);
+    }
+
+    @Test
+    void tempoDeVida_terminaNoFimDoDiaDaDataFim() {
+        LocalDateTime agora = LocalDateTime.of(2026, 3, 10, 22, 0);
+        Duration ttlInativa = Duration.ofMinutes(1);
+
+        assertThat(CacheAssinaturas.tempoDeVida(new CacheAssinaturas.Validade(LocalDate.of(2026, 3, 10)), agora, ttlInativa))
+                .isEqualTo(Duration.ofHours(2));
+        assertThat(CacheAssinaturas.tempoDeVida(new CacheAssinaturas.Validade(LocalDate.of(2026, 3, 9)), agora, ttlInativa))
+                .isZero();
+        assertThat(CacheAssinaturas.tempoDeVida(new CacheAssinaturas.Validade(null), agora, ttlInativa))
+                .isEqualTo(ttlInativa);
+    }
+
+    private Function<String, CacheAssinaturas.Validade> carregar(LocalDate dataFim) {
+        return keycloakId -> {
+            carregamentos.incrementAndGet();
+            return new CacheAssinaturas.Validade(dataFim);
+        };
+    }
+}
@@ -0,0 +1,204 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.AgendamentoStatusAlteradoEvent;
+import com.ajeitai.backend.domain.agendamento.FormaPagamento;
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.cliente.Cliente;
+import com.ajeitai.backend.domain.endereco.Endereco;
+import com.ajeitai.backend.domain.pagamento.Pagamento;
+import com.ajeitai.backend.domain.pagamento.StatusPagamento;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.repository.AgendamentoRepository;
+import com.ajeitai.backend.repository.AgendamentoSlotRepository;
+import com.ajeitai.backend.repository.ClienteRepository;
+import com.ajeitai.backend.repository.PagamentoRepository;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CancelamentoAutomaticoIntegrationTest {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PrestadorRepository prestadorRepository;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private AgendamentoSlotRepository slotRepository;
+
+    @Autowired
+    private ReservaHorarioService reservaHorarioService;
+
+    @Autowired
+    private MetricasPlataformaService metricasPlataformaService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private IdentidadeService identidadeService;
+
+    @Autowired
+    private CacheAssinaturas cacheAssinaturas;
+
+    private Cliente cliente;
+    private Prestador prestador;
+
+    @BeforeEach
+    void setup() {
+        limpar();
+        cliente = clienteRepository.save(Cliente.builder()
+                .keycloakId("cliente-cancelamento")
+                .nome("Cliente")
+                .email("cliente-cancelamento@teste.com")
+                .ativo(true)
+                .endereco(new Endereco("Rua A", "Centro", "12345678", "10", null, "São Paulo", "SP", -23.5, -46.6))
+                .build());
+        prestador = prestadorRepository.save(Prestador.builder()
+                .keycloakId("prestador-cancelamento")
+                .nomeFantasia("Casa Limpa")
+                .email("prestador-cancelamento@teste.com")
+                .ativo(true)
+                .endereco(new Endereco("Rua B", "Centro", "12345678", "20", null, "São Paulo", "SP", -23.5, -46.6))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpar();
+    }
+
+    @Test
+    void cancelaEmLotesSomenteAceitosComPagamentoPendentePertoDoHorario() {
+        LocalDateTime emMeiaHora = LocalDateTime.now().plusMinutes(30);
+        Long pendente1 = agendamento(StatusAgendamento.ACEITO, emMeiaHora, StatusPagamento.PENDENTE);
+        Long pendente2 = agendamento(StatusAgendamento.ACEITO, emMeiaHora.plusMinutes(10), StatusPagamento.PENDENTE);
+        Long pendente3 = agendamento(StatusAgendamento.ACEITO, emMeiaHora.plusMinutes(20), StatusPagamento.PENDENTE);
+        Long pago = agendamento(StatusAgendamento.ACEITO, emMeiaHora, StatusPagamento.CONFIRMADO);
+        Long distante = agendamento(StatusAgendamento.ACEITO, emMeiaHora.plusDays(1), StatusPagamento.PENDENTE);
+        Long confirmado = agendamento(StatusAgendamento.CONFIRMADO, emMeiaHora, StatusPagamento.PENDENTE);
+
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CancelamentoAutomaticoService service = new CancelamentoAutomaticoService(agendamentoRepository,
+                pagamentoRepository, reservaHorarioService, metricasPlataformaService, eventPublisher, transactionManager,
+                meterRegistry, 2);
+
+        int cancelados = service.cancelarAceitosSemPagamento();
+
+        assertThat(cancelados).isEqualTo(3);
+        assertThat(status(pendente1)).isEqualTo(StatusAgendamento.CANCELADO);
+        assertThat(status(pendente2)).isEqualTo(StatusAgendamento.CANCELADO);
+        assertThat(status(pendente3)).isEqualTo(StatusAgendamento.CANCELADO);
+        assertThat(status(pago)).isEqualTo(StatusAgendamento.ACEITO);
+        assertThat(status(distante)).isEqualTo(StatusAgendamento.ACEITO);
+        assertThat(status(confirmado)).isEqualTo(StatusAgendamento.CONFIRMADO);
+        assertThat(pagamentoRepository.findByAgendamentoId(pendente1).orElseThrow().getStatus())
+                .isEqualTo(StatusPagamento.CANCELADO);
+        assertThat(pagamentoRepository.findByAgendamentoId(distante).orElseThrow().getStatus())
+                .isEqualTo(StatusPagamento.PENDENTE);
+
+        ArgumentCaptor<AgendamentoStatusAlteradoEvent> eventos = ArgumentCaptor.forClass(AgendamentoStatusAlteradoEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(eventos.capture());
+        assertThat(eventos.getAllValues())
+                .extracting(AgendamentoStatusAlteradoEvent::agendamentoId)
+                .containsExactlyInAnyOrder(pendente1, pendente2, pendente3);
+        assertThat(meterRegistry.get("agendamentos.cancelamento.automatico").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("agendamentos.cancelamento.automatico.duracao").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void canceladoPeloClienteDepoisDaLeituraDoLoteNaoContaNemGeraEvento() {
+        LocalDateTime emMeiaHora = LocalDateTime.now().plusMinutes(30);
+        Long pendente = agendamento(StatusAgendamento.ACEITO, emMeiaHora, StatusPagamento.PENDENTE);
+        Long canceladoPeloCliente = agendamento(StatusAgendamento.ACEITO, emMeiaHora.plusMinutes(5), StatusPagamento.PENDENTE);
+
+        // O cliente cancela, em outra transação, entre a leitura do lote e o UPDATE
+        TransactionTemplate outraTransacao = new TransactionTemplate(transactionManager);
+        outraTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AgendamentoRepository repositorio = mock(AgendamentoRepository.class, delegatesTo(agendamentoRepository));
+        doAnswer(invocacao -> {
+            Object lote = agendamentoRepository.listarComPagamentoNoStatus(invocacao.getArgument(0),
+                    invocacao.getArgument(1), invocacao.getArgument(2), invocacao.getArgument(3));
+            outraTransacao.executeWithoutResult(status -> assertThat(agendamentoRepository.transicionarPeloCliente(
+                    canceladoPeloCliente, cliente.getKeycloakId(), 0L, List.of(StatusAgendamento.ACEITO),
+                    StatusAgendamento.CANCELADO)).isEqualTo(1));
+            return lote;
+        }).when(repositorio).listarComPagamentoNoStatus(any(), any(), any(), any());
+
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CancelamentoAutomaticoService service = new CancelamentoAutomaticoService(repositorio,
+                pagamentoRepository, reservaHorarioService, metricasPlataformaService, eventPublisher, transactionManager,
+                meterRegistry, 10);
+
+        int cancelados = service.cancelarAceitosSemPagamento();
+
+        assertThat(cancelados).isEqualTo(1);
+        assertThat(status(pendente)).isEqualTo(StatusAgendamento.CANCELADO);
+        assertThat(status(canceladoPeloCliente)).isEqualTo(StatusAgendamento.CANCELADO);
+        ArgumentCaptor<AgendamentoStatusAlteradoEvent> eventos = ArgumentCaptor.forClass(AgendamentoStatusAlteradoEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(eventos.capture());
+        assertThat(eventos.getValue().agendamentoId()).isEqualTo(pendente);
+        assertThat(meterRegistry.get("agendamentos.cancelamento.automatico").counter().count()).isEqualTo(1.0);
+    }
+
+    private Long agendamento(StatusAgendamento status, LocalDateTime dataHora, StatusPagamento statusPagamento) {
+        Agendamento agendamento = agendamentoRepository.save(Agendamento.builder()
+                .cliente(cliente)
+                .prestador(prestador)
+                .dataHora(dataHora)
+                .status(status)
+                .formaPagamento(FormaPagamento.ONLINE)
+                .build());
+        pagamentoRepository.save(Pagamento.builder()
+                .agendamento(agendamento)
+                .status(statusPagamento)
+                .build());
+        return agendamento.getId();
+    }
+
+    private StatusAgendamento status(Long agendamentoId) {
+        return agendamentoRepository.findById(agendamentoId).orElseThrow().getStatus();
+    }
+
+    private void limpar() {
+        slotRepository.deleteAll();
+        pagamentoRepository.deleteAll();
+        agendamentoRepository.deleteAll();
+        clienteRepository.findAll().forEach(c -> identidadeService.esquecer(c.getKeycloakId()));
+        prestadorRepository.findAll().forEach(p -> {
+            identidadeService.esquecer(p.getKeycloakId());
+            cacheAssinaturas.esquecer(p.getKeycloakId());
+        });
+        prestadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+}
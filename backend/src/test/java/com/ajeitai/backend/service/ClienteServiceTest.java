@@ -24,7 +24,8 @@ class ClienteServiceTest {
     @BeforeEach
     void setup() {
         clienteRepository = mock(ClienteRepository.class);
-        clienteService = new ClienteService(clienteRepository);
+        clienteService = new ClienteService(clienteRepository, mock(IdentidadeService.class),
+                mock(MetricasPlataformaService.class));
     }
 
     @Test
@@ -0,0 +1,188 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.FormaPagamento;
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.avaliacao.Avaliacao;
+import com.ajeitai.backend.domain.cliente.Cliente;
+import com.ajeitai.backend.domain.endereco.Endereco;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.domain.prestador.PrestadorEstatisticas;
+import com.ajeitai.backend.repository.AgendamentoRepository;
+import com.ajeitai.backend.repository.AvaliacaoRepository;
+import com.ajeitai.backend.repository.ClienteRepository;
+import com.ajeitai.backend.repository.PrestadorEstatisticasRepository;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EstatisticasPrestadorIntegrationTest {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PrestadorRepository prestadorRepository;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private AvaliacaoRepository avaliacaoRepository;
+
+    @Autowired
+    private PrestadorEstatisticasRepository estatisticasRepository;
+
+    @Autowired
+    private EstatisticasPrestadorService estatisticasPrestadorService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private IdentidadeService identidadeService;
+
+    @Autowired
+    private CacheAssinaturas cacheAssinaturas;
+
+    private Cliente cliente;
+    private Prestador prestador;
+    private Prestador semHistorico;
+
+    @BeforeEach
+    void setup() {
+        limpar();
+        cliente = clienteRepository.save(Cliente.builder()
+                .keycloakId("cliente-estatisticas")
+                .nome("Cliente")
+                .email("cliente-estatisticas@teste.com")
+                .ativo(true)
+                .endereco(new Endereco("Rua A", "Centro", "12345678", "10", null, "São Paulo", "SP", -23.5, -46.6))
+                .build());
+        prestador = prestador("prestador-estatisticas");
+        semHistorico = prestador("prestador-sem-historico");
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpar();
+    }
+
+    @Test
+    void primeirosEventosCriamALinhaEIncrementam() {
+        assertThat(estatisticasRepository.findById(prestador.getId())).isEmpty();
+
+        estatisticasPrestadorService.registrarAvaliacao(prestador.getId(), 4);
+        estatisticasPrestadorService.registrarAvaliacao(prestador.getId(), 5);
+        estatisticasPrestadorService.registrarServicoRealizado(prestador.getId());
+
+        PrestadorEstatisticas estatisticas = estatisticasRepository.findById(prestador.getId()).orElseThrow();
+        assertThat(estatisticas.getSomaNotas()).isEqualTo(9L);
+        assertThat(estatisticas.getTotalAvaliacoes()).isEqualTo(2L);
+        assertThat(estatisticas.getMediaAvaliacao()).isEqualTo(4.5);
+        assertThat(estatisticas.getTotalServicos()).isEqualTo(1L);
+        assertThat(estatisticas.getUltimaAtividadeEm()).isNotNull();
+    }
+
+    @Test
+    void reconstrucaoRecalculaNoBancoEmLotesECriaAsLinhasQueFaltam() {
+        LocalDateTime checkout = LocalDateTime.of(2026, 3, 10, 15, 0);
+        Agendamento realizado1 = agendamento(StatusAgendamento.REALIZADO, checkout.minusDays(2));
+        Agendamento realizado2 = agendamento(StatusAgendamento.REALIZADO, checkout);
+        agendamento(StatusAgendamento.CANCELADO, null);
+        avaliacao(realizado1, 3, checkout.minusDays(1));
+        avaliacao(realizado2, 4, checkout.minusHours(1));
+        // Linha divergente, como depois de uma exclusão manual
+        PrestadorEstatisticas divergente = PrestadorEstatisticas.vazia(prestador.getId());
+        divergente.setSomaNotas(50L);
+        divergente.setTotalAvaliacoes(10L);
+        divergente.setMediaAvaliacao(5.0);
+        divergente.setTotalServicos(30L);
+        estatisticasRepository.save(divergente);
+
+        new EstatisticasPrestadorService(estatisticasRepository, transactionManager, 1).reconstruirTodas();
+
+        PrestadorEstatisticas estatisticas = estatisticasRepository.findById(prestador.getId()).orElseThrow();
+        assertThat(estatisticas.getSomaNotas()).isEqualTo(7L);
+        assertThat(estatisticas.getTotalAvaliacoes()).isEqualTo(2L);
+        assertThat(estatisticas.getMediaAvaliacao()).isEqualTo(3.5);
+        assertThat(estatisticas.getTotalServicos()).isEqualTo(2L);
+        assertThat(estatisticas.getUltimaAtividadeEm()).isEqualTo(checkout);
+
+        PrestadorEstatisticas criada = estatisticasRepository.findById(semHistorico.getId()).orElseThrow();
+        assertThat(criada.getTotalAvaliacoes()).isZero();
+        assertThat(criada.getMediaAvaliacao()).isZero();
+        assertThat(criada.getTotalServicos()).isZero();
+        assertThat(criada.getUltimaAtividadeEm()).isNull();
+    }
+
+    @Test
+    void incrementoDepoisDaReconstrucaoSomaAoValorReconstruido() {
+        Agendamento realizado = agendamento(StatusAgendamento.REALIZADO, LocalDateTime.of(2026, 3, 10, 15, 0));
+        avaliacao(realizado, 2, LocalDateTime.of(2026, 3, 11, 9, 0));
+        estatisticasPrestadorService.reconstruirTodas();
+
+        estatisticasPrestadorService.registrarAvaliacao(prestador.getId(), 4);
+
+        PrestadorEstatisticas estatisticas = estatisticasRepository.findById(prestador.getId()).orElseThrow();
+        assertThat(estatisticas.getSomaNotas()).isEqualTo(6L);
+        assertThat(estatisticas.getTotalAvaliacoes()).isEqualTo(2L);
+        assertThat(estatisticas.getMediaAvaliacao()).isEqualTo(3.0);
+        assertThat(estatisticas.getTotalServicos()).isEqualTo(1L);
+    }
+
+    private Prestador prestador(String keycloakId) {
+        return prestadorRepository.save(Prestador.builder()
+                .keycloakId(keycloakId)
+                .nomeFantasia("Casa Limpa")
+                .email(keycloakId + "@teste.com")
+                .ativo(true)
+                .endereco(new Endereco("Rua B", "Centro", "12345678", "20", null, "São Paulo", "SP", -23.5, -46.6))
+                .build());
+    }
+
+    private Agendamento agendamento(StatusAgendamento status, LocalDateTime checkoutEm) {
+        return agendamentoRepository.save(Agendamento.builder()
+                .cliente(cliente)
+                .prestador(prestador)
+                .dataHora(LocalDateTime.of(2026, 3, 1, 10, 0))
+                .status(status)
+                .formaPagamento(FormaPagamento.ONLINE)
+                .checkoutEm(checkoutEm)
+                .build());
+    }
+
+    private void avaliacao(Agendamento agendamento, int nota, LocalDateTime criadoEm) {
+        avaliacaoRepository.save(Avaliacao.builder()
+                .agendamento(agendamento)
+                .cliente(cliente)
+                .prestador(prestador)
+                .nota(nota)
+                .criadoEm(criadoEm)
+                .build());
+    }
+
+    private void limpar() {
+        avaliacaoRepository.deleteAll();
+        estatisticasRepository.deleteAll();
+        agendamentoRepository.deleteAll();
+        clienteRepository.findAll().forEach(c -> identidadeService.esquecer(c.getKeycloakId()));
+        prestadorRepository.findAll().forEach(p -> {
+            identidadeService.esquecer(p.getKeycloakId());
+            cacheAssinaturas.esquecer(p.getKeycloakId());
+        });
+        prestadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+}
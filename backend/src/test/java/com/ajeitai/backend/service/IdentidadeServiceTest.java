@@ -0,0 +1,107 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.infra.security.UserContext;
+import com.ajeitai.backend.infra.security.UserContextHolder;
+import com.ajeitai.backend.infra.security.UserType;
+import com.ajeitai.backend.repository.ClienteRepository;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class IdentidadeServiceTest {
+
+    private ClienteRepository clienteRepository;
+    private PrestadorRepository prestadorRepository;
+    private IdentidadeService identidadeService;
+
+    @BeforeEach
+    void setup() {
+        clienteRepository = mock(ClienteRepository.class);
+        prestadorRepository = mock(PrestadorRepository.class);
+        identidadeService = new IdentidadeService(clienteRepository, prestadorRepository, 100, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        UserContextHolder.clear();
+    }
+
+    @Test
+    void idDoCliente_consultaUmaVezEGuardaNoContextoDaRequisicao() {
+        UserContext contexto = new UserContext("kc-1", UserType.CLIENTE, Set.of("ROLE_cliente"));
+        UserContextHolder.set(contexto);
+        when(clienteRepository.buscarIdPorKeycloakId("kc-1")).thenReturn(Optional.of(7L));
+
+        assertThat(identidadeService.idDoCliente("kc-1")).isEqualTo(7L);
+        assertThat(identidadeService.idDoCliente("kc-1")).isEqualTo(7L);
+
+        assertThat(contexto.getClienteId()).isEqualTo(7L);
+        verify(clienteRepository, times(1)).buscarIdPorKeycloakId("kc-1");
+    }
+
+    @Test
+    void idDoPrestador_entreRequisicoesUsaOCacheLocal() {
+        when(prestadorRepository.buscarIdPorKeycloakId("kc-2")).thenReturn(Optional.of(3L));
+
+        UserContextHolder.set(new UserContext("kc-2", UserType.PRESTADOR, Set.of("ROLE_prestador")));
+        assertThat(identidadeService.idDoPrestador("kc-2")).isEqualTo(3L);
+        UserContextHolder.set(new UserContext("kc-2", UserType.PRESTADOR, Set.of("ROLE_prestador")));
+        assertThat(identidadeService.idDoPrestador("kc-2")).isEqualTo(3L);
+
+        verify(prestadorRepository, times(1)).buscarIdPorKeycloakId("kc-2");
+    }
+
+    @Test
+    void contextoDeOutroUsuario_naoEhUsado() {
+        UserContext contexto = new UserContext("kc-outro", UserType.CLIENTE, Set.of("ROLE_cliente"));
+        contexto.setClienteId(99L);
+        UserContextHolder.set(contexto);
+        when(clienteRepository.buscarIdPorKeycloakId("kc-1")).thenReturn(Optional.of(7L));
+
+        assertThat(identidadeService.idDoCliente("kc-1")).isEqualTo(7L);
+        assertThat(contexto.getClienteId()).isEqualTo(99L);
+    }
+
+    @Test
+    void usuarioSemCadastro_lancaErroENaoGuardaAusencia() {
+        when(clienteRepository.buscarIdPorKeycloakId("kc-1")).thenReturn(Optional.empty(), Optional.of(7L));
+
+        assertThatThrownBy(() -> identidadeService.idDoCliente("kc-1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cliente não encontrado");
+        assertThat(identidadeService.idDoCliente("kc-1")).isEqualTo(7L);
+    }
+
+    @Test
+    void esquecer_descartaCacheEContexto() {
+        UserContext contexto = new UserContext("kc-1", UserType.CLIENTE, Set.of("ROLE_cliente"));
+        UserContextHolder.set(contexto);
+        when(clienteRepository.buscarIdPorKeycloakId("kc-1")).thenReturn(Optional.of(7L), Optional.of(8L));
+        identidadeService.idDoCliente("kc-1");
+
+        identidadeService.esquecer("kc-1");
+
+        assertThat(contexto.getClienteId()).isNull();
+        assertThat(identidadeService.idDoCliente("kc-1")).isEqualTo(8L);
+    }
+
+    @Test
+    void cacheDesligado_consultaACadaRequisicao() {
+        identidadeService = new IdentidadeService(clienteRepository, prestadorRepository, 0, Duration.ofHours(1));
+        when(clienteRepository.buscarIdPorKeycloakId("kc-1")).thenReturn(Optional.of(7L));
+
+        identidadeService.idDoCliente("kc-1");
+        identidadeService.idDoCliente("kc-1");
+
+        verify(clienteRepository, times(2)).buscarIdPorKeycloakId("kc-1");
+    }
+}
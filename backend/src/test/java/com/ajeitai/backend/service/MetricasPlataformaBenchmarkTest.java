@@ -0,0 +1,301 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.domain.agendamento.DadosAgendamento;
+import com.ajeitai.backend.domain.agendamento.DadosLocalizacao;
+import com.ajeitai.backend.domain.agendamento.Disponibilidade;
+import com.ajeitai.backend.domain.agendamento.FormaPagamento;
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.cliente.Cliente;
+import com.ajeitai.backend.domain.endereco.Endereco;
+import com.ajeitai.backend.domain.metricas.Granularidade;
+import com.ajeitai.backend.domain.metricas.PontoMetricas;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.repository.ClienteRepository;
+import com.ajeitai.backend.repository.DisponibilidadeRepository;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.NONE;
+
+/**
+ * Benchmark do rollup de métricas do painel admin no PostgreSQL. Fora do build normal: rodar com
+ * {@code -Dbenchmark.metricas=true} e Docker disponível.
+ * <p>
+ * Escrita: {@code benchmark.metricas.amostra} agendamentos (padrão 2 mil) percorrem as transições reais do
+ * {@link AgendamentoService} (criar, aceitar, pagar, check-in/checkout, recusar, cancelar), e o rollup que
+ * elas deixaram é conferido contra as tabelas de origem (agendamentos e wallet_transacoes). Mede a latência
+ * média das transições e, à parte, o custo dos incrementos de agendamento que elas fizeram no rollup.
+ * <p>
+ * Leitura: {@code benchmark.metricas.agendamentos} agendamentos sintéticos de histórico (padrão 5 milhões, três
+ * anos), com o rollup carregado como nas migrações, e a série mensal comparada à contagem direta em agendamentos.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = NONE)
+@EnabledIfSystemProperty(named = "benchmark.metricas", matches = "true")
+class MetricasPlataformaBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricasPlataformaBenchmarkTest.class);
+
+    private static final LocalDate INICIO = LocalDate.of(2023, 1, 2);
+    private static final int DIAS = 1095;
+    private static final int LOTE = 500_000;
+    private static final int REPETICOES = 20;
+    private static final int PRESTADORES = 10;
+    private static final int SLOTS_POR_DIA = 16;
+    private static final DadosLocalizacao LOCAL = new DadosLocalizacao(-23.5, -46.6);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("app.outbox.relay.enabled", () -> "false");
+    }
+
+    @Autowired
+    private MetricasPlataformaService metricasPlataformaService;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PrestadorRepository prestadorRepository;
+
+    @Autowired
+    private DisponibilidadeRepository disponibilidadeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void limpar() {
+        jdbcTemplate.execute("TRUNCATE TABLE metricas_plataforma, wallet_transacoes, wallet_prestador, pagamentos, "
+                + "agendamento_slots, avaliacoes, outbox, agendamentos, disponibilidades, prestador_estatisticas, "
+                + "prestadores, clientes RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    void transicoesDoServico_mantemORollupIgualAsTabelasDeOrigem() {
+        int amostra = Integer.getInteger("benchmark.metricas.amostra", 2_000);
+        String cliente = cadastrarCliente();
+        List<Prestador> prestadores = new ArrayList<>();
+        for (int p = 0; p < PRESTADORES; p++) {
+            prestadores.add(cadastrarPrestador(p));
+        }
+
+        // Transições por tipo, para o custo isolado dos mesmos incrementos depois
+        List<StatusAgendamento[]> transicoes = new ArrayList<>();
+        LocalDateTime primeiroHorario = LocalDate.now().plusDays(1).atTime(8, 0);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < amostra; i++) {
+            Prestador prestador = prestadores.get(i % PRESTADORES);
+            int slot = i / PRESTADORES;
+            LocalDateTime dataHora = primeiroHorario.plusDays(slot / SLOTS_POR_DIA).plusMinutes(30L * (slot % SLOTS_POR_DIA));
+            Long id = agendamentoService.criar(cliente,
+                    new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.ONLINE, null, null)).getId();
+            transicoes.add(new StatusAgendamento[]{null, StatusAgendamento.PENDENTE});
+            switch (i % 10) {
+                case 0 -> {
+                    agendamentoService.cancelar(id, cliente);
+                    transicoes.add(new StatusAgendamento[]{StatusAgendamento.PENDENTE, StatusAgendamento.CANCELADO});
+                }
+                case 1 -> {
+                    agendamentoService.recusar(id, prestador.getKeycloakId());
+                    transicoes.add(new StatusAgendamento[]{StatusAgendamento.PENDENTE, StatusAgendamento.RECUSADO});
+                }
+                case 2 -> {
+                    agendamentoService.aceitar(id, prestador.getKeycloakId());
+                    agendamentoService.cancelar(id, cliente);
+                    transicoes.add(new StatusAgendamento[]{StatusAgendamento.PENDENTE, StatusAgendamento.ACEITO});
+                    transicoes.add(new StatusAgendamento[]{StatusAgendamento.ACEITO, StatusAgendamento.CANCELADO});
+                }
+                default -> {
+                    agendamentoService.aceitar(id, prestador.getKeycloakId());
+                    agendamentoService.confirmarPagamentoPorIdAgendamento(id);
+                    agendamentoService.registrarCheckin(id, prestador.getKeycloakId(), LOCAL);
+                    agendamentoService.registrarCheckout(id, prestador.getKeycloakId(), LOCAL);
+                    transicoes.add(new StatusAgendamento[]{StatusAgendamento.PENDENTE, StatusAgendamento.ACEITO});
+                    transicoes.add(new StatusAgendamento[]{StatusAgendamento.ACEITO, StatusAgendamento.CONFIRMADO});
+                    transicoes.add(new StatusAgendamento[]{StatusAgendamento.CONFIRMADO, StatusAgendamento.REALIZADO});
+                }
+            }
+        }
+        double msPorTransicao = (System.nanoTime() - inicio) / 1_000_000.0 / transicoes.size();
+
+        // O rollup de hoje contra as tabelas de origem (a amostra é a única coisa criada hoje)
+        LocalDate hoje = LocalDate.now();
+        PontoMetricas ponto = metricasPlataformaService.serie(hoje, hoje, Granularidade.DIA).get(0);
+        Timestamp desde = Timestamp.valueOf(hoje.atStartOfDay());
+        assertThat(ponto.agendamentosNovos()).isEqualTo(contar("SELECT COUNT(*) FROM agendamentos WHERE criado_em >= ?", desde));
+        for (StatusAgendamento finalizado : List.of(StatusAgendamento.CANCELADO, StatusAgendamento.RECUSADO, StatusAgendamento.REALIZADO)) {
+            assertThat(ponto.agendamentosPorStatus().get(finalizado.name())).as(finalizado.name()).isEqualTo(contar(
+                    "SELECT COUNT(*) FROM agendamentos WHERE criado_em >= ? AND status = ?", desde, finalizado.name()));
+        }
+        assertThat(ponto.gmv()).isEqualByComparingTo(somar(
+                "SELECT COALESCE(SUM(valor_bruto), 0) FROM wallet_transacoes WHERE tipo = 'CREDITO_AGENDAMENTO' AND criado_em >= ?", desde));
+        assertThat(ponto.comissao()).isEqualByComparingTo(somar(
+                "SELECT COALESCE(SUM(taxa_plataforma), 0) FROM wallet_transacoes WHERE tipo = 'CREDITO_AGENDAMENTO' AND criado_em >= ?", desde));
+        assertThat(ponto.gmv()).isPositive();
+
+        // Custo dos incrementos de agendamento do rollup, um por transação, descontada uma transação vazia
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        double msVazia = mediaMs(transicoes.size(), () -> transacao.executeWithoutResult(status ->
+                jdbcTemplate.queryForObject("SELECT 1", Integer.class)));
+        int[] proxima = {0};
+        double msRollup = mediaMs(transicoes.size(), () -> transacao.executeWithoutResult(status -> {
+            StatusAgendamento[] t = transicoes.get(proxima[0]++);
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            if (t[0] == null) {
+                metricasPlataformaService.registrarAgendamentoCriado();
+            } else {
+                metricasPlataformaService.registrarTransicaoAgendamento(t[0], t[1], 1);
+            }
+        }));
+        double sobrecarga = Math.max(msRollup - msVazia, 0);
+        log.info("{} agendamentos, {} transições: {} ms por transição no serviço; rollup {} ms por transição ({} % da transição)",
+                amostra, transicoes.size(), msPorTransicao, sobrecarga, Math.round(100 * sobrecarga / msPorTransicao));
+    }
+
+    @Test
+    void serieDoRollup_naoDependeDoVolumeDeAgendamentos() {
+        long agendamentos = Long.getLong("benchmark.metricas.agendamentos", 5_000_000L);
+        gerarHistorico(agendamentos);
+        LocalDate fim = INICIO.plusDays(DIAS - 1L);
+
+        double rollupMensal = medianaMs(() -> metricasPlataformaService.serie(INICIO, fim, Granularidade.MES));
+        double rollupDiario = medianaMs(() -> metricasPlataformaService.serie(INICIO, INICIO.plusDays(364), Granularidade.DIA));
+        double varredura = medianaMs(() -> jdbcTemplate.queryForList(
+                "SELECT CAST(criado_em AS DATE) AS dia, status, COUNT(*) AS total FROM agendamentos "
+                        + "WHERE criado_em >= ? AND criado_em < ? GROUP BY CAST(criado_em AS DATE), status",
+                Timestamp.valueOf(INICIO.atStartOfDay()), Timestamp.valueOf(fim.plusDays(1).atStartOfDay())));
+
+        log.info("Mediana com {} agendamentos: rollup mensal 3 anos {} ms, rollup diário 1 ano {} ms, varredura de agendamentos {} ms",
+                agendamentos, rollupMensal, rollupDiario, varredura);
+        assertThat(rollupMensal).isLessThan(varredura);
+    }
+
+    /**
+     * Histórico anterior ao rollup, em lotes de {@link #LOTE}: agendamentos com períodos consecutivos de 30 minutos
+     * (nenhum se sobrepõe na restrição de exclusão) e o rollup carregado como nas migrações V20, V22 e V24.
+     */
+    private void gerarHistorico(long agendamentos) {
+        jdbcTemplate.update("INSERT INTO clientes(keycloak_id, nome, email, ativo) VALUES ('cliente-bench', 'Cliente', 'c@bench.com', true)");
+        jdbcTemplate.update("INSERT INTO prestadores(keycloak_id, nome_fantasia, email, ativo) VALUES ('prestador-bench', 'Prestador', 'p@bench.com', true)");
+        long inicio = System.currentTimeMillis();
+        for (long de = 0; de < agendamentos; de += LOTE) {
+            jdbcTemplate.update("INSERT INTO agendamentos (cliente_id, prestador_id, data_hora, data_hora_fim, status, "
+                    + "forma_pagamento, valor_servico, criado_em, versao) "
+                    + "SELECT 1, 1, ?::timestamp + i * INTERVAL '30 minutes', ?::timestamp + (i + 1) * INTERVAL '30 minutes', "
+                    + "(ARRAY['PENDENTE','ACEITO','CONFIRMADO','RECUSADO','REALIZADO','CANCELADO'])[1 + (i % 6)::int], "
+                    + "'ONLINE', 100.00, ?::timestamp + (i % " + DIAS + ") * INTERVAL '1 day', 0 "
+                    + "FROM generate_series(?::bigint, ?::bigint) AS i",
+                    Timestamp.valueOf(INICIO.atStartOfDay()), Timestamp.valueOf(INICIO.atStartOfDay()),
+                    Timestamp.valueOf(INICIO.atTime(8, 0)), de, Math.min(de + LOTE, agendamentos) - 1);
+        }
+        jdbcTemplate.update("INSERT INTO metricas_plataforma (dia, metrica, valor) "
+                + "SELECT CAST(criado_em AS DATE), 'agendamentos.entraram.' || status, COUNT(*) FROM agendamentos "
+                + "GROUP BY CAST(criado_em AS DATE), status");
+        jdbcTemplate.update("INSERT INTO metricas_plataforma (dia, metrica, valor) "
+                + "SELECT CAST(criado_em AS DATE), 'agendamentos.criados', COUNT(*) FROM agendamentos "
+                + "GROUP BY CAST(criado_em AS DATE)");
+        jdbcTemplate.update("INSERT INTO metricas_plataforma (dia, metrica, valor) "
+                + "SELECT DATE '0001-01-01', metrica, SUM(valor) FROM metricas_plataforma GROUP BY metrica");
+        jdbcTemplate.execute("ANALYZE");
+        log.info("{} agendamentos de histórico e rollup gerados em {} ms", agendamentos, System.currentTimeMillis() - inicio);
+    }
+
+    private String cadastrarCliente() {
+        clienteRepository.save(Cliente.builder()
+                .keycloakId("cliente-bench")
+                .nome("Cliente")
+                .email("cliente@bench.com")
+                .ativo(true)
+                .endereco(new Endereco("Rua A", "Centro", "12345678", "10", null, "São Paulo", "SP", -23.5, -46.6))
+                .build());
+        return "cliente-bench";
+    }
+
+    private Prestador cadastrarPrestador(int indice) {
+        Prestador prestador = prestadorRepository.save(Prestador.builder()
+                .keycloakId("prestador-bench-" + indice)
+                .nomeFantasia("Prestador " + indice)
+                .email("prestador-" + indice + "@bench.com")
+                .ativo(true)
+                .valorServico(new BigDecimal("100.00"))
+                .endereco(new Endereco("Rua B", "Centro", "12345678", "20", null, "São Paulo", "SP", -23.5, -46.6))
+                .build());
+        for (int dia = 1; dia <= 7; dia++) {
+            disponibilidadeRepository.save(Disponibilidade.builder()
+                    .prestador(prestador)
+                    .diaSemana(dia)
+                    .horaInicio(LocalTime.of(8, 0))
+                    .horaFim(LocalTime.of(8, 0).plusMinutes(30L * SLOTS_POR_DIA))
+                    .build());
+        }
+        return prestador;
+    }
+
+    private long contar(String sql, Object... parametros) {
+        return jdbcTemplate.queryForObject(sql, Long.class, parametros);
+    }
+
+    private BigDecimal somar(String sql, Object... parametros) {
+        return jdbcTemplate.queryForObject(sql, BigDecimal.class, parametros);
+    }
+
+    private static double mediaMs(int vezes, Runnable acao) {
+        long inicio = System.nanoTime();
+        for (int i = 0; i < vezes; i++) {
+            acao.run();
+        }
+        return (System.nanoTime() - inicio) / 1_000_000.0 / vezes;
+    }
+
+    private static double medianaMs(Supplier<?> consulta) {
+        consulta.get();
+        double[] tempos = new double[REPETICOES];
+        for (int i = 0; i < REPETICOES; i++) {
+            long inicio = System.nanoTime();
+            consulta.get();
+            tempos[i] = (System.nanoTime() - inicio) / 1_000_000.0;
+        }
+        Arrays.sort(tempos);
+        return tempos[REPETICOES / 2];
+    }
+}
@@ -0,0 +1,192 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.metricas.Granularidade;
+import com.ajeitai.backend.domain.metricas.MetricaPlataforma;
+import com.ajeitai.backend.domain.metricas.PontoMetricas;
+import com.ajeitai.backend.domain.pagamento.StatusPagamento;
+import com.ajeitai.backend.repository.MetricaPlataformaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Rollup das métricas do painel admin contra o banco de teste: os incrementos da transação são aplicados
+ * no commit (e descartados no rollback); visão geral e séries são lidas só do rollup.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MetricasPlataformaIntegrationTest {
+
+    @Autowired
+    private MetricasPlataformaService metricasPlataformaService;
+
+    @Autowired
+    private MetricaPlataformaRepository metricaPlataformaRepository;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        metricaPlataformaRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        metricaPlataformaRepository.deleteAll();
+    }
+
+    @Test
+    void incrementosDaTransacao_saoSomadosNoCommitEDescartadosNoRollback() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.executeWithoutResult(status -> {
+            metricasPlataformaService.registrarAgendamentoCriado();
+            metricasPlataformaService.registrarAgendamentoCriado();
+            assertThat(metricaPlataformaRepository.count()).isZero();
+        });
+        assertThatThrownBy(() -> transacao.executeWithoutResult(status -> {
+            metricasPlataformaService.registrarAgendamentoCriado();
+            throw new IllegalStateException("falha depois do incremento");
+        })).isInstanceOf(IllegalStateException.class);
+
+        List<MetricaPlataforma> linhas = metricaPlataformaRepository.findAll();
+        assertThat(linhas).extracting(MetricaPlataforma::getDia, MetricaPlataforma::getMetrica).containsExactlyInAnyOrder(
+                tuple(LocalDate.now(), MetricaPlataforma.AGENDAMENTOS_CRIADOS),
+                tuple(LocalDate.now(), MetricaPlataforma.agendamentosQueEntraram(StatusAgendamento.PENDENTE)),
+                tuple(MetricaPlataforma.DIA_TOTAL, MetricaPlataforma.AGENDAMENTOS_CRIADOS),
+                tuple(MetricaPlataforma.DIA_TOTAL, MetricaPlataforma.agendamentosQueEntraram(StatusAgendamento.PENDENTE)));
+        assertThat(linhas).allSatisfy(linha -> assertThat(linha.getValor()).isEqualByComparingTo("2"));
+    }
+
+    @Test
+    void transacoes_somamEmFaixasDoDiaELeiturasSomamAsFaixas() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < 64; i++) {
+            transacao.executeWithoutResult(status -> {
+                metricasPlataformaService.registrarAgendamentoCriado();
+                metricasPlataformaService.registrarCreditoDePagamento(new BigDecimal("10.00"), new BigDecimal("1.00"));
+            });
+        }
+
+        List<MetricaPlataforma> gmvPorFaixa = metricaPlataformaRepository.findAll().stream()
+                .filter(linha -> linha.getMetrica().equals(MetricaPlataforma.GMV) && linha.getDia().equals(LocalDate.now()))
+                .toList();
+        assertThat(gmvPorFaixa).hasSizeBetween(2, 16);
+        assertThat(gmvPorFaixa).extracting(MetricaPlataforma::getFaixa).doesNotHaveDuplicates();
+        assertThat(metricasPlataformaService.totais().get(MetricaPlataforma.GMV)).isEqualByComparingTo("640.00");
+        PontoMetricas hoje = metricasPlataformaService.serie(LocalDate.now(), LocalDate.now(), Granularidade.DIA).get(0);
+        assertThat(hoje.agendamentosNovos()).isEqualTo(64);
+        assertThat(hoje.comissao()).isEqualByComparingTo("64.00");
+    }
+
+    @Test
+    void visaoGeral_leContagensEValoresDoRollup() {
+        metricasPlataformaService.registrarClienteNovo();
+        metricasPlataformaService.registrarPrestadorNovo();
+        metricasPlataformaService.registrarAgendamentoCriado();
+        metricasPlataformaService.registrarAgendamentoCriado();
+        metricasPlataformaService.registrarAgendamentoCriado();
+        metricasPlataformaService.registrarTransicaoAgendamento(StatusAgendamento.PENDENTE, StatusAgendamento.ACEITO, 1);
+        metricasPlataformaService.registrarTransicaoAgendamento(StatusAgendamento.ACEITO, StatusAgendamento.CONFIRMADO, 1);
+        metricasPlataformaService.registrarTransicaoAgendamento(StatusAgendamento.PENDENTE, StatusAgendamento.CANCELADO, 1);
+        metricasPlataformaService.registrarPagamentoCriado(StatusPagamento.PENDENTE);
+        metricasPlataformaService.registrarTransicaoPagamento(StatusPagamento.PENDENTE, StatusPagamento.CONFIRMADO, 1);
+        metricasPlataformaService.registrarCreditoDePagamento(new BigDecimal("100.00"), new BigDecimal("7.00"));
+
+        AdminService.VisaoGeralDto visao = adminService.visaoGeral();
+
+        assertThat(visao.totalClientes()).isEqualTo(1);
+        assertThat(visao.totalPrestadores()).isEqualTo(1);
+        assertThat(visao.agendamentosPorStatus())
+                .containsEntry("PENDENTE", 1L)
+                .containsEntry("ACEITO", 0L)
+                .containsEntry("CONFIRMADO", 1L)
+                .containsEntry("CANCELADO", 1L)
+                .containsEntry("REALIZADO", 0L);
+        assertThat(visao.gmv()).isEqualByComparingTo("100.00");
+        assertThat(visao.receitaPlataforma()).isEqualByComparingTo("7.00");
+        assertThat(visao.pagamentosPendentes()).isZero();
+        assertThat(visao.pagamentosConfirmados()).isEqualTo(1);
+    }
+
+    @Test
+    void totais_leemSoOAcumuladoSemSomarOsDias() {
+        metricasPlataformaService.registrarCreditoDePagamento(new BigDecimal("100.00"), new BigDecimal("7.00"));
+        // Dia antigo gravado fora do serviço: não entra no acumulado
+        linha(LocalDate.now().minusDays(400), MetricaPlataforma.GMV, "999.00");
+
+        assertThat(metricasPlataformaService.totais().get(MetricaPlataforma.GMV)).isEqualByComparingTo("100.00");
+        assertThat(metricasPlataformaService.serie(LocalDate.now(), LocalDate.now(), Granularidade.DIA).get(0).gmv())
+                .isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void serieSemanal_agrupaOsDiasDoIntervaloEIncluiSemanasSemMovimento() {
+        // 2026-03-02 é uma segunda-feira
+        LocalDate segunda = LocalDate.of(2026, 3, 2);
+        linha(segunda.minusDays(1), MetricaPlataforma.GMV, "999.00");
+        linha(segunda, MetricaPlataforma.GMV, "100.00");
+        linha(segunda.plusDays(6), MetricaPlataforma.GMV, "50.00");
+        linha(segunda.plusDays(6), MetricaPlataforma.COMISSAO, "10.50");
+        linha(segunda.plusDays(1), MetricaPlataforma.AGENDAMENTOS_CRIADOS, "3");
+        // Carga inicial: só um dos criados ainda estava PENDENTE
+        linha(segunda.plusDays(1), MetricaPlataforma.agendamentosQueEntraram(StatusAgendamento.PENDENTE), "1");
+        linha(segunda.plusDays(2), MetricaPlataforma.agendamentosQueEntraram(StatusAgendamento.CANCELADO), "1");
+        linha(segunda.plusDays(14), MetricaPlataforma.CLIENTES_NOVOS, "2");
+
+        List<PontoMetricas> serie = metricasPlataformaService.serie(segunda, segunda.plusDays(20), Granularidade.SEMANA);
+
+        assertThat(serie).extracting(PontoMetricas::inicio)
+                .containsExactly(segunda, segunda.plusWeeks(1), segunda.plusWeeks(2));
+        PontoMetricas primeira = serie.get(0);
+        assertThat(primeira.gmv()).isEqualByComparingTo("150.00");
+        assertThat(primeira.comissao()).isEqualByComparingTo("10.50");
+        assertThat(primeira.agendamentosNovos()).isEqualTo(3);
+        assertThat(primeira.cancelamentos()).isEqualTo(1);
+        assertThat(primeira.agendamentosPorStatus())
+                .containsEntry("PENDENTE", 1L)
+                .containsEntry("CANCELADO", 1L)
+                .containsEntry("REALIZADO", 0L);
+        assertThat(serie.get(1).gmv()).isEqualByComparingTo("0");
+        assertThat(serie.get(2).clientesNovos()).isEqualTo(2);
+    }
+
+    @Test
+    void serie_recusaIntervaloInvertidoOuLongoDemaisEGranularidadeDesconhecida() {
+        LocalDate hoje = LocalDate.now();
+
+        assertThatThrownBy(() -> metricasPlataformaService.serie(hoje, hoje.minusDays(1), Granularidade.DIA))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> metricasPlataformaService.serie(hoje.minusYears(5), hoje, Granularidade.MES))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("limitado");
+        assertThatThrownBy(() -> Granularidade.de("hora"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(Granularidade.de("mes")).isEqualTo(Granularidade.MES);
+    }
+
+    private void linha(LocalDate dia, String metrica, String valor) {
+        metricaPlataformaRepository.save(MetricaPlataforma.builder()
+                .dia(dia)
+                .metrica(metrica)
+                .valor(new BigDecimal(valor))
+                .build());
+    }
+}
@@ -1,9 +1,12 @@
 package com.ajeitai.backend.service;
 
 import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.AgendamentoResumo;
+import com.ajeitai.backend.domain.agendamento.CursorAgendamento;
 import com.ajeitai.backend.domain.agendamento.DadosDisponibilidade;
 import com.ajeitai.backend.domain.agendamento.Disponibilidade;
 import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.catalogo.PaginaCursor;
 import com.ajeitai.backend.domain.endereco.DadosEndereco;
 import com.ajeitai.backend.domain.endereco.Endereco;
 import com.ajeitai.backend.domain.prestador.*;
@@ -13,6 +16,7 @@ import com.ajeitai.backend.repository.DocumentoPrestadorRepository;
 import com.ajeitai.backend.repository.PrestadorRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -34,6 +38,7 @@ class PrestadorServiceTest {
     private DisponibilidadeRepository disponibilidadeRepository;
     private DocumentoPrestadorRepository documentoPrestadorRepository;
     private ArmazenamentoDocumentoService armazenamentoDocumentoService;
+    private ApplicationEventPublisher eventPublisher;
     private PrestadorService prestadorService;
 
     @BeforeEach
@@ -43,12 +48,16 @@ class PrestadorServiceTest {
         disponibilidadeRepository = mock(DisponibilidadeRepository.class);
         documentoPrestadorRepository = mock(DocumentoPrestadorRepository.class);
         armazenamentoDocumentoService = mock(ArmazenamentoDocumentoService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
         prestadorService = new PrestadorService(
                 prestadorRepository,
                 agendamentoRepository,
                 disponibilidadeRepository,
                 documentoPrestadorRepository,
-                armazenamentoDocumentoService
+                armazenamentoDocumentoService,
+                eventPublisher,
+                mock(IdentidadeService.class),
+                mock(MetricasPlataformaService.class)
         );
     }
 
@@ -122,6 +131,7 @@ class PrestadorServiceTest {
         assertThat(atualizado.getNomeFantasia()).isEqualTo("Casa Limpa Premium");
         assertThat(atualizado.getEmail()).isEqualTo("novo@email.com");
         assertThat(atualizado.getEndereco().getLogradouro()).isEqualTo("Rua B");
+        verify(eventPublisher).publishEvent(new PrestadorAlteradoEvent(1L, MotivoAlteracao.PERFIL));
     }
 
     @Test
@@ -137,14 +147,32 @@ class PrestadorServiceTest {
 
     @Test
     void listarSolicitacoesComStatus_filtraCorretamente() {
-        Prestador prestador = Prestador.builder().id(1L).keycloakId("kc-1").build();
-        when(prestadorRepository.findByKeycloakId("kc-1")).thenReturn(Optional.of(prestador));
-        when(agendamentoRepository.findByPrestadorIdAndStatusOrderByDataHoraDesc(1L, StatusAgendamento.PENDENTE))
-                .thenReturn(List.of(Agendamento.builder().id(10L).status(StatusAgendamento.PENDENTE).build()));
+        when(agendamentoRepository.listarResumosDoPrestador("kc-1", StatusAgendamento.PENDENTE, null, 11))
+                .thenReturn(List.of(resumo(10L, LocalDateTime.of(2026, 3, 1, 10, 0))));
 
-        List<Agendamento> lista = prestadorService.listarSolicitacoes("kc-1", Optional.of(StatusAgendamento.PENDENTE));
+        PaginaCursor<AgendamentoResumo> pagina = prestadorService.listarSolicitacoes(
+                "kc-1", Optional.of(StatusAgendamento.PENDENTE), null, 10);
 
-        assertThat(lista).hasSize(1);
+        assertThat(pagina.content()).hasSize(1);
+        assertThat(pagina.proximoCursor()).isNull();
+    }
+
+    @Test
+    void listarSolicitacoes_paginaCheia_devolveCursorDoUltimoItem() {
+        LocalDateTime dataHora = LocalDateTime.of(2026, 3, 1, 10, 0);
+        when(agendamentoRepository.listarResumosDoPrestador("kc-1", null, null, 3))
+                .thenReturn(List.of(resumo(12L, dataHora.plusHours(2)), resumo(11L, dataHora.plusHours(1)), resumo(10L, dataHora)));
+
+        PaginaCursor<AgendamentoResumo> pagina = prestadorService.listarSolicitacoes("kc-1", Optional.empty(), "", 2);
+
+        assertThat(pagina.content()).extracting(AgendamentoResumo::id).containsExactly(12L, 11L);
+        assertThat(CursorAgendamento.decodificar(pagina.proximoCursor()))
+                .isEqualTo(new CursorAgendamento(dataHora.plusHours(1), 11L));
+    }
+
+    private static AgendamentoResumo resumo(Long id, LocalDateTime dataHora) {
+        return new AgendamentoResumo(id, 1L, "Cliente", 1L, "Casa Limpa", "kc-1", dataHora, dataHora.plusMinutes(30),
+                StatusAgendamento.PENDENTE, null, null, null, null, null, null, null, null, null);
     }
 
     @Test
@@ -168,6 +196,7 @@ class PrestadorServiceTest {
 
         assertThat(lista).isEmpty();
         verify(disponibilidadeRepository).deleteByPrestadorId(1L);
+        verify(eventPublisher).publishEvent(new PrestadorAlteradoEvent(1L, MotivoAlteracao.DISPONIBILIDADE));
     }
 
     @Test
@@ -0,0 +1,203 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.DadosAgendamento;
+import com.ajeitai.backend.domain.agendamento.Disponibilidade;
+import com.ajeitai.backend.domain.agendamento.FormaPagamento;
+import com.ajeitai.backend.domain.cliente.Cliente;
+import com.ajeitai.backend.domain.endereco.Endereco;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.repository.AgendamentoRepository;
+import com.ajeitai.backend.repository.AgendamentoSlotRepository;
+import com.ajeitai.backend.repository.ClienteRepository;
+import com.ajeitai.backend.repository.DisponibilidadeRepository;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Criação concorrente de agendamentos contra o banco de teste: a reserva por slot impede agendamento
+ * duplo e não serializa horários diferentes do mesmo prestador. Sem reserva por slot nada é gravado.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservaHorarioIntegrationTest {
+
+    private static final int CLIENTES = 8;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PrestadorRepository prestadorRepository;
+
+    @Autowired
+    private DisponibilidadeRepository disponibilidadeRepository;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private AgendamentoSlotRepository slotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private IdentidadeService identidadeService;
+
+    @Autowired
+    private CacheAssinaturas cacheAssinaturas;
+
+    private Prestador prestador;
+    private LocalDateTime dataHoraBase;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        limpar();
+        executor = Executors.newFixedThreadPool(CLIENTES);
+
+        for (int i = 0; i < CLIENTES; i++) {
+            clienteRepository.save(Cliente.builder()
+                    .keycloakId("cliente-reserva-" + i)
+                    .nome("Cliente " + i)
+                    .email("cliente-reserva-" + i + "@teste.com")
+                    .telefone("11999999999")
+                    .ativo(true)
+                    .endereco(new Endereco("Rua A", "Centro", "12345678", "10", null, "São Paulo", "SP", -23.5, -46.6))
+                    .build());
+        }
+        prestador = prestadorRepository.save(Prestador.builder()
+                .keycloakId("prestador-reserva")
+                .nomeFantasia("Casa Limpa")
+                .telefone("11999999999")
+                .email("prestador-reserva@teste.com")
+                .ativo(true)
+                .endereco(new Endereco("Rua B", "Centro", "12345678", "20", null, "São Paulo", "SP", -23.5, -46.6))
+                .build());
+
+        dataHoraBase = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        disponibilidadeRepository.save(Disponibilidade.builder()
+                .prestador(prestador)
+                .diaSemana(dataHoraBase.getDayOfWeek().getValue())
+                .horaInicio(LocalTime.of(8, 0))
+                .horaFim(LocalTime.of(18, 0))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        limpar();
+    }
+
+    @Test
+    void mesmoHorarioConcorrente_somenteUmAgendamentoEhCriado() throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Agendamento>> tentativas = new ArrayList<>();
+        for (int i = 0; i < CLIENTES; i++) {
+            String cliente = "cliente-reserva-" + i;
+            tentativas.add(executor.submit(() -> {
+                largada.await();
+                return agendamentoService.criar(cliente, dados(dataHoraBase));
+            }));
+        }
+        largada.countDown();
+
+        int sucessos = 0;
+        for (Future<Agendamento> tentativa : tentativas) {
+            try {
+                tentativa.get(30, TimeUnit.SECONDS);
+                sucessos++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOfAny(IllegalArgumentException.class, IllegalStateException.class);
+            }
+        }
+
+        assertThat(sucessos).isEqualTo(1);
+        assertThat(agendamentoRepository.count()).isEqualTo(1);
+        assertThat(slotRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void horariosDiferentesDoMesmoPrestador_naoEsperamUmPeloOutro() {
+        // A primeira reserva fica com a transação aberta enquanto outro cliente agenda o horário seguinte;
+        // com a trava na linha do prestador a segunda esperaria o commit da primeira.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            agendamentoService.criar("cliente-reserva-0", dados(dataHoraBase));
+
+            Future<Agendamento> outroHorario = executor.submit(() ->
+                    agendamentoService.criar("cliente-reserva-1", dados(dataHoraBase.plusMinutes(30))));
+            try {
+                assertThat(outroHorario.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+            } catch (Exception e) {
+                throw new AssertionError("Agendamento de outro horário não deveria esperar a primeira transação.", e);
+            }
+        });
+
+        assertThat(agendamentoRepository.count()).isEqualTo(2);
+        assertThat(slotRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void semReservaPorSlot_naoGravaSlotsMasLiberaOsJaGravados() {
+        Agendamento comSlot = agendamentoService.criar("cliente-reserva-0", dados(dataHoraBase));
+        Agendamento vizinho = agendamentoRepository.save(Agendamento.builder()
+                .cliente(comSlot.getCliente())
+                .prestador(prestador)
+                .dataHora(dataHoraBase.plusMinutes(30))
+                .dataHoraFim(dataHoraBase.plusMinutes(45))
+                .status(comSlot.getStatus())
+                .formaPagamento(FormaPagamento.DINHEIRO)
+                .build());
+        ReservaHorarioService semSlot = new ReservaHorarioService(slotRepository, 30, false);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            semSlot.reservar(vizinho);
+            assertThat(slotRepository.count()).isEqualTo(1);
+            semSlot.liberar(comSlot.getId());
+        });
+
+        assertThat(slotRepository.count()).isZero();
+    }
+
+    private DadosAgendamento dados(LocalDateTime dataHora) {
+        return new DadosAgendamento(prestador.getId(), dataHora, FormaPagamento.DINHEIRO, null, null);
+    }
+
+    private void limpar() {
+        slotRepository.deleteAll();
+        agendamentoRepository.deleteAll();
+        disponibilidadeRepository.deleteAll();
+        clienteRepository.findAll().forEach(c -> identidadeService.esquecer(c.getKeycloakId()));
+        prestadorRepository.findAll().forEach(p -> {
+            identidadeService.esquecer(p.getKeycloakId());
+            cacheAssinaturas.esquecer(p.getKeycloakId());
+        });
+        prestadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+}
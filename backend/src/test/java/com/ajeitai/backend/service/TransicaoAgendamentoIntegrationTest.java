@@ -0,0 +1,185 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.FormaPagamento;
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.cliente.Cliente;
+import com.ajeitai.backend.domain.endereco.Endereco;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.repository.AgendamentoRepository;
+import com.ajeitai.backend.repository.AgendamentoSlotRepository;
+import com.ajeitai.backend.repository.ClienteRepository;
+import com.ajeitai.backend.repository.OutboxRepository;
+import com.ajeitai.backend.repository.PagamentoRepository;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Transições de status contra o banco de teste: o UPDATE condicional decide entre operações concorrentes
+ * e a versão impede que uma cópia antiga do agendamento sobrescreva a transição.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransicaoAgendamentoIntegrationTest {
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PrestadorRepository prestadorRepository;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private AgendamentoSlotRepository slotRepository;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Autowired
+    private IdentidadeService identidadeService;
+
+    @Autowired
+    private CacheAssinaturas cacheAssinaturas;
+
+    private Cliente cliente;
+    private Prestador prestador;
+
+    @BeforeEach
+    void setup() {
+        limpar();
+        cliente = clienteRepository.save(Cliente.builder()
+                .keycloakId("cliente-transicao")
+                .nome("Cliente")
+                .email("cliente-transicao@teste.com")
+                .ativo(true)
+                .endereco(new Endereco("Rua A", "Centro", "12345678", "10", null, "São Paulo", "SP", -23.5, -46.6))
+                .build());
+        prestador = prestadorRepository.save(Prestador.builder()
+                .keycloakId("prestador-transicao")
+                .nomeFantasia("Casa Limpa")
+                .email("prestador-transicao@teste.com")
+                .ativo(true)
+                .endereco(new Endereco("Rua B", "Centro", "12345678", "20", null, "São Paulo", "SP", -23.5, -46.6))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpar();
+    }
+
+    @Test
+    void recusarECancelarConcorrentes_somenteUmaTransicaoEhAplicada() throws Exception {
+        Long id = agendamentoPendente(FormaPagamento.ONLINE).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<Agendamento>> tentativas = List.of(
+                    executor.submit(aposLargada(largada, () -> agendamentoService.recusar(id, "prestador-transicao"))),
+                    executor.submit(aposLargada(largada, () -> agendamentoService.cancelar(id, "cliente-transicao"))));
+            largada.countDown();
+
+            int sucessos = 0;
+            for (Future<Agendamento> tentativa : tentativas) {
+                try {
+                    tentativa.get(30, TimeUnit.SECONDS);
+                    sucessos++;
+                } catch (ExecutionException e) {
+                    // Perdedora: UPDATE sem linha alterada ou, conforme o banco, conflito de escrita na mesma linha
+                    assertThat(e.getCause()).isInstanceOfAny(IllegalArgumentException.class, ConcurrencyFailureException.class);
+                }
+            }
+            assertThat(sucessos).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Agendamento atual = agendamentoRepository.findById(id).orElseThrow();
+        assertThat(atual.getStatus()).isIn(StatusAgendamento.RECUSADO, StatusAgendamento.CANCELADO);
+        assertThat(atual.getVersao()).isEqualTo(1L);
+    }
+
+    @Test
+    void aceitarDinheiro_confirmaEIncrementaVersao() {
+        Long id = agendamentoPendente(FormaPagamento.DINHEIRO).getId();
+
+        agendamentoService.aceitar(id, "prestador-transicao");
+
+        Agendamento atual = agendamentoRepository.findById(id).orElseThrow();
+        assertThat(atual.getStatus()).isEqualTo(StatusAgendamento.CONFIRMADO);
+        assertThat(atual.getConfirmadoEm()).isNotNull();
+        assertThat(atual.getVersao()).isEqualTo(2L);
+    }
+
+    @Test
+    void copiaAntigaSalvaDepoisDaTransicao_falhaPelaVersao() {
+        Agendamento copiaAntiga = agendamentoPendente(FormaPagamento.ONLINE);
+
+        agendamentoService.recusar(copiaAntiga.getId(), "prestador-transicao");
+        copiaAntiga.setObservacao("alterada depois");
+
+        assertThatThrownBy(() -> agendamentoRepository.save(copiaAntiga))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(agendamentoRepository.findById(copiaAntiga.getId()).orElseThrow().getStatus())
+                .isEqualTo(StatusAgendamento.RECUSADO);
+    }
+
+    private Agendamento agendamentoPendente(FormaPagamento formaPagamento) {
+        return agendamentoRepository.save(Agendamento.builder()
+                .cliente(cliente)
+                .prestador(prestador)
+                .dataHora(LocalDateTime.now().plusDays(1).withNano(0))
+                .status(StatusAgendamento.PENDENTE)
+                .formaPagamento(formaPagamento)
+                .build());
+    }
+
+    private static <T> Callable<T> aposLargada(CountDownLatch largada, Callable<T> acao) {
+        return () -> {
+            largada.await();
+            return acao.call();
+        };
+    }
+
+    private void limpar() {
+        outboxRepository.deleteAll();
+        slotRepository.deleteAll();
+        pagamentoRepository.deleteAll();
+        agendamentoRepository.deleteAll();
+        clienteRepository.findAll().forEach(c -> identidadeService.esquecer(c.getKeycloakId()));
+        prestadorRepository.findAll().forEach(p -> {
+            identidadeService.esquecer(p.getKeycloakId());
+            cacheAssinaturas.esquecer(p.getKeycloakId());
+        });
+        prestadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+}
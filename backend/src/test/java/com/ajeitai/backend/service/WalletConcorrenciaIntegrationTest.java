@@ -0,0 +1,226 @@
+package com.ajeitai.backend.service;
+
+import com.ajeitai.backend.domain.agendamento.Agendamento;
+import com.ajeitai.backend.domain.agendamento.FormaPagamento;
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.cliente.Cliente;
+import com.ajeitai.backend.domain.endereco.Endereco;
+import com.ajeitai.backend.domain.pagamento.Pagamento;
+import com.ajeitai.backend.domain.pagamento.StatusPagamento;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.repository.AgendamentoRepository;
+import com.ajeitai.backend.repository.AgendamentoSlotRepository;
+import com.ajeitai.backend.repository.ClienteRepository;
+import com.ajeitai.backend.repository.PagamentoRepository;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import com.ajeitai.backend.repository.TransacaoWalletRepository;
+import com.ajeitai.backend.repository.WalletPrestadorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Crédito na wallet contra o banco de teste: muitos pagamentos do mesmo prestador confirmados em paralelo,
+ * cada um entregue mais de uma vez. Já ao fim da fase concorrente todo pagamento foi creditado por alguma entrega e
+ * o saldo é a soma dos líquidos, com um lançamento por pagamento; a vazão e as entregas abortadas vão para o log.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class WalletConcorrenciaIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletConcorrenciaIntegrationTest.class);
+
+    private static final int PAGAMENTOS = 40;
+    private static final int ENTREGAS_POR_PAGAMENTO = 3;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PrestadorRepository prestadorRepository;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private PagamentoRepository pagamentoRepository;
+
+    @Autowired
+    private AgendamentoSlotRepository slotRepository;
+
+    @Autowired
+    private WalletPrestadorRepository walletPrestadorRepository;
+
+    @Autowired
+    private TransacaoWalletRepository transacaoWalletRepository;
+
+    @Autowired
+    private IdentidadeService identidadeService;
+
+    @Autowired
+    private CacheAssinaturas cacheAssinaturas;
+
+    private Cliente cliente;
+    private Prestador prestador;
+
+    @BeforeEach
+    void setup() {
+        limpar();
+        cliente = clienteRepository.save(Cliente.builder()
+                .keycloakId("cliente-wallet")
+                .nome("Cliente")
+                .email("cliente-wallet@teste.com")
+                .ativo(true)
+                .endereco(new Endereco("Rua A", "Centro", "12345678", "10", null, "São Paulo", "SP", -23.5, -46.6))
+                .build());
+        prestador = prestadorRepository.save(Prestador.builder()
+                .keycloakId("prestador-wallet")
+                .nomeFantasia("Casa Limpa")
+                .email("prestador-wallet@teste.com")
+                .ativo(true)
+                .endereco(new Endereco("Rua B", "Centro", "12345678", "20", null, "São Paulo", "SP", -23.5, -46.6))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        limpar();
+    }
+
+    @Test
+    void creditosConcorrentesERepetidos_somamCadaPagamentoUmaVez() throws Exception {
+        List<Confirmacao> entregas = new ArrayList<>();
+        for (int i = 0; i < PAGAMENTOS; i++) {
+            Confirmacao confirmacao = pagamentoConfirmado(i);
+            for (int e = 0; e < ENTREGAS_POR_PAGAMENTO; e++) {
+                entregas.add(confirmacao);
+            }
+        }
+        Collections.shuffle(entregas);
+
+        Set<Long> creditados = ConcurrentHashMap.newKeySet();
+        AtomicInteger falhas = new AtomicInteger();
+        long inicio = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<?>> tentativas = new ArrayList<>();
+            for (Confirmacao confirmacao : entregas) {
+                tentativas.add(executor.submit(() -> {
+                    largada.await();
+                    walletService.creditarPorPagamentoConfirmado(confirmacao.agendamento(), confirmacao.pagamento());
+                    creditados.add(confirmacao.pagamento().getId());
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tentativa : tentativas) {
+                try {
+                    tentativa.get(60, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    // Conforme o banco, a inserção simultânea do mesmo pagamento pode abortar em vez de ser ignorada;
+                    // a transação inteira volta e outra entrega do mesmo pagamento faz o crédito
+                    assertThat(e.getCause()).isInstanceOfAny(ConcurrencyFailureException.class,
+                            DataIntegrityViolationException.class);
+                    falhas.incrementAndGet();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long duracaoMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        log.info("{} entregas de {} pagamentos em {} threads: {} ms, {} entregas/s, {} abortadas",
+                entregas.size(), PAGAMENTOS, THREADS, duracaoMs, entregas.size() * 1000L / duracaoMs, falhas.get());
+
+        // Só a fase concorrente: cada pagamento creditado uma vez, sem depender da reentrega abaixo
+        BigDecimal esperado = new BigDecimal("93.00").multiply(BigDecimal.valueOf(PAGAMENTOS));
+        assertThat(creditados).hasSize(PAGAMENTOS);
+        assertThat(walletPrestadorRepository.findByPrestadorId(prestador.getId()).orElseThrow().getSaldoDisponivel())
+                .isEqualByComparingTo(esperado);
+        assertThat(transacaoWalletRepository.count()).isEqualTo(PAGAMENTOS);
+
+        // Reentrega de todos os pagamentos (webhook repetido): nada muda
+        for (Confirmacao confirmacao : entregas) {
+            walletService.creditarPorPagamentoConfirmado(confirmacao.agendamento(), confirmacao.pagamento());
+        }
+
+        assertThat(walletPrestadorRepository.findByPrestadorId(prestador.getId()).orElseThrow().getSaldoDisponivel())
+                .isEqualByComparingTo(esperado);
+        assertThat(transacaoWalletRepository.count()).isEqualTo(PAGAMENTOS);
+    }
+
+    @Test
+    void creditarDuasVezesOMesmoPagamento_criaWalletECreditaUmaVez() {
+        Confirmacao confirmacao = pagamentoConfirmado(0);
+
+        walletService.creditarPorPagamentoConfirmado(confirmacao.agendamento(), confirmacao.pagamento());
+        walletService.creditarPorPagamentoConfirmado(confirmacao.agendamento(), confirmacao.pagamento());
+
+        assertThat(walletPrestadorRepository.findByPrestadorId(prestador.getId()).orElseThrow().getSaldoDisponivel())
+                .isEqualByComparingTo("93.00");
+        assertThat(transacaoWalletRepository.existsByPagamentoId(confirmacao.pagamento().getId())).isTrue();
+        assertThat(transacaoWalletRepository.count()).isEqualTo(1);
+    }
+
+    private Confirmacao pagamentoConfirmado(int i) {
+        Agendamento agendamento = agendamentoRepository.save(Agendamento.builder()
+                .cliente(cliente)
+                .prestador(prestador)
+                .dataHora(LocalDateTime.now().plusDays(1).plusHours(i).withNano(0))
+                .status(StatusAgendamento.CONFIRMADO)
+                .formaPagamento(FormaPagamento.ONLINE)
+                .valorServico(new BigDecimal("100.00"))
+                .build());
+        Pagamento pagamento = pagamentoRepository.save(Pagamento.builder()
+                .agendamento(agendamento)
+                .status(StatusPagamento.CONFIRMADO)
+                .build());
+        return new Confirmacao(agendamento, pagamento);
+    }
+
+    private void limpar() {
+        transacaoWalletRepository.deleteAll();
+        walletPrestadorRepository.deleteAll();
+        slotRepository.deleteAll();
+        pagamentoRepository.deleteAll();
+        agendamentoRepository.deleteAll();
+        clienteRepository.findAll().forEach(c -> identidadeService.esquecer(c.getKeycloakId()));
+        prestadorRepository.findAll().forEach(p -> {
+            identidadeService.esquecer(p.getKeycloakId());
+            cacheAssinaturas.esquecer(p.getKeycloakId());
+        });
+        prestadorRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    private record Confirmacao(Agendamento agendamento, Pagamento pagamento) {
+    }
+}
@@ -2,7 +2,6 @@ package com.ajeitai.backend.service;
 
 import com.ajeitai.backend.domain.agendamento.Agendamento;
 import com.ajeitai.backend.domain.financeiro.TipoTransacaoWallet;
-import com.ajeitai.backend.domain.financeiro.WalletPrestador;
 import com.ajeitai.backend.domain.pagamento.Pagamento;
 import com.ajeitai.backend.domain.prestador.Prestador;
 import com.ajeitai.backend.repository.TransacaoWalletRepository;
@@ -11,23 +10,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
-import java.util.Optional;
 
-import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class WalletServiceTest {
 
     private WalletPrestadorRepository walletPrestadorRepository;
     private TransacaoWalletRepository transacaoWalletRepository;
+    private MetricasPlataformaService metricasPlataformaService;
     private WalletService walletService;
 
     @BeforeEach
     void setup() {
         walletPrestadorRepository = mock(WalletPrestadorRepository.class);
         transacaoWalletRepository = mock(TransacaoWalletRepository.class);
-        walletService = new WalletService(walletPrestadorRepository, transacaoWalletRepository);
+        metricasPlataformaService = mock(MetricasPlataformaService.class);
+        walletService = new WalletService(walletPrestadorRepository, transacaoWalletRepository, metricasPlataformaService);
     }
 
     @Test
@@ -40,13 +40,14 @@ class WalletServiceTest {
                 .build();
         Pagamento pagamento = Pagamento.builder().id(5L).build();
 
-        when(transacaoWalletRepository.existsByPagamentoId(5L)).thenReturn(true);
+        when(transacaoWalletRepository.registrarCreditoDePagamento(eq(1L), any(), any(), any(), any(), eq(10L), eq(5L), any()))
+                .thenReturn(0);
 
         walletService.creditarPorPagamentoConfirmado(agendamento, pagamento);
 
-        verify(transacaoWalletRepository).existsByPagamentoId(5L);
-        verify(walletPrestadorRepository, never()).findByPrestadorId(any());
-        verify(transacaoWalletRepository, never()).save(any());
+        verify(walletPrestadorRepository, never()).criarSeAusente(any());
+        verify(walletPrestadorRepository, never()).creditar(any(), any());
+        verifyNoInteractions(metricasPlataformaService);
     }
 
     @Test
@@ -59,22 +60,25 @@ class WalletServiceTest {
                 .build();
         Pagamento pagamento = Pagamento.builder().id(5L).build();
 
-        when(transacaoWalletRepository.existsByPagamentoId(5L)).thenReturn(false);
-        when(walletPrestadorRepository.findByPrestadorId(1L)).thenReturn(Optional.empty());
-        when(walletPrestadorRepository.save(any(WalletPrestador.class))).thenAnswer(i -> i.getArgument(0));
-        when(transacaoWalletRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(transacaoWalletRepository.registrarCreditoDePagamento(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(1);
 
         walletService.creditarPorPagamentoConfirmado(agendamento, pagamento);
 
-        verify(walletPrestadorRepository).findByPrestadorId(1L);
-        verify(transacaoWalletRepository).save(argThat(t ->
-                t.getTipo() == TipoTransacaoWallet.CREDITO_AGENDAMENTO
-                        && t.getValorBruto().compareTo(new BigDecimal("100.00")) == 0
-                        && t.getTaxaPlataforma().compareTo(new BigDecimal("7.00")) == 0
-                        && t.getValorLiquido().compareTo(new BigDecimal("93.00")) == 0
-        ));
-        verify(walletPrestadorRepository).save(argThat(w ->
-                w.getSaldoDisponivel().compareTo(new BigDecimal("93.00")) == 0
-        ));
+        verify(transacaoWalletRepository).registrarCreditoDePagamento(
+                eq(1L),
+                eq(TipoTransacaoWallet.CREDITO_AGENDAMENTO.name()),
+                argThat(bruto -> bruto.compareTo(new BigDecimal("100.00")) == 0),
+                argThat(taxa -> taxa.compareTo(new BigDecimal("7.00")) == 0),
+                argThat(liquido -> liquido.compareTo(new BigDecimal("93.00")) == 0),
+                eq(10L),
+                eq(5L),
+                any());
+        verify(walletPrestadorRepository).criarSeAusente(1L);
+        verify(walletPrestadorRepository).creditar(eq(1L), argThat(v -> v.compareTo(new BigDecimal("93.00")) == 0));
+        verify(walletPrestadorRepository, never()).save(any());
+        verify(metricasPlataformaService).registrarCreditoDePagamento(
+                argThat(bruto -> bruto.compareTo(new BigDecimal("100.00")) == 0),
+                argThat(taxa -> taxa.compareTo(new BigDecimal("7.00")) == 0));
     }
 }
@@ -0,0 +1,51 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogoListaKeyGeneratorTest {
+
+    private final CatalogoListaKeyGenerator keyGenerator = new CatalogoListaKeyGenerator(5);
+
+    @Test
+    void celulaGeohash_codificaComoReferencia() {
+        CelulaGeohash celula = CelulaGeohash.de(57.64911, 10.40744, 11);
+
+        assertThat(celula.hash()).isEqualTo("u4pruydqqvj");
+        assertThat(celula.latitudeMin()).isLessThanOrEqualTo(57.64911);
+        assertThat(celula.latitudeMax()).isGreaterThan(57.64911);
+    }
+
+    @Test
+    void chave_pontosProximosCompartilhamCelula() {
+        String a = chave(-23.5505, -46.6333, 5.0);
+        String b = chave(-23.5512, -46.6341, 5.0);
+        String longe = chave(-22.9068, -43.1729, 5.0);
+
+        assertThat(a).isEqualTo(b);
+        assertThat(a).isNotEqualTo(longe);
+        assertThat(a).isNotEqualTo(chave(-23.5505, -46.6333, 10.0));
+    }
+
+    @Test
+    void chave_semRaioIgnoraCoordenadas() {
+        assertThat(chave(-23.5505, -46.6333, null)).isEqualTo(chave(-22.9068, -43.1729, null));
+        assertThat(chave(-23.5505, -46.6333, null)).isEqualTo(chave(null, null, null));
+    }
+
+    @Test
+    void meiaDiagonal_cobreQualquerPontoDaCelula() {
+        CelulaGeohash celula = keyGenerator.celula(-23.5505, -46.6333);
+        double canto = GeoUtils.haversineKm(celula.latitudeCentro(), celula.longitudeCentro(),
+                celula.latitudeMin(), celula.longitudeMin());
+
+        assertThat(celula.meiaDiagonalKm()).isGreaterThanOrEqualTo(canto - 1e-9);
+        assertThat(celula.meiaDiagonalKm()).isLessThan(5.0);
+    }
+
+    private String chave(Double latitude, Double longitude, Double raioKm) {
+        return keyGenerator.chave(CategoriaAtuacao.LIMPEZA, null, null, null, latitude, longitude, raioKm).valor();
+    }
+}
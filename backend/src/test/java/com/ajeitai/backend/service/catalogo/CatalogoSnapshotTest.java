@@ -0,0 +1,154 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.catalogo.CursorCatalogo;
+import com.ajeitai.backend.domain.catalogo.FiltroCatalogo;
+import com.ajeitai.backend.domain.catalogo.PrestadorComEstatisticas;
+import com.ajeitai.backend.domain.endereco.Endereco;
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
+import com.ajeitai.backend.domain.prestador.PrestadorEstatisticas;
+import com.ajeitai.backend.infra.cache.LocalBarramentoInvalidacao;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CatalogoSnapshotTest {
+
+    private PrestadorRepository prestadorRepository;
+    private CatalogoSnapshot snapshot;
+
+    @BeforeEach
+    void setup() {
+        prestadorRepository = mock(PrestadorRepository.class);
+        snapshot = new CatalogoSnapshot(prestadorRepository, new LocalBarramentoInvalidacao(), true);
+        when(prestadorRepository.listarAtivosComEstatisticas(null, null, null, null, null)).thenReturn(List.of(
+                linha(1L, "Casa Limpa", CategoriaAtuacao.LIMPEZA, "150.00", -23.50, -46.60, 4.5, 10L, true),
+                linha(2L, "Limpeza Rápida", CategoriaAtuacao.LIMPEZA, "90.00", -23.60, -46.70, 3.0, 30L, true),
+                linha(3L, "Limpa Tudo", CategoriaAtuacao.LIMPEZA, "120.00", -23.51, -46.61, 5.0, 5L, true),
+                linha(4L, "Luz Certa", CategoriaAtuacao.ELETRICISTA, "200.00", null, null, 4.0, 1L, true)
+        ));
+        snapshot.carregar();
+    }
+
+    @Test
+    void buscarPagina_filtraEOrdenaComoOBanco() {
+        FiltroCatalogo porValor = FiltroCatalogo.de(null, CategoriaAtuacao.LIMPEZA, null, "valorServico", null, null);
+
+        assertThat(ids(snapshot.buscarPagina(porValor, null, 0, 10))).containsExactly(2L, 3L, 1L);
+        assertThat(ids(snapshot.buscarPagina(porValor, null, 1, 1))).containsExactly(3L);
+        assertThat(snapshot.contar(porValor)).isEqualTo(3);
+
+        FiltroCatalogo porAvaliacao = FiltroCatalogo.de("limp", null, 4.0, "avaliacao", null, null);
+        assertThat(ids(snapshot.buscarPagina(porAvaliacao, null, 0, 10))).containsExactly(3L, 1L);
+
+        FiltroCatalogo porDistancia = FiltroCatalogo.de(null, null, null, null, -23.60, -46.70);
+        List<CatalogoSnapshot.Item> proximos = snapshot.buscarPagina(porDistancia, null, 0, 10);
+        assertThat(ids(proximos)).containsExactly(2L, 3L, 1L, 4L);
+        assertThat(proximos.get(0).resumo().distanciaKm()).isZero();
+        assertThat(proximos.get(3).resumo().distanciaKm()).isNull();
+    }
+
+    @Test
+    void buscarPagina_cursorPercorreSemRepetir() {
+        FiltroCatalogo filtro = FiltroCatalogo.de(null, null, null, "experiencia", null, null);
+
+        List<CatalogoSnapshot.Item> primeira = snapshot.buscarPagina(filtro, null, 0, 2);
+        String assinatura = filtro.assinatura(null, null);
+        CursorCatalogo cursor = CursorCatalogo.decodificar(primeira.get(1).cursor().codificar(assinatura), assinatura);
+        List<CatalogoSnapshot.Item> segunda = snapshot.buscarPagina(filtro, cursor, 0, 2);
+
+        assertThat(ids(primeira)).containsExactly(2L, 1L);
+        assertThat(ids(segunda)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void buscarPagina_semEstatisticasVaiParaOFimEOCursorAtravessaEsseTrecho() {
+        Prestador novo = Prestador.builder().id(5L).nomeFantasia("Novo").categoria(CategoriaAtuacao.LIMPEZA).ativo(true).build();
+        Prestador outroNovo = Prestador.builder().id(6L).nomeFantasia("Outro Novo").categoria(CategoriaAtuacao.LIMPEZA).ativo(true).build();
+        when(prestadorRepository.listarComEstatisticasPorIds(any())).thenReturn(List.of(
+                new PrestadorComEstatisticas(novo, null), new PrestadorComEstatisticas(outroNovo, null)));
+        snapshot.onPrestadorAlterado(new PrestadorAlteradoEvent(5L, MotivoAlteracao.PERFIL));
+        snapshot.onPrestadorAlterado(new PrestadorAlteradoEvent(6L, MotivoAlteracao.PERFIL));
+        snapshot.aplicarPendentes();
+        FiltroCatalogo filtro = FiltroCatalogo.de(null, null, null, "avaliacao", null, null);
+        String assinatura = filtro.assinatura(null, null);
+
+        List<CatalogoSnapshot.Item> primeira = snapshot.buscarPagina(filtro, null, 0, 5);
+        CursorCatalogo cursor = CursorCatalogo.decodificar(primeira.get(4).cursor().codificar(assinatura), assinatura);
+        List<CatalogoSnapshot.Item> segunda = snapshot.buscarPagina(filtro, cursor, 0, 5);
+
+        assertThat(ids(primeira)).containsExactly(3L, 1L, 4L, 2L, 5L);
+        assertThat(cursor.chave()).isNull();
+        assertThat(ids(segunda)).containsExactly(6L);
+    }
+
+    @Test
+    void cursor_recusadoComOutraOrdenacaoOuOutrosFiltros() {
+        FiltroCatalogo porValor = FiltroCatalogo.de(null, null, null, "valorServico", null, null);
+        String cursor = snapshot.buscarPagina(porValor, null, 0, 1).get(0).cursor().codificar(porValor.assinatura(null, null));
+
+        FiltroCatalogo porAvaliacao = FiltroCatalogo.de(null, null, null, "avaliacao", null, null);
+        FiltroCatalogo outraCategoria = FiltroCatalogo.de(null, CategoriaAtuacao.LIMPEZA, null, "valorServico", null, null);
+        assertThatThrownBy(() -> CursorCatalogo.decodificar(cursor, porAvaliacao.assinatura(null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorCatalogo.decodificar(cursor, outraCategoria.assinatura(null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorCatalogo.decodificar(cursor, porValor.assinatura(5.0, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(CursorCatalogo.decodificar(cursor, porValor.assinatura(null, null)).id()).isEqualTo(2L);
+    }
+
+    @Test
+    void aplicarPendentes_trocaSnapshotComAlteracoes() {
+        long geracao = snapshot.geracao();
+        when(prestadorRepository.listarComEstatisticasPorIds(any())).thenReturn(List.of(
+                linha(2L, "Limpeza Rápida", CategoriaAtuacao.LIMPEZA, "300.00", -23.60, -46.70, 3.0, 30L, true),
+                linha(4L, "Luz Certa", CategoriaAtuacao.ELETRICISTA, "200.00", null, null, 4.0, 1L, false)
+        ));
+
+        snapshot.onPrestadorAlterado(new PrestadorAlteradoEvent(2L, MotivoAlteracao.PERFIL));
+        snapshot.onPrestadorAlterado(new PrestadorAlteradoEvent(4L, MotivoAlteracao.PERFIL));
+        snapshot.onPrestadorAlterado(new PrestadorAlteradoEvent(1L, MotivoAlteracao.PORTFOLIO));
+        assertThat(snapshot.atualizado()).isFalse();
+        snapshot.aplicarPendentes();
+        assertThat(snapshot.atualizado()).isTrue();
+
+        FiltroCatalogo porValor = FiltroCatalogo.de(null, null, null, "valorServico", null, null);
+        assertThat(ids(snapshot.buscarPagina(porValor, null, 0, 10))).containsExactly(3L, 1L, 2L);
+        assertThat(snapshot.tamanho()).isEqualTo(3);
+        assertThat(snapshot.geracao()).isGreaterThan(geracao);
+        verify(prestadorRepository).listarComEstatisticasPorIds(argThat(ids -> ids.size() == 2));
+    }
+
+    private static List<Long> ids(List<CatalogoSnapshot.Item> itens) {
+        return itens.stream().map(i -> i.resumo().id()).toList();
+    }
+
+    private static PrestadorComEstatisticas linha(Long id, String nome, CategoriaAtuacao categoria, String valor,
+                                                  Double latitude, Double longitude, double media, long servicos,
+                                                  boolean ativo) {
+        Prestador prestador = Prestador.builder()
+                .id(id)
+                .nomeFantasia(nome)
+                .categoria(categoria)
+                .ativo(ativo)
+                .valorServico(new BigDecimal(valor))
+                .endereco(new Endereco("Rua A", "Centro", "12345678", "10", null, "São Paulo", "SP", latitude, longitude))
+                .build();
+        PrestadorEstatisticas estatisticas = PrestadorEstatisticas.vazia(id);
+        estatisticas.setMediaAvaliacao(media);
+        estatisticas.setTotalAvaliacoes(1L);
+        estatisticas.setTotalServicos(servicos);
+        return new PrestadorComEstatisticas(prestador, estatisticas);
+    }
+}
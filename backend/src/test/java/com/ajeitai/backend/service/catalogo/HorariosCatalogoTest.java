@@ -0,0 +1,81 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.config.CacheConfig;
+import com.ajeitai.backend.domain.agendamento.AgendamentoCriadoEvent;
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.catalogo.HorariosDoDia;
+import com.ajeitai.backend.repository.AgendamentoRepository;
+import com.ajeitai.backend.repository.DisponibilidadeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class HorariosCatalogoTest {
+
+    private final LocalDate segunda = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    private DisponibilidadeRepository disponibilidadeRepository;
+    private AgendamentoRepository agendamentoRepository;
+    private HorariosCatalogo horarios;
+
+    @BeforeEach
+    void setup() {
+        disponibilidadeRepository = mock(DisponibilidadeRepository.class);
+        agendamentoRepository = mock(AgendamentoRepository.class);
+        horarios = new HorariosCatalogo(disponibilidadeRepository, agendamentoRepository,
+                new ConcurrentMapCacheManager(CacheConfig.CACHE_CATALOGO_HORARIOS), 60, 31);
+
+        DisponibilidadeRepository.FaixaSemanal faixa = mock(DisponibilidadeRepository.FaixaSemanal.class);
+        when(faixa.getPrestadorId()).thenReturn(1L);
+        when(faixa.getDiaSemana()).thenReturn(1);
+        when(faixa.getHoraInicio()).thenReturn(LocalTime.of(8, 0));
+        when(faixa.getHoraFim()).thenReturn(LocalTime.of(11, 30));
+        List<DisponibilidadeRepository.FaixaSemanal> faixas = List.of(faixa);
+        when(disponibilidadeRepository.listarFaixasDoPrestador(1L)).thenReturn(faixas);
+
+        AgendamentoRepository.HorarioOcupado ocupado = mock(AgendamentoRepository.HorarioOcupado.class);
+        when(ocupado.getPrestadorId()).thenReturn(1L);
+        when(ocupado.getDataHora()).thenReturn(segunda.atTime(9, 15));
+        when(ocupado.getDataHoraFim()).thenReturn(segunda.atTime(9, 45));
+        List<AgendamentoRepository.HorarioOcupado> ocupados = List.of(ocupado);
+        when(agendamentoRepository.listarHorariosOcupadosDoPrestadorEntre(
+                eq(1L), eq(StatusAgendamento.OCUPAM_HORARIO), any(), any())).thenReturn(ocupados);
+    }
+
+    @Test
+    void listar_intersectaAgendaSemanalComAgendamentosEmUmaConsulta() {
+        List<HorariosDoDia> dias = horarios.listar(1L, segunda, segunda.plusDays(7));
+
+        assertThat(dias).hasSize(8);
+        assertThat(dias.get(0).horarios()).containsExactly(LocalTime.of(8, 0), LocalTime.of(10, 0));
+        assertThat(dias.get(1).horarios()).isEmpty();
+        assertThat(dias.get(7).horarios()).containsExactly(LocalTime.of(8, 0), LocalTime.of(9, 0), LocalTime.of(10, 0));
+        verify(agendamentoRepository, times(1)).listarHorariosOcupadosDoPrestadorEntre(
+                1L, StatusAgendamento.OCUPAM_HORARIO, segunda.atStartOfDay(), segunda.plusDays(8).atStartOfDay());
+    }
+
+    @Test
+    void listar_usaCachePorDiaEInvalidaODiaDoAgendamento() {
+        horarios.listar(1L, segunda, segunda.plusDays(1));
+        horarios.listar(1L, segunda, segunda.plusDays(1));
+        verify(disponibilidadeRepository, times(1)).listarFaixasDoPrestador(1L);
+
+        horarios.onAgendamentoCriado(new AgendamentoCriadoEvent(10L, 2L, 1L, segunda.plusDays(1).atTime(8, 0)));
+        horarios.listar(1L, segunda, segunda.plusDays(1));
+
+        verify(disponibilidadeRepository, times(2)).listarFaixasDoPrestador(1L);
+        verify(agendamentoRepository).listarHorariosOcupadosDoPrestadorEntre(
+                1L, StatusAgendamento.OCUPAM_HORARIO, segunda.plusDays(1).atStartOfDay(), segunda.plusDays(2).atStartOfDay());
+    }
+}
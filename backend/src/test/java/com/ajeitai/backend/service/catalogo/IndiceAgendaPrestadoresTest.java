@@ -0,0 +1,164 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.agendamento.AgendamentoStatusAlteradoEvent;
+import com.ajeitai.backend.domain.agendamento.StatusAgendamento;
+import com.ajeitai.backend.domain.catalogo.JanelaHorario;
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
+import com.ajeitai.backend.infra.cache.BarramentoInvalidacao;
+import com.ajeitai.backend.infra.cache.RedisBarramentoInvalidacao;
+import com.ajeitai.backend.repository.AgendamentoRepository;
+import com.ajeitai.backend.repository.DisponibilidadeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IndiceAgendaPrestadoresTest {
+
+    private final LocalDate segunda = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+    private DisponibilidadeRepository disponibilidadeRepository;
+    private AgendamentoRepository agendamentoRepository;
+    private BarramentoInvalidacao barramento;
+    private VersoesCatalogo versoes;
+    private IndiceAgendaPrestadores indice;
+
+    @BeforeEach
+    void setup() {
+        disponibilidadeRepository = mock(DisponibilidadeRepository.class);
+        agendamentoRepository = mock(AgendamentoRepository.class);
+        barramento = mock(BarramentoInvalidacao.class);
+        versoes = mock(VersoesCatalogo.class);
+        indice = new IndiceAgendaPrestadores(disponibilidadeRepository, agendamentoRepository, barramento, versoes, 30);
+        List<DisponibilidadeRepository.FaixaSemanal> faixas = List.of(
+                faixa(1L, 1, LocalTime.of(8, 0), LocalTime.of(12, 0)),
+                faixa(2L, 1, LocalTime.of(14, 0), LocalTime.of(18, 0)),
+                faixa(3L, 2, LocalTime.of(8, 0), LocalTime.of(18, 0)));
+        List<AgendamentoRepository.HorarioOcupado> ocupados = List.of(ocupado(1L, segunda.atTime(9, 0), segunda.atTime(9, 30)));
+        when(disponibilidadeRepository.listarFaixas()).thenReturn(faixas);
+        when(agendamentoRepository.listarHorariosOcupados(eq(StatusAgendamento.OCUPAM_HORARIO), any()))
+                .thenReturn(ocupados);
+        indice.carregar();
+    }
+
+    @Test
+    void livre_consideraDiaDaSemanaFaixaESlotOcupado() {
+        assertThat(indice.livres(instante(segunda.atTime(10, 15)))).containsExactly(1L);
+        assertThat(indice.livres(instante(segunda.atTime(15, 0)))).containsExactly(2L);
+        assertThat(indice.livres(instante(segunda.plusDays(1).atTime(9, 0)))).containsExactly(3L);
+        assertThat(indice.livre(1L, instante(segunda.atTime(9, 20)))).isFalse();
+        assertThat(indice.livres(instante(segunda.plusDays(2).atTime(9, 0)))).isEmpty();
+    }
+
+    @Test
+    void livre_janelaBastaUmSlotLivre() {
+        JanelaHorario manha = JanelaHorario.de(segunda.atTime(9, 0), segunda.atTime(9, 45));
+
+        assertThat(indice.livre(1L, manha)).isTrue();
+        assertThat(indice.livre(2L, manha)).isFalse();
+    }
+
+    @Test
+    void recarregarOcupados_agendamentoLongoOcupaTodosOsSlotsQueToca() {
+        List<AgendamentoRepository.HorarioOcupado> ocupados = List.of(
+                ocupado(2L, segunda.atTime(14, 10), segunda.atTime(15, 40)));
+        when(agendamentoRepository.listarHorariosOcupadosDoPrestador(eq(2L), eq(StatusAgendamento.OCUPAM_HORARIO), any()))
+                .thenReturn(ocupados);
+
+        indice.recarregarOcupados(2L);
+
+        assertThat(indice.livre(2L, instante(segunda.atTime(14, 0)))).isFalse();
+        assertThat(indice.livre(2L, instante(segunda.atTime(15, 30)))).isFalse();
+        assertThat(indice.livre(2L, JanelaHorario.de(segunda.atTime(14, 0), segunda.atTime(15, 59)))).isFalse();
+        assertThat(indice.livre(2L, instante(segunda.atTime(16, 0)))).isTrue();
+    }
+
+    @Test
+    void onAgendamentoStatusAlterado_recarregaOcupadosEPropaga() {
+        when(agendamentoRepository.listarHorariosOcupadosDoPrestador(eq(1L), eq(StatusAgendamento.OCUPAM_HORARIO), any()))
+                .thenReturn(List.of());
+
+        indice.onAgendamentoStatusAlterado(new AgendamentoStatusAlteradoEvent(
+                10L, 1L, segunda.atTime(9, 0), StatusAgendamento.CANCELADO));
+
+        assertThat(indice.livre(1L, instante(segunda.atTime(9, 0)))).isTrue();
+        verify(versoes).registrarAlteracaoAgenda();
+        verify(barramento).publicar(IndiceAgendaPrestadores.TIPO_AGENDA, "1");
+    }
+
+    @Test
+    void mensagemDeAgendaDeOutraReplica_recarregaOcupadosSemRepublicar() {
+        RedisBarramentoInvalidacao redis = new RedisBarramentoInvalidacao(
+                mock(RedisConnectionFactory.class, Answers.RETURNS_DEEP_STUBS));
+        IndiceAgendaPrestadores replica = new IndiceAgendaPrestadores(
+                disponibilidadeRepository, agendamentoRepository, redis, versoes, 30);
+        replica.carregar();
+        assertThat(replica.livre(1L, instante(segunda.atTime(9, 0)))).isFalse();
+        when(agendamentoRepository.listarHorariosOcupadosDoPrestador(eq(1L), eq(StatusAgendamento.OCUPAM_HORARIO), any()))
+                .thenReturn(List.of());
+
+        redis.onMessage(new DefaultMessage(RedisBarramentoInvalidacao.CANAL.getBytes(StandardCharsets.UTF_8),
+                ("outra-replica|" + IndiceAgendaPrestadores.TIPO_AGENDA + "|1").getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(replica.livre(1L, instante(segunda.atTime(9, 0)))).isTrue();
+        verify(versoes, never()).registrarAlteracaoAgenda();
+    }
+
+    @Test
+    void onPrestadorAlterado_disponibilidadeSubstituiAgendaSemanal() {
+        when(disponibilidadeRepository.listarFaixasDoPrestador(2L)).thenReturn(List.of());
+
+        indice.onPrestadorAlterado(new PrestadorAlteradoEvent(2L, MotivoAlteracao.DISPONIBILIDADE));
+
+        assertThat(indice.livre(2L, instante(segunda.atTime(15, 0)))).isFalse();
+        assertThat(indice.tamanho()).isEqualTo(2);
+        verify(versoes).registrarAlteracaoAgenda();
+    }
+
+    @Test
+    void janela_fimAntesDoInicioLancaExcecao() {
+        assertThatThrownBy(() -> JanelaHorario.de(segunda.atTime(10, 0), segunda.atTime(9, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JanelaHorario.de(null, segunda.atTime(9, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static JanelaHorario instante(LocalDateTime dataHora) {
+        return JanelaHorario.de(dataHora, null);
+    }
+
+    private static DisponibilidadeRepository.FaixaSemanal faixa(Long prestadorId, int diaSemana,
+                                                               LocalTime inicio, LocalTime fim) {
+        DisponibilidadeRepository.FaixaSemanal faixa = mock(DisponibilidadeRepository.FaixaSemanal.class);
+        when(faixa.getPrestadorId()).thenReturn(prestadorId);
+        when(faixa.getDiaSemana()).thenReturn(diaSemana);
+        when(faixa.getHoraInicio()).thenReturn(inicio);
+        when(faixa.getHoraFim()).thenReturn(fim);
+        return faixa;
+    }
+
+    private static AgendamentoRepository.HorarioOcupado ocupado(Long prestadorId, LocalDateTime dataHora,
+                                                                LocalDateTime dataHoraFim) {
+        AgendamentoRepository.HorarioOcupado horario = mock(AgendamentoRepository.HorarioOcupado.class);
+        when(horario.getPrestadorId()).thenReturn(prestadorId);
+        when(horario.getDataHora()).thenReturn(dataHora);
+        when(horario.getDataHoraFim()).thenReturn(dataHoraFim);
+        return horario;
+    }
+}
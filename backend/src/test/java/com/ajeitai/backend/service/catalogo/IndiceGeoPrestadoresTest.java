@@ -0,0 +1,96 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.domain.catalogo.LocalizacaoPrestador;
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
+import com.ajeitai.backend.infra.cache.LocalBarramentoInvalidacao;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class IndiceGeoPrestadoresTest {
+
+    private PrestadorRepository prestadorRepository;
+    private IndiceGeoPrestadores indice;
+
+    @BeforeEach
+    void setup() {
+        prestadorRepository = mock(PrestadorRepository.class);
+        indice = new IndiceGeoPrestadores(prestadorRepository, new LocalBarramentoInvalidacao(), 0.05);
+        when(prestadorRepository.listarLocalizacoesAtivas()).thenReturn(List.of(
+                new LocalizacaoPrestador(1L, CategoriaAtuacao.LIMPEZA, true, -23.550, -46.630),
+                new LocalizacaoPrestador(2L, CategoriaAtuacao.LIMPEZA, true, -23.560, -46.640),
+                new LocalizacaoPrestador(3L, CategoriaAtuacao.ELETRICISTA, true, -23.551, -46.631),
+                new LocalizacaoPrestador(4L, CategoriaAtuacao.LIMPEZA, true, -22.900, -43.200)
+        ));
+        indice.carregar();
+    }
+
+    @Test
+    void buscarNoRaio_retornaOrdenadoPorDistanciaDentroDoRaio() {
+        List<Long> ids = indice.buscarNoRaio(-23.550, -46.630, 5.0, null);
+
+        assertThat(ids).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    void buscarNoRaio_filtraCategoria() {
+        List<Long> ids = indice.buscarNoRaio(-23.550, -46.630, 5.0, CategoriaAtuacao.LIMPEZA);
+
+        assertThat(ids).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void buscarNoRaio_retornaTodosDentroDoRaioSemLimite() {
+        List<LocalizacaoPrestador> muitos = new ArrayList<>();
+        for (long id = 100; id < 1_100; id++) {
+            muitos.add(new LocalizacaoPrestador(id, CategoriaAtuacao.LIMPEZA, true, -23.550 + id * 1e-5, -46.630));
+        }
+        when(prestadorRepository.listarLocalizacoesAtivas()).thenReturn(muitos);
+        indice.carregar();
+
+        assertThat(indice.buscarNoRaio(-23.550, -46.630, 5.0, null)).hasSize(1_000);
+    }
+
+    @Test
+    void carregar_mantemIndiceAnteriorAteATrocaEReaplicaAlteracoesRecebidasDurante() {
+        when(prestadorRepository.listarLocalizacoesAtivas()).thenAnswer(invocacao -> {
+            // Buscas durante a recarga ainda veem a grade anterior
+            assertThat(indice.buscarNoRaio(-23.550, -46.630, 5.0, null)).containsExactly(1L, 3L, 2L);
+            indice.atualizar(new LocalizacaoPrestador(5L, CategoriaAtuacao.LIMPEZA, true, -23.5505, -46.6305));
+            return List.of(new LocalizacaoPrestador(1L, CategoriaAtuacao.LIMPEZA, true, -23.550, -46.630));
+        });
+
+        indice.carregar();
+
+        assertThat(indice.buscarNoRaio(-23.550, -46.630, 5.0, null)).containsExactly(1L, 5L);
+        assertThat(indice.tamanho()).isEqualTo(2);
+    }
+
+    @Test
+    void onPrestadorAlterado_moveEDesativa() {
+        when(prestadorRepository.buscarLocalizacao(4L)).thenReturn(Optional.of(
+                new LocalizacaoPrestador(4L, CategoriaAtuacao.LIMPEZA, true, -23.552, -46.632)));
+        indice.onPrestadorAlterado(new PrestadorAlteradoEvent(4L, MotivoAlteracao.PERFIL));
+
+        assertThat(indice.buscarNoRaio(-23.550, -46.630, 1.0, CategoriaAtuacao.LIMPEZA))
+                .containsExactly(1L, 4L);
+        assertThat(indice.buscarNoRaio(-22.900, -43.200, 5.0, null)).isEmpty();
+
+        when(prestadorRepository.buscarLocalizacao(1L)).thenReturn(Optional.of(
+                new LocalizacaoPrestador(1L, CategoriaAtuacao.LIMPEZA, false, -23.550, -46.630)));
+        indice.onPrestadorAlterado(new PrestadorAlteradoEvent(1L, MotivoAlteracao.PERFIL));
+
+        assertThat(indice.buscarNoRaio(-23.550, -46.630, 1.0, CategoriaAtuacao.LIMPEZA))
+                .containsExactly(4L);
+        assertThat(indice.tamanho()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,105 @@
+package com.ajeitai.backend.service.catalogo;
+
+import com.ajeitai.backend.config.CacheConfig;
+import com.ajeitai.backend.domain.endereco.Endereco;
+import com.ajeitai.backend.domain.prestador.CategoriaAtuacao;
+import com.ajeitai.backend.domain.prestador.MotivoAlteracao;
+import com.ajeitai.backend.domain.prestador.Prestador;
+import com.ajeitai.backend.domain.prestador.PrestadorAlteradoEvent;
+import com.ajeitai.backend.infra.cache.BarramentoInvalidacao;
+import com.ajeitai.backend.repository.PrestadorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class InvalidadorCacheCatalogoTest {
+
+    private PrestadorRepository prestadorRepository;
+    private BarramentoInvalidacao barramento;
+    private Cache lista;
+    private Cache detalhe;
+    private InvalidadorCacheCatalogo invalidador;
+    private VersoesCatalogo versoes;
+
+    private final CatalogoListaKeyGenerator keyGenerator = new CatalogoListaKeyGenerator(5);
+
+    @BeforeEach
+    void setup() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+                CacheConfig.CACHE_CATALOGO_LISTA, CacheConfig.CACHE_CATALOGO_DETALHE);
+        MemoriaRegistroChavesCatalogo registro = new MemoriaRegistroChavesCatalogo();
+        prestadorRepository = mock(PrestadorRepository.class);
+        barramento = mock(BarramentoInvalidacao.class);
+        versoes = new MemoriaVersoesCatalogo();
+        invalidador = new InvalidadorCacheCatalogo(cacheManager, registro, prestadorRepository, barramento, versoes);
+        lista = cacheManager.getCache(CacheConfig.CACHE_CATALOGO_LISTA);
+        detalhe = cacheManager.getCache(CacheConfig.CACHE_CATALOGO_DETALHE);
+
+        popular(registro, CategoriaAtuacao.LIMPEZA, "São Paulo", List.of(1L, 2L));
+        popular(registro, CategoriaAtuacao.ELETRICISTA, "São Paulo", List.of(3L));
+        popular(registro, null, "Rio de Janeiro", List.of(4L));
+        detalhe.put(1L, "detalhe-1");
+        detalhe.put(2L, "detalhe-2");
+    }
+
+    @Test
+    void alteracaoDePerfil_invalidaListagensDoPrestadorECompativeis() {
+        Prestador prestador = Prestador.builder()
+                .id(1L)
+                .categoria(CategoriaAtuacao.ELETRICISTA)
+                .endereco(new Endereco("Rua A", "Centro", "12345678", "10", null, "São Paulo", "SP", null, null))
+                .build();
+        when(prestadorRepository.findById(1L)).thenReturn(Optional.of(prestador));
+
+        invalidador.onPrestadorAlterado(new PrestadorAlteradoEvent(1L, MotivoAlteracao.PERFIL));
+
+        assertThat(lista.get(chave(CategoriaAtuacao.LIMPEZA, "São Paulo"))).isNull();
+        assertThat(lista.get(chave(CategoriaAtuacao.ELETRICISTA, "São Paulo"))).isNull();
+        assertThat(lista.get(chave(null, "Rio de Janeiro"))).isNotNull();
+        assertThat(detalhe.get(1L)).isNull();
+        assertThat(detalhe.get(2L)).isNotNull();
+        verify(barramento).publicar(InvalidadorCacheCatalogo.TIPO_PRESTADOR, "1:PERFIL");
+    }
+
+    @Test
+    void alteracaoDePortfolio_invalidaSomenteDetalhe() {
+        String versaoListagens = versoes.versaoListagens();
+        String versaoDetalhe = versoes.versaoPrestador(2L);
+
+        invalidador.onPrestadorAlterado(new PrestadorAlteradoEvent(2L, MotivoAlteracao.PORTFOLIO));
+
+        assertThat(detalhe.get(2L)).isNull();
+        assertThat(lista.get(chave(CategoriaAtuacao.LIMPEZA, "São Paulo"))).isNotNull();
+        assertThat(versoes.versaoPrestador(2L)).isNotEqualTo(versaoDetalhe);
+        assertThat(versoes.versaoListagens()).isEqualTo(versaoListagens);
+        verifyNoInteractions(prestadorRepository);
+    }
+
+    @Test
+    void alteracaoDeAvatar_invalidaSomenteListagensQueContemOPrestador() {
+        String versaoListagens = versoes.versaoListagens();
+
+        invalidador.onPrestadorAlterado(new PrestadorAlteradoEvent(3L, MotivoAlteracao.AVATAR));
+
+        assertThat(versoes.versaoListagens()).isNotEqualTo(versaoListagens);
+        assertThat(lista.get(chave(CategoriaAtuacao.ELETRICISTA, "São Paulo"))).isNull();
+        assertThat(lista.get(chave(CategoriaAtuacao.LIMPEZA, "São Paulo"))).isNotNull();
+        assertThat(lista.get(chave(null, "Rio de Janeiro"))).isNotNull();
+    }
+
+    private void popular(RegistroChavesCatalogo registro, CategoriaAtuacao categoria, String cidade, List<Long> ids) {
+        registro.registrar(keyGenerator.chave(categoria, cidade, null, null, null, null, null), ids);
+        lista.put(chave(categoria, cidade), List.copyOf(ids));
+    }
+
+    private String chave(CategoriaAtuacao categoria, String cidade) {
+        return keyGenerator.chave(categoria, cidade, null, null, null, null, null).valor();
+    }
+}
@@ -1,6 +1,6 @@
 "use client";
 
-import { useCallback, useEffect, useState } from "react";
+import { useCallback, useEffect, useRef, useState } from "react";
 import { useRouter } from "next/navigation";
 import { useAuth } from "@/providers/auth-provider";
 import { agendamentosApi, avaliacoesApi, chatApi, type Agendamento, ApiError } from "@/lib/api";
@@ -42,6 +42,9 @@ const statusConfig: Record<
 
 const tabs = ["todos", "solicitado", "agendado", "em_andamento", "concluido"];
 
+/** Itens por página; as seguintes vêm pelo cursor em "Carregar mais". */
+const TAMANHO_PAGINA = "20";
+
 function isStatus(ag: Agendamento, key: string): boolean {
   const s = ag.status?.toUpperCase?.() ?? ag.status;
   if (key === "solicitado") return s === "PENDENTE";
@@ -58,6 +61,10 @@ export default function AgendamentosPage() {
   const [agendamentos, setAgendamentos] = useState<Agendamento[]>([]);
   const [loading, setLoading] = useState(true);
   const [tabAtiva, setTabAtiva] = useState("todos");
+  const [proximoCursor, setProximoCursor] = useState<string | null>(null);
+  const [carregandoMais, setCarregandoMais] = useState(false);
+  // Aba da listagem atual: descarta páginas que chegam depois de trocar de aba
+  const tabDaLista = useRef(tabAtiva);
 
   // Confirmar pagamento (loading por agendamento)
   const [confirmarPagamentoLoading, setConfirmarPagamentoLoading] = useState<string | null>(null);
@@ -78,11 +85,13 @@ export default function AgendamentosPage() {
   const fetchAgendamentos = useCallback(async () => {
     if (!token) return;
     setLoading(true);
+    tabDaLista.current = tabAtiva;
     try {
-      const params: Record<string, string> = {};
+      const params: Record<string, string> = { size: TAMANHO_PAGINA };
       if (tabAtiva !== "todos") params.status = tabAtiva;
-      const data = await agendamentosApi.listar(token, params);
-      setAgendamentos(data);
+      const pagina = await agendamentosApi.listar(token, params);
+      setAgendamentos(pagina.itens);
+      setProximoCursor(pagina.proximoCursor);
     } catch {
       // silently handle
     } finally {
@@ -90,6 +99,24 @@ export default function AgendamentosPage() {
     }
   }, [token, tabAtiva]);
 
+  const carregarMais = async () => {
+    if (!token || !proximoCursor) return;
+    const tab = tabAtiva;
+    setCarregandoMais(true);
+    try {
+      const params: Record<string, string> = { size: TAMANHO_PAGINA, cursor: proximoCursor };
+      if (tab !== "todos") params.status = tab;
+      const pagina = await agendamentosApi.listar(token, params);
+      if (tabDaLista.current !== tab) return;
+      setAgendamentos((prev) => [...prev, ...pagina.itens]);
+      setProximoCursor(pagina.proximoCursor);
+    } catch {
+      toast("Erro ao carregar mais agendamentos", "error");
+    } finally {
+      setCarregandoMais(false);
+    }
+  };
+
   useEffect(() => {
     fetchAgendamentos();
   }, [fetchAgendamentos]);
@@ -413,6 +440,12 @@ export default function AgendamentosPage() {
             );
           })
         )}
+
+        {!loading && proximoCursor && (
+          <Button variant="outline" onClick={carregarMais} loading={carregandoMais}>
+            Carregar mais
+          </Button>
+        )}
       </div>
 
       {/* ───── Bottom Sheet de Avaliação ───── */}
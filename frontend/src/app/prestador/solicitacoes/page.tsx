@@ -50,6 +50,9 @@ const tabToStatus: Record<string, string> = {
 
 type TabKey = "solicitado" | "agendado" | "em_andamento" | "concluido";
 
+/** Itens por página; as seguintes vêm pelo cursor em "Carregar mais". */
+const TAMANHO_PAGINA = "20";
+
 function isStatus(ag: Agendamento, key: string): boolean {
   const s = ag.status?.toUpperCase?.() ?? ag.status;
   if (key === "solicitado") return s === "PENDENTE";
@@ -65,6 +68,10 @@ export default function SolicitacoesPage() {
   const [agendamentos, setAgendamentos] = useState<Agendamento[]>([]);
   const [loading, setLoading] = useState(true);
   const [tab, setTab] = useState<TabKey>("solicitado");
+  const [proximoCursor, setProximoCursor] = useState<string | null>(null);
+  const [carregandoMais, setCarregandoMais] = useState(false);
+  // Aba da listagem atual: descarta páginas que chegam depois de trocar de aba
+  const tabDaLista = useRef<TabKey>(tab);
   const [actionLoading, setActionLoading] = useState<string | null>(null);
   const [checkoutAgendamento, setCheckoutAgendamento] = useState<Agendamento | null>(null);
   const [checkoutFoto, setCheckoutFoto] = useState<File | null>(null);
@@ -73,13 +80,14 @@ export default function SolicitacoesPage() {
   const fetchAgendamentos = useCallback(async () => {
     if (!token) return;
     setLoading(true);
+    tabDaLista.current = tab;
     try {
+      const params: Record<string, string> = { size: TAMANHO_PAGINA };
       const statusParam = tabToStatus[tab];
-      const data = await prestadoresApi.solicitacoes(
-        token,
-        statusParam ? { status: statusParam } : undefined
-      );
-      setAgendamentos(data);
+      if (statusParam) params.status = statusParam;
+      const pagina = await prestadoresApi.solicitacoes(token, params);
+      setAgendamentos(pagina.itens);
+      setProximoCursor(pagina.proximoCursor);
     } catch {
       // silently handle
     } finally {
@@ -87,6 +95,25 @@ export default function SolicitacoesPage() {
     }
   }, [token, tab]);
 
+  const carregarMais = async () => {
+    if (!token || !proximoCursor) return;
+    const tabAtual = tab;
+    setCarregandoMais(true);
+    try {
+      const params: Record<string, string> = { size: TAMANHO_PAGINA, cursor: proximoCursor };
+      const statusParam = tabToStatus[tabAtual];
+      if (statusParam) params.status = statusParam;
+      const pagina = await prestadoresApi.solicitacoes(token, params);
+      if (tabDaLista.current !== tabAtual) return;
+      setAgendamentos((prev) => [...prev, ...pagina.itens]);
+      setProximoCursor(pagina.proximoCursor);
+    } catch {
+      toast("Erro ao carregar mais solicitações", "error");
+    } finally {
+      setCarregandoMais(false);
+    }
+  };
+
   useEffect(() => {
     fetchAgendamentos();
   }, [fetchAgendamentos]);
@@ -376,6 +403,12 @@ export default function SolicitacoesPage() {
             );
           })
         )}
+
+        {!loading && proximoCursor && (
+          <Button variant="outline" onClick={carregarMais} loading={carregandoMais}>
+            Carregar mais
+          </Button>
+        )}
       </div>
 
       {/* Sheet: Checkout com foto do trabalho */}
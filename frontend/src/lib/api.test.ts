@@ -36,13 +36,26 @@ describe("api", () => {
     });
   });
 
-  it("listar returns array on 200", async () => {
+  it("listar returns the page and the next cursor from the header", async () => {
     (fetch as jest.Mock).mockResolvedValueOnce({
       ok: true,
       status: 200,
-      json: () => Promise.resolve({ content: [], totalElements: 0 }),
+      headers: new Headers({ "X-Proximo-Cursor": "abc" }),
+      json: () => Promise.resolve([{ id: "1" }]),
+    });
+    const result = await agendamentosApi.listar("token", { size: "20" });
+    expect(result).toEqual({ itens: [{ id: "1" }], proximoCursor: "abc" });
+    expect((fetch as jest.Mock).mock.calls[0][0]).toContain("/api/agendamentos?size=20");
+  });
+
+  it("listar returns a null cursor on the last page", async () => {
+    (fetch as jest.Mock).mockResolvedValueOnce({
+      ok: true,
+      status: 200,
+      headers: new Headers(),
+      json: () => Promise.resolve([]),
     });
     const result = await agendamentosApi.listar("token");
-    expect(result).toEqual({ content: [], totalElements: 0 });
+    expect(result).toEqual({ itens: [], proximoCursor: null });
   });
 });
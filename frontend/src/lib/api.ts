@@ -17,10 +17,19 @@ class ApiError extends Error {
   }
 }
 
-async function request<T>(
+/** Cabeçalho com o cursor da próxima página nas listagens de agendamentos (ausente na última página). */
+const CABECALHO_PROXIMO_CURSOR = "X-Proximo-Cursor";
+
+/** Página de uma listagem por cursor: itens e o cursor para pedir a próxima, ou null na última. */
+export interface PaginaCursor<T> {
+  itens: T[];
+  proximoCursor: string | null;
+}
+
+async function fetchApi(
   endpoint: string,
   options: RequestOptions = {}
-): Promise<T> {
+): Promise<Response> {
   const { body, token, headers: customHeaders, ...rest } = options;
 
   const headers: Record<string, string> = {
@@ -61,6 +70,15 @@ async function request<T>(
     throw new ApiError(response.status, message, errorData);
   }
 
+  return response;
+}
+
+async function request<T>(
+  endpoint: string,
+  options: RequestOptions = {}
+): Promise<T> {
+  const response = await fetchApi(endpoint, options);
+
   // Handle 204 No Content
   if (response.status === 204) {
     return undefined as T;
@@ -69,6 +87,17 @@ async function request<T>(
   return response.json();
 }
 
+async function requestPagina<T>(
+  endpoint: string,
+  options: RequestOptions = {}
+): Promise<PaginaCursor<T>> {
+  const response = await fetchApi(endpoint, options);
+  return {
+    itens: await response.json(),
+    proximoCursor: response.headers.get(CABECALHO_PROXIMO_CURSOR),
+  };
+}
+
 async function uploadFile(
   endpoint: string,
   file: File,
@@ -243,10 +272,13 @@ export const prestadoresApi = {
   uploadFoto: (token: string, file: File) =>
     uploadFile("/api/prestadores/me/avatar", file, token),
 
-  /** Lista solicitações do prestador (GET /api/prestadores/me/solicitacoes). Params: status = PENDENTE | ACEITO | ... */
+  /**
+   * Lista solicitações do prestador (GET /api/prestadores/me/solicitacoes), uma página por vez.
+   * Params: status = PENDENTE | ACEITO | ..., size e cursor (o proximoCursor da página anterior).
+   */
   solicitacoes: (token: string, params?: Record<string, string>) => {
     const query = params ? "?" + new URLSearchParams(params).toString() : "";
-    return request<Agendamento[]>(`/api/prestadores/me/solicitacoes${query}`, { method: "GET", token });
+    return requestPagina<Agendamento>(`/api/prestadores/me/solicitacoes${query}`, { method: "GET", token });
   },
 
   /** Assinatura: iniciar/gerar link de pagamento (POST /api/prestadores/me/assinatura). */
@@ -347,9 +379,10 @@ export const agendamentosApi = {
   criar: (token: string, data: Record<string, unknown>) =>
     request<Agendamento>("/api/agendamentos", { method: "POST", token, body: data }),
 
+  /** Agendamentos do cliente, uma página por vez. Params: status, size e cursor (o proximoCursor da página anterior). */
   listar: (token: string, params?: Record<string, string>) => {
     const query = params ? "?" + new URLSearchParams(params).toString() : "";
-    return request<Agendamento[]>(`/api/agendamentos${query}`, { method: "GET", token });
+    return requestPagina<Agendamento>(`/api/agendamentos${query}`, { method: "GET", token });
   },
 
   getById: (token: string, id: string) =>